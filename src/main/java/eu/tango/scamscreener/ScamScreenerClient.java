@@ -8,16 +8,20 @@ import eu.tango.scamscreener.ai.ModelUpdateCommandHandler;
 import eu.tango.scamscreener.ai.TrainingCommandHandler;
 import eu.tango.scamscreener.blacklist.BlacklistManager;
 import eu.tango.scamscreener.blacklist.BlacklistAlertService;
+import eu.tango.scamscreener.blacklist.BlacklistTransferService;
+import eu.tango.scamscreener.blacklist.LobbyBlacklistWatcher;
 import eu.tango.scamscreener.client.ClientTickController;
 import eu.tango.scamscreener.commands.ScamScreenerCommands;
 import eu.tango.scamscreener.config.DebugConfig;
-import eu.tango.scamscreener.config.ScamRulesConfig;
 import eu.tango.scamscreener.chat.mute.MutePatternManager;
 import eu.tango.scamscreener.chat.parser.ChatLineParser;
-import eu.tango.scamscreener.chat.trigger.TriggerContext;
 import eu.tango.scamscreener.gui.MainSettingsScreen;
 import eu.tango.scamscreener.pipeline.model.DetectionOutcome;
+import eu.tango.scamscreener.pipeline.core.ChatAdmissionController;
 import eu.tango.scamscreener.pipeline.core.DetectionPipeline;
+import eu.tango.scamscreener.pipeline.core.DetectionPipelineBuilder;
+import eu.tango.scamscreener.pipeline.core.PipelineTrace;
+import eu.tango.scamscreener.pipeline.core.StageProfile;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.core.MessageEventParser;
 import eu.tango.scamscreener.location.LocationService;
@@ -33,6 +37,7 @@ import eu.tango.scamscreener.ui.MessageDispatcher;
 import eu.tango.scamscreener.ui.NotificationService;
 import eu.tango.scamscreener.util.TextUtil;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.message.v1.ClientSendMessageEvents;
@@ -42,6 +47,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import eu.tango.scamscreener.security.EmailSafety;
 import eu.tango.scamscreener.security.DiscordSafety;
 import eu.tango.scamscreener.security.OutgoingMessageGuard;
@@ -59,7 +66,8 @@ public class ScamScreenerClient implements ClientModInitializer {
 	private final LocalAiTrainer localAiTrainer = new LocalAiTrainer();
 	private final ModelUpdateService modelUpdateService = new ModelUpdateService();
 	private final MutePatternManager mutePatternManager = new MutePatternManager();
-	private final DetectionPipeline detectionPipeline = new DetectionPipeline(mutePatternManager, new LocalAiScorer());
+	private final DetectionPipeline detectionPipeline = new DetectionPipelineBuilder(mutePatternManager, new LocalAiScorer()).build();
+	private final ChatAdmissionController admissionController = new ChatAdmissionController(this::runDetection, ScamRules::chatStormConfig);
 	private final LocationService locationService = new LocationService();
 	private final EmailSafety emailSafety = new EmailSafety();
 	private final DiscordSafety discordSafety = new DiscordSafety();
@@ -68,8 +76,8 @@ public class ScamScreenerClient implements ClientModInitializer {
 	private final OutgoingMessageGuard outgoingMessageGuard = new OutgoingMessageGuard(emailSafety, discordSafety, coopAddSafety);
 	private final ModelUpdateCommandHandler modelUpdateCommandHandler = new ModelUpdateCommandHandler(modelUpdateService);
 	private final BypassCommandHandler bypassCommandHandler = new BypassCommandHandler(emailSafety, discordSafety, coopAddSafety);
+	private final BlacklistTransferService blacklistTransferService = new BlacklistTransferService(BLACKLIST);
 	private final TargetResolutionService targetResolutionService = new TargetResolutionService(playerLookup, mojangProfileService, BLACKLIST);
-	private boolean autoLeaveOnBlacklist;
 	private DebugConfig debugConfig;
 	private DebugReporter debugReporter;
 	private BlacklistAlertService blacklistAlertService;
@@ -80,11 +88,14 @@ public class ScamScreenerClient implements ClientModInitializer {
 		INSTANCE = this;
 		BLACKLIST.load();
 		ScamRules.reloadConfig();
-		autoLeaveOnBlacklist = ScamRulesConfig.loadOrCreate().autoLeaveOnBlacklist;
+		ScamRules.watchConfigFile();
 		mutePatternManager.load();
 		loadDebugConfig();
 		debugReporter = new DebugReporter(debugConfig);
-		blacklistAlertService = new BlacklistAlertService(BLACKLIST, playerLookup, debugReporter, () -> autoLeaveOnBlacklist);
+		detectionPipeline.setTrace(PipelineTrace.of(debugReporter::isPipelineEnabled, debugReporter::debugPipeline));
+		blacklistAlertService = new BlacklistAlertService(BLACKLIST, playerLookup, debugReporter, ScamRules::autoLeaveOnBlacklist);
+		LobbyBlacklistWatcher lobbyWatcher = new LobbyBlacklistWatcher(BLACKLIST, blacklistAlertService::sendLobbyWarning);
+		playerLookup.setJoinListener(lobbyWatcher::onPlayerJoined);
 		Runnable openSettingsAction = () -> {
 			Minecraft client = Minecraft.getInstance();
 			if (client == null) {
@@ -98,11 +109,20 @@ public class ScamScreenerClient implements ClientModInitializer {
 		tickController = new ClientTickController(
 			mutePatternManager,
 			detectionPipeline,
+			admissionController,
 			openSettingsAction,
-			locationService
+			locationService,
+			playerLookup,
+			lobbyWatcher
 		);
 		registerCommands();
 		registerHypixelMessageChecks();
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+			ScamRules.flushConfig();
+			BLACKLIST.flush();
+			mojangProfileService.flush();
+			mutePatternManager.flushStats();
+		});
 		ClientTickEvents.END_CLIENT_TICK.register(client ->
 			tickController.onClientTick(client, () -> modelUpdateService.checkForUpdateAsync(MessageDispatcher::reply)));
 	}
@@ -124,12 +144,15 @@ public class ScamScreenerClient implements ClientModInitializer {
 			this::setAllDebug,
 			this::setDebugKey,
 			this::debugStateSnapshot,
-			() -> autoLeaveOnBlacklist,
+			this::pipelineDebugSummary,
+			ScamRules::autoLeaveOnBlacklist,
 			this::setAutoLeaveEnabled,
 			trainingCommandHandler::trainLocalAiModel,
 			trainingCommandHandler::resetLocalAiModel,
 			trainingDataService::lastCapturedLine,
 			ignored -> {},
+			blacklistTransferService::importFile,
+			blacklistTransferService::exportFile,
 			openSettingsHandler,
 			MessageDispatcher::reply
 		);
@@ -149,7 +172,7 @@ public class ScamScreenerClient implements ClientModInitializer {
 			parent,
 			BLACKLIST,
 			mutePatternManager,
-			() -> autoLeaveOnBlacklist,
+			ScamRules::autoLeaveOnBlacklist,
 			this::setAutoLeaveEnabled,
 			this::setAllDebug,
 			this::setDebugKey,
@@ -187,16 +210,13 @@ public class ScamScreenerClient implements ClientModInitializer {
 
 		MessageEvent event = MessageEventParser.parse(plain, System.currentTimeMillis());
 		if (event != null) {
-			detectionPipeline.process(event, MessageDispatcher::reply, NotificationService::playWarningTone)
-				.ifPresent(this::autoAddFlaggedMessageToTrainingData);
+			admissionController.submit(event);
 		}
 		if (BLACKLIST.isEmpty()) {
 			return;
 		}
 
-		for (TriggerContext context : TriggerContext.values()) {
-			blacklistAlertService.checkTriggerAndWarn(plain, context);
-		}
+		blacklistAlertService.checkTriggersAndWarn(plain);
 	}
 
 	private boolean handleChatAllow(Component message) {
@@ -233,11 +253,7 @@ public class ScamScreenerClient implements ClientModInitializer {
 	}
 
 	private void setAutoLeaveEnabled(boolean enabled) {
-		ScamRulesConfig rulesConfig = ScamRulesConfig.loadOrCreate();
-		rulesConfig.autoLeaveOnBlacklist = enabled;
-		ScamRulesConfig.save(rulesConfig);
-		ScamRules.reloadConfig();
-		autoLeaveOnBlacklist = enabled;
+		ScamRules.setAutoLeaveOnBlacklist(enabled);
 	}
 
 	private void setDebugKey(String key, boolean enabled) {
@@ -274,6 +290,18 @@ public class ScamScreenerClient implements ClientModInitializer {
 	}
 
 
+	private void runDetection(MessageEvent event, StageProfile profile) {
+		detectionPipeline.process(event, MessageDispatcher::reply, NotificationService::playWarningTone, profile)
+			.ifPresent(this::autoAddFlaggedMessageToTrainingData);
+	}
+
+	private List<String> pipelineDebugSummary() {
+		List<String> lines = new ArrayList<>(detectionPipeline.debugSummary());
+		lines.addAll(admissionController.debugSummary());
+		lines.addAll(mojangProfileService.debugSummary());
+		return lines;
+	}
+
 	private void autoAddFlaggedMessageToTrainingData(DetectionOutcome outcome) {
 		if (outcome == null || outcome.result() == null || !outcome.result().shouldCapture()) {
 			return;
@@ -284,7 +312,7 @@ public class ScamScreenerClient implements ClientModInitializer {
 		}
 
 		try {
-			trainingDataService.appendDetectedEvent(event, outcome.result(), 1);
+			trainingDataService.appendDetectedEvent(event, outcome.result(), outcome.tagging(), 1);
 		} catch (IOException e) {
 			LOGGER.debug("Failed to auto-save flagged message as training sample", e);
 		}
@@ -0,0 +1,197 @@
+package eu.tango.scamscreener.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compact, memory-mappable cache of the compiled local AI model. The JSON model stays the source of
+ * truth (training script, downloads); this file is rebuilt from it and is only used while the size
+ * and mtime recorded in its header still match the JSON file.
+ *
+ * <pre>
+ * header (72 bytes, little-endian)
+ *   int magic, int formatVersion, int flags, int modelVersion,
+ *   int denseCount, int funnelDenseCount, int tokenCount, int tableCapacity,
+ *   int crc32 (of everything after the header), int reserved,
+ *   long sourceSize, long sourceModifiedMillis,
+ *   double intercept, double funnelIntercept
+ * dense / funnel entries: short nameLength, UTF-8 name, double weight
+ * padding to 8 bytes
+ * token table: long[tableCapacity] feature ids ({@link HashedTokenTable#featureId(String)}), then by encoding (flags = {@link WeightEncoding} ordinal)
+ *   float32: float[tableCapacity]; fp16: short[tableCapacity];
+ *   int8: float[ceil(tableCapacity / 64)] block scales, byte[tableCapacity]
+ * </pre>
+ */
+final class BinaryModelFormat {
+	static final int MAGIC = 0x5353414D;
+	static final int FORMAT_VERSION = 2;
+	static final int HEADER_SIZE = 72;
+	private static final int CRC_OFFSET = 32;
+
+	private BinaryModelFormat() {
+	}
+
+	static void write(
+		Path path,
+		LocalAiScorer.ModelWeights weights,
+		int modelVersion,
+		long sourceSize,
+		long sourceModifiedMillis
+	) throws IOException {
+		byte[][] denseNames = encodeNames(weights.denseFeatureWeights());
+		byte[][] funnelNames = encodeNames(weights.funnelHead().denseFeatureWeights());
+		int entriesSize = entriesSize(denseNames) + entriesSize(funnelNames);
+		int tableOffset = align8(HEADER_SIZE + entriesSize);
+		HashedTokenTable table = weights.tokenWeights();
+		ByteBuffer out = ByteBuffer.allocate(tableOffset + HashedTokenTable.bytesFor(table.capacity(), table.encoding()))
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		out.putInt(MAGIC);
+		out.putInt(FORMAT_VERSION);
+		out.putInt(table.encoding().ordinal());
+		out.putInt(modelVersion);
+		out.putInt(denseNames.length);
+		out.putInt(funnelNames.length);
+		out.putInt(table.size());
+		out.putInt(table.capacity());
+		out.putInt(0);
+		out.putInt(0);
+		out.putLong(sourceSize);
+		out.putLong(sourceModifiedMillis);
+		out.putDouble(weights.intercept());
+		out.putDouble(weights.funnelHead().intercept());
+		putEntries(out, denseNames, weights.denseFeatureWeights());
+		putEntries(out, funnelNames, weights.funnelHead().denseFeatureWeights());
+		out.position(tableOffset);
+		table.writeTo(out);
+
+		CRC32 crc = new CRC32();
+		crc.update(out.array(), HEADER_SIZE, out.capacity() - HEADER_SIZE);
+		out.putInt(CRC_OFFSET, (int) crc.getValue());
+
+		Files.createDirectories(path.getParent());
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(temp, out.array());
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ignored) {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Maps the file and returns its weights, or null when it was built from a different JSON file.
+	 * Throws when the file is truncated, of another format or fails its checksum. The header is read
+	 * before mapping, so a stale or foreign file is never mapped and can be replaced right away.
+	 */
+	static LocalAiScorer.ModelWeights read(Path path, long sourceSize, long sourceModifiedMillis) throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("bad model file size " + channel.size());
+			}
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					throw new IOException("truncated model file header");
+				}
+			}
+			if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+				throw new IOException("unsupported model file format");
+			}
+			if (header.getLong(40) != sourceSize || header.getLong(48) != sourceModifiedMillis) {
+				return null;
+			}
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+		}
+		ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+		CRC32 crc = new CRC32();
+		crc.update(in.slice(HEADER_SIZE, in.capacity() - HEADER_SIZE));
+		if ((int) crc.getValue() != in.getInt(CRC_OFFSET)) {
+			throw new IOException("model file checksum mismatch");
+		}
+
+		int denseCount = in.getInt(16);
+		int funnelCount = in.getInt(20);
+		int tokenCount = in.getInt(24);
+		int capacity = in.getInt(28);
+		int flags = in.getInt(8);
+		if (flags < 0 || flags >= WeightEncoding.values().length) {
+			throw new IOException("unknown token weight encoding " + flags);
+		}
+		WeightEncoding encoding = WeightEncoding.values()[flags];
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IOException("bad token table capacity " + capacity);
+		}
+		double intercept = in.getDouble(56);
+		double funnelIntercept = in.getDouble(64);
+		in.position(HEADER_SIZE);
+		Map<String, Double> dense = readEntries(in, denseCount);
+		Map<String, Double> funnel = readEntries(in, funnelCount);
+		in.position(align8(in.position()));
+		if (in.remaining() < HashedTokenTable.bytesFor(capacity, encoding)) {
+			throw new IOException("truncated token table");
+		}
+		HashedTokenTable table = HashedTokenTable.wrap(in, capacity, tokenCount, encoding);
+		return new LocalAiScorer.ModelWeights(
+			intercept,
+			Collections.unmodifiableMap(dense),
+			table,
+			new LocalAiScorer.DenseHeadWeights(funnelIntercept, Collections.unmodifiableMap(funnel))
+		);
+	}
+
+	private static byte[][] encodeNames(Map<String, Double> weights) {
+		byte[][] names = new byte[weights.size()][];
+		int i = 0;
+		for (String name : weights.keySet()) {
+			names[i++] = name.getBytes(StandardCharsets.UTF_8);
+		}
+		return names;
+	}
+
+	private static int entriesSize(byte[][] names) {
+		int size = 0;
+		for (byte[] name : names) {
+			size += Short.BYTES + name.length + Double.BYTES;
+		}
+		return size;
+	}
+
+	private static void putEntries(ByteBuffer out, byte[][] names, Map<String, Double> weights) {
+		int i = 0;
+		for (Double weight : weights.values()) {
+			byte[] name = names[i++];
+			out.putShort((short) name.length);
+			out.put(name);
+			out.putDouble(weight == null ? 0.0 : weight);
+		}
+	}
+
+	private static Map<String, Double> readEntries(ByteBuffer in, int count) {
+		Map<String, Double> out = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			byte[] name = new byte[Short.toUnsignedInt(in.getShort())];
+			in.get(name);
+			out.put(new String(name, StandardCharsets.UTF_8), in.getDouble());
+		}
+		return out;
+	}
+
+	private static int align8(int offset) {
+		return (offset + 7) & ~7;
+	}
+}
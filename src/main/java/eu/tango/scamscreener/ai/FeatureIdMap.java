@@ -0,0 +1,78 @@
+package eu.tango.scamscreener.ai;
+
+import java.util.Arrays;
+
+/**
+ * Primitive map from a 64-bit feature id to a dense index (0, 1, 2, ... in insertion order).
+ * Used instead of {@code Map<String, ...>} so corpus-wide feature statistics do not keep a string per n-gram.
+ */
+final class FeatureIdMap {
+	private long[] keys = new long[64];
+	private int[] indexes = new int[64];
+	private long[] ids = new long[32];
+	private int size;
+
+	/**
+	 * Dense index of {@code id}, or -1 when it was never interned. {@code id} must not be 0.
+	 */
+	int indexOf(long id) {
+		int mask = keys.length - 1;
+		int slot = (int) mix(id) & mask;
+		while (keys[slot] != 0L) {
+			if (keys[slot] == id) {
+				return indexes[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Dense index of {@code id}, adding it when it is new. {@code id} must not be 0.
+	 */
+	int intern(long id) {
+		int existing = indexOf(id);
+		if (existing >= 0) {
+			return existing;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			grow();
+		}
+		insert(id, size);
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, ids.length * 2);
+		}
+		ids[size] = id;
+		return size++;
+	}
+
+	long idAt(int index) {
+		return ids[index];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void insert(long id, int index) {
+		int mask = keys.length - 1;
+		int slot = (int) mix(id) & mask;
+		while (keys[slot] != 0L) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = id;
+		indexes[slot] = index;
+	}
+
+	private void grow() {
+		keys = new long[keys.length * 2];
+		indexes = new int[indexes.length * 2];
+		for (int i = 0; i < size; i++) {
+			insert(ids[i], i);
+		}
+	}
+
+	private static long mix(long id) {
+		return id ^ (id >>> 32);
+	}
+}
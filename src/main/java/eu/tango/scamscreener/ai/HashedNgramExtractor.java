@@ -0,0 +1,175 @@
+package eu.tango.scamscreener.ai;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free counterpart of {@link TokenFeatureExtractor#extractFeatureTokens(String)}: instead of
+ * building {@code "ngN:a b"} strings it computes each 2- to 5-gram as a 64-bit id over per-word FNV-1a
+ * ids, sliding a window of the last five words along the message. {@link #ngramId(String)} maps a
+ * string feature to the same id, so weights trained or stored by string can be looked up by id.
+ *
+ * <p>Words follow the same rule as the string extractor ({@code [a-z0-9_]{3,24}} after lower-casing;
+ * case folding is done per char).
+ */
+final class HashedNgramExtractor {
+	private static final int MIN_WORD_LENGTH = 3;
+	private static final int MAX_WORD_LENGTH = 24;
+	private static final int MAX_NGRAM = 5;
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final ThreadLocal<HashedNgramExtractor> PER_THREAD = ThreadLocal.withInitial(HashedNgramExtractor::new);
+
+	private long[] ids = new long[64];
+	private int count;
+	// Sliding window of word ids, newest first.
+	private long w1;
+	private long w2;
+	private long w3;
+	private long w4;
+	private int wordsSeen;
+
+	/**
+	 * Reusable extractor of the calling thread; ids are valid until its next {@link #extract(String)}.
+	 */
+	static HashedNgramExtractor forCurrentThread() {
+		return PER_THREAD.get();
+	}
+
+	/**
+	 * Collects the distinct n-gram ids of {@code text} (sorted) and returns how many there are.
+	 */
+	int extract(String text) {
+		count = 0;
+		wordsSeen = 0;
+		if (text == null || text.isEmpty()) {
+			return 0;
+		}
+
+		long wordHash = FNV_OFFSET;
+		int wordLength = 0;
+		for (int i = 0; i <= text.length(); i++) {
+			char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+			if (isWordChar(c)) {
+				wordHash = (wordHash ^ c) * FNV_PRIME;
+				wordLength++;
+				if (wordLength == MAX_WORD_LENGTH) {
+					acceptWord(wordHash);
+					wordHash = FNV_OFFSET;
+					wordLength = 0;
+				}
+				continue;
+			}
+			if (wordLength >= MIN_WORD_LENGTH) {
+				acceptWord(wordHash);
+			}
+			wordHash = FNV_OFFSET;
+			wordLength = 0;
+		}
+
+		if (count > 1) {
+			Arrays.sort(ids, 0, count);
+			int unique = 1;
+			for (int i = 1; i < count; i++) {
+				if (ids[i] != ids[unique - 1]) {
+					ids[unique++] = ids[i];
+				}
+			}
+			count = unique;
+		}
+		return count;
+	}
+
+	long id(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Id of a string feature such as {@code "ng3:free rank now"}; 0 when the string is not an n-gram
+	 * feature produced by {@link TokenFeatureExtractor}.
+	 */
+	static long ngramId(String feature) {
+		if (feature == null || feature.length() < 5 || !feature.startsWith("ng") || feature.charAt(3) != ':') {
+			return 0L;
+		}
+		int n = feature.charAt(2) - '0';
+		if (n < 2 || n > MAX_NGRAM) {
+			return 0L;
+		}
+		long[] words = new long[n];
+		int found = 0;
+		long wordHash = FNV_OFFSET;
+		int wordLength = 0;
+		for (int i = 4; i <= feature.length(); i++) {
+			char c = i < feature.length() ? feature.charAt(i) : ' ';
+			if (c != ' ') {
+				wordHash = (wordHash ^ c) * FNV_PRIME;
+				wordLength++;
+				continue;
+			}
+			if (wordLength == 0 || found == n) {
+				return 0L;
+			}
+			words[found++] = wordHash;
+			wordHash = FNV_OFFSET;
+			wordLength = 0;
+		}
+		if (found != n) {
+			return 0L;
+		}
+		long hash = seed(n);
+		for (long word : words) {
+			hash = combine(hash, word);
+		}
+		return finish(hash);
+	}
+
+	private void acceptWord(long wordId) {
+		wordsSeen++;
+		if (wordsSeen >= 2) {
+			add(finish(combine(combine(seed(2), w1), wordId)));
+		}
+		if (wordsSeen >= 3) {
+			add(finish(combine(combine(combine(seed(3), w2), w1), wordId)));
+		}
+		if (wordsSeen >= 4) {
+			add(finish(combine(combine(combine(combine(seed(4), w3), w2), w1), wordId)));
+		}
+		if (wordsSeen >= 5) {
+			add(finish(combine(combine(combine(combine(combine(seed(5), w4), w3), w2), w1), wordId)));
+		}
+		w4 = w3;
+		w3 = w2;
+		w2 = w1;
+		w1 = wordId;
+	}
+
+	private void add(long id) {
+		if (count == ids.length) {
+			ids = Arrays.copyOf(ids, ids.length * 2);
+		}
+		ids[count++] = id;
+	}
+
+	private static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private static long seed(int n) {
+		return FNV_OFFSET ^ (n * 0x9E3779B97F4A7C15L);
+	}
+
+	private static long combine(long hash, long wordId) {
+		return (hash ^ wordId) * FNV_PRIME + Long.rotateLeft(hash, 27);
+	}
+
+	/**
+	 * SplitMix64 finaliser; 0 is reserved for "no id".
+	 */
+	private static long finish(long hash) {
+		long z = hash;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return z == 0L ? 1L : z;
+	}
+}
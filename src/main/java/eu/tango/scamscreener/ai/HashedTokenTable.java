@@ -0,0 +1,224 @@
+package eu.tango.scamscreener.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Map;
+
+/**
+ * Open-addressing table from a 64-bit token hash to a weight. Token strings are not kept;
+ * the table lives in one {@link ByteBuffer} so it can sit on the heap or inside a mapped model file.
+ * Weights are stored as float32 or quantised ({@link WeightEncoding}) and dequantised on lookup.
+ */
+final class HashedTokenTable {
+	static final HashedTokenTable EMPTY = from(Map.of());
+	private static final int MIN_CAPACITY = 16;
+
+	private final LongBuffer hashes;
+	private final ByteBuffer weights;
+	private final ByteBuffer scales;
+	private final WeightEncoding encoding;
+	private final int mask;
+	private final int size;
+
+	private HashedTokenTable(LongBuffer hashes, ByteBuffer weights, ByteBuffer scales, WeightEncoding encoding, int size) {
+		this.hashes = hashes;
+		this.weights = weights;
+		this.scales = scales;
+		this.encoding = encoding;
+		this.mask = hashes.capacity() - 1;
+		this.size = size;
+	}
+
+	static HashedTokenTable from(Map<String, Double> tokenWeights) {
+		return from(tokenWeights, WeightEncoding.FLOAT32);
+	}
+
+	static HashedTokenTable from(Map<String, Double> tokenWeights, WeightEncoding encoding) {
+		int capacity = capacityFor(tokenWeights.size());
+		int mask = capacity - 1;
+		long[] slotHashes = new long[capacity];
+		float[] slotWeights = new float[capacity];
+		int size = 0;
+		for (Map.Entry<String, Double> entry : tokenWeights.entrySet()) {
+			if (entry.getKey() == null || entry.getValue() == null) {
+				continue;
+			}
+			long hash = featureId(entry.getKey());
+			int slot = (int) hash & mask;
+			while (slotHashes[slot] != 0L && slotHashes[slot] != hash) {
+				slot = (slot + 1) & mask;
+			}
+			if (slotHashes[slot] == 0L) {
+				size++;
+			}
+			slotHashes[slot] = hash;
+			slotWeights[slot] = entry.getValue().floatValue();
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(bytesFor(capacity, encoding)).order(ByteOrder.LITTLE_ENDIAN);
+		for (long hash : slotHashes) {
+			buffer.putLong(hash);
+		}
+		putWeights(buffer, slotWeights, encoding);
+		buffer.flip();
+		return wrap(buffer, capacity, size, encoding);
+	}
+
+	/**
+	 * Wraps {@code capacity} hash slots followed by the encoded weights starting at the
+	 * buffer's position. No data is copied.
+	 */
+	static HashedTokenTable wrap(ByteBuffer buffer, int capacity, int size, WeightEncoding encoding) {
+		int start = buffer.position();
+		int hashBytes = capacity * Long.BYTES;
+		LongBuffer hashes = buffer.slice(start, hashBytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+		int weightStart = start + hashBytes;
+		ByteBuffer scales = null;
+		if (encoding == WeightEncoding.INT8) {
+			int scaleBytes = WeightEncoding.scaleBlocks(capacity) * Float.BYTES;
+			scales = buffer.slice(weightStart, scaleBytes).order(ByteOrder.LITTLE_ENDIAN);
+			weightStart += scaleBytes;
+		}
+		ByteBuffer weights = buffer.slice(weightStart, capacity * encoding.slotBytes()).order(ByteOrder.LITTLE_ENDIAN);
+		return new HashedTokenTable(hashes, weights, scales, encoding, size);
+	}
+
+	/**
+	 * Weight of {@code token}, or NaN when the model has no weight for it.
+	 */
+	double weight(String token) {
+		return weightById(featureId(token));
+	}
+
+	/**
+	 * Weight for a {@link #featureId(String)} / {@link HashedNgramExtractor} id, or NaN.
+	 */
+	double weightById(long hash) {
+		int slot = (int) hash & mask;
+		while (true) {
+			long stored = hashes.get(slot);
+			if (stored == hash) {
+				return slotWeight(slot);
+			}
+			if (stored == 0L) {
+				return Double.NaN;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+
+	WeightEncoding encoding() {
+		return encoding;
+	}
+
+	/**
+	 * Same tokens re-encoded with {@code target}. Quantising an already quantised table compounds the error.
+	 */
+	HashedTokenTable reencode(WeightEncoding target) {
+		if (target == encoding) {
+			return this;
+		}
+		int capacity = capacity();
+		ByteBuffer buffer = ByteBuffer.allocate(bytesFor(capacity, target)).order(ByteOrder.LITTLE_ENDIAN);
+		float[] slotWeights = new float[capacity];
+		for (int i = 0; i < capacity; i++) {
+			buffer.putLong(hashes.get(i));
+			slotWeights[i] = hashes.get(i) == 0L ? 0.0f : (float) slotWeight(i);
+		}
+		putWeights(buffer, slotWeights, target);
+		buffer.flip();
+		return wrap(buffer, capacity, size, target);
+	}
+
+	void writeTo(ByteBuffer out) {
+		for (int i = 0; i < capacity(); i++) {
+			out.putLong(hashes.get(i));
+		}
+		if (scales != null) {
+			out.put(scales.duplicate().clear());
+		}
+		out.put(weights.duplicate().clear());
+	}
+
+	static int bytesFor(int capacity, WeightEncoding encoding) {
+		return capacity * Long.BYTES + encoding.weightBytes(capacity);
+	}
+
+	static int capacityFor(int entries) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < entries * 2) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Table key of a token: the {@link HashedNgramExtractor#ngramId(String)} for n-gram features so
+	 * messages can be scored without building n-gram strings, FNV-1a for anything else.
+	 */
+	static long featureId(String token) {
+		long ngramId = HashedNgramExtractor.ngramId(token);
+		return ngramId != 0L ? ngramId : hash(token);
+	}
+
+	/**
+	 * FNV-1a over the UTF-16 chars; 0 marks an empty slot, so it is remapped.
+	 */
+	static long hash(String token) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < token.length(); i++) {
+			hash ^= token.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash == 0L ? 1L : hash;
+	}
+
+	private double slotWeight(int slot) {
+		return switch (encoding) {
+			case FLOAT32 -> weights.getFloat(slot * Float.BYTES);
+			case FP16 -> WeightEncoding.halfToFloat(weights.getShort(slot * Short.BYTES));
+			case INT8 -> weights.get(slot) * scales.getFloat((slot / WeightEncoding.INT8_BLOCK_SIZE) * Float.BYTES);
+		};
+	}
+
+	private static void putWeights(ByteBuffer out, float[] slotWeights, WeightEncoding encoding) {
+		switch (encoding) {
+			case FLOAT32 -> {
+				for (float weight : slotWeights) {
+					out.putFloat(weight);
+				}
+			}
+			case FP16 -> {
+				for (float weight : slotWeights) {
+					out.putShort(WeightEncoding.floatToHalf(weight));
+				}
+			}
+			case INT8 -> {
+				int blocks = WeightEncoding.scaleBlocks(slotWeights.length);
+				float[] blockScales = new float[blocks];
+				for (int block = 0; block < blocks; block++) {
+					float maxAbs = 0.0f;
+					int end = Math.min(slotWeights.length, (block + 1) * WeightEncoding.INT8_BLOCK_SIZE);
+					for (int i = block * WeightEncoding.INT8_BLOCK_SIZE; i < end; i++) {
+						maxAbs = Math.max(maxAbs, Math.abs(slotWeights[i]));
+					}
+					blockScales[block] = maxAbs == 0.0f ? 1.0f : maxAbs / 127.0f;
+					out.putFloat(blockScales[block]);
+				}
+				for (int i = 0; i < slotWeights.length; i++) {
+					float scale = blockScales[i / WeightEncoding.INT8_BLOCK_SIZE];
+					out.put((byte) Math.max(-127, Math.min(127, Math.round(slotWeights[i] / scale))));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package eu.tango.scamscreener.ai;
+
+import eu.tango.scamscreener.config.LocalAiModelConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Owns the one live local AI model. Loading, validation and weight compilation run on a background
+ * executor; scorers only read the current immutable {@link ModelSnapshot} and never touch the disk.
+ * When an up-to-date binary copy exists it is memory-mapped instead of parsing the JSON.
+ */
+public final class LocalAiModelRegistry {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LocalAiModelRegistry.class);
+	private static final LocalAiModelRegistry SHARED = createShared();
+
+	private final Path path;
+	private final Path binaryPath;
+	private final Supplier<LocalAiModelConfig> loader;
+	private final Executor executor;
+	private final AtomicReference<ModelSnapshot> current;
+	private final AtomicBoolean reloadQueued = new AtomicBoolean();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong skippedUnchanged = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong binaryLoads = new AtomicLong();
+	private volatile FileStamp loadedStamp;
+
+	public LocalAiModelRegistry(Path path, Supplier<LocalAiModelConfig> loader, Executor executor) {
+		this(path, null, loader, executor);
+	}
+
+	/**
+	 * {@code binaryPath} may be null; otherwise it holds a {@link BinaryModelFormat} copy of the JSON
+	 * model that is mapped instead of parsing the JSON while it is up to date.
+	 */
+	public LocalAiModelRegistry(Path path, Path binaryPath, Supplier<LocalAiModelConfig> loader, Executor executor) {
+		this.path = path;
+		this.binaryPath = binaryPath;
+		this.loader = loader;
+		this.executor = executor;
+		this.current = new AtomicReference<>(new ModelSnapshot(0L, LocalAiScorer.ModelWeights.from(new LocalAiModelConfig())));
+	}
+
+	/**
+	 * Registry used by the client; the model file is loaded in the background on first use.
+	 */
+	public static LocalAiModelRegistry shared() {
+		return SHARED;
+	}
+
+	public ModelSnapshot current() {
+		return current.get();
+	}
+
+	/**
+	 * Queues a background reload. The file is only parsed if its size or modification time changed
+	 * since the last load; requests arriving while a reload is queued are folded into it.
+	 */
+	public void requestReload() {
+		if (!reloadQueued.compareAndSet(false, true)) {
+			return;
+		}
+		executor.execute(() -> {
+			reloadQueued.set(false);
+			reloadIfChanged();
+		});
+	}
+
+	public long loads() {
+		return loads.get();
+	}
+
+	public long skippedUnchanged() {
+		return skippedUnchanged.get();
+	}
+
+	public long rejected() {
+		return rejected.get();
+	}
+
+	/**
+	 * Loads served from the binary model file instead of the JSON.
+	 */
+	public long binaryLoads() {
+		return binaryLoads.get();
+	}
+
+	private void reloadIfChanged() {
+		FileStamp stamp = FileStamp.of(path);
+		if (stamp != null && stamp.equals(loadedStamp)) {
+			skippedUnchanged.incrementAndGet();
+			return;
+		}
+
+		LocalAiScorer.ModelWeights mapped = readBinary(stamp);
+		if (mapped != null) {
+			publish(mapped, stamp);
+			binaryLoads.incrementAndGet();
+			return;
+		}
+
+		LocalAiModelConfig config;
+		try {
+			config = loader.get();
+		} catch (RuntimeException e) {
+			rejected.incrementAndGet();
+			LOGGER.warn("Failed to load local AI model {}", path, e);
+			return;
+		}
+		String problem = validate(config);
+		if (problem != null) {
+			rejected.incrementAndGet();
+			LOGGER.warn("Rejected local AI model {}: {}", path, problem);
+			return;
+		}
+
+		LocalAiScorer.ModelWeights weights = LocalAiScorer.ModelWeights.from(config);
+		// Stamp after loading: the loader may have created the file with defaults.
+		FileStamp loaded = FileStamp.of(path);
+		publish(weights, loaded);
+		writeBinary(weights, config.version, loaded);
+	}
+
+	private void publish(LocalAiScorer.ModelWeights weights, FileStamp stamp) {
+		current.updateAndGet(previous -> new ModelSnapshot(previous.version() + 1L, weights));
+		loadedStamp = stamp;
+		loads.incrementAndGet();
+	}
+
+	private LocalAiScorer.ModelWeights readBinary(FileStamp stamp) {
+		if (binaryPath == null || stamp == null || !Files.exists(binaryPath)) {
+			return null;
+		}
+		try {
+			return BinaryModelFormat.read(binaryPath, stamp.size(), stamp.modifiedMillis());
+		} catch (IOException | RuntimeException e) {
+			LOGGER.debug("Ignoring binary model {}", binaryPath, e);
+			return null;
+		}
+	}
+
+	private void writeBinary(LocalAiScorer.ModelWeights weights, int modelVersion, FileStamp stamp) {
+		if (binaryPath == null || stamp == null) {
+			return;
+		}
+		try {
+			BinaryModelFormat.write(binaryPath, weights, modelVersion, stamp.size(), stamp.modifiedMillis());
+		} catch (IOException e) {
+			// On Windows the file backing the model in use stays mapped and cannot be replaced until it is collected.
+			LOGGER.debug("Failed to write binary model {}", binaryPath, e);
+		}
+	}
+
+	static String validate(LocalAiModelConfig config) {
+		if (config == null) {
+			return "unreadable model";
+		}
+		if (!Double.isFinite(config.intercept)) {
+			return "intercept is not finite";
+		}
+		String dense = firstInvalidWeight(config.denseFeatureWeights);
+		if (dense != null) {
+			return "dense weight " + dense + " is not finite";
+		}
+		String token = firstInvalidWeight(config.tokenWeights);
+		if (token != null) {
+			return "token weight " + token + " is not finite";
+		}
+		if (config.funnelHead != null) {
+			String funnel = firstInvalidWeight(config.funnelHead.denseFeatureWeights);
+			if (funnel != null) {
+				return "funnel weight " + funnel + " is not finite";
+			}
+		}
+		return null;
+	}
+
+	private static String firstInvalidWeight(Map<String, Double> weights) {
+		if (weights == null) {
+			return null;
+		}
+		for (Map.Entry<String, Double> entry : weights.entrySet()) {
+			if (entry.getKey() == null || entry.getValue() == null || !Double.isFinite(entry.getValue())) {
+				return String.valueOf(entry.getKey());
+			}
+		}
+		return null;
+	}
+
+	private static LocalAiModelRegistry createShared() {
+		Executor executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scamscreener-model-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		LocalAiModelRegistry registry = new LocalAiModelRegistry(
+			LocalAiModelConfig.filePath(),
+			LocalAiModelConfig.binaryFilePath(),
+			LocalAiModelConfig::loadOrCreate,
+			executor
+		);
+		registry.requestReload();
+		return registry;
+	}
+
+	/**
+	 * One published model. {@code version} increases with every successful load and is what
+	 * caches of token scores are keyed on.
+	 */
+	public record ModelSnapshot(long version, LocalAiScorer.ModelWeights weights) {
+	}
+
+	private record FileStamp(long size, long modifiedMillis) {
+		private static FileStamp of(Path path) {
+			try {
+				if (!Files.exists(path)) {
+					return null;
+				}
+				return new FileStamp(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+			} catch (IOException ignored) {
+				return null;
+			}
+		}
+	}
+}
@@ -4,44 +4,72 @@ import eu.tango.scamscreener.config.LocalAiModelConfig;
 import eu.tango.scamscreener.rules.ScamRules;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public final class LocalAiScorer {
 	private static final Set<String> FUNNEL_ONLY_DENSE_FEATURES = Set.copyOf(AiFeatureSpace.FUNNEL_DENSE_FEATURE_NAMES);
-	private volatile ModelWeights model = ModelWeights.from(LocalAiModelConfig.loadOrCreate());
+	private final LocalAiModelRegistry registry;
 
-	public void reloadModel() {
-		model = ModelWeights.from(LocalAiModelConfig.loadOrCreate());
+	public LocalAiScorer() {
+		this(LocalAiModelRegistry.shared());
+	}
+
+	public LocalAiScorer(LocalAiModelRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Version of the live model snapshot; cached {@link #tokenScore(String)} values are only valid for one generation.
+	 */
+	public long modelGeneration() {
+		return registry.current().version();
+	}
+
+	/**
+	 * Token part of the linear score. It depends only on the lower-cased message, so callers may memoize it.
+	 */
+	public double tokenScore(String message) {
+		return tokenContribution(message, registry.current().weights().tokenWeights());
 	}
 
 	public AiResult score(ScamRules.BehaviorContext context, int maxScore, double triggerProbability) {
+		return score(context, maxScore, triggerProbability, Double.NaN);
+	}
+
+	/**
+	 * Same as {@link #score(ScamRules.BehaviorContext, int, double)} but reuses a precomputed
+	 * {@link #tokenScore(String)}; pass NaN to compute it.
+	 */
+	public AiResult score(ScamRules.BehaviorContext context, int maxScore, double triggerProbability, double tokenScore) {
 		ScamRules.BehaviorContext safeContext = context == null ? emptyContext() : context;
 		Map<String, Double> denseFeatures = AiFeatureSpace.extractDenseFeatures(safeContext);
-		ModelWeights w = model;
-		double linear = w.intercept;
+		ModelWeights w = registry.current().weights();
+		double linear = w.intercept();
 		for (Map.Entry<String, Double> entry : denseFeatures.entrySet()) {
-			Double weight = w.denseFeatureWeights.get(entry.getKey());
+			Double weight = w.denseFeatureWeights().get(entry.getKey());
 			if (weight == null) {
 				continue;
 			}
 			linear += entry.getValue() * weight;
 		}
-		linear += tokenContribution(safeContext.message(), w.tokenWeights);
+		linear += Double.isNaN(tokenScore) ? tokenContribution(safeContext.message(), w.tokenWeights()) : tokenScore;
 
 		double probability = sigmoid(linear);
 		int rawScore = (int) Math.round(probability * clampScore(maxScore));
 		boolean triggered = probability >= clampProbability(triggerProbability);
 		int appliedScore = triggered ? rawScore : 0;
-		String explanation = buildExplanation(
+		Supplier<String> explanation = () -> buildExplanation(
 			safeContext.message(),
 			denseFeatures,
-			w.denseFeatureWeights,
-			w.tokenWeights,
+			w.denseFeatureWeights(),
+			w.tokenWeights(),
 			null,
 			true
 		);
@@ -52,13 +80,13 @@ public final class LocalAiScorer {
 	public AiResult scoreFunnelOnly(ScamRules.BehaviorContext context, int maxScore, double triggerProbability) {
 		ScamRules.BehaviorContext safeContext = context == null ? emptyContext() : context;
 		Map<String, Double> denseFeatures = AiFeatureSpace.extractDenseFeatures(safeContext);
-		ModelWeights w = model;
-		double linear = w.funnelHead.intercept();
+		ModelWeights w = registry.current().weights();
+		double linear = w.funnelHead().intercept();
 		for (Map.Entry<String, Double> entry : denseFeatures.entrySet()) {
 			if (!FUNNEL_ONLY_DENSE_FEATURES.contains(entry.getKey())) {
 				continue;
 			}
-			Double weight = w.funnelHead.denseFeatureWeights().get(entry.getKey());
+			Double weight = w.funnelHead().denseFeatureWeights().get(entry.getKey());
 			if (weight == null) {
 				continue;
 			}
@@ -69,10 +97,10 @@ public final class LocalAiScorer {
 		int rawScore = (int) Math.round(probability * clampScore(maxScore));
 		boolean triggered = probability >= clampProbability(triggerProbability);
 		int appliedScore = triggered ? rawScore : 0;
-		String explanation = buildExplanation(
+		Supplier<String> explanation = () -> buildExplanation(
 			safeContext.message(),
 			denseFeatures,
-			w.funnelHead.denseFeatureWeights(),
+			w.funnelHead().denseFeatureWeights(),
 			null,
 			FUNNEL_ONLY_DENSE_FEATURES,
 			false
@@ -126,16 +154,17 @@ public final class LocalAiScorer {
 		return 1.0 / (1.0 + Math.exp(-clamped));
 	}
 
-	private static double tokenContribution(String message, Map<String, Double> tokenWeights) {
-		if (tokenWeights == null || tokenWeights.isEmpty()) {
+	private static double tokenContribution(String message, HashedTokenTable tokenWeights) {
+		if (tokenWeights == null || tokenWeights.size() == 0) {
 			return 0.0;
 		}
 
-		Set<String> tokens = TokenFeatureExtractor.extractFeatureTokens(message);
+		HashedNgramExtractor ngrams = HashedNgramExtractor.forCurrentThread();
+		int count = ngrams.extract(message);
 		double sum = 0.0;
-		for (String token : tokens) {
-			Double weight = tokenWeights.get(token);
-			if (weight != null) {
+		for (int i = 0; i < count; i++) {
+			double weight = tokenWeights.weightById(ngrams.id(i));
+			if (!Double.isNaN(weight)) {
 				sum += weight;
 			}
 		}
@@ -146,7 +175,7 @@ public final class LocalAiScorer {
 		String message,
 		Map<String, Double> denseFeatures,
 		Map<String, Double> denseWeights,
-		Map<String, Double> tokenWeights,
+		HashedTokenTable tokenWeights,
 		Set<String> allowedDense,
 		boolean includeTokens
 	) {
@@ -162,10 +191,10 @@ public final class LocalAiScorer {
 			contributions.add(new Contribution("dense " + feature.getKey(), feature.getValue() * weight));
 		}
 
-		if (includeTokens && tokenWeights != null && !tokenWeights.isEmpty()) {
+		if (includeTokens && tokenWeights != null && tokenWeights.size() > 0) {
 			for (String token : TokenFeatureExtractor.extractFeatureTokens(message)) {
-				Double weight = tokenWeights.get(token);
-				if (weight != null) {
+				double weight = tokenWeights.weight(token);
+				if (!Double.isNaN(weight)) {
 					contributions.add(new Contribution("token " + token, weight));
 				}
 			}
@@ -192,28 +221,42 @@ public final class LocalAiScorer {
 	private record Contribution(String label, double value) {
 	}
 
-	public record AiResult(int score, double probability, boolean triggered, String explanation) {
+	/**
+	 * {@code explainer} builds the feature breakdown on demand; it is only needed when a warning is shown.
+	 */
+	public record AiResult(int score, double probability, boolean triggered, Supplier<String> explainer) {
+		public String explanation() {
+			return explainer == null ? "" : explainer.get();
+		}
 	}
 
-	private record ModelWeights(
+	/**
+	 * Compiled, read-only weights of one model snapshot.
+	 */
+	record ModelWeights(
 		double intercept,
 		Map<String, Double> denseFeatureWeights,
-		Map<String, Double> tokenWeights,
+		HashedTokenTable tokenWeights,
 		DenseHeadWeights funnelHead
 	) {
-		private static ModelWeights from(LocalAiModelConfig cfg) {
+		static ModelWeights from(LocalAiModelConfig cfg) {
 			Map<String, Double> dense = cfg.denseFeatureWeights == null
 				? new LinkedHashMap<>(AiFeatureSpace.defaultDenseWeights())
-				: cfg.denseFeatureWeights;
-			Map<String, Double> tokens = cfg.tokenWeights == null
-				? new LinkedHashMap<>()
-				: cfg.tokenWeights;
+				: new LinkedHashMap<>(cfg.denseFeatureWeights);
+			HashedTokenTable tokens = cfg.tokenWeights == null
+				? HashedTokenTable.EMPTY
+				: HashedTokenTable.from(cfg.tokenWeights, WeightEncoding.fromId(cfg.tokenWeightEncoding, WeightEncoding.FLOAT32));
 			DenseHeadWeights funnel = DenseHeadWeights.from(cfg, dense);
-			return new ModelWeights(cfg.intercept, dense, tokens, funnel);
+			return new ModelWeights(
+				cfg.intercept,
+				Collections.unmodifiableMap(dense),
+				tokens,
+				funnel
+			);
 		}
 	}
 
-	private record DenseHeadWeights(double intercept, Map<String, Double> denseFeatureWeights) {
+	record DenseHeadWeights(double intercept, Map<String, Double> denseFeatureWeights) {
 		private static DenseHeadWeights from(LocalAiModelConfig cfg, Map<String, Double> mainDense) {
 			Map<String, Double> out = new LinkedHashMap<>(AiFeatureSpace.defaultFunnelDenseWeights());
 			double headIntercept = cfg.intercept;
@@ -240,7 +283,7 @@ public final class LocalAiScorer {
 				out.put(key, main == null ? 0.0 : main);
 			}
 
-			return new DenseHeadWeights(headIntercept, out);
+			return new DenseHeadWeights(headIntercept, Collections.unmodifiableMap(out));
 		}
 	}
 }
@@ -16,7 +16,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Pattern;
 
 public final class LocalAiTrainer {
@@ -25,6 +24,7 @@ public final class LocalAiTrainer {
 	private static final int ITERATIONS = 1400;
 	private static final double LEARNING_RATE = 0.18;
 	private static final double L2 = 0.008;
+	private static final double MAX_QUANTIZATION_ACCURACY_LOSS = 0.01;
 	private static final Pattern COLOR_CODE_PATTERN = Pattern.compile("\\u00A7.");
 	private static final String OLD_DIR_NAME = "old";
 	private static final String OLD_TRAINING_DIR_NAME = "training-data";
@@ -35,11 +35,12 @@ public final class LocalAiTrainer {
 		List<Sample> samples = loadAllSamples(csvPath, ignoredRows);
 		validateSamples(samples);
 		int preservedModelVersion = currentModelVersion();
+		WeightEncoding requestedEncoding = currentTokenEncoding();
 
 		List<String> vocab = TokenFeatureExtractor.buildVocab(samples, MAX_VOCAB_SIZE, MIN_TOKEN_COUNT);
-		Map<String, Integer> vocabIndex = new HashMap<>();
-		for (int i = 0; i < vocab.size(); i++) {
-			vocabIndex.put(vocab.get(i), i);
+		FeatureIdMap vocabIndex = new FeatureIdMap();
+		for (String token : vocab) {
+			vocabIndex.intern(HashedTokenTable.featureId(token));
 		}
 
 		Map<String, Integer> messageFrequency = new HashMap<>();
@@ -141,15 +142,67 @@ public final class LocalAiTrainer {
 			model.funnelHead.denseFeatureWeights.put(AiFeatureSpace.FUNNEL_DENSE_FEATURE_NAMES.get(i), funnelModel.weights()[i]);
 		}
 
+		QuantizationReport quantization = quantize(model, mainModel, mainVectors, vocab, mainDenseCount, requestedEncoding);
+
 		archiveExistingModelFile();
 		LocalAiModelConfig.save(model);
 		Path archivedPath = archiveTrainingData(csvPath);
 
 		long positiveCount = samples.stream().filter(sample -> sample.label() == 1).count();
-		return new TrainingResult(samples.size(), (int) positiveCount, archivedPath, ignoredRows[0]);
+		return new TrainingResult(samples.size(), (int) positiveCount, archivedPath, ignoredRows[0], quantization);
+	}
+
+	/**
+	 * Quantise-after-training step: builds the token table in {@code requested} encoding and compares
+	 * its accuracy on the training corpus with the full-precision weights. If the loss is above
+	 * {@link #MAX_QUANTIZATION_ACCURACY_LOSS} the model falls back to float32.
+	 */
+	static QuantizationReport quantize(
+		LocalAiModelConfig model,
+		LinearModel mainModel,
+		List<SampleVector> vectors,
+		List<String> vocab,
+		int denseCount,
+		WeightEncoding requested
+	) {
+		HashedTokenTable table = HashedTokenTable.from(model.tokenWeights, requested);
+		double threshold = ScamRules.localAiTriggerProbability();
+		int fullCorrect = 0;
+		int quantizedCorrect = 0;
+		for (SampleVector vector : vectors) {
+			double[] features = vector.features();
+			double dense = mainModel.intercept();
+			for (int i = 0; i < denseCount; i++) {
+				dense += mainModel.weights()[i] * features[i];
+			}
+			double full = dense;
+			double quantized = dense;
+			for (int i = denseCount; i < features.length; i++) {
+				if (features[i] == 0.0) {
+					continue;
+				}
+				full += mainModel.weights()[i] * features[i];
+				quantized += table.weight(vocab.get(i - denseCount)) * features[i];
+			}
+			if ((sigmoid(full) >= threshold ? 1 : 0) == vector.label()) {
+				fullCorrect++;
+			}
+			if ((sigmoid(quantized) >= threshold ? 1 : 0) == vector.label()) {
+				quantizedCorrect++;
+			}
+		}
+
+		double total = Math.max(1, vectors.size());
+		double fullAccuracy = fullCorrect / total;
+		double quantizedAccuracy = quantizedCorrect / total;
+		WeightEncoding applied = fullAccuracy - quantizedAccuracy > MAX_QUANTIZATION_ACCURACY_LOSS
+			? WeightEncoding.FLOAT32
+			: requested;
+		model.tokenWeightEncoding = applied.id();
+		return new QuantizationReport(requested.id(), applied.id(), fullAccuracy, quantizedAccuracy);
 	}
 
-	private static double[] vectorizeMain(Sample sample, Map<String, Integer> vocabIndex, int denseCount, int featureCount) {
+	private static double[] vectorizeMain(Sample sample, FeatureIdMap vocabIndex, int denseCount, int featureCount) {
 		double[] vector = new double[featureCount];
 		Map<String, Double> dense = AiFeatureSpace.extractDenseFeatures(sample.context());
 		for (int i = 0; i < denseCount; i++) {
@@ -157,10 +210,11 @@ public final class LocalAiTrainer {
 			vector[i] = dense.getOrDefault(name, 0.0);
 		}
 
-		Set<String> tokens = TokenFeatureExtractor.extractFeatureTokens(sample.message());
-		for (String token : tokens) {
-			Integer idx = vocabIndex.get(token);
-			if (idx != null) {
+		HashedNgramExtractor ngrams = HashedNgramExtractor.forCurrentThread();
+		int found = ngrams.extract(sample.message());
+		for (int i = 0; i < found; i++) {
+			int idx = vocabIndex.indexOf(ngrams.id(i));
+			if (idx >= 0 && idx < featureCount - denseCount) {
 				vector[denseCount + idx] = 1.0;
 			}
 		}
@@ -301,6 +355,17 @@ public final class LocalAiTrainer {
 		return new LocalAiModelConfig().version;
 	}
 
+	private static WeightEncoding currentTokenEncoding() {
+		try {
+			LocalAiModelConfig existing = LocalAiModelConfig.loadOrCreate();
+			if (existing != null) {
+				return WeightEncoding.fromId(existing.tokenWeightEncoding, WeightEncoding.FLOAT32);
+			}
+		} catch (Exception ignored) {
+		}
+		return WeightEncoding.FLOAT32;
+	}
+
 	private static List<Path> listArchiveCandidates(Path dir, String baseName) throws IOException {
 		if (dir == null || !Files.isDirectory(dir)) {
 			return List.of();
@@ -598,12 +663,33 @@ public final class LocalAiTrainer {
 	) {
 	}
 
-	private record SampleVector(double[] features, int label, double weight) {
+	record SampleVector(double[] features, int label, double weight) {
+	}
+
+	record LinearModel(double intercept, double[] weights) {
 	}
 
-	private record LinearModel(double intercept, double[] weights) {
+	public record TrainingResult(
+		int sampleCount,
+		int positiveCount,
+		Path archivedDataPath,
+		int ignoredUnigrams,
+		QuantizationReport quantization
+	) {
 	}
 
-	public record TrainingResult(int sampleCount, int positiveCount, Path archivedDataPath, int ignoredUnigrams) {
+	/**
+	 * Training-corpus accuracy of the full-precision model and of the {@code requestedEncoding} token table.
+	 * {@code appliedEncoding} is what the saved model uses.
+	 */
+	public record QuantizationReport(
+		String requestedEncoding,
+		String appliedEncoding,
+		double fullPrecisionAccuracy,
+		double quantizedAccuracy
+	) {
+		public double accuracyDelta() {
+			return quantizedAccuracy - fullPrecisionAccuracy;
+		}
 	}
 }
@@ -1,12 +1,15 @@
 package eu.tango.scamscreener.ai;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,6 +21,9 @@ final class TokenFeatureExtractor {
 	private static final String QUAD_PREFIX = "ng4:";
 	private static final String PENTA_PREFIX = "ng5:";
 	private static final int MAX_NGRAM = 5;
+	private static final Comparator<TokenScore> BY_SCORE = Comparator
+		.comparingDouble(TokenScore::score).reversed()
+		.thenComparing(Comparator.comparingInt(TokenScore::count).reversed());
 
 	private TokenFeatureExtractor() {
 	}
@@ -84,44 +90,87 @@ final class TokenFeatureExtractor {
 		return out.toString();
 	}
 
+	/**
+	 * Picks the most discriminative n-grams. Corpus statistics are counted by
+	 * {@link HashedNgramExtractor} id, so no n-gram string is built in the counting pass; strings are
+	 * only recovered afterwards for the selected features (the reverse map of top features).
+	 */
 	static List<String> buildVocab(Collection<LocalAiTrainer.Sample> samples, int maxSize, int minCount) {
-		if (samples == null || samples.isEmpty()) {
+		if (samples == null || samples.isEmpty() || maxSize <= 0) {
 			return List.of();
 		}
 
-		Map<String, TokenStat> stats = new HashMap<>();
+		FeatureIdMap features = new FeatureIdMap();
+		int[] counts = new int[256];
+		int[] positiveCounts = new int[256];
 		int positives = 0;
+		HashedNgramExtractor ngrams = HashedNgramExtractor.forCurrentThread();
 		for (LocalAiTrainer.Sample sample : samples) {
-			if (sample.label() == 1) {
+			boolean positive = sample.label() == 1;
+			if (positive) {
 				positives++;
 			}
 
-			for (String token : extractFeatureTokens(sample.message())) {
-				TokenStat stat = stats.computeIfAbsent(token, ignored -> new TokenStat());
-				stat.count++;
-				if (sample.label() == 1) {
-					stat.positiveCount++;
+			int found = ngrams.extract(sample.message());
+			for (int i = 0; i < found; i++) {
+				int index = features.intern(ngrams.id(i));
+				if (index == counts.length) {
+					counts = Arrays.copyOf(counts, counts.length * 2);
+					positiveCounts = Arrays.copyOf(positiveCounts, positiveCounts.length * 2);
+				}
+				counts[index]++;
+				if (positive) {
+					positiveCounts[index]++;
 				}
 			}
 		}
 
 		int total = samples.size();
 		double baseRate = positives / (double) total;
-		List<TokenScore> ranked = new ArrayList<>();
-		for (Map.Entry<String, TokenStat> entry : stats.entrySet()) {
-			TokenStat stat = entry.getValue();
-			if (stat.count < minCount) {
+		double[] scores = new double[features.size()];
+		PriorityQueue<TokenScore> top = new PriorityQueue<>(BY_SCORE.reversed());
+		for (int index = 0; index < features.size(); index++) {
+			int count = counts[index];
+			if (count < minCount) {
 				continue;
 			}
 
-			double tokenRate = stat.positiveCount / (double) stat.count;
+			double tokenRate = positiveCounts[index] / (double) count;
 			double discriminative = Math.abs(tokenRate - baseRate);
-			double score = discriminative * Math.log1p(stat.count);
-			if (score > 0.0) {
-				ranked.add(new TokenScore(entry.getKey(), score, stat.count));
+			scores[index] = discriminative * Math.log1p(count);
+			if (scores[index] <= 0.0) {
+				continue;
+			}
+			top.add(new TokenScore(features.idAt(index), scores[index], count));
+			if (top.size() > maxSize) {
+				top.poll();
+			}
+		}
+		if (top.isEmpty()) {
+			return List.of();
+		}
+
+		// Features tied with the weakest selected one compete by name, so keep all of them for now.
+		TokenScore boundary = top.peek();
+		List<TokenScore> candidates = new ArrayList<>();
+		for (int index = 0; index < features.size(); index++) {
+			if (scores[index] <= 0.0 || counts[index] < minCount) {
+				continue;
+			}
+			TokenScore candidate = new TokenScore(features.idAt(index), scores[index], counts[index]);
+			if (BY_SCORE.compare(candidate, boundary) <= 0) {
+				candidates.add(candidate);
 			}
 		}
 
+		Map<Long, String> names = reverseMap(samples, candidates);
+		List<NamedScore> ranked = new ArrayList<>(candidates.size());
+		for (TokenScore candidate : candidates) {
+			String name = names.get(candidate.id());
+			if (name != null) {
+				ranked.add(new NamedScore(name, candidate.score(), candidate.count()));
+			}
+		}
 		ranked.sort((a, b) -> {
 			int byScore = Double.compare(b.score(), a.score());
 			if (byScore != 0) {
@@ -142,11 +191,33 @@ final class TokenFeatureExtractor {
 		return vocab;
 	}
 
-	private static final class TokenStat {
-		int count;
-		int positiveCount;
+	/**
+	 * Second pass: recovers the string of each selected id from the first message that contains it.
+	 */
+	private static Map<Long, String> reverseMap(Collection<LocalAiTrainer.Sample> samples, List<TokenScore> selected) {
+		Map<Long, String> names = new HashMap<>();
+		for (TokenScore score : selected) {
+			names.put(score.id(), null);
+		}
+		int missing = names.size();
+		for (LocalAiTrainer.Sample sample : samples) {
+			if (missing == 0) {
+				break;
+			}
+			for (String token : extractFeatureTokens(sample.message())) {
+				Long id = HashedTokenTable.featureId(token);
+				if (names.containsKey(id) && names.get(id) == null) {
+					names.put(id, token);
+					missing--;
+				}
+			}
+		}
+		return names;
+	}
+
+	private record TokenScore(long id, double score, int count) {
 	}
 
-	private record TokenScore(String token, double score, int count) {
+	private record NamedScore(String token, double score, int count) {
 	}
 }
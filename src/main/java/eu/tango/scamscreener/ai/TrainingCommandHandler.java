@@ -119,6 +119,15 @@ public final class TrainingCommandHandler {
 				if (result.ignoredUnigrams() > 0) {
 					MessageDispatcher.reply(Messages.trainingUnigramsIgnored(result.ignoredUnigrams()));
 				}
+				LocalAiTrainer.QuantizationReport quantization = result.quantization();
+				if (quantization != null && !"float32".equals(quantization.requestedEncoding())) {
+					MessageDispatcher.reply(Messages.trainingQuantizationReport(
+						quantization.requestedEncoding(),
+						quantization.appliedEncoding(),
+						quantization.fullPrecisionAccuracy(),
+						quantization.quantizedAccuracy()
+					));
+				}
 			} catch (IOException e) {
 				LOGGER.warn("Failed to train local AI model", e);
 				// Code: TR-TRAIN-001
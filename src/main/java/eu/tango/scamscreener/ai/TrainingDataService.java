@@ -179,7 +179,7 @@ public final class TrainingDataService {
 			if (capture == null || shouldFilterMessage(capture.rawMessage())) {
 				continue;
 			}
-			String row = buildTrainingCsvRow(capture, label, null);
+			String row = buildTrainingCsvRow(capture, label, null, null);
 			if (row != null && !row.isBlank()) {
 				rows.append(row).append(System.lineSeparator());
 			}
@@ -197,6 +197,14 @@ public final class TrainingDataService {
 	}
 
 	public void appendDetectedEvent(MessageEvent event, DetectionResult result, int label) throws IOException {
+		appendDetectedEvent(event, result, null, label);
+	}
+
+	/**
+	 * Same as {@link #appendDetectedEvent(MessageEvent, DetectionResult, int)} but reuses the intent tags
+	 * computed by the pipeline for this event instead of tagging the message again.
+	 */
+	public void appendDetectedEvent(MessageEvent event, DetectionResult result, IntentTagger.TaggingResult tagging, int label) throws IOException {
 		if (event == null || event.rawMessage() == null || event.rawMessage().isBlank()) {
 			return;
 		}
@@ -208,7 +216,7 @@ public final class TrainingDataService {
 			event.channel() == null ? "unknown" : event.channel(),
 			event.timestampMs() > 0 ? event.timestampMs() : System.currentTimeMillis()
 		);
-		String row = buildTrainingCsvRow(capture, label, result);
+		String row = buildTrainingCsvRow(capture, label, result, tagging);
 		if (row == null || row.isBlank()) {
 			return;
 		}
@@ -289,7 +297,7 @@ public final class TrainingDataService {
 		return ensureLatestHeader();
 	}
 
-	private String buildTrainingCsvRow(CapturedChat capture, int label, DetectionResult detection) {
+	private String buildTrainingCsvRow(CapturedChat capture, int label, DetectionResult detection, IntentTagger.TaggingResult knownTagging) {
 		String normalizedMessage = normalizeTrainingMessage(capture.rawMessage());
 		if (normalizedMessage.isBlank()) {
 			return null;
@@ -302,7 +310,7 @@ public final class TrainingDataService {
 
 		MessageEvent messageEvent = MessageEvent.from(speakerKey, capture.rawMessage(), timestamp, MessageContext.UNKNOWN, capture.channel());
 		List<Signal> existingSignals = detection == null || detection.signals() == null ? List.of() : detection.signals();
-		IntentTagger.TaggingResult tagging = intentTagger.tag(messageEvent, existingSignals);
+		IntentTagger.TaggingResult tagging = knownTagging != null ? knownTagging : intentTagger.tag(messageEvent, existingSignals);
 		Set<IntentTag> tags = tagging.tags();
 		AiFunnelContextTracker.Snapshot funnel = funnelTracker.update(speakerKey, timestamp, tags, tagging.negativeContext());
 
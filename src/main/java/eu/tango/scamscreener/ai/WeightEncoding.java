@@ -0,0 +1,100 @@
+package eu.tango.scamscreener.ai;
+
+import java.util.Locale;
+
+/**
+ * How token weights are stored in a {@link HashedTokenTable}. Quantised encodings are
+ * dequantised inside the table lookup, so scoring code never sees the raw values.
+ */
+enum WeightEncoding {
+	FLOAT32("float32", Float.BYTES),
+	/** IEEE half precision. */
+	FP16("fp16", Short.BYTES),
+	/** Signed bytes with one float scale per {@link #INT8_BLOCK_SIZE} slots. */
+	INT8("int8", Byte.BYTES);
+
+	static final int INT8_BLOCK_SIZE = 64;
+
+	private final String id;
+	private final int slotBytes;
+
+	WeightEncoding(String id, int slotBytes) {
+		this.id = id;
+		this.slotBytes = slotBytes;
+	}
+
+	String id() {
+		return id;
+	}
+
+	int slotBytes() {
+		return slotBytes;
+	}
+
+	/**
+	 * Bytes used for the weights (and scales) of a table with {@code capacity} slots.
+	 */
+	int weightBytes(int capacity) {
+		int bytes = capacity * slotBytes;
+		if (this == INT8) {
+			bytes += scaleBlocks(capacity) * Float.BYTES;
+		}
+		return bytes;
+	}
+
+	static int scaleBlocks(int capacity) {
+		return (capacity + INT8_BLOCK_SIZE - 1) / INT8_BLOCK_SIZE;
+	}
+
+	static WeightEncoding fromId(String raw, WeightEncoding fallback) {
+		if (raw == null || raw.isBlank()) {
+			return fallback;
+		}
+		String normalized = raw.trim().toLowerCase(Locale.ROOT);
+		for (WeightEncoding encoding : values()) {
+			if (encoding.id.equals(normalized)) {
+				return encoding;
+			}
+		}
+		return fallback;
+	}
+
+	static float halfToFloat(short half) {
+		int bits = half & 0xFFFF;
+		int sign = (bits & 0x8000) << 16;
+		int exponent = (bits >>> 10) & 0x1F;
+		int mantissa = bits & 0x3FF;
+		if (exponent == 0) {
+			// Zero or subnormal: mantissa * 2^-24.
+			float value = mantissa * 0x1.0p-24f;
+			return sign == 0 ? value : -value;
+		}
+		if (exponent == 0x1F) {
+			return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+		}
+		return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+	}
+
+	static short floatToHalf(float value) {
+		int bits = Float.floatToIntBits(value);
+		int sign = (bits >>> 16) & 0x8000;
+		float abs = Math.abs(value);
+		if (Float.isNaN(value)) {
+			return (short) (sign | 0x7E00);
+		}
+		if (abs >= 65520.0f) {
+			return (short) (sign | 0x7C00);
+		}
+		if (abs < 0x1.0p-14f) {
+			// Subnormal half: round to a multiple of 2^-24.
+			return (short) (sign | Math.round(abs * 0x1.0p24f));
+		}
+		int exponent = Math.getExponent(abs);
+		int mantissa = Math.round((abs / (float) Math.scalb(1.0, exponent) - 1.0f) * 1024.0f);
+		if (mantissa == 1024) {
+			mantissa = 0;
+			exponent++;
+		}
+		return (short) (sign | ((exponent + 15) << 10) | mantissa);
+	}
+}
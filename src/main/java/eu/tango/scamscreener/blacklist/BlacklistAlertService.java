@@ -1,6 +1,7 @@
 package eu.tango.scamscreener.blacklist;
 
 import eu.tango.scamscreener.chat.trigger.TriggerContext;
+import eu.tango.scamscreener.chat.trigger.TriggerDispatcher;
 import eu.tango.scamscreener.lookup.PlayerLookup;
 import eu.tango.scamscreener.rules.ScamRules;
 import eu.tango.scamscreener.ui.DebugReporter;
@@ -10,6 +11,8 @@ import eu.tango.scamscreener.ui.NotificationService;
 import eu.tango.scamscreener.util.TextUtil;
 import net.minecraft.client.Minecraft;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 import java.util.function.BooleanSupplier;
@@ -32,6 +35,19 @@ public final class BlacklistAlertService {
 		this.autoLeaveEnabledSupplier = autoLeaveEnabledSupplier;
 	}
 
+	/**
+	 * Checks one system message against all trigger contexts via {@link TriggerDispatcher}.
+	 */
+	public void checkTriggersAndWarn(String message) {
+		if (message == null || message.isBlank()) {
+			return;
+		}
+		TriggerDispatcher.Match match = TriggerDispatcher.match(message);
+		if (match != null) {
+			warnIfBlacklisted(match.playerName(), match.context());
+		}
+	}
+
 	public void checkTriggerAndWarn(String message, TriggerContext context) {
 		if (message == null || message.isBlank() || context == null) {
 			return;
@@ -40,9 +56,12 @@ public final class BlacklistAlertService {
 		if (playerName == null) {
 			return;
 		}
+		warnIfBlacklisted(playerName, context);
+	}
 
+	private void warnIfBlacklisted(String playerName, TriggerContext context) {
 		UUID uuid = playerLookup.findUuidByName(playerName);
-		boolean blacklisted = blacklist.isBlacklisted(playerName, playerLookup::findUuidByName);
+		boolean blacklisted = blacklist.isBlacklisted(playerName, name -> uuid);
 		debugReporter.debugTrade("blacklist trigger " + context.name().toLowerCase(Locale.ROOT) + " speaker=" + TextUtil.anonymizedSpeakerKey(playerName) + " blacklisted=" + blacklisted);
 		if (!blacklisted) {
 			return;
@@ -51,6 +70,30 @@ public final class BlacklistAlertService {
 		sendBlacklistWarning(playerName, uuid, context.triggerReason());
 	}
 
+	/**
+	 * Summarizes blacklisted players found in the current lobby by {@link LobbyBlacklistWatcher}.
+	 * Uses the same toggles as the chat-triggered warning but never auto-leaves.
+	 */
+	public void sendLobbyWarning(List<BlacklistManager.ScamEntry> entries) {
+		Minecraft client = Minecraft.getInstance();
+		var player = client.player;
+		if (player == null || entries == null || entries.isEmpty()) {
+			return;
+		}
+
+		List<String> lines = new ArrayList<>(entries.size());
+		for (BlacklistManager.ScamEntry entry : entries) {
+			lines.add(entry.name() + " | " + entry.score() + " | " + entry.reason());
+		}
+		debugReporter.debugTrade("blacklist lobby scan hits=" + entries.size());
+		if (ScamRules.showBlacklistWarningMessage()) {
+			player.displayClientMessage(Messages.blacklistedPlayersInLobby(lines), false);
+		}
+		if (ScamRules.pingOnBlacklistWarning()) {
+			NotificationService.playWarningTone();
+		}
+	}
+
 	private void sendBlacklistWarning(String playerName, UUID uuid, String reason) {
 		Minecraft client = Minecraft.getInstance();
 		var player = client.player;
@@ -0,0 +1,380 @@
+package eu.tango.scamscreener.blacklist;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistence for {@link BlacklistManager}: the JSON snapshot plus an append-only journal of
+ * one-line put/remove records. Callers only encode and enqueue a record; a background thread
+ * appends batches, fsyncs them and folds the journal into a new snapshot once it grows past
+ * half the snapshot size. On load the journal is replayed over the snapshot, so a crash loses
+ * at most the records that were not yet synced.
+ */
+final class BlacklistJournal {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BlacklistJournal.class);
+	private static final Gson SNAPSHOT_GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final Gson RECORD_GSON = new Gson();
+	private static final long DEFAULT_COMPACT_MIN_BYTES = 64L * 1024L;
+	private static final double COMPACT_RATIO = 0.5;
+
+	private final Path snapshotPath;
+	private final Path journalPath;
+	private final long compactMinBytes;
+	private final ExecutorService writer;
+	// Record lines and Replacement markers, in the order the caller produced them.
+	private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean drainScheduled = new AtomicBoolean();
+	private final AtomicLong appendedRecords = new AtomicLong();
+	private final AtomicLong compactions = new AtomicLong();
+	// Writer thread only.
+	private FileChannel channel;
+	private final StringBuilder unwritten = new StringBuilder();
+
+	BlacklistJournal(Path snapshotPath) {
+		this(snapshotPath, DEFAULT_COMPACT_MIN_BYTES);
+	}
+
+	BlacklistJournal(Path snapshotPath, long compactMinBytes) {
+		this.snapshotPath = snapshotPath;
+		this.journalPath = snapshotPath.resolveSibling(journalFileName(snapshotPath));
+		this.compactMinBytes = compactMinBytes;
+		this.writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scamscreener-blacklist-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	Path snapshotPath() {
+		return snapshotPath;
+	}
+
+	Path journalPath() {
+		return journalPath;
+	}
+
+	/**
+	 * Snapshot entries followed by the journal replayed over them, as stored (not normalised).
+	 * Pending records are written first so the result includes every earlier append.
+	 */
+	List<BlacklistManager.ScamEntry> recover() throws IOException {
+		flush();
+		Map<UUID, BlacklistManager.ScamEntry> state = readState();
+		if (journalSize() > 0L) {
+			// Fold what a previous session left behind while the game keeps loading.
+			try {
+				writer.execute(this::compactQuietly);
+			} catch (RejectedExecutionException ignored) {
+			}
+		}
+		return new ArrayList<>(state.values());
+	}
+
+	void appendPut(BlacklistManager.ScamEntry entry) {
+		Record record = new Record();
+		record.op = Record.PUT;
+		record.entry = entry;
+		// Encoded on the caller thread: the entry object may be changed again right after this.
+		enqueue(RECORD_GSON.toJson(record));
+		appendedRecords.incrementAndGet();
+	}
+
+	void appendRemove(UUID uuid) {
+		Record record = new Record();
+		record.op = Record.REMOVE;
+		record.uuid = uuid;
+		enqueue(RECORD_GSON.toJson(record));
+		appendedRecords.incrementAndGet();
+	}
+
+	/**
+	 * Replaces snapshot and journal with {@code entries}, the complete blacklist (migrations and
+	 * bulk imports). Only a copy is taken here; encoding and writing happen on the writer thread,
+	 * in order with the records appended before and after.
+	 */
+	void replaceAll(Collection<BlacklistManager.ScamEntry> entries) {
+		List<BlacklistManager.ScamEntry> copy = new ArrayList<>(entries.size());
+		for (BlacklistManager.ScamEntry entry : entries) {
+			copy.add(new BlacklistManager.ScamEntry(entry.uuid, entry.name, entry.score, entry.reason, entry.addedAt));
+		}
+		enqueue(new Replacement(copy));
+	}
+
+	/**
+	 * Blocks until every record enqueued so far is appended and synced.
+	 */
+	void flush() {
+		submit(this::drain);
+	}
+
+	/**
+	 * Folds the journal into the snapshot now. Blocks until done.
+	 */
+	void compact() {
+		submit(() -> {
+			drain();
+			compactQuietly();
+		});
+	}
+
+	void close() {
+		flush();
+		submit(this::closeChannel);
+		writer.shutdown();
+	}
+
+	long appendedRecords() {
+		return appendedRecords.get();
+	}
+
+	long compactions() {
+		return compactions.get();
+	}
+
+	private void enqueue(Object item) {
+		pending.add(item);
+		if (drainScheduled.compareAndSet(false, true)) {
+			try {
+				writer.execute(this::drain);
+			} catch (RejectedExecutionException ignored) {
+				drainScheduled.set(false);
+			}
+		}
+	}
+
+	private void submit(Runnable task) {
+		try {
+			writer.submit(task).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LOGGER.warn("Blacklist writer task failed", e.getCause());
+		} catch (RejectedExecutionException ignored) {
+		}
+	}
+
+	private void drain() {
+		drainScheduled.set(false);
+		Object item;
+		while ((item = pending.poll()) != null) {
+			if (item instanceof Replacement replacement) {
+				replace(replacement.entries());
+			} else {
+				unwritten.append((String) item).append('\n');
+			}
+		}
+		if (unwritten.length() == 0) {
+			return;
+		}
+		try {
+			FileChannel out = openChannel();
+			ByteBuffer bytes = StandardCharsets.UTF_8.encode(unwritten.toString());
+			while (bytes.hasRemaining()) {
+				out.write(bytes);
+			}
+			out.force(false);
+			unwritten.setLength(0);
+			if (out.size() > Math.max(compactMinBytes, (long) (snapshotSize() * COMPACT_RATIO))) {
+				compactQuietly();
+			}
+		} catch (IOException e) {
+			// Kept in memory and retried with the next batch.
+			LOGGER.warn("Failed to append to {}", journalPath, e);
+			closeChannel();
+		}
+	}
+
+	private void replace(List<BlacklistManager.ScamEntry> entries) {
+		try {
+			writeSnapshot(encodeSnapshot(entries));
+			truncateJournal();
+			// Everything queued before the replacement is part of the new snapshot.
+			unwritten.setLength(0);
+		} catch (IOException e) {
+			LOGGER.warn("Failed to save {}, journaling the entries instead", snapshotPath, e);
+			for (BlacklistManager.ScamEntry entry : entries) {
+				Record record = new Record();
+				record.op = Record.PUT;
+				record.entry = entry;
+				unwritten.append(RECORD_GSON.toJson(record)).append('\n');
+			}
+		}
+	}
+
+	private void compactQuietly() {
+		try {
+			Map<UUID, BlacklistManager.ScamEntry> state = readState();
+			writeSnapshot(encodeSnapshot(state.values()));
+			// A crash before this truncate only means the journal is replayed once more; records are idempotent.
+			truncateJournal();
+			compactions.incrementAndGet();
+		} catch (IOException e) {
+			LOGGER.warn("Failed to compact {}", journalPath, e);
+		}
+	}
+
+	private Map<UUID, BlacklistManager.ScamEntry> readState() throws IOException {
+		Map<UUID, BlacklistManager.ScamEntry> state = new LinkedHashMap<>();
+		for (BlacklistManager.ScamEntry entry : readSnapshot(snapshotPath)) {
+			if (entry != null && entry.uuid != null) {
+				state.put(entry.uuid, entry);
+			}
+		}
+		replayJournal(state);
+		return state;
+	}
+
+	private void replayJournal(Map<UUID, BlacklistManager.ScamEntry> state) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				Record record;
+				try {
+					record = RECORD_GSON.fromJson(line, Record.class);
+				} catch (JsonParseException ignored) {
+					// Torn last line after a crash.
+					continue;
+				}
+				if (record == null || record.op == null) {
+					continue;
+				}
+				if (Record.PUT.equals(record.op) && record.entry != null && record.entry.uuid != null) {
+					state.put(record.entry.uuid, record.entry);
+				} else if (Record.REMOVE.equals(record.op) && record.uuid != null) {
+					state.remove(record.uuid);
+				}
+			}
+		} catch (NoSuchFileException ignored) {
+		}
+	}
+
+	static List<BlacklistManager.ScamEntry> readSnapshot(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			BlacklistManager.BlacklistFile data = SNAPSHOT_GSON.fromJson(reader, BlacklistManager.BlacklistFile.class);
+			return data == null || data.entries == null ? List.of() : data.entries;
+		} catch (NoSuchFileException ignored) {
+			return List.of();
+		} catch (JsonParseException e) {
+			throw new IOException("Malformed blacklist file " + path, e);
+		}
+	}
+
+	private static String encodeSnapshot(Collection<BlacklistManager.ScamEntry> entries) {
+		BlacklistManager.BlacklistFile data = new BlacklistManager.BlacklistFile();
+		data.version = 1;
+		data.entries = new ArrayList<>(entries);
+		data.entries.sort(BlacklistManager.ENTRY_ORDER);
+		return SNAPSHOT_GSON.toJson(data);
+	}
+
+	private void writeSnapshot(String json) throws IOException {
+		Files.createDirectories(snapshotPath.getParent());
+		Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer bytes = StandardCharsets.UTF_8.encode(json);
+			while (bytes.hasRemaining()) {
+				out.write(bytes);
+			}
+			out.force(true);
+		}
+		try {
+			Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ignored) {
+			Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private void truncateJournal() throws IOException {
+		if (channel == null && !Files.exists(journalPath)) {
+			return;
+		}
+		FileChannel out = openChannel();
+		out.truncate(0L);
+		out.force(true);
+	}
+
+	private FileChannel openChannel() throws IOException {
+		if (channel == null || !channel.isOpen()) {
+			Files.createDirectories(journalPath.getParent());
+			channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+		return channel;
+	}
+
+	private void closeChannel() {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+		}
+		channel = null;
+	}
+
+	private long journalSize() {
+		try {
+			return Files.size(journalPath);
+		} catch (IOException ignored) {
+			return 0L;
+		}
+	}
+
+	private long snapshotSize() {
+		try {
+			return Files.size(snapshotPath);
+		} catch (IOException ignored) {
+			return 0L;
+		}
+	}
+
+	private static String journalFileName(Path snapshotPath) {
+		String name = snapshotPath.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		return (dot > 0 ? name.substring(0, dot) : name) + ".journal";
+	}
+
+	private record Replacement(List<BlacklistManager.ScamEntry> entries) {
+	}
+
+	private static final class Record {
+		static final String PUT = "put";
+		static final String REMOVE = "remove";
+
+		String op;
+		BlacklistManager.ScamEntry entry;
+		UUID uuid;
+	}
+}
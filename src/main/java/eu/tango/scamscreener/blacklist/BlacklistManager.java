@@ -1,16 +1,15 @@
 package eu.tango.scamscreener.blacklist;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import eu.tango.scamscreener.config.ScamScreenerPaths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -21,41 +20,79 @@ import java.util.UUID;
 import java.util.function.Function;
 
 public final class BlacklistManager {
-	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final Logger LOGGER = LoggerFactory.getLogger(BlacklistManager.class);
+	static final Comparator<ScamEntry> ENTRY_ORDER = Comparator
+		.comparing((ScamEntry entry) -> nameKey(entry.name))
+		.thenComparing(entry -> String.valueOf(entry.uuid));
 	private static final String DEFAULT_NAME = "unknown";
 	private static final String DEFAULT_REASON = "manual-entry";
 	private static final int DEFAULT_SCORE = 50;
 
-	private final Path filePath;
+	private final BlacklistJournal journal;
 	private final Path legacyJsonFilePath;
 	private final Path legacyTxtFilePath;
 	private final Map<UUID, ScamEntry> entries = new HashMap<>();
+	// Case-folded name -> one entry with that name; kept in step with entries on every change.
+	private final Map<String, ScamEntry> byName = new HashMap<>();
+	// Every entry in ENTRY_ORDER; binary-searched for prefix queries and sliced for pages.
+	private final List<ScamEntry> sorted = new ArrayList<>();
+	private NameBloomFilter nameFilter = new NameBloomFilter(0);
+	// While a merge runs, sorted, byName and the filter are left stale and rebuilt once when it finishes.
+	private boolean merging;
+	private int staleFilterNames;
 
 	public BlacklistManager() {
-		this.filePath = ScamScreenerPaths.inModConfigDir("scam-screener-blacklist.json");
-		this.legacyJsonFilePath = ScamScreenerPaths.inRootConfigDir("scam-screener-blacklist.json");
-		this.legacyTxtFilePath = ScamScreenerPaths.inRootConfigDir("scam-screener-blacklist.txt");
+		this(
+			ScamScreenerPaths.inModConfigDir("scam-screener-blacklist.json"),
+			ScamScreenerPaths.inRootConfigDir("scam-screener-blacklist.json"),
+			ScamScreenerPaths.inRootConfigDir("scam-screener-blacklist.txt")
+		);
+	}
+
+	BlacklistManager(Path filePath, Path legacyJsonFilePath, Path legacyTxtFilePath) {
+		this.journal = new BlacklistJournal(filePath);
+		this.legacyJsonFilePath = legacyJsonFilePath;
+		this.legacyTxtFilePath = legacyTxtFilePath;
 	}
 
 	public void load() {
 		entries.clear();
-		if (Files.exists(filePath)) {
-			loadJson(filePath);
+		try {
+			loadEntries();
+		} finally {
+			rebuildNameIndex();
+		}
+	}
+
+	private void loadEntries() {
+		if (Files.exists(journal.snapshotPath()) || Files.exists(journal.journalPath())) {
+			try {
+				putAll(journal.recover());
+			} catch (IOException e) {
+				LOGGER.warn("Failed to load blacklist", e);
+			}
 			return;
 		}
 
 		if (Files.exists(legacyJsonFilePath)) {
 			loadJson(legacyJsonFilePath);
-			save();
+			journal.replaceAll(entries.values());
 			return;
 		}
 
 		if (Files.exists(legacyTxtFilePath)) {
 			loadLegacyTxt(legacyTxtFilePath);
-			save();
+			journal.replaceAll(entries.values());
 		}
 	}
 
+	/**
+	 * Blocks until every change so far is synced to disk.
+	 */
+	public void flush() {
+		journal.flush();
+	}
+
 	public boolean add(UUID uuid) {
 		return add(uuid, DEFAULT_NAME, DEFAULT_SCORE, DEFAULT_REASON);
 	}
@@ -65,8 +102,10 @@ public final class BlacklistManager {
 			return false;
 		}
 
-		entries.put(uuid, new ScamEntry(uuid, safeName(name), clampScore(score), safeReason(reason), Instant.now().toString()));
-		save();
+		ScamEntry entry = new ScamEntry(uuid, safeName(name), clampScore(score), safeReason(reason), Instant.now().toString());
+		entries.put(uuid, entry);
+		indexName(entry);
+		journal.appendPut(entry);
 		return true;
 	}
 
@@ -78,10 +117,10 @@ public final class BlacklistManager {
 		if (entry == null) {
 			return false;
 		}
-		entry.name = safeName(name);
+		rename(entry, safeName(name));
 		entry.score = clampScore(score);
 		entry.reason = safeReason(reason);
-		save();
+		journal.appendPut(entry);
 		return true;
 	}
 
@@ -90,11 +129,13 @@ public final class BlacklistManager {
 			return false;
 		}
 
-		boolean changed = entries.remove(uuid) != null;
-		if (changed) {
-			save();
+		ScamEntry removed = entries.remove(uuid);
+		if (removed == null) {
+			return false;
 		}
-		return changed;
+		unindexName(removed);
+		journal.appendRemove(uuid);
+		return true;
 	}
 
 	public boolean contains(UUID uuid) {
@@ -106,15 +147,10 @@ public final class BlacklistManager {
 	}
 
 	public ScamEntry findByName(String name) {
-		if (name == null || name.isBlank()) {
+		if (name == null || name.isBlank() || !nameFilter.mightContain(name)) {
 			return null;
 		}
-		for (ScamEntry entry : entries.values()) {
-			if (entry.name != null && entry.name.equalsIgnoreCase(name.trim())) {
-				return entry;
-			}
-		}
-		return null;
+		return byName.get(nameKey(name));
 	}
 
 	public boolean isBlacklisted(String playerName, Function<String, UUID> uuidResolver) {
@@ -134,28 +170,175 @@ public final class BlacklistManager {
 		return entries.isEmpty();
 	}
 
+	public int size() {
+		return entries.size();
+	}
+
 	public Collection<ScamEntry> allEntries() {
-		List<ScamEntry> sorted = new ArrayList<>(entries.values());
-		sorted.sort(Comparator.comparing((ScamEntry entry) -> entry.name.toLowerCase()).thenComparing(entry -> entry.uuid.toString()));
-		return sorted;
+		return List.copyOf(sorted);
 	}
 
-	private void loadJson(Path path) {
-		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-			BlacklistFile data = GSON.fromJson(reader, BlacklistFile.class);
-			if (data == null || data.entries == null) {
-				return;
+	/**
+	 * Returns up to {@code limit} entries in list order, starting at {@code offset}.
+	 */
+	public List<ScamEntry> page(int offset, int limit) {
+		int from = Math.max(0, Math.min(offset, sorted.size()));
+		int to = Math.min(sorted.size(), from + Math.max(0, limit));
+		return List.copyOf(sorted.subList(from, to));
+	}
+
+	/**
+	 * Returns up to {@code limit} distinct names starting with {@code prefix} (case-insensitive), in list order.
+	 */
+	public List<String> namesStartingWith(String prefix, int limit) {
+		String key = nameKey(prefix);
+		List<String> names = new ArrayList<>(Math.min(Math.max(0, limit), 16));
+		String previousKey = null;
+		for (int i = lowerBound(key, ""); i < sorted.size() && names.size() < limit; i++) {
+			ScamEntry entry = sorted.get(i);
+			String entryKey = nameKey(entry.name);
+			if (!entryKey.startsWith(key)) {
+				break;
 			}
-			for (ScamEntry entry : data.entries) {
-				ScamEntry normalized = normalizeEntry(entry);
-				if (normalized != null) {
-					entries.put(normalized.uuid, normalized);
-				}
+			if (!entryKey.equals(previousKey)) {
+				names.add(entry.name);
+				previousKey = entryKey;
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Starts a bulk merge. Entries are merged in memory as they are offered, the name indexes are
+	 * rebuilt once and one snapshot is written when the merge is finished; nothing is journaled per entry.
+	 */
+	Merge beginMerge() {
+		return new Merge();
+	}
+
+	/**
+	 * Index key of a player name: trimmed and folded with {@link Character#toLowerCase(char)},
+	 * the same folding {@link NameBloomFilter} hashes.
+	 */
+	static String nameKey(String name) {
+		if (name == null) {
+			return "";
+		}
+		String trimmed = name.trim();
+		char[] folded = new char[trimmed.length()];
+		for (int i = 0; i < folded.length; i++) {
+			folded[i] = Character.toLowerCase(trimmed.charAt(i));
+		}
+		return new String(folded);
+	}
+
+	/**
+	 * Index of the first entry not before ({@code key}, {@code uuid}) in {@link #ENTRY_ORDER}.
+	 */
+	private int lowerBound(String key, String uuid) {
+		int low = 0;
+		int high = sorted.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			ScamEntry entry = sorted.get(mid);
+			int compared = nameKey(entry.name).compareTo(key);
+			if (compared == 0) {
+				compared = String.valueOf(entry.uuid).compareTo(uuid);
 			}
+			if (compared < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void rename(ScamEntry entry, String name) {
+		if (nameKey(entry.name).equals(nameKey(name))) {
+			entry.name = name;
+			return;
+		}
+		unindexName(entry);
+		entry.name = name;
+		indexName(entry);
+	}
+
+	private void indexName(ScamEntry entry) {
+		if (merging) {
+			return;
+		}
+		sorted.add(lowerBound(nameKey(entry.name), String.valueOf(entry.uuid)), entry);
+		byName.putIfAbsent(nameKey(entry.name), entry);
+		if (byName.size() > nameFilter.expectedEntries()) {
+			rebuildNameFilter();
+			return;
+		}
+		nameFilter.add(entry.name);
+	}
+
+	private void unindexName(ScamEntry entry) {
+		if (merging) {
+			return;
+		}
+		String key = nameKey(entry.name);
+		int position = lowerBound(key, String.valueOf(entry.uuid));
+		if (position < sorted.size() && sorted.get(position) == entry) {
+			sorted.remove(position);
+		}
+		if (byName.get(key) != entry) {
+			return;
+		}
+		byName.remove(key);
+		// Names are not unique; other entries with the same name are the neighbours in the sorted list.
+		for (int i = Math.max(0, position - 1); i <= position && i < sorted.size(); i++) {
+			if (nameKey(sorted.get(i).name).equals(key)) {
+				byName.put(key, sorted.get(i));
+				return;
+			}
+		}
+		staleFilterNames++;
+		if (staleFilterNames > byName.size() / 2 + 64) {
+			rebuildNameFilter();
+		}
+	}
+
+	private void rebuildNameIndex() {
+		sorted.clear();
+		sorted.addAll(entries.values());
+		sorted.sort(ENTRY_ORDER);
+		byName.clear();
+		for (ScamEntry entry : sorted) {
+			byName.putIfAbsent(nameKey(entry.name), entry);
+		}
+		rebuildNameFilter();
+	}
+
+	private void rebuildNameFilter() {
+		NameBloomFilter rebuilt = new NameBloomFilter(byName.size() * 2);
+		for (String key : byName.keySet()) {
+			rebuilt.add(key);
+		}
+		nameFilter = rebuilt;
+		staleFilterNames = 0;
+	}
+
+	private void loadJson(Path path) {
+		try {
+			putAll(BlacklistJournal.readSnapshot(path));
 		} catch (IOException ignored) {
 		}
 	}
 
+	private void putAll(List<ScamEntry> loaded) {
+		for (ScamEntry entry : loaded) {
+			ScamEntry normalized = normalizeEntry(entry);
+			if (normalized != null) {
+				entries.put(normalized.uuid, normalized);
+			}
+		}
+	}
+
 	private void loadLegacyTxt(Path path) {
 		try {
 			List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
@@ -169,19 +352,6 @@ public final class BlacklistManager {
 		}
 	}
 
-	private void save() {
-		try {
-			Files.createDirectories(filePath.getParent());
-			BlacklistFile data = new BlacklistFile();
-			data.version = 1;
-			data.entries = new ArrayList<>(allEntries());
-			try (Writer writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8)) {
-				GSON.toJson(data, writer);
-			}
-		} catch (IOException ignored) {
-		}
-	}
-
 	private static ScamEntry normalizeEntry(ScamEntry entry) {
 		if (entry == null) {
 			return null;
@@ -224,7 +394,115 @@ public final class BlacklistManager {
 		}
 	}
 
-	private static final class BlacklistFile {
+	/**
+	 * Bulk merge with the import conflict rules: the higher score wins, the reason (and its
+	 * timestamp) of the newer entry wins, and a known name replaces {@code "unknown"}.
+	 */
+	final class Merge {
+		private int added;
+		private int updated;
+		private int skipped;
+		private boolean finished;
+
+		private Merge() {
+			merging = true;
+		}
+
+		/**
+		 * Offers one imported entry. {@code score} below 0 and a null {@code addedAt} mean "not given".
+		 */
+		void offer(UUID uuid, String name, int score, String reason, String addedAt) {
+			if (uuid == null) {
+				skipped++;
+				return;
+			}
+			Instant incomingTime = parseInstant(addedAt);
+			ScamEntry existing = entries.get(uuid);
+			if (existing == null) {
+				ScamEntry entry = new ScamEntry(
+					uuid,
+					safeName(name),
+					clampScore(score < 0 ? DEFAULT_SCORE : score),
+					safeReason(reason),
+					incomingTime == null ? Instant.now().toString() : incomingTime.toString()
+				);
+				entries.put(uuid, entry);
+				indexName(entry);
+				added++;
+				return;
+			}
+
+			boolean changed = false;
+			if (score >= 0 && clampScore(score) > existing.score) {
+				existing.score = clampScore(score);
+				changed = true;
+			}
+			Instant existingTime = parseInstant(existing.addedAt);
+			if (reason != null && !reason.isBlank() && incomingTime != null
+				&& (existingTime == null || incomingTime.isAfter(existingTime))
+				&& !safeReason(reason).equals(existing.reason)) {
+				existing.reason = safeReason(reason);
+				existing.addedAt = incomingTime.toString();
+				changed = true;
+			}
+			if (DEFAULT_NAME.equals(existing.name) && !DEFAULT_NAME.equals(safeName(name))) {
+				rename(existing, safeName(name));
+				changed = true;
+			}
+			if (changed) {
+				updated++;
+			} else {
+				skipped++;
+			}
+		}
+
+		/**
+		 * Counts an input record that could not be used (bad UUID, malformed row).
+		 */
+		void skip() {
+			skipped++;
+		}
+
+		/**
+		 * Queues one snapshot write of the merged blacklist. Safe to call more than once.
+		 */
+		void finish() {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			merging = false;
+			if (added > 0 || updated > 0) {
+				rebuildNameIndex();
+				journal.replaceAll(entries.values());
+			}
+		}
+
+		int added() {
+			return added;
+		}
+
+		int updated() {
+			return updated;
+		}
+
+		int skipped() {
+			return skipped;
+		}
+	}
+
+	private static Instant parseInstant(String value) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return Instant.parse(value.trim());
+		} catch (DateTimeParseException ignored) {
+			return null;
+		}
+	}
+
+	static final class BlacklistFile {
 		int version;
 		List<ScamEntry> entries;
 	}
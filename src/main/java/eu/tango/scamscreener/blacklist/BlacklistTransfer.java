@@ -0,0 +1,465 @@
+package eu.tango.scamscreener.blacklist;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import eu.tango.scamscreener.util.UuidUtil;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Streaming import and export of shared blacklists. Files are read record by record (Gson
+ * {@link JsonReader} or line by line) into a {@link ParsedImport}, which is then merged into the
+ * {@link BlacklistManager} and written once. Reading and writing files touch no blacklist state, so
+ * they can run off the client thread; only {@link #apply} and {@link #snapshot} must run on it.
+ * Supported formats, chosen by file extension:
+ * <ul>
+ *   <li>{@code .json}: the blacklist file format, or a bare array of entries or UUID strings</li>
+ *   <li>{@code .csv}: {@code uuid,name,score,reason,addedAt}, with an optional header row</li>
+ *   <li>anything else: one UUID per line, {@code #} starts a comment</li>
+ * </ul>
+ */
+public final class BlacklistTransfer {
+	private static final String[] CSV_COLUMNS = {"uuid", "name", "score", "reason", "addedAt"};
+
+	private BlacklistTransfer() {
+	}
+
+	public enum Format {
+		JSON,
+		CSV,
+		UUID_LIST;
+
+		public static Format of(Path path) {
+			String name = path.getFileName() == null ? "" : path.getFileName().toString().toLowerCase(Locale.ROOT);
+			if (name.endsWith(".json")) {
+				return JSON;
+			}
+			if (name.endsWith(".csv")) {
+				return CSV;
+			}
+			return UUID_LIST;
+		}
+	}
+
+	public record ImportResult(int added, int updated, int skipped, long elapsedNanos) {
+		public int total() {
+			return added + updated + skipped;
+		}
+
+		public double recordsPerSecond() {
+			return elapsedNanos <= 0L ? 0.0 : total() * 1_000_000_000.0 / elapsedNanos;
+		}
+	}
+
+	/**
+	 * Records read from an import file and not merged yet. A file that turns out to be malformed
+	 * half way keeps the records read before that, and the error is rethrown by {@link #apply}.
+	 */
+	public static final class ParsedImport {
+		private final List<ImportedEntry> records = new ArrayList<>();
+		private int skipped;
+		private long elapsedNanos;
+		private Exception failure;
+
+		private ParsedImport() {
+		}
+
+		void offer(UUID uuid, String name, int score, String reason, String addedAt) {
+			if (uuid == null) {
+				skipped++;
+				return;
+			}
+			records.add(new ImportedEntry(uuid, name, score, reason, addedAt));
+		}
+
+		void skip() {
+			skipped++;
+		}
+
+		public int size() {
+			return records.size() + skipped;
+		}
+	}
+
+	private record ImportedEntry(UUID uuid, String name, int score, String reason, String addedAt) {
+	}
+
+	/**
+	 * Merges {@code path} into {@code blacklist} on the calling thread.
+	 */
+	public static ImportResult importFile(BlacklistManager blacklist, Path path) throws IOException {
+		return apply(blacklist, read(path));
+	}
+
+	/**
+	 * Reads {@code path} without touching any blacklist. Throws only if the file cannot be opened;
+	 * a parse error part way through is kept in the result for {@link #apply}.
+	 */
+	public static ParsedImport read(Path path) throws IOException {
+		long start = System.nanoTime();
+		ParsedImport parsed = new ParsedImport();
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			try {
+				skipByteOrderMark(reader);
+				switch (Format.of(path)) {
+					case JSON -> readJson(reader, parsed);
+					case CSV -> readCsv(reader, parsed);
+					case UUID_LIST -> readUuidList(reader, parsed);
+				}
+			} catch (IOException | RuntimeException e) {
+				parsed.failure = e;
+			}
+		}
+		parsed.elapsedNanos = System.nanoTime() - start;
+		return parsed;
+	}
+
+	/**
+	 * Merges {@code parsed} into {@code blacklist} and queues one snapshot write, then rethrows the
+	 * parse error if there was one.
+	 */
+	public static ImportResult apply(BlacklistManager blacklist, ParsedImport parsed) throws IOException {
+		long start = System.nanoTime();
+		BlacklistManager.Merge merge = blacklist.beginMerge();
+		try {
+			for (ImportedEntry record : parsed.records) {
+				merge.offer(record.uuid(), record.name(), record.score(), record.reason(), record.addedAt());
+			}
+		} finally {
+			merge.finish();
+		}
+		if (parsed.failure instanceof IOException error) {
+			throw error;
+		}
+		if (parsed.failure instanceof RuntimeException error) {
+			throw error;
+		}
+		return new ImportResult(
+			merge.added(),
+			merge.updated(),
+			merge.skipped() + parsed.skipped,
+			parsed.elapsedNanos + System.nanoTime() - start
+		);
+	}
+
+	/**
+	 * Writes every entry to {@code path} in the format of its extension and returns how many were written.
+	 */
+	public static int exportFile(BlacklistManager blacklist, Path path) throws IOException {
+		return write(snapshot(blacklist), path);
+	}
+
+	/**
+	 * Copies of every entry in list order, so they can be written while the blacklist keeps changing.
+	 */
+	public static List<BlacklistManager.ScamEntry> snapshot(BlacklistManager blacklist) {
+		List<BlacklistManager.ScamEntry> copies = new ArrayList<>(blacklist.size());
+		for (BlacklistManager.ScamEntry entry : blacklist.allEntries()) {
+			copies.add(new BlacklistManager.ScamEntry(entry.uuid(), entry.name(), entry.score(), entry.reason(), entry.addedAt()));
+		}
+		return copies;
+	}
+
+	/**
+	 * Writes {@code entries} to {@code path} in the format of its extension and returns how many were written.
+	 */
+	public static int write(List<BlacklistManager.ScamEntry> entries, Path path) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		int count = 0;
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			switch (Format.of(path)) {
+				case JSON -> count = writeJson(writer, entries);
+				case CSV -> count = writeCsv(writer, entries);
+				case UUID_LIST -> count = writeUuidList(writer, entries);
+			}
+		}
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ignored) {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return count;
+	}
+
+	/**
+	 * Dashed UUID, or the 32-digit form used by the Mojang API and many shared lists.
+	 */
+	static UUID parseUuid(String raw) {
+		UUID parsed = UuidUtil.parse(raw);
+		if (parsed != null || raw == null) {
+			return parsed;
+		}
+		String hex = raw.trim();
+		if (hex.length() != 32) {
+			return null;
+		}
+		for (int i = 0; i < hex.length(); i++) {
+			if (Character.digit(hex.charAt(i), 16) < 0) {
+				return null;
+			}
+		}
+		return new UUID(Long.parseUnsignedLong(hex.substring(0, 16), 16), Long.parseUnsignedLong(hex.substring(16), 16));
+	}
+
+	private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+		reader.mark(1);
+		if (reader.read() != '\uFEFF') {
+			reader.reset();
+		}
+	}
+
+	private static void readJson(Reader source, ParsedImport parsed) throws IOException {
+		JsonReader reader = new JsonReader(source);
+		JsonToken first = reader.peek();
+		if (first == JsonToken.BEGIN_ARRAY) {
+			readJsonEntries(reader, parsed);
+			return;
+		}
+		if (first != JsonToken.BEGIN_OBJECT) {
+			throw new IOException("Expected a blacklist object or array, found " + first);
+		}
+		reader.beginObject();
+		while (reader.hasNext()) {
+			if ("entries".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+				readJsonEntries(reader, parsed);
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+	}
+
+	private static void readJsonEntries(JsonReader reader, ParsedImport parsed) throws IOException {
+		reader.beginArray();
+		while (reader.hasNext()) {
+			JsonToken token = reader.peek();
+			if (token == JsonToken.STRING) {
+				parsed.offer(parseUuid(reader.nextString()), null, -1, null, null);
+			} else if (token == JsonToken.BEGIN_OBJECT) {
+				readJsonEntry(reader, parsed);
+			} else {
+				reader.skipValue();
+				parsed.skip();
+			}
+		}
+		reader.endArray();
+	}
+
+	private static void readJsonEntry(JsonReader reader, ParsedImport parsed) throws IOException {
+		UUID uuid = null;
+		String name = null;
+		int score = -1;
+		String reason = null;
+		String addedAt = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String field = reader.nextName();
+			switch (field) {
+				case "uuid", "id" -> uuid = parseUuid(scalar(reader));
+				case "name", "username" -> name = scalar(reader);
+				case "score" -> score = parseScore(scalar(reader));
+				case "reason" -> reason = scalar(reader);
+				case "addedAt" -> addedAt = scalar(reader);
+				default -> reader.skipValue();
+			}
+		}
+		reader.endObject();
+		parsed.offer(uuid, name, score, reason, addedAt);
+	}
+
+	/**
+	 * String or number value as text; anything else is skipped and read as null.
+	 */
+	private static String scalar(JsonReader reader) throws IOException {
+		JsonToken token = reader.peek();
+		if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+			return reader.nextString();
+		}
+		reader.skipValue();
+		return null;
+	}
+
+	private static void readCsv(BufferedReader reader, ParsedImport parsed) throws IOException {
+		int[] columns = {0, 1, 2, 3, 4};
+		boolean firstRow = true;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			List<String> fields = splitCsv(line);
+			if (firstRow) {
+				firstRow = false;
+				// Only a row naming the UUID column is a header; otherwise it is a data row with a bad UUID.
+				int[] header = parseUuid(fields.get(0)) == null ? headerColumns(fields) : null;
+				if (header != null && header[0] >= 0) {
+					columns = header;
+					continue;
+				}
+			}
+			parsed.offer(
+				parseUuid(field(fields, columns[0])),
+				field(fields, columns[1]),
+				parseScore(field(fields, columns[2])),
+				field(fields, columns[3]),
+				field(fields, columns[4])
+			);
+		}
+	}
+
+	private static void readUuidList(BufferedReader reader, ParsedImport parsed) throws IOException {
+		String line;
+		while ((line = reader.readLine()) != null) {
+			int comment = line.indexOf('#');
+			String value = (comment >= 0 ? line.substring(0, comment) : line).trim();
+			if (value.isEmpty()) {
+				continue;
+			}
+			parsed.offer(parseUuid(value), null, -1, null, null);
+		}
+	}
+
+	private static int writeJson(Writer out, List<BlacklistManager.ScamEntry> entries) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.setIndent("  ");
+		writer.beginObject();
+		writer.name("version").value(1);
+		writer.name("entries").beginArray();
+		int count = 0;
+		for (BlacklistManager.ScamEntry entry : entries) {
+			writer.beginObject();
+			writer.name("uuid").value(entry.uuid().toString());
+			writer.name("name").value(entry.name());
+			writer.name("score").value(entry.score());
+			writer.name("reason").value(entry.reason());
+			writer.name("addedAt").value(entry.addedAt());
+			writer.endObject();
+			count++;
+		}
+		writer.endArray();
+		writer.endObject();
+		writer.flush();
+		return count;
+	}
+
+	private static int writeCsv(BufferedWriter writer, List<BlacklistManager.ScamEntry> entries) throws IOException {
+		writer.write(String.join(",", CSV_COLUMNS));
+		writer.newLine();
+		int count = 0;
+		for (BlacklistManager.ScamEntry entry : entries) {
+			writer.write(entry.uuid().toString());
+			writer.write(',');
+			writer.write(quoteCsv(entry.name()));
+			writer.write(',');
+			writer.write(String.valueOf(entry.score()));
+			writer.write(',');
+			writer.write(quoteCsv(entry.reason()));
+			writer.write(',');
+			writer.write(quoteCsv(entry.addedAt()));
+			writer.newLine();
+			count++;
+		}
+		return count;
+	}
+
+	private static int writeUuidList(BufferedWriter writer, List<BlacklistManager.ScamEntry> entries) throws IOException {
+		int count = 0;
+		for (BlacklistManager.ScamEntry entry : entries) {
+			writer.write(entry.uuid().toString());
+			writer.newLine();
+			count++;
+		}
+		return count;
+	}
+
+	private static int parseScore(String raw) {
+		if (raw == null || raw.isBlank()) {
+			return -1;
+		}
+		try {
+			return (int) Math.round(Double.parseDouble(raw.trim()));
+		} catch (NumberFormatException ignored) {
+			return -1;
+		}
+	}
+
+	private static int[] headerColumns(List<String> header) {
+		int[] columns = {-1, -1, -1, -1, -1};
+		for (int i = 0; i < header.size(); i++) {
+			String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+			switch (name) {
+				case "uuid", "id" -> columns[0] = i;
+				case "name", "username" -> columns[1] = i;
+				case "score" -> columns[2] = i;
+				case "reason" -> columns[3] = i;
+				case "addedat", "added_at" -> columns[4] = i;
+				default -> {
+				}
+			}
+		}
+		return columns;
+	}
+
+	private static String field(List<String> fields, int column) {
+		return column < 0 || column >= fields.size() ? null : fields.get(column);
+	}
+
+	/**
+	 * Splits one CSV row; quoted fields may contain commas and doubled quotes but not line breaks.
+	 */
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					current.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(c);
+			}
+		}
+		fields.add(current.toString());
+		return fields;
+	}
+
+	private static String quoteCsv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\r", " ").replace("\n", " ").replace("\"", "\"\"") + '"';
+	}
+}
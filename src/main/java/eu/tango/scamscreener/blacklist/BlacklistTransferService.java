@@ -0,0 +1,165 @@
+package eu.tango.scamscreener.blacklist;
+
+import eu.tango.scamscreener.config.ScamScreenerPaths;
+import eu.tango.scamscreener.ui.MessageDispatcher;
+import eu.tango.scamscreener.ui.Messages;
+import net.minecraft.client.Minecraft;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Command and settings-screen entry point for {@link BlacklistTransfer}: resolves file names,
+ * runs the import or export and reports the result in chat. Files are read and written on a
+ * background thread; only the merge and the export snapshot run on the client thread.
+ */
+public final class BlacklistTransferService {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BlacklistTransferService.class);
+	private static final List<String> DEFAULT_IMPORT_FILES = List.of(
+		"scam-screener-blacklist-import.json",
+		"scam-screener-blacklist-import.csv",
+		"scam-screener-blacklist-import.txt"
+	);
+	private static final String DEFAULT_EXPORT_FILE = "scam-screener-blacklist-export.json";
+
+	private final BlacklistManager blacklist;
+	private final Executor worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "scamscreener-blacklist-transfer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public BlacklistTransferService(BlacklistManager blacklist) {
+		this.blacklist = blacklist;
+	}
+
+	public int importFile(String input) {
+		return importFile(input, () -> {
+		});
+	}
+
+	/**
+	 * Reads {@code input} in the background, merges it on the client thread and then runs {@code onApplied} there.
+	 */
+	public int importFile(String input, Runnable onApplied) {
+		Path path = resolve(input);
+		if (path == null) {
+			MessageDispatcher.reply(Messages.blacklistTransferCommandHelp());
+			return 0;
+		}
+		worker.execute(() -> {
+			BlacklistTransfer.ParsedImport parsed;
+			try {
+				parsed = BlacklistTransfer.read(path);
+			} catch (IOException | RuntimeException e) {
+				importFailed(path, e);
+				return;
+			}
+			Minecraft.getInstance().execute(() -> {
+				applyImport(path, parsed);
+				onApplied.run();
+			});
+		});
+		return 1;
+	}
+
+	public int exportFile(String input) {
+		Path path = resolve(input);
+		if (path == null) {
+			MessageDispatcher.reply(Messages.blacklistTransferCommandHelp());
+			return 0;
+		}
+		List<BlacklistManager.ScamEntry> entries = BlacklistTransfer.snapshot(blacklist);
+		worker.execute(() -> {
+			try {
+				int count = BlacklistTransfer.write(entries, path);
+				MessageDispatcher.reply(Messages.blacklistExported(path.toString(), count));
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("Failed to export blacklist to {}", path, e);
+				// Code: BL-EXPORT-001
+				MessageDispatcher.reply(Messages.blacklistExportFailed(errorDetail(e)));
+			}
+		});
+		return 1;
+	}
+
+	/**
+	 * Imports the first of {@code scam-screener-blacklist-import.json|csv|txt} found in the mod config directory.
+	 */
+	public int importDefaultFile(Runnable onApplied) {
+		for (String name : DEFAULT_IMPORT_FILES) {
+			if (Files.exists(ScamScreenerPaths.inModConfigDir(name))) {
+				return importFile(name, onApplied);
+			}
+		}
+		MessageDispatcher.reply(Messages.blacklistImportFailed(
+			"Place " + String.join(", ", DEFAULT_IMPORT_FILES) + " in config/scamscreener first."
+		));
+		return 0;
+	}
+
+	public int exportDefaultFile() {
+		return exportFile(DEFAULT_EXPORT_FILE);
+	}
+
+	private void applyImport(Path path, BlacklistTransfer.ParsedImport parsed) {
+		try {
+			BlacklistTransfer.ImportResult result = BlacklistTransfer.apply(blacklist, parsed);
+			LOGGER.info(
+				"Imported {}: {} new, {} updated, {} skipped in {} ms",
+				path,
+				result.added(),
+				result.updated(),
+				result.skipped(),
+				result.elapsedNanos() / 1_000_000L
+			);
+			MessageDispatcher.reply(Messages.blacklistImported(
+				path.getFileName().toString(),
+				result.added(),
+				result.updated(),
+				result.skipped(),
+				result.recordsPerSecond()
+			));
+		} catch (IOException | RuntimeException e) {
+			importFailed(path, e);
+		}
+	}
+
+	private static void importFailed(Path path, Exception error) {
+		LOGGER.warn("Failed to import blacklist from {}", path, error);
+		// Code: BL-IMPORT-001
+		MessageDispatcher.reply(Messages.blacklistImportFailed(errorDetail(error)));
+	}
+
+	private static Path resolve(String input) {
+		if (input == null || input.isBlank()) {
+			return null;
+		}
+		String trimmed = input.trim();
+		if (trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+			trimmed = trimmed.substring(1, trimmed.length() - 1);
+		}
+		try {
+			Path path = Path.of(trimmed);
+			return path.isAbsolute() ? path : ScamScreenerPaths.inModConfigDir(trimmed);
+		} catch (InvalidPathException ignored) {
+			return null;
+		}
+	}
+
+	private static String errorDetail(Exception error) {
+		if (error instanceof NoSuchFileException missing) {
+			return "File not found: " + missing.getFile();
+		}
+		String message = error.getMessage();
+		return message == null || message.isBlank() ? error.getClass().getSimpleName() : message.trim();
+	}
+}
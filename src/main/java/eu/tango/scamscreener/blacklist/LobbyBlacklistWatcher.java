@@ -0,0 +1,99 @@
+package eu.tango.scamscreener.blacklist;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks players entering the tab list against the blacklist and raises one "blacklisted players
+ * in your lobby" alert per burst of hits. Only newly listed UUIDs are checked (one hash lookup
+ * each), and every UUID is alerted at most once per lobby.
+ */
+public final class LobbyBlacklistWatcher {
+	/** Quiet time after the last hit before the alert is sent; a lobby switch lists everyone within a few ticks. */
+	static final long DEBOUNCE_MILLIS = 1_000L;
+	/** Upper bound on how long hits are held back while players keep trickling in. */
+	static final long MAX_DELAY_MILLIS = 3_000L;
+
+	private final BlacklistManager blacklist;
+	private final Consumer<List<BlacklistManager.ScamEntry>> alertSink;
+	private final LongSupplier clock;
+	private final Set<UUID> alerted = new HashSet<>();
+	private final Map<UUID, String> pending = new LinkedHashMap<>();
+	private long lobby = Long.MIN_VALUE;
+	private long firstPendingAt;
+	private long lastPendingAt;
+	private long checkedPlayers;
+
+	public LobbyBlacklistWatcher(BlacklistManager blacklist, Consumer<List<BlacklistManager.ScamEntry>> alertSink) {
+		this(blacklist, alertSink, System::currentTimeMillis);
+	}
+
+	LobbyBlacklistWatcher(BlacklistManager blacklist, Consumer<List<BlacklistManager.ScamEntry>> alertSink, LongSupplier clock) {
+		this.blacklist = blacklist;
+		this.alertSink = alertSink;
+		this.clock = clock;
+	}
+
+	/**
+	 * Called for every player newly listed in the tab list of {@code lobby}.
+	 */
+	public void onPlayerJoined(UUID uuid, String name, long lobby) {
+		if (lobby != this.lobby) {
+			this.lobby = lobby;
+			alerted.clear();
+			pending.clear();
+		}
+		checkedPlayers++;
+		if (uuid == null || !blacklist.contains(uuid) || !alerted.add(uuid)) {
+			return;
+		}
+		long now = clock.getAsLong();
+		if (pending.isEmpty()) {
+			firstPendingAt = now;
+		}
+		lastPendingAt = now;
+		pending.put(uuid, name);
+	}
+
+	/**
+	 * Sends the pending alert once hits have settled.
+	 */
+	public void onClientTick() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		long now = clock.getAsLong();
+		if (now - lastPendingAt < DEBOUNCE_MILLIS && now - firstPendingAt < MAX_DELAY_MILLIS) {
+			return;
+		}
+		List<BlacklistManager.ScamEntry> entries = new ArrayList<>(pending.size());
+		for (UUID uuid : pending.keySet()) {
+			// Re-read: the entry may have been removed or renamed while the alert was held back.
+			BlacklistManager.ScamEntry entry = blacklist.get(uuid);
+			if (entry != null) {
+				entries.add(entry);
+			}
+		}
+		pending.clear();
+		if (!entries.isEmpty()) {
+			alertSink.accept(entries);
+		}
+	}
+
+	public void reset() {
+		lobby = Long.MIN_VALUE;
+		alerted.clear();
+		pending.clear();
+	}
+
+	long checkedPlayers() {
+		return checkedPlayers;
+	}
+}
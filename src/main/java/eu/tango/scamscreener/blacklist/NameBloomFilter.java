@@ -0,0 +1,91 @@
+package eu.tango.scamscreener.blacklist;
+
+/**
+ * Bloom filter over case-folded, trimmed player names. It answers the common "not blacklisted"
+ * case without trimming, lower-casing or hashing into the name index. Bits are never cleared, so
+ * removed names stay "maybe present" until the owner rebuilds the filter.
+ */
+final class NameBloomFilter {
+	private static final int BITS_PER_ENTRY = 10;
+	private static final int HASHES = 7;
+	private static final int MIN_BITS = 1024;
+
+	private final long[] words;
+	private final int mask;
+	private final int expectedEntries;
+
+	NameBloomFilter(int expectedEntries) {
+		int bits = MIN_BITS;
+		while (bits < expectedEntries * BITS_PER_ENTRY && bits < (1 << 30)) {
+			bits <<= 1;
+		}
+		this.words = new long[bits >>> 6];
+		this.mask = bits - 1;
+		this.expectedEntries = Math.max(expectedEntries, bits / BITS_PER_ENTRY);
+	}
+
+	/**
+	 * Number of names the filter was sized for (about 1% false positives up to here).
+	 */
+	int expectedEntries() {
+		return expectedEntries;
+	}
+
+	void add(String name) {
+		long hash = hash(name);
+		if (hash == 0L) {
+			return;
+		}
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32) | 1;
+		for (int i = 0; i < HASHES; i++) {
+			int bit = (h1 + i * h2) & mask;
+			words[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	boolean mightContain(String name) {
+		long hash = hash(name);
+		if (hash == 0L) {
+			return false;
+		}
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32) | 1;
+		for (int i = 0; i < HASHES; i++) {
+			int bit = (h1 + i * h2) & mask;
+			if ((words[bit >>> 6] & (1L << bit)) == 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * FNV-1a over the trimmed name folded with {@link Character#toLowerCase(char)}, matching
+	 * {@link BlacklistManager#nameKey(String)}; 0 for blank names.
+	 */
+	static long hash(String name) {
+		if (name == null) {
+			return 0L;
+		}
+		int start = 0;
+		int end = name.length();
+		while (start < end && name.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && name.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			return 0L;
+		}
+		long hash = 0xcbf29ce484222325L;
+		for (int i = start; i < end; i++) {
+			hash ^= Character.toLowerCase(name.charAt(i));
+			hash *= 0x100000001b3L;
+		}
+		// Spread the low bits, which the double hashing uses directly.
+		hash ^= hash >>> 29;
+		return hash == 0L ? 1L : hash;
+	}
+}
@@ -0,0 +1,442 @@
+package eu.tango.scamscreener.chat.mute;
+
+import eu.tango.scamscreener.config.MutePatternsConfig;
+import eu.tango.scamscreener.util.PatternCache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matcher for a set of mute patterns. Plain phrases are compiled into one case-insensitive
+ * Aho-Corasick automaton whose hits must sit on word boundaries (same as the former
+ * {@code \b<quoted>\b} regex); regex patterns are merged into one alternation, except those whose
+ * meaning could change inside a larger pattern, which keep their own {@link Pattern}. Adding
+ * phrases therefore does not add per-line cost.
+ *
+ * <p>The automaton, the alternation and each remaining regex are evaluation units. Units count
+ * evaluations, time and per-pattern hits, and {@link #reorder(Map)} sorts them by hits per
+ * nanosecond so that the units most likely to end the scan cheaply run first. Not thread-safe.
+ */
+final class MuteMatcher {
+	static final int REGEX_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+	static final MuteMatcher EMPTY = new MuteMatcher(new Unit[0], 0);
+
+	private final Unit[] units;
+	private final int regexCount;
+
+	private MuteMatcher(Unit[] units, int regexCount) {
+		this.units = units;
+		this.regexCount = regexCount;
+	}
+
+	/**
+	 * Compiles {@code patterns} in their given order; entries that are not valid regexes are skipped.
+	 */
+	static MuteMatcher compile(Iterable<String> patterns) {
+		return compile(patterns, Map.of());
+	}
+
+	/**
+	 * Compiles {@code patterns} and orders the units by the recorded {@code stats}.
+	 */
+	static MuteMatcher compile(Iterable<String> patterns, Map<String, MutePatternsConfig.PatternStats> stats) {
+		List<String> literals = new ArrayList<>();
+		List<String> mergeable = new ArrayList<>();
+		List<Unit> separate = new ArrayList<>();
+		for (String pattern : patterns) {
+			if (pattern == null || pattern.isEmpty()) {
+				continue;
+			}
+			if (!isLikelyRegex(pattern)) {
+				literals.add(pattern);
+				continue;
+			}
+			Pattern compiled;
+			try {
+				compiled = PatternCache.compile(pattern, REGEX_FLAGS);
+			} catch (PatternSyntaxException ignored) {
+				continue;
+			}
+			if (isMergeable(pattern)) {
+				mergeable.add(pattern);
+			} else {
+				separate.add(new RegexUnit(pattern, compiled));
+			}
+		}
+
+		List<Unit> units = new ArrayList<>();
+		if (!literals.isEmpty()) {
+			units.add(new PhraseUnit(literals));
+		}
+		if (mergeable.size() == 1) {
+			units.add(new RegexUnit(mergeable.get(0), PatternCache.compile(mergeable.get(0), REGEX_FLAGS)));
+		} else if (mergeable.size() > 1) {
+			try {
+				units.add(new AlternationUnit(mergeable));
+			} catch (PatternSyntaxException ignored) {
+				for (String pattern : mergeable) {
+					units.add(new RegexUnit(pattern, PatternCache.compile(pattern, REGEX_FLAGS)));
+				}
+			}
+		}
+		units.addAll(separate);
+		if (units.isEmpty()) {
+			return EMPTY;
+		}
+		int regexCount = literals.isEmpty() ? units.size() : units.size() - 1;
+		MuteMatcher matcher = new MuteMatcher(units.toArray(new Unit[0]), regexCount);
+		matcher.reorder(stats);
+		return matcher;
+	}
+
+	boolean matches(String message) {
+		return match(message) != null;
+	}
+
+	/**
+	 * Returns the pattern that matched {@code message}, or {@code null}.
+	 */
+	String match(String message) {
+		if (message == null || message.isEmpty()) {
+			return null;
+		}
+		for (Unit unit : units) {
+			long start = System.nanoTime();
+			int member = unit.find(message);
+			unit.nanos += System.nanoTime() - start;
+			unit.evaluations++;
+			if (member >= 0) {
+				unit.hits[member]++;
+				return unit.members[member];
+			}
+		}
+		return null;
+	}
+
+	boolean isEmpty() {
+		return units.length == 0;
+	}
+
+	/**
+	 * Number of regex scans per line (the merged alternation counts once).
+	 */
+	int regexCount() {
+		return regexCount;
+	}
+
+	/**
+	 * Adds the counters gathered since the last call to {@code stats} (creating missing entries)
+	 * and resets them. A unit's time is split evenly between its patterns.
+	 */
+	void drainInto(Map<String, MutePatternsConfig.PatternStats> stats) {
+		for (Unit unit : units) {
+			if (unit.evaluations == 0L) {
+				continue;
+			}
+			long share = unit.nanos / unit.members.length;
+			for (int i = 0; i < unit.members.length; i++) {
+				MutePatternsConfig.PatternStats entry = stats.computeIfAbsent(unit.members[i], ignored -> new MutePatternsConfig.PatternStats());
+				entry.hits += unit.hits[i];
+				entry.evaluations += unit.evaluations;
+				entry.nanos += i == 0 ? unit.nanos - share * (unit.members.length - 1) : share;
+				unit.hits[i] = 0L;
+			}
+			unit.evaluations = 0L;
+			unit.nanos = 0L;
+		}
+	}
+
+	/**
+	 * Sorts the units by hits per nanosecond spent in them, descending. Units without recorded
+	 * evaluations keep their place at the front so they get measured.
+	 */
+	void reorder(Map<String, MutePatternsConfig.PatternStats> stats) {
+		if (units.length < 2) {
+			return;
+		}
+		double[] scores = new double[units.length];
+		Integer[] order = new Integer[units.length];
+		for (int i = 0; i < units.length; i++) {
+			order[i] = i;
+			scores[i] = score(units[i], stats);
+		}
+		Arrays.sort(order, (left, right) -> Double.compare(scores[right], scores[left]));
+		Unit[] sorted = new Unit[units.length];
+		for (int i = 0; i < order.length; i++) {
+			sorted[i] = units[order[i]];
+		}
+		System.arraycopy(sorted, 0, units, 0, units.length);
+	}
+
+	private static double score(Unit unit, Map<String, MutePatternsConfig.PatternStats> stats) {
+		long hits = 0L;
+		long evaluations = 0L;
+		long nanos = 0L;
+		for (String member : unit.members) {
+			MutePatternsConfig.PatternStats entry = stats.get(member);
+			if (entry != null) {
+				hits += entry.hits;
+				evaluations = Math.max(evaluations, entry.evaluations);
+				nanos += entry.nanos;
+			}
+		}
+		if (evaluations == 0L) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return (double) hits / Math.max(1L, nanos);
+	}
+
+	static boolean isLikelyRegex(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if ("\\.^$|?*+()[]{}".indexOf(c) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Backreferences, named groups, inline flags and {@code \Q} quoting either depend on group
+	 * numbering or can leak into the other branches, so such patterns are matched on their own.
+	 */
+	private static boolean isMergeable(String pattern) {
+		for (int i = 0; i < pattern.length() - 1; i++) {
+			char c = pattern.charAt(i);
+			char next = pattern.charAt(i + 1);
+			if (c == '\\') {
+				if (Character.isDigit(next) || next == 'k' || next == 'Q') {
+					return false;
+				}
+				i++;
+			} else if (c == '(' && next == '?') {
+				char kind = i + 2 < pattern.length() ? pattern.charAt(i + 2) : ')';
+				if (kind != ':' && kind != '=' && kind != '!' && kind != '>' && !(kind == '<' && isLookbehind(pattern, i + 3))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLookbehind(String pattern, int index) {
+		return index < pattern.length() && (pattern.charAt(index) == '=' || pattern.charAt(index) == '!');
+	}
+
+	/**
+	 * Same per-char folding as {@link Pattern#CASE_INSENSITIVE} with {@link Pattern#UNICODE_CASE}.
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * Same word characters as the default {@code \b}.
+	 */
+	private static boolean isWord(char c) {
+		return c == '_' || Character.isLetterOrDigit(c);
+	}
+
+	private abstract static class Unit {
+		final String[] members;
+		final long[] hits;
+		long evaluations;
+		long nanos;
+
+		Unit(List<String> members) {
+			this.members = members.toArray(new String[0]);
+			this.hits = new long[this.members.length];
+		}
+
+		/**
+		 * Returns the index of the member that matches {@code message}, or -1.
+		 */
+		abstract int find(String message);
+	}
+
+	private static final class RegexUnit extends Unit {
+		private final Pattern pattern;
+
+		RegexUnit(String source, Pattern pattern) {
+			super(List.of(source));
+			this.pattern = pattern;
+		}
+
+		@Override
+		int find(String message) {
+			return pattern.matcher(message).find() ? 0 : -1;
+		}
+	}
+
+	/**
+	 * Mergeable regexes as one {@code (p1)|(p2)|...} pattern; the group that took part in the
+	 * match names the member.
+	 */
+	private static final class AlternationUnit extends Unit {
+		private final Pattern pattern;
+		private final int[] groups;
+
+		AlternationUnit(List<String> sources) {
+			super(sources);
+			StringBuilder alternation = new StringBuilder();
+			groups = new int[sources.size()];
+			int group = 1;
+			for (int i = 0; i < sources.size(); i++) {
+				String source = sources.get(i);
+				if (i > 0) {
+					alternation.append('|');
+				}
+				alternation.append('(').append(source).append(')');
+				groups[i] = group;
+				group += 1 + PatternCache.compile(source, REGEX_FLAGS).matcher("").groupCount();
+			}
+			pattern = Pattern.compile(alternation.toString(), REGEX_FLAGS);
+		}
+
+		@Override
+		int find(String message) {
+			Matcher matcher = pattern.matcher(message);
+			if (!matcher.find()) {
+				return -1;
+			}
+			for (int i = 0; i < groups.length; i++) {
+				if (matcher.start(groups[i]) >= 0) {
+					return i;
+				}
+			}
+			return 0;
+		}
+	}
+
+	private static final class PhraseUnit extends Unit {
+		private static final int[] NO_OUTPUT = new int[0];
+
+		private final char[][] edges;
+		private final int[][] targets;
+		private final int[] failure;
+		private final int[] lengths;
+		/** Members (phrase indexes) that end in each state, including those reached via failure links. */
+		private final int[][] output;
+
+		PhraseUnit(List<String> phrases) {
+			super(phrases);
+			lengths = new int[phrases.size()];
+			List<char[]> edgeList = new ArrayList<>();
+			List<int[]> targetList = new ArrayList<>();
+			List<int[]> outputList = new ArrayList<>();
+			edgeList.add(new char[0]);
+			targetList.add(new int[0]);
+			outputList.add(NO_OUTPUT);
+			for (int index = 0; index < phrases.size(); index++) {
+				String phrase = phrases.get(index);
+				lengths[index] = phrase.length();
+				int state = 0;
+				for (int i = 0; i < phrase.length(); i++) {
+					char c = fold(phrase.charAt(i));
+					int next = step(edgeList.get(state), targetList.get(state), c);
+					if (next < 0) {
+						next = edgeList.size();
+						edgeList.add(new char[0]);
+						targetList.add(new int[0]);
+						outputList.add(NO_OUTPUT);
+						insertEdge(edgeList, targetList, state, c, next);
+					}
+					state = next;
+				}
+				outputList.set(state, append(outputList.get(state), index));
+			}
+
+			edges = edgeList.toArray(new char[0][]);
+			targets = targetList.toArray(new int[0][]);
+			output = outputList.toArray(new int[0][]);
+			failure = new int[edges.length];
+			ArrayDeque<Integer> queue = new ArrayDeque<>();
+			for (int child : targets[0]) {
+				queue.add(child);
+			}
+			while (!queue.isEmpty()) {
+				int state = queue.poll();
+				for (int i = 0; i < edges[state].length; i++) {
+					char c = edges[state][i];
+					int child = targets[state][i];
+					int fallback = failure[state];
+					int next = step(edges[fallback], targets[fallback], c);
+					while (next < 0 && fallback != 0) {
+						fallback = failure[fallback];
+						next = step(edges[fallback], targets[fallback], c);
+					}
+					failure[child] = next < 0 || next == child ? 0 : next;
+					if (output[failure[child]].length > 0) {
+						output[child] = concat(output[child], output[failure[child]]);
+					}
+					queue.add(child);
+				}
+			}
+		}
+
+		@Override
+		int find(String text) {
+			int state = 0;
+			for (int i = 0; i < text.length(); i++) {
+				char c = fold(text.charAt(i));
+				int next = step(edges[state], targets[state], c);
+				while (next < 0 && state != 0) {
+					state = failure[state];
+					next = step(edges[state], targets[state], c);
+				}
+				state = Math.max(next, 0);
+				for (int member : output[state]) {
+					if (onWordBoundaries(text, i + 1 - lengths[member], i + 1)) {
+						return member;
+					}
+				}
+			}
+			return -1;
+		}
+
+		private static boolean onWordBoundaries(String text, int start, int end) {
+			boolean before = start > 0 && isWord(text.charAt(start - 1));
+			boolean after = end < text.length() && isWord(text.charAt(end));
+			return before != isWord(text.charAt(start)) && isWord(text.charAt(end - 1)) != after;
+		}
+
+		private static int step(char[] keys, int[] next, char c) {
+			int index = Arrays.binarySearch(keys, c);
+			return index < 0 ? -1 : next[index];
+		}
+
+		private static void insertEdge(List<char[]> edgeList, List<int[]> targetList, int state, char c, int target) {
+			char[] keys = edgeList.get(state);
+			int[] next = targetList.get(state);
+			int at = -Arrays.binarySearch(keys, c) - 1;
+			char[] grownKeys = new char[keys.length + 1];
+			int[] grownNext = new int[next.length + 1];
+			System.arraycopy(keys, 0, grownKeys, 0, at);
+			System.arraycopy(next, 0, grownNext, 0, at);
+			grownKeys[at] = c;
+			grownNext[at] = target;
+			System.arraycopy(keys, at, grownKeys, at + 1, keys.length - at);
+			System.arraycopy(next, at, grownNext, at + 1, next.length - at);
+			edgeList.set(state, grownKeys);
+			targetList.set(state, grownNext);
+		}
+
+		private static int[] append(int[] values, int value) {
+			int[] grown = Arrays.copyOf(values, values.length + 1);
+			grown[values.length] = value;
+			return grown;
+		}
+
+		private static int[] concat(int[] first, int[] second) {
+			int[] out = Arrays.copyOf(first, first.length + second.length);
+			System.arraycopy(second, 0, out, first.length, second.length);
+			return out;
+		}
+	}
+}
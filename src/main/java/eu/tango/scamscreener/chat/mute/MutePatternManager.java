@@ -1,20 +1,39 @@
 package eu.tango.scamscreener.chat.mute;
 
 import eu.tango.scamscreener.config.MutePatternsConfig;
+import eu.tango.scamscreener.util.PatternCache;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 public final class MutePatternManager {
-	private static final int REGEX_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+	/** Recent verdicts; a line is checked by the allow gate and, for player chat, again by the pipeline. */
+	private static final int VERDICT_CACHE_SIZE = 256;
+	/** Evaluated lines between re-sorting the matcher by hit rate and cost. */
+	private static final int REORDER_INTERVAL = 1_024;
+	private static final long STATS_SAVE_INTERVAL_MILLIS = 5L * 60L * 1_000L;
 
 	private final Set<String> patterns = new LinkedHashSet<>();
-	private final List<Pattern> compiledPatterns = new ArrayList<>();
+	private final Map<String, Boolean> verdicts = new LinkedHashMap<>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > VERDICT_CACHE_SIZE;
+		}
+	};
+	private final Map<String, MutePatternsConfig.PatternStats> stats = new HashMap<>();
+	private MuteMatcher matcher = MuteMatcher.EMPTY;
+	private int evaluationsSinceReorder;
+	private boolean statsDirty;
+	private long lastStatsSaveMillis = System.currentTimeMillis();
+	private long evaluations;
+	private long cachedVerdicts;
 	private boolean enabled = true;
 	private boolean notifyEnabled = true;
 	private int notifyIntervalSeconds = 30;
@@ -24,10 +43,21 @@ public final class MutePatternManager {
 	public void load() {
 		MutePatternsConfig cfg = MutePatternsConfig.loadOrCreate();
 		patterns.clear();
-		compiledPatterns.clear();
 		for (String pattern : cfg.patterns) {
-			tryAddPattern(pattern);
+			String normalized = normalize(pattern);
+			if (normalized != null && isValid(normalized)) {
+				patterns.add(normalized);
+			}
+		}
+		matcher = MuteMatcher.EMPTY;
+		stats.clear();
+		for (String pattern : patterns) {
+			MutePatternsConfig.PatternStats stored = cfg.stats.get(pattern);
+			if (stored != null) {
+				stats.put(pattern, stored);
+			}
 		}
+		rebuildMatcher();
 		enabled = cfg.enabled == null ? true : cfg.enabled;
 		notifyEnabled = cfg.notifyEnabled;
 		notifyIntervalSeconds = cfg.notifyIntervalSeconds;
@@ -41,9 +71,11 @@ public final class MutePatternManager {
 		if (patterns.contains(normalized)) {
 			return AddResult.ALREADY_EXISTS;
 		}
-		if (!tryAddPattern(normalized)) {
+		if (!isValid(normalized)) {
 			return AddResult.INVALID;
 		}
+		patterns.add(normalized);
+		rebuildMatcher();
 		save();
 		return AddResult.ADDED;
 	}
@@ -56,7 +88,8 @@ public final class MutePatternManager {
 		if (!patterns.remove(normalized)) {
 			return false;
 		}
-		rebuildCompiledPatterns();
+		rebuildMatcher();
+		stats.remove(normalized);
 		save();
 		return true;
 	}
@@ -67,20 +100,86 @@ public final class MutePatternManager {
 		return list;
 	}
 
+	/**
+	 * Decides whether an incoming line is hidden and counts it for the blocked-messages summary.
+	 * Call once per received line (the allow gates); other checks use {@link #isMuted(String)}.
+	 */
 	public boolean shouldBlock(String message) {
-		if (!enabled || message == null || message.isBlank() || compiledPatterns.isEmpty()) {
+		if (!isMuted(message)) {
 			return false;
 		}
-		if (isScamScreenerMessage(message)) {
+		blockedSinceLastNotify++;
+		return true;
+	}
+
+	/**
+	 * Returns whether {@code message} matches a mute pattern, without counting it. Verdicts of
+	 * recent lines are cached until the pattern list changes.
+	 */
+	public boolean isMuted(String message) {
+		if (!enabled || message == null || message.isBlank() || matcher.isEmpty()) {
 			return false;
 		}
-		for (Pattern pattern : compiledPatterns) {
-			if (pattern.matcher(message).find()) {
-				blockedSinceLastNotify++;
-				return true;
-			}
+		Boolean cached = verdicts.get(message);
+		if (cached != null) {
+			cachedVerdicts++;
+			return cached;
+		}
+		evaluations++;
+		boolean muted = !isScamScreenerMessage(message) && matcher.match(message) != null;
+		verdicts.put(message, muted);
+		statsDirty = true;
+		if (++evaluationsSinceReorder >= REORDER_INTERVAL) {
+			evaluationsSinceReorder = 0;
+			matcher.drainInto(stats);
+			matcher.reorder(stats);
+		}
+		return muted;
+	}
+
+	/**
+	 * Hits, evaluations and time per pattern (including earlier sessions), most hits first.
+	 */
+	public List<PatternStats> patternStats() {
+		matcher.drainInto(stats);
+		List<PatternStats> out = new ArrayList<>(patterns.size());
+		for (String pattern : patterns) {
+			MutePatternsConfig.PatternStats entry = stats.get(pattern);
+			out.add(entry == null
+				? new PatternStats(pattern, 0L, 0L, 0L)
+				: new PatternStats(pattern, entry.hits, entry.evaluations, entry.nanos));
+		}
+		out.sort(Comparator.comparingLong(PatternStats::hits).reversed().thenComparing(PatternStats::pattern));
+		return out;
+	}
+
+	/**
+	 * Saves the pattern statistics if they changed and the last save is a while ago. Called every tick.
+	 */
+	public void saveStatsIfDue(long nowMillis) {
+		if (statsDirty && nowMillis - lastStatsSaveMillis >= STATS_SAVE_INTERVAL_MILLIS) {
+			save();
+		}
+	}
+
+	/**
+	 * Saves changed pattern statistics now (e.g. on client shutdown).
+	 */
+	public void flushStats() {
+		if (statsDirty) {
+			save();
 		}
-		return false;
+	}
+
+	/**
+	 * Number of lines matched against the patterns, and number answered from the verdict cache.
+	 */
+	public long evaluations() {
+		return evaluations;
+	}
+
+	public long cachedVerdicts() {
+		return cachedVerdicts;
 	}
 
 	public boolean shouldNotifyNow(long nowMillis) {
@@ -113,52 +212,41 @@ public final class MutePatternManager {
 		return notifyIntervalSeconds;
 	}
 
-	private boolean tryAddPattern(String pattern) {
+	private void rebuildMatcher() {
+		matcher.drainInto(stats);
+		matcher = MuteMatcher.compile(patterns, stats);
+		evaluationsSinceReorder = 0;
+		verdicts.clear();
+	}
+
+	private static boolean isValid(String pattern) {
+		if (!MuteMatcher.isLikelyRegex(pattern)) {
+			return true;
+		}
 		try {
-			Pattern compiled = compilePattern(pattern);
-			patterns.add(pattern);
-			compiledPatterns.add(compiled);
+			PatternCache.compile(pattern, MuteMatcher.REGEX_FLAGS);
 			return true;
 		} catch (PatternSyntaxException ignored) {
 			return false;
 		}
 	}
 
-	private void rebuildCompiledPatterns() {
-		compiledPatterns.clear();
-		for (String pattern : patterns) {
-			try {
-				compiledPatterns.add(compilePattern(pattern));
-			} catch (PatternSyntaxException ignored) {
-			}
-		}
-	}
-
-	private static Pattern compilePattern(String pattern) {
-		if (isLikelyRegex(pattern)) {
-			return Pattern.compile(pattern, REGEX_FLAGS);
-		}
-		String wordPattern = "\\b" + Pattern.quote(pattern) + "\\b";
-		return Pattern.compile(wordPattern, REGEX_FLAGS);
-	}
-
-	private static boolean isLikelyRegex(String pattern) {
-		for (int i = 0; i < pattern.length(); i++) {
-			char c = pattern.charAt(i);
-			if ("\\.^$|?*+()[]{}".indexOf(c) >= 0) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	private void save() {
 		MutePatternsConfig cfg = new MutePatternsConfig();
 		cfg.patterns = allPatterns();
 		cfg.enabled = enabled;
 		cfg.notifyEnabled = notifyEnabled;
 		cfg.notifyIntervalSeconds = notifyIntervalSeconds;
+		matcher.drainInto(stats);
+		for (String pattern : cfg.patterns) {
+			MutePatternsConfig.PatternStats entry = stats.get(pattern);
+			if (entry != null) {
+				cfg.stats.put(pattern, entry);
+			}
+		}
 		MutePatternsConfig.save(cfg);
+		statsDirty = false;
+		lastStatsSaveMillis = System.currentTimeMillis();
 	}
 
 	private static String normalize(String rawPattern) {
@@ -180,6 +268,19 @@ public final class MutePatternManager {
 			|| trimmed.startsWith("====================================");
 	}
 
+	public record PatternStats(String pattern, long hits, long evaluations, long nanos) {
+		public long averageNanos() {
+			return evaluations == 0L ? 0L : nanos / evaluations;
+		}
+
+		/**
+		 * One-line summary for chat and the settings screen.
+		 */
+		public String summary() {
+			return pattern + " | " + hits + " hits / " + evaluations + " checks | avg " + averageNanos() + " ns";
+		}
+	}
+
 	public enum AddResult {
 		ADDED,
 		ALREADY_EXISTS,
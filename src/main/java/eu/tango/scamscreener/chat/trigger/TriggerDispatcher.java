@@ -0,0 +1,82 @@
+package eu.tango.scamscreener.chat.trigger;
+
+/**
+ * Finds the {@link TriggerContext} of a system message with one pass over its fixed text and at
+ * most one regex confirm, instead of trying every context pattern. The contexts are mutually
+ * exclusive, so the result equals trying {@link TriggerContext#values()} in order.
+ */
+public final class TriggerDispatcher {
+	private static final int MIN_NAME_LENGTH = 3;
+	private static final int MAX_NAME_LENGTH = 16;
+
+	private TriggerDispatcher() {
+	}
+
+	/**
+	 * Returns the trigger context and player name of {@code message}, or {@code null} when it is not a trigger line.
+	 */
+	public static Match match(String message) {
+		if (message == null || message.length() < MIN_NAME_LENGTH + 10) {
+			return null;
+		}
+		TriggerContext context = candidate(message);
+		if (context == null) {
+			return null;
+		}
+		String playerName = context.matchPlayerName(message);
+		return playerName == null ? null : new Match(context, playerName);
+	}
+
+	private static TriggerContext candidate(String message) {
+		switch (message.charAt(0)) {
+			case 'Y' -> {
+				if (message.startsWith("You have sent a trade request to ")) {
+					return TriggerContext.TRADE_OUTGOING;
+				}
+				if (message.startsWith("You are trading with ")) {
+					return TriggerContext.TRADE_SESSION;
+				}
+				if (message.startsWith("You'll be partying with: ")) {
+					return TriggerContext.PARTY_WITH_CONFIRMATION;
+				}
+			}
+			case 'P' -> {
+				if (message.startsWith("Party Finder > ")) {
+					return TriggerContext.PARTY_FINDER_DUNGEON_JOIN;
+				}
+			}
+			default -> {
+			}
+		}
+		if (message.regionMatches(true, 0, "You invited ", 0, 12)) {
+			return TriggerContext.COOP_INVITE_SENT;
+		}
+		return nameFirstCandidate(message);
+	}
+
+	/**
+	 * Contexts that start with the player name: the text after the first space decides.
+	 */
+	private static TriggerContext nameFirstCandidate(String message) {
+		int space = message.indexOf(' ', MIN_NAME_LENGTH);
+		if (space < 0 || space > MAX_NAME_LENGTH) {
+			return null;
+		}
+		int rest = space + 1;
+		if (message.startsWith("has sent you a trade request", rest)) {
+			return TriggerContext.TRADE_INCOMING;
+		}
+		if (message.regionMatches(true, rest, "joined your ", 0, 12)) {
+			return TriggerContext.COOP_MEMBER_JOINED;
+		}
+		if (message.regionMatches(true, rest, "has ", 0, 4)
+			|| message.regionMatches(true, rest, "requested ", 0, 10)
+			|| message.regionMatches(true, rest, "ask", 0, 3)) {
+			return TriggerContext.COOP_JOIN_REQUEST;
+		}
+		return null;
+	}
+
+	public record Match(TriggerContext context, String playerName) {
+	}
+}
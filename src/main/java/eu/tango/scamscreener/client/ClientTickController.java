@@ -1,7 +1,10 @@
 package eu.tango.scamscreener.client;
 
+import eu.tango.scamscreener.blacklist.LobbyBlacklistWatcher;
 import eu.tango.scamscreener.chat.mute.MutePatternManager;
 import eu.tango.scamscreener.location.LocationService;
+import eu.tango.scamscreener.lookup.PlayerLookup;
+import eu.tango.scamscreener.pipeline.core.ChatAdmissionController;
 import eu.tango.scamscreener.pipeline.core.DetectionPipeline;
 import eu.tango.scamscreener.ui.Messages;
 import net.minecraft.client.Minecraft;
@@ -9,20 +12,29 @@ import net.minecraft.client.Minecraft;
 public final class ClientTickController {
 	private final MutePatternManager mutePatternManager;
 	private final DetectionPipeline detectionPipeline;
+	private final ChatAdmissionController admissionController;
 	private final Runnable openSettingsAction;
 	private final LocationService locationService;
+	private final PlayerLookup playerLookup;
+	private final LobbyBlacklistWatcher lobbyWatcher;
 	private boolean checkedModelUpdate;
 	private boolean openSettingsRequested;
 
 	public ClientTickController(MutePatternManager mutePatternManager,
 		DetectionPipeline detectionPipeline,
+		ChatAdmissionController admissionController,
 		Runnable openSettingsAction,
-		LocationService locationService
+		LocationService locationService,
+		PlayerLookup playerLookup,
+		LobbyBlacklistWatcher lobbyWatcher
 	) {
 		this.mutePatternManager = mutePatternManager;
 		this.detectionPipeline = detectionPipeline;
+		this.admissionController = admissionController;
 		this.openSettingsAction = openSettingsAction;
 		this.locationService = locationService;
+		this.playerLookup = playerLookup;
+		this.lobbyWatcher = lobbyWatcher;
 	}
 
 	public void requestOpenSettings() {
@@ -38,10 +50,17 @@ public final class ClientTickController {
 		}
 
 		if (client.player == null || client.getConnection() == null) {
+			admissionController.reset();
 			detectionPipeline.reset();
 			if (locationService != null) {
 				locationService.reset();
 			}
+			if (playerLookup != null) {
+				playerLookup.reset();
+			}
+			if (lobbyWatcher != null) {
+				lobbyWatcher.reset();
+			}
 			checkedModelUpdate = false;
 			return;
 		}
@@ -52,12 +71,20 @@ public final class ClientTickController {
 		if (locationService != null) {
 			locationService.onClientTick(client);
 		}
+		if (playerLookup != null) {
+			playerLookup.onClientTick(client);
+		}
+		if (lobbyWatcher != null) {
+			lobbyWatcher.onClientTick();
+		}
+		admissionController.drain();
 
 		maybeNotifyBlockedMessages(client);
 	}
 
 	private void maybeNotifyBlockedMessages(Minecraft client) {
 		long now = System.currentTimeMillis();
+		mutePatternManager.saveStatsIfDue(now);
 		if (!mutePatternManager.shouldNotifyNow(now)) {
 			return;
 		}
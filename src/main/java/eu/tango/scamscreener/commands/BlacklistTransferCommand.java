@@ -0,0 +1,43 @@
+package eu.tango.scamscreener.commands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import eu.tango.scamscreener.ui.Messages;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.network.chat.Component;
+
+import java.util.function.Consumer;
+
+final class BlacklistTransferCommand {
+	private BlacklistTransferCommand() {
+	}
+
+	static LiteralArgumentBuilder<FabricClientCommandSource> buildImport(
+		ScamScreenerCommands.BlacklistTransferHandler handler,
+		Consumer<Component> reply
+	) {
+		return build("import", handler, reply);
+	}
+
+	static LiteralArgumentBuilder<FabricClientCommandSource> buildExport(
+		ScamScreenerCommands.BlacklistTransferHandler handler,
+		Consumer<Component> reply
+	) {
+		return build("export", handler, reply);
+	}
+
+	private static LiteralArgumentBuilder<FabricClientCommandSource> build(
+		String literal,
+		ScamScreenerCommands.BlacklistTransferHandler handler,
+		Consumer<Component> reply
+	) {
+		return ClientCommandManager.literal(literal)
+			.executes(context -> {
+				reply.accept(Messages.blacklistTransferCommandHelp());
+				return 1;
+			})
+			.then(ClientCommandManager.argument("file", StringArgumentType.greedyString())
+				.executes(context -> handler.transfer(StringArgumentType.getString(context, "file"))));
+	}
+}
@@ -26,6 +26,7 @@ private static final List<String> DEBUG_KEYS = DebugRegistry.keys();
 		Consumer<Boolean> setAllHandler,
 		BiConsumer<String, Boolean> setKeyHandler,
 		Supplier<Map<String, Boolean>> debugStateSupplier,
+		Supplier<List<String>> summarySupplier,
 		Consumer<Component> reply
 	) {
 		return ClientCommandManager.literal("debug")
@@ -33,6 +34,18 @@ private static final List<String> DEBUG_KEYS = DebugRegistry.keys();
 				reply.accept(DebugMessages.debugStatus(debugStateSupplier.get()));
 				return 1;
 			})
+			.then(ClientCommandManager.literal("stats")
+				.executes(context -> {
+					List<String> lines = summarySupplier.get();
+					if (lines == null || lines.isEmpty()) {
+						reply.accept(DebugMessages.debugStatus("no pipeline stats yet"));
+						return 1;
+					}
+					for (String line : lines) {
+						reply.accept(DebugMessages.debug("Pipeline", line));
+					}
+					return 1;
+				}))
 			.then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
 				.executes(context -> {
 					boolean enabled = BoolArgumentType.getBool(context, "enabled");
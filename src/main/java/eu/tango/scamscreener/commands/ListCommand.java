@@ -1,5 +1,6 @@
 package eu.tango.scamscreener.commands;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import eu.tango.scamscreener.blacklist.BlacklistManager;
 import eu.tango.scamscreener.ui.Messages;
@@ -10,6 +11,8 @@ import net.minecraft.network.chat.Component;
 import java.util.function.Consumer;
 
 final class ListCommand {
+	private static final int ENTRIES_PER_PAGE = 10;
+
 	private ListCommand() {
 	}
 
@@ -18,17 +21,23 @@ final class ListCommand {
 		Consumer<Component> reply
 	) {
 		return ClientCommandManager.literal("list")
-			.executes(context -> {
-				if (blacklist.isEmpty()) {
-					reply.accept(Messages.blacklistEmpty());
-					return 1;
-				}
+			.executes(context -> showPage(blacklist, 1, reply))
+			.then(ClientCommandManager.argument("page", IntegerArgumentType.integer(1))
+				.executes(context -> showPage(blacklist, IntegerArgumentType.getInteger(context, "page"), reply)));
+	}
+
+	private static int showPage(BlacklistManager blacklist, int page, Consumer<Component> reply) {
+		if (blacklist.isEmpty()) {
+			reply.accept(Messages.blacklistEmpty());
+			return 1;
+		}
 
-				reply.accept(Messages.blacklistHeader());
-				for (BlacklistManager.ScamEntry entry : blacklist.allEntries()) {
-					reply.accept(Messages.blacklistEntry(entry));
-				}
-				return 1;
-			});
+		int totalPages = (blacklist.size() + ENTRIES_PER_PAGE - 1) / ENTRIES_PER_PAGE;
+		int shown = Math.min(page, totalPages);
+		reply.accept(Messages.blacklistHeader(shown, totalPages, blacklist.size()));
+		for (BlacklistManager.ScamEntry entry : blacklist.page((shown - 1) * ENTRIES_PER_PAGE, ENTRIES_PER_PAGE)) {
+			reply.accept(Messages.blacklistEntry(entry));
+		}
+		return 1;
 	}
 }
@@ -8,6 +8,8 @@ import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.network.chat.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 final class MuteCommand {
@@ -22,6 +24,11 @@ final class MuteCommand {
 			.executes(context -> {
 				mutePatternManager.setEnabled(true);
 				reply.accept(Messages.muteEnabled());
+				List<String> lines = new ArrayList<>();
+				for (MutePatternManager.PatternStats stats : mutePatternManager.patternStats()) {
+					lines.add(stats.summary());
+				}
+				reply.accept(Messages.mutePatternStats(lines));
 				return 1;
 			})
 			.then(ClientCommandManager.argument("pattern", StringArgumentType.greedyString())
@@ -11,13 +11,14 @@ import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.network.chat.Component;
 
-import java.util.Locale;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 final class RemoveCommand {
+	private static final int MAX_SUGGESTIONS = 50;
+
 	private RemoveCommand() {
 	}
 
@@ -50,12 +51,8 @@ final class RemoveCommand {
 	}
 
 	private static CompletableFuture<Suggestions> suggestBlacklistedPlayers(BlacklistManager blacklist, SuggestionsBuilder builder) {
-		String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
-		for (BlacklistManager.ScamEntry entry : blacklist.allEntries()) {
-			String name = entry.name();
-			if (name != null && !name.isBlank() && name.toLowerCase(Locale.ROOT).startsWith(remaining)) {
-				builder.suggest(name);
-			}
+		for (String name : blacklist.namesStartingWith(builder.getRemaining(), MAX_SUGGESTIONS)) {
+			builder.suggest(name);
 		}
 		return builder.buildFuture();
 	}
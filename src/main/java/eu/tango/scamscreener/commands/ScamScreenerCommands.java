@@ -31,12 +31,15 @@ public final class ScamScreenerCommands {
 	private final java.util.function.Consumer<Boolean> setAllDebugHandler;
 	private final java.util.function.BiConsumer<String, Boolean> setDebugKeyHandler;
 	private final java.util.function.Supplier<java.util.Map<String, Boolean>> debugStateSupplier;
+	private final Supplier<java.util.List<String>> debugSummarySupplier;
 	private final BooleanSupplier autoLeaveEnabledSupplier;
 	private final Consumer<Boolean> setAutoLeaveEnabledHandler;
 	private final IntSupplier trainHandler;
 	private final IntSupplier resetAiHandler;
 	private final Supplier<String> lastCapturedChatSupplier;
 	private final Consumer<UUID> onBlacklistRemoved;
+	private final BlacklistTransferHandler importHandler;
+	private final BlacklistTransferHandler exportHandler;
 	private final Runnable openSettingsHandler;
 	private final Consumer<Component> reply;
 
@@ -54,12 +57,15 @@ public final class ScamScreenerCommands {
 		java.util.function.Consumer<Boolean> setAllDebugHandler,
 		java.util.function.BiConsumer<String, Boolean> setDebugKeyHandler,
 		java.util.function.Supplier<java.util.Map<String, Boolean>> debugStateSupplier,
+		Supplier<java.util.List<String>> debugSummarySupplier,
 		BooleanSupplier autoLeaveEnabledSupplier,
 		Consumer<Boolean> setAutoLeaveEnabledHandler,
 		IntSupplier trainHandler,
 		IntSupplier resetAiHandler,
 		Supplier<String> lastCapturedChatSupplier,
 		Consumer<UUID> onBlacklistRemoved,
+		BlacklistTransferHandler importHandler,
+		BlacklistTransferHandler exportHandler,
 		Runnable openSettingsHandler,
 		Consumer<Component> reply
 	) {
@@ -76,12 +82,15 @@ public final class ScamScreenerCommands {
 		this.setAllDebugHandler = setAllDebugHandler;
 		this.setDebugKeyHandler = setDebugKeyHandler;
 		this.debugStateSupplier = debugStateSupplier;
+		this.debugSummarySupplier = debugSummarySupplier;
 		this.autoLeaveEnabledSupplier = autoLeaveEnabledSupplier;
 		this.setAutoLeaveEnabledHandler = setAutoLeaveEnabledHandler;
 		this.trainHandler = trainHandler;
 		this.resetAiHandler = resetAiHandler;
 		this.lastCapturedChatSupplier = lastCapturedChatSupplier;
 		this.onBlacklistRemoved = onBlacklistRemoved;
+		this.importHandler = importHandler;
+		this.exportHandler = exportHandler;
 		this.openSettingsHandler = openSettingsHandler;
 		this.reply = reply;
 	}
@@ -103,6 +112,8 @@ public final class ScamScreenerCommands {
 			.then(AddCommand.build(blacklist, targetResolver, reply))
 			.then(RemoveCommand.build(blacklist, targetResolver, onBlacklistRemoved, reply))
 			.then(ListCommand.build(blacklist, reply))
+			.then(BlacklistTransferCommand.buildImport(importHandler, reply))
+			.then(BlacklistTransferCommand.buildExport(exportHandler, reply))
 			.then(MuteCommand.build(mutePatternManager, reply))
 			.then(UnmuteCommand.build(mutePatternManager, reply))
 			.then(EmailBypassCommand.build(emailBypassHandler, reply))
@@ -121,7 +132,7 @@ public final class ScamScreenerCommands {
 			.then(AlertLevelCommand.build(reply))
 			.then(AutoLeaveCommand.build(autoLeaveEnabledSupplier, setAutoLeaveEnabledHandler, reply))
 			.then(SettingsCommand.build(openSettingsHandler))
-			.then(DebugCommand.build(setAllDebugHandler, setDebugKeyHandler, debugStateSupplier, reply))
+			.then(DebugCommand.build(setAllDebugHandler, setDebugKeyHandler, debugStateSupplier, debugSummarySupplier, reply))
 			.then(VersionCommand.build(reply))
 			.then(PreviewCommand.build(reply, lastCapturedChatSupplier));
 	}
@@ -160,4 +171,9 @@ public final class ScamScreenerCommands {
 	public interface EmailBypassHandler {
 		int bypass(String id);
 	}
+
+	@FunctionalInterface
+	public interface BlacklistTransferHandler {
+		int transfer(String file);
+	}
 }
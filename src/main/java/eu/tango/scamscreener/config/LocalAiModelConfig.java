@@ -16,11 +16,17 @@ import java.util.Map;
 public final class LocalAiModelConfig {
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 	private static final Path FILE_PATH = ScamScreenerPaths.inModConfigDir("scam-screener-local-ai-model.json");
+	private static final Path BINARY_FILE_PATH = ScamScreenerPaths.inModConfigDir("scam-screener-local-ai-model.bin");
 
 	public int version = 9;
 	public double intercept = -2.25;
 	public Map<String, Double> denseFeatureWeights = new LinkedHashMap<>(AiFeatureSpace.defaultDenseWeights());
 	public Map<String, Double> tokenWeights = new LinkedHashMap<>();
+	/**
+	 * In-memory storage of {@link #tokenWeights}: {@code float32}, {@code fp16} or {@code int8}.
+	 * The JSON always keeps full precision.
+	 */
+	public String tokenWeightEncoding = "float32";
 	public DenseHeadConfig funnelHead = DenseHeadConfig.defaultFunnelHead();
 
 	public static LocalAiModelConfig loadOrCreate() {
@@ -77,6 +83,13 @@ public final class LocalAiModelConfig {
 		return FILE_PATH;
 	}
 
+	/**
+	 * Compiled binary copy of the JSON model, rebuilt whenever the JSON file changes.
+	 */
+	public static Path binaryFilePath() {
+		return BINARY_FILE_PATH;
+	}
+
 	public static final class DenseHeadConfig {
 		public double intercept = -2.25;
 		public Map<String, Double> denseFeatureWeights = new LinkedHashMap<>(AiFeatureSpace.defaultFunnelDenseWeights());
@@ -10,7 +10,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class MutePatternsConfig {
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -20,6 +22,8 @@ public final class MutePatternsConfig {
 	public Boolean enabled = true;
 	public boolean notifyEnabled = true;
 	public int notifyIntervalSeconds = 30;
+	/** Hit statistics per pattern, kept across sessions and used to order pattern evaluation. */
+	public Map<String, PatternStats> stats = new LinkedHashMap<>();
 
 	public static MutePatternsConfig loadOrCreate() {
 		if (!Files.exists(FILE_PATH)) {
@@ -36,6 +40,9 @@ public final class MutePatternsConfig {
 			if (loaded.patterns == null) {
 				loaded.patterns = new ArrayList<>();
 			}
+			if (loaded.stats == null) {
+				loaded.stats = new LinkedHashMap<>();
+			}
 			if (loaded.notifyIntervalSeconds < 5 || loaded.notifyIntervalSeconds > 600) {
 				loaded.notifyIntervalSeconds = 30;
 			}
@@ -57,4 +64,10 @@ public final class MutePatternsConfig {
 		} catch (IOException ignored) {
 		}
 	}
+
+	public static final class PatternStats {
+		public long hits;
+		public long evaluations;
+		public long nanos;
+	}
 }
@@ -2,6 +2,7 @@ package eu.tango.scamscreener.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -9,8 +10,12 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public final class ScamRulesConfig {
@@ -67,6 +72,23 @@ public final class ScamRulesConfig {
 	public static final long DEFAULT_FUNNEL_CONTEXT_TTL_MILLIS = 600_000L;
 	public static final int DEFAULT_FUNNEL_FULL_SEQUENCE_WEIGHT = 28;
 	public static final int DEFAULT_FUNNEL_PARTIAL_SEQUENCE_WEIGHT = 14;
+	public static final boolean DEFAULT_PIPELINE_EARLY_EXIT = true;
+	public static final int DEFAULT_PIPELINE_BUDGET_MICROS = 0;
+	public static final int DEFAULT_CHAT_STORM_LINES_PER_SECOND = 15;
+	public static final int DEFAULT_CHAT_STORM_QUEUE_CAPACITY = 32;
+	public static final int DEFAULT_CHAT_STORM_DRAIN_PER_TICK = 3;
+	public static final int DEFAULT_CHAT_STORM_PUBLIC_SAMPLE_EVERY = 5;
+	public static final List<String> DEFAULT_PIPELINE_STAGE_ORDER = List.of(
+		"behavior-analysis",
+		"rule",
+		"levenshtein",
+		"behavior",
+		"intent",
+		"trend",
+		"funnel",
+		"ai-context",
+		"ai"
+	);
 
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 	private static final Path FILE_PATH = ScamScreenerPaths.inModConfigDir("scam-screener-rules.json");
@@ -121,6 +143,14 @@ public final class ScamRulesConfig {
 	public int funnelFullSequenceWeight = DEFAULT_FUNNEL_FULL_SEQUENCE_WEIGHT;
 	public int funnelPartialSequenceWeight = DEFAULT_FUNNEL_PARTIAL_SEQUENCE_WEIGHT;
 	public Set<String> disabledRules = new LinkedHashSet<>();
+	public Boolean pipelineEarlyExit = DEFAULT_PIPELINE_EARLY_EXIT;
+	public Integer pipelineBudgetMicros = DEFAULT_PIPELINE_BUDGET_MICROS;
+	public Integer chatStormLinesPerSecond = DEFAULT_CHAT_STORM_LINES_PER_SECOND;
+	public Integer chatStormQueueCapacity = DEFAULT_CHAT_STORM_QUEUE_CAPACITY;
+	public Integer chatStormDrainPerTick = DEFAULT_CHAT_STORM_DRAIN_PER_TICK;
+	public Integer chatStormPublicSampleEvery = DEFAULT_CHAT_STORM_PUBLIC_SAMPLE_EVERY;
+	public List<String> pipelineStageOrder = new ArrayList<>(DEFAULT_PIPELINE_STAGE_ORDER);
+	public Map<String, Set<String>> disabledStagesByChannel = new LinkedHashMap<>();
 
 	public static ScamRulesConfig loadOrCreate() {
 		if (!Files.exists(FILE_PATH)) {
@@ -151,6 +181,26 @@ public final class ScamRulesConfig {
 		}
 	}
 
+	static Path filePath() {
+		return FILE_PATH;
+	}
+
+	static String toJson(ScamRulesConfig config) {
+		return GSON.toJson(config);
+	}
+
+	/**
+	 * Parses and normalizes a config file body; {@code null} if it is not valid JSON.
+	 */
+	static ScamRulesConfig fromJson(String json) {
+		try {
+			ScamRulesConfig parsed = GSON.fromJson(json, ScamRulesConfig.class);
+			return parsed == null ? null : parsed.withDefaults();
+		} catch (JsonParseException ignored) {
+			return null;
+		}
+	}
+
 	public static void save(ScamRulesConfig config) {
 		try {
 			Files.createDirectories(FILE_PATH.getParent());
@@ -269,9 +319,51 @@ public final class ScamRulesConfig {
 		if (disabledRules.isEmpty()) {
 			disabledRules.add("SPAMMY_CONTACT_PATTERN");
 		}
+		if (pipelineEarlyExit == null) {
+			pipelineEarlyExit = DEFAULT_PIPELINE_EARLY_EXIT;
+		}
+		pipelineBudgetMicros = clampInt(pipelineBudgetMicros == null ? DEFAULT_PIPELINE_BUDGET_MICROS : pipelineBudgetMicros, 0, 100_000, DEFAULT_PIPELINE_BUDGET_MICROS);
+		chatStormLinesPerSecond = clampInt(chatStormLinesPerSecond == null ? DEFAULT_CHAT_STORM_LINES_PER_SECOND : chatStormLinesPerSecond, 1, 500, DEFAULT_CHAT_STORM_LINES_PER_SECOND);
+		chatStormQueueCapacity = clampInt(chatStormQueueCapacity == null ? DEFAULT_CHAT_STORM_QUEUE_CAPACITY : chatStormQueueCapacity, 4, 1024, DEFAULT_CHAT_STORM_QUEUE_CAPACITY);
+		chatStormDrainPerTick = clampInt(chatStormDrainPerTick == null ? DEFAULT_CHAT_STORM_DRAIN_PER_TICK : chatStormDrainPerTick, 1, 64, DEFAULT_CHAT_STORM_DRAIN_PER_TICK);
+		chatStormPublicSampleEvery = clampInt(chatStormPublicSampleEvery == null ? DEFAULT_CHAT_STORM_PUBLIC_SAMPLE_EVERY : chatStormPublicSampleEvery, 1, 100, DEFAULT_CHAT_STORM_PUBLIC_SAMPLE_EVERY);
+		pipelineStageOrder = normalizeStageIds(pipelineStageOrder);
+		if (pipelineStageOrder.isEmpty()) {
+			pipelineStageOrder = new ArrayList<>(DEFAULT_PIPELINE_STAGE_ORDER);
+		}
+		Map<String, Set<String>> normalizedStages = new LinkedHashMap<>();
+		if (disabledStagesByChannel != null) {
+			for (Map.Entry<String, Set<String>> entry : disabledStagesByChannel.entrySet()) {
+				if (isBlank(entry.getKey()) || entry.getValue() == null) {
+					continue;
+				}
+				List<String> stages = normalizeStageIds(entry.getValue());
+				if (!stages.isEmpty()) {
+					normalizedStages.put(entry.getKey().trim().toLowerCase(Locale.ROOT), new LinkedHashSet<>(stages));
+				}
+			}
+		}
+		disabledStagesByChannel = normalizedStages;
 		return this;
 	}
 
+	private static List<String> normalizeStageIds(Iterable<String> raw) {
+		List<String> out = new ArrayList<>();
+		if (raw == null) {
+			return out;
+		}
+		for (String id : raw) {
+			if (isBlank(id)) {
+				continue;
+			}
+			String normalized = id.trim().toLowerCase(Locale.ROOT);
+			if (!out.contains(normalized)) {
+				out.add(normalized);
+			}
+		}
+		return out;
+	}
+
 	private static boolean isBlank(String value) {
 		return value == null || value.trim().isEmpty();
 	}
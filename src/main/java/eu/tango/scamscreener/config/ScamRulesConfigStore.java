@@ -0,0 +1,280 @@
+package eu.tango.scamscreener.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single in-memory owner of {@link ScamRulesConfig}. Mutations happen in memory; writes are
+ * debounced and done on a background thread, and external edits to the file are picked up
+ * through a {@link WatchService}.
+ */
+public final class ScamRulesConfigStore {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScamRulesConfigStore.class);
+	private static final long DEFAULT_DEBOUNCE_MILLIS = 250L;
+
+	private final Object lock = new Object();
+	private final Supplier<ScamRulesConfig> loader;
+	private final Path path;
+	private final long debounceMillis;
+	private final ScheduledExecutorService writer;
+	private ScamRulesConfig current;
+	private String lastPersistedJson;
+	private ScheduledFuture<?> pendingWrite;
+	private WatchService watchService;
+	private long writes;
+	private long coalescedWrites;
+	private long externalReloads;
+
+	public ScamRulesConfigStore(Supplier<ScamRulesConfig> loader, Path path, long debounceMillis) {
+		this.loader = loader;
+		this.path = path;
+		this.debounceMillis = Math.max(0L, debounceMillis);
+		this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scamscreener-config-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.current = loader.get();
+		this.lastPersistedJson = ScamRulesConfig.toJson(current);
+	}
+
+	public static ScamRulesConfigStore createDefault() {
+		return new ScamRulesConfigStore(ScamRulesConfig::loadOrCreate, ScamRulesConfig.filePath(), DEFAULT_DEBOUNCE_MILLIS);
+	}
+
+	/**
+	 * Reads from the current config under the store lock. The function must not keep the instance.
+	 */
+	public <T> T read(Function<ScamRulesConfig, T> reader) {
+		synchronized (lock) {
+			return reader.apply(current);
+		}
+	}
+
+	/**
+	 * Applies {@code mutator} in memory. If it reports a change, a debounced background write is scheduled.
+	 */
+	public boolean update(Predicate<ScamRulesConfig> mutator) {
+		synchronized (lock) {
+			if (!mutator.test(current)) {
+				return false;
+			}
+			schedulePersist();
+			return true;
+		}
+	}
+
+	/**
+	 * Writes any pending change now, on the calling thread.
+	 */
+	public void flush() {
+		synchronized (lock) {
+			if (pendingWrite == null) {
+				return;
+			}
+			pendingWrite.cancel(false);
+			pendingWrite = null;
+			persistLocked();
+		}
+	}
+
+	/**
+	 * Flushes pending changes and re-reads the file.
+	 */
+	public void reloadFromDisk() {
+		synchronized (lock) {
+			if (pendingWrite != null) {
+				pendingWrite.cancel(false);
+				pendingWrite = null;
+				persistLocked();
+			}
+			current = loader.get();
+			lastPersistedJson = ScamRulesConfig.toJson(current);
+		}
+	}
+
+	/**
+	 * Starts watching the config file. {@code onExternalChange} runs on the watcher thread after
+	 * the in-memory config has been replaced by the edited file.
+	 */
+	public void watch(Runnable onExternalChange) {
+		synchronized (lock) {
+			if (watchService != null) {
+				return;
+			}
+			try {
+				Files.createDirectories(path.getParent());
+				watchService = FileSystems.getDefault().newWatchService();
+				path.getParent().register(
+					watchService,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY
+				);
+			} catch (IOException e) {
+				LOGGER.debug("Could not watch {}", path, e);
+				watchService = null;
+				return;
+			}
+		}
+		Thread thread = new Thread(() -> watchLoop(onExternalChange), "scamscreener-config-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void close() {
+		flush();
+		synchronized (lock) {
+			if (watchService != null) {
+				try {
+					watchService.close();
+				} catch (IOException ignored) {
+				}
+				watchService = null;
+			}
+		}
+		writer.shutdown();
+	}
+
+	/**
+	 * Reloads the file if its content differs from what this store last wrote or read.
+	 * Returns whether the in-memory config was replaced.
+	 */
+	boolean reloadIfChangedExternally() {
+		String json;
+		try {
+			if (!Files.exists(path)) {
+				return false;
+			}
+			json = Files.readString(path, StandardCharsets.UTF_8);
+		} catch (IOException ignored) {
+			return false;
+		}
+		synchronized (lock) {
+			if (json.equals(lastPersistedJson)) {
+				return false;
+			}
+			ScamRulesConfig parsed = ScamRulesConfig.fromJson(json);
+			if (parsed == null) {
+				// Half-edited or broken file; keep the last good config.
+				return false;
+			}
+			if (pendingWrite != null) {
+				pendingWrite.cancel(false);
+				pendingWrite = null;
+			}
+			current = parsed;
+			lastPersistedJson = json;
+			externalReloads++;
+			return true;
+		}
+	}
+
+	public long writes() {
+		synchronized (lock) {
+			return writes;
+		}
+	}
+
+	public long coalescedWrites() {
+		synchronized (lock) {
+			return coalescedWrites;
+		}
+	}
+
+	public long externalReloads() {
+		synchronized (lock) {
+			return externalReloads;
+		}
+	}
+
+	private void schedulePersist() {
+		if (pendingWrite != null && pendingWrite.cancel(false)) {
+			coalescedWrites++;
+		}
+		pendingWrite = writer.schedule(() -> {
+			synchronized (lock) {
+				pendingWrite = null;
+				persistLocked();
+			}
+		}, debounceMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void persistLocked() {
+		String json = ScamRulesConfig.toJson(current);
+		if (json.equals(lastPersistedJson) && Files.exists(path)) {
+			return;
+		}
+		try {
+			Files.createDirectories(path.getParent());
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			Files.writeString(temp, json, StandardCharsets.UTF_8);
+			try {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ignored) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			lastPersistedJson = json;
+			writes++;
+		} catch (IOException e) {
+			LOGGER.debug("Failed to save {}", path, e);
+		}
+	}
+
+	private void watchLoop(Runnable onExternalChange) {
+		WatchService service;
+		synchronized (lock) {
+			service = watchService;
+		}
+		if (service == null) {
+			return;
+		}
+		String fileName = path.getFileName().toString();
+		while (true) {
+			WatchKey key;
+			try {
+				key = service.take();
+			} catch (InterruptedException | ClosedWatchServiceException ignored) {
+				return;
+			}
+			boolean touched = false;
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.context() instanceof Path changed && changed.getFileName().toString().equals(fileName)) {
+					touched = true;
+				}
+			}
+			key.reset();
+			if (!touched) {
+				continue;
+			}
+			try {
+				// Editors often write in several steps; let them finish before reading.
+				Thread.sleep(debounceMillis);
+			} catch (InterruptedException ignored) {
+				return;
+			}
+			if (reloadIfChangedExternally() && onExternalChange != null) {
+				onExternalChange.run();
+			}
+		}
+	}
+}
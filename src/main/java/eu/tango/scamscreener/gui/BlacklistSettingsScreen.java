@@ -1,6 +1,7 @@
 package eu.tango.scamscreener.gui;
 
 import eu.tango.scamscreener.blacklist.BlacklistManager;
+import eu.tango.scamscreener.blacklist.BlacklistTransferService;
 import eu.tango.scamscreener.rules.ScamRules;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.gui.GuiGraphics;
@@ -21,6 +22,7 @@ final class BlacklistSettingsScreen extends GUI {
 	private static final int SCORE_STEP = 10;
 
 	private final BlacklistManager blacklistManager;
+	private final BlacklistTransferService transferService;
 	private final List<Button> entryButtons = new ArrayList<>();
 	private final List<BlacklistManager.ScamEntry> pageEntries = new ArrayList<>();
 
@@ -39,6 +41,7 @@ final class BlacklistSettingsScreen extends GUI {
 	BlacklistSettingsScreen(Screen parent, BlacklistManager blacklistManager) {
 		super(Component.literal("ScamScreener Blacklist"), parent);
 		this.blacklistManager = blacklistManager;
+		this.transferService = new BlacklistTransferService(blacklistManager);
 	}
 
 	@Override
@@ -58,16 +61,24 @@ final class BlacklistSettingsScreen extends GUI {
 			y += ROW_HEIGHT;
 		}
 
-		int half = (buttonWidth - 8) / 2;
+		int quarter = (buttonWidth - 24) / 4;
 		previousPageButton = this.addRenderableWidget(Button.builder(Component.literal("< Previous"), button -> {
 			page = Math.max(0, page - 1);
 			refreshList();
-		}).bounds(x, y, half, 20).build());
+		}).bounds(x, y, quarter, 20).build());
+
+		this.addRenderableWidget(Button.builder(Component.literal("Import"), button -> transferService.importDefaultFile(this::refreshList))
+			.bounds(x + quarter + 8, y, quarter, 20)
+			.build());
+
+		this.addRenderableWidget(Button.builder(Component.literal("Export"), button -> transferService.exportDefaultFile())
+			.bounds(x + (quarter + 8) * 2, y, quarter, 20)
+			.build());
 
 		nextPageButton = this.addRenderableWidget(Button.builder(Component.literal("Next >"), button -> {
 			page = Math.min(Math.max(0, totalPages - 1), page + 1);
 			refreshList();
-		}).bounds(x + half + 8, y, half, 20).build());
+		}).bounds(x + (quarter + 8) * 3, y, buttonWidth - (quarter + 8) * 3, 20).build());
 		y += ROW_HEIGHT;
 
 		int third = (buttonWidth - 16) / 3;
@@ -144,8 +155,8 @@ final class BlacklistSettingsScreen extends GUI {
 	}
 
 	private void refreshList() {
-		List<BlacklistManager.ScamEntry> allEntries = new ArrayList<>(blacklistManager.allEntries());
-		totalPages = Math.max(1, (int) Math.ceil(allEntries.size() / (double) ENTRIES_PER_PAGE));
+		int totalEntries = blacklistManager.size();
+		totalPages = Math.max(1, (totalEntries + ENTRIES_PER_PAGE - 1) / ENTRIES_PER_PAGE);
 		page = Math.max(0, Math.min(page, totalPages - 1));
 
 		if (selectedUuid != null && blacklistManager.get(selectedUuid) == null) {
@@ -153,26 +164,24 @@ final class BlacklistSettingsScreen extends GUI {
 		}
 
 		pageEntries.clear();
-		int start = page * ENTRIES_PER_PAGE;
+		pageEntries.addAll(blacklistManager.page(page * ENTRIES_PER_PAGE, ENTRIES_PER_PAGE));
 		for (int i = 0; i < ENTRIES_PER_PAGE; i++) {
-			int absolute = start + i;
 			Button button = entryButtons.get(i);
-			if (absolute >= allEntries.size()) {
+			if (i >= pageEntries.size()) {
 				button.active = false;
 				button.visible = true;
 				button.setMessage(Component.literal("-").withStyle(ChatFormatting.DARK_GRAY));
 				continue;
 			}
-			BlacklistManager.ScamEntry entry = allEntries.get(absolute);
-			pageEntries.add(entry);
+			BlacklistManager.ScamEntry entry = pageEntries.get(i);
 			button.active = true;
 			button.visible = true;
 			boolean selected = entry.uuid().equals(selectedUuid);
 			button.setMessage(formatEntry(entry, selected));
 		}
 
-		if (selectedUuid == null && !allEntries.isEmpty()) {
-			selectedUuid = allEntries.get(0).uuid();
+		if (selectedUuid == null && !pageEntries.isEmpty()) {
+			selectedUuid = pageEntries.get(0).uuid();
 			refreshList();
 			return;
 		}
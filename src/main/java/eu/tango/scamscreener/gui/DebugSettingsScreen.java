@@ -96,6 +96,7 @@ final class DebugSettingsScreen extends GUI {
 			case "trade" -> "Trade";
 			case "mute" -> "Mute";
 			case "chatcolor" -> "Chat Color";
+			case "pipeline" -> "Pipeline";
 			default -> key == null ? "" : key;
 		};
 	}
@@ -117,7 +117,7 @@ public final class MainSettingsScreen extends GUI {
 		}).bounds(x + (thirdWidth + 8) * 2, y, thirdWidth, 20).build());
 
 		this.addRenderableWidget(Button.builder(Component.literal("Message Settings"), button -> {
-			openScreen(new MessageSettingsScreen(this));
+			openScreen(new MessageSettingsScreen(this, mutePatternManager));
 		}).bounds(x, y + ROW_HEIGHT, thirdWidth * 2 + 8, 20).build());
 
 		this.addRenderableWidget(Button.builder(Component.literal("AI Update"), button -> {
@@ -1,19 +1,30 @@
 package eu.tango.scamscreener.gui;
 
+import eu.tango.scamscreener.chat.mute.MutePatternManager;
 import eu.tango.scamscreener.rules.ScamRules;
+import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 final class MessageSettingsScreen extends GUI {
+	private static final int STATS_LINE_HEIGHT = 10;
+
+	private final MutePatternManager mutePatternManager;
+	private final List<String> muteStatsLines = new ArrayList<>();
+	private int muteStatsY;
 	private Button scamWarningMessageButton;
 	private Button scamWarningPingButton;
 	private Button blacklistWarningMessageButton;
 	private Button blacklistWarningPingButton;
 	private Button autoLeaveMessageButton;
 
-	MessageSettingsScreen(Screen parent) {
+	MessageSettingsScreen(Screen parent, MutePatternManager mutePatternManager) {
 		super(Component.literal("ScamScreener Messages"), parent);
+		this.mutePatternManager = mutePatternManager;
 	}
 
 	@Override
@@ -51,11 +62,38 @@ final class MessageSettingsScreen extends GUI {
 			ScamRules.setShowAutoLeaveMessage(!ScamRules.showAutoLeaveMessage());
 			refreshButtons();
 		}).bounds(x, y, buttonWidth, 20).build());
+		y += ROW_HEIGHT;
 
+		muteStatsY = y + 4;
+		refreshMuteStats();
 		addBackButton(buttonWidth);
 		refreshButtons();
 	}
 
+	@Override
+	public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+		super.render(guiGraphics, mouseX, mouseY, partialTick);
+		int y = muteStatsY;
+		for (String line : muteStatsLines) {
+			guiGraphics.drawCenteredString(this.font, line, this.width / 2, y, 0xAAAAAA);
+			y += STATS_LINE_HEIGHT;
+		}
+	}
+
+	private void refreshMuteStats() {
+		muteStatsLines.clear();
+		if (mutePatternManager == null) {
+			return;
+		}
+		List<MutePatternManager.PatternStats> stats = mutePatternManager.patternStats();
+		muteStatsLines.add(stats.isEmpty() ? "Mute patterns: none" : "Mute pattern hits:");
+		// Leave room for the back button in the footer.
+		int maxLines = Math.max(0, (this.height - FOOTER_Y_OFFSET - 8 - muteStatsY) / STATS_LINE_HEIGHT - 1);
+		for (int i = 0; i < stats.size() && i < maxLines; i++) {
+			muteStatsLines.add(this.font.plainSubstrByWidth(stats.get(i).summary(), defaultButtonWidth()));
+		}
+	}
+
 	private void refreshButtons() {
 		if (scamWarningMessageButton != null) {
 			scamWarningMessageButton.setMessage(onOffLine("Scam Warning Message: ", ScamRules.showScamWarningMessage()));
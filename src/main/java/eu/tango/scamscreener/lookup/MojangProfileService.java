@@ -1,44 +1,36 @@
 package eu.tango.scamscreener.lookup;
 
-import com.google.gson.Gson;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.net.URI;
-import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class MojangProfileService {
-	private static final Logger LOGGER = LoggerFactory.getLogger(MojangProfileService.class);
-	private static final Gson GSON = new Gson();
-	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
-	private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(4);
-	private static final Duration CACHE_TTL = Duration.ofMinutes(30);
+	/** Requests that failed without an answer are retried after this, not after the full negative TTL. */
+	private static final Duration FAILURE_TTL = Duration.ofMinutes(1);
 
-	private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+	private final ProfileCache cache;
+	private final ProfileLookupCoordinator coordinator;
 	private final Map<String, CompletableFuture<ResolvedTarget>> pendingLookups = new ConcurrentHashMap<>();
 
+	public MojangProfileService() {
+		this(ProfileCache.createDefault(), ProfileLookupCoordinator.createDefault());
+	}
+
+	MojangProfileService(ProfileCache cache, ProfileLookupCoordinator coordinator) {
+		this.cache = cache;
+		this.coordinator = coordinator;
+	}
+
 	public ResolvedTarget lookupCached(String input) {
 		String key = normalizeKey(input);
 		if (key == null) {
 			return null;
 		}
-		CacheEntry cached = cache.get(key);
-		if (cached == null || cached.expiresAt().isBefore(Instant.now())) {
-			cache.remove(key);
-			return null;
-		}
-		return cached.target();
+		ProfileCache.Entry cached = cache.get(key);
+		return cached == null ? null : cached.target();
 	}
 
 	public CompletableFuture<ResolvedTarget> lookupAsync(String input) {
@@ -47,53 +39,61 @@ public final class MojangProfileService {
 			return CompletableFuture.completedFuture(null);
 		}
 
-		ResolvedTarget cached = lookupCached(key);
+		ProfileCache.Entry cached = cache.get(key);
 		if (cached != null) {
-			return CompletableFuture.completedFuture(cached);
+			// Also covers cached misses: unknown names are not requested again until they expire.
+			return CompletableFuture.completedFuture(cached.target());
 		}
 
-		return pendingLookups.computeIfAbsent(key, this::fetchAsync);
-	}
-
-	private CompletableFuture<ResolvedTarget> fetchAsync(String key) {
-		try {
-			String encodedName = URLEncoder.encode(key, StandardCharsets.UTF_8);
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create("https://api.mojang.com/users/profiles/minecraft/" + encodedName))
-				.timeout(LOOKUP_TIMEOUT)
-				.GET()
-				.build();
-
-			return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
-				.thenApply(this::parseResponse)
-				.exceptionally(error -> {
-					LOGGER.debug("Failed Mojang profile lookup for {}", key, error);
-					return null;
-				})
-				.whenComplete((result, error) -> {
-					pendingLookups.remove(key);
-					if (result != null) {
-						cache.put(key, new CacheEntry(result, Instant.now().plus(CACHE_TTL)));
-					}
-				});
-		} catch (Exception e) {
-			LOGGER.debug("Failed to create Mojang profile request for {}", key, e);
-			return CompletableFuture.completedFuture(null);
+		CompletableFuture<ResolvedTarget> created = new CompletableFuture<>();
+		CompletableFuture<ResolvedTarget> pending = pendingLookups.putIfAbsent(key, created);
+		if (pending != null) {
+			return pending;
 		}
+		// Outcomes may complete synchronously (e.g. invalid names), so the map is not touched from inside compute.
+		coordinator.lookup(key).whenComplete((outcome, error) -> {
+			pendingLookups.remove(key, created);
+			created.complete(error == null ? cacheOutcome(key, outcome) : null);
+		});
+		return created;
 	}
 
-	private ResolvedTarget parseResponse(HttpResponse<String> response) {
-		if (response.statusCode() != 200) {
-			return null;
+	private ResolvedTarget cacheOutcome(String key, ProfileLookupCoordinator.Outcome outcome) {
+		if (outcome.target() != null) {
+			cache.putResolved(key, outcome.target());
+		} else if (outcome.failed()) {
+			cache.putMissing(key, FAILURE_TTL);
+		} else {
+			cache.putMissing(key);
 		}
+		return outcome.target();
+	}
 
-		MojangProfile profile = GSON.fromJson(response.body(), MojangProfile.class);
-		if (profile == null || profile.id == null || profile.id.length() != 32 || profile.name == null || profile.name.isBlank()) {
-			return null;
-		}
+	/**
+	 * Writes pending cache changes to disk (e.g. on client shutdown).
+	 */
+	public void flush() {
+		cache.flush();
+	}
 
-		UUID uuid = uuidFromUndashed(profile.id);
-		return uuid == null ? null : new ResolvedTarget(uuid, profile.name);
+	public List<String> debugSummary() {
+		ProfileCache.Stats stats = cache.stats();
+		ProfileLookupCoordinator.Stats lookups = coordinator.stats();
+		return List.of(
+			"profile cache size=" + stats.size()
+				+ " hits=" + stats.hits()
+				+ " negativeHits=" + stats.negativeHits()
+				+ " misses=" + stats.misses()
+				+ " hitRate=" + String.format(Locale.ROOT, "%.2f", stats.hitRate())
+				+ " evicted=" + stats.evictions()
+				+ " expired=" + stats.expirations()
+				+ " writes=" + stats.writes(),
+			"profile lookups queued=" + lookups.queued()
+				+ " requests=" + lookups.requests()
+				+ " retries=" + lookups.retries()
+				+ " throttled=" + lookups.throttled()
+				+ " failed=" + lookups.failures()
+		);
 	}
 
 	private static String normalizeKey(String input) {
@@ -107,24 +107,4 @@ public final class MojangProfileService {
 		}
 		return trimmed.toLowerCase(Locale.ROOT);
 	}
-
-	private static UUID uuidFromUndashed(String undashed) {
-		String dashed = undashed.replaceFirst(
-			"([0-9a-fA-F]{8})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{12})",
-			"$1-$2-$3-$4-$5"
-		);
-		try {
-			return UUID.fromString(dashed);
-		} catch (IllegalArgumentException ignored) {
-			return null;
-		}
-	}
-
-	private record CacheEntry(ResolvedTarget target, Instant expiresAt) {
-	}
-
-	private static final class MojangProfile {
-		String id;
-		String name;
-	}
 }
@@ -0,0 +1,142 @@
+package eu.tango.scamscreener.lookup;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Name to UUID and UUID to name index of the tab list. {@link #sync} diffs the current player
+ * list against the index, so a steady tab list costs one map lookup per player and no allocation.
+ */
+final class PlayerIndex {
+	private final Map<UUID, Slot> byUuid = new HashMap<>();
+	private final Map<String, Slot> byName = new HashMap<>();
+	private long generation;
+
+	<T> void sync(Iterable<T> players, Function<T, UUID> uuidOf, Function<T, String> nameOf) {
+		sync(players, uuidOf, nameOf, null);
+	}
+
+	/**
+	 * Makes the index match {@code players} and reports players that were not indexed before to
+	 * {@code onJoin} (if not null). Players without a UUID or name are ignored.
+	 */
+	<T> void sync(Iterable<T> players, Function<T, UUID> uuidOf, Function<T, String> nameOf, BiConsumer<UUID, String> onJoin) {
+		generation++;
+		int seen = 0;
+		for (T player : players) {
+			UUID uuid = uuidOf.apply(player);
+			String name = nameOf.apply(player);
+			if (uuid == null || name == null || name.isBlank()) {
+				continue;
+			}
+			Slot slot = byUuid.get(uuid);
+			if (slot == null) {
+				slot = new Slot(uuid, name);
+				byUuid.put(uuid, slot);
+				indexName(slot);
+				if (onJoin != null) {
+					onJoin.accept(uuid, name);
+				}
+			} else if (!slot.name.equals(name)) {
+				unindexName(slot);
+				slot.rename(name);
+				indexName(slot);
+			}
+			if (slot.generation != generation) {
+				slot.generation = generation;
+				seen++;
+			}
+		}
+		if (seen == byUuid.size()) {
+			return;
+		}
+		Iterator<Slot> slots = byUuid.values().iterator();
+		while (slots.hasNext()) {
+			Slot slot = slots.next();
+			if (slot.generation != generation) {
+				slots.remove();
+				unindexName(slot);
+			}
+		}
+	}
+
+	UUID uuidByName(String name) {
+		if (name == null || name.isBlank()) {
+			return null;
+		}
+		Slot slot = byName.get(key(name));
+		return slot == null ? null : slot.uuid;
+	}
+
+	String nameByUuid(UUID uuid) {
+		Slot slot = uuid == null ? null : byUuid.get(uuid);
+		return slot == null ? null : slot.name;
+	}
+
+	int size() {
+		return byUuid.size();
+	}
+
+	void clear() {
+		byUuid.clear();
+		byName.clear();
+	}
+
+	/**
+	 * The first slot indexed under a name owns it; later ones are chained behind it.
+	 */
+	private void indexName(Slot slot) {
+		Slot owner = byName.putIfAbsent(slot.key, slot);
+		if (owner != null) {
+			slot.sameName = owner.sameName;
+			owner.sameName = slot;
+		}
+	}
+
+	private void unindexName(Slot slot) {
+		// Tab lists can hold several entries with one name (fake entries); keep one of the others findable.
+		Slot owner = byName.get(slot.key);
+		if (owner == slot) {
+			if (slot.sameName == null) {
+				byName.remove(slot.key);
+			} else {
+				byName.put(slot.key, slot.sameName);
+			}
+		} else if (owner != null) {
+			Slot previous = owner;
+			while (previous.sameName != null && previous.sameName != slot) {
+				previous = previous.sameName;
+			}
+			previous.sameName = slot.sameName;
+		}
+		slot.sameName = null;
+	}
+
+	private static String key(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Slot {
+		private final UUID uuid;
+		private String name;
+		private String key;
+		private long generation;
+		// Next slot with the same name key, see indexName.
+		private Slot sameName;
+
+		private Slot(UUID uuid, String name) {
+			this.uuid = uuid;
+			rename(name);
+		}
+
+		private void rename(String name) {
+			this.name = name;
+			this.key = key(name);
+		}
+	}
+}
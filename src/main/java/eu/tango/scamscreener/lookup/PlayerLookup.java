@@ -7,7 +7,55 @@ import net.minecraft.client.multiplayer.PlayerInfo;
 import java.util.Collection;
 import java.util.UUID;
 
+/**
+ * Resolves names and UUIDs of players in the tab list through a {@link PlayerIndex}. The index
+ * is diffed against the tab list at most once per client tick (or earlier when the list size
+ * changed), so all lookups within a tick see the same list.
+ *
+ * <p>Each world the client joins counts as a new lobby: the index is rebuilt and every listed
+ * player is reported to the join listener again.
+ */
 public final class PlayerLookup {
+	private final PlayerIndex index = new PlayerIndex();
+	private boolean stale = true;
+	private Object currentLevel;
+	private long lobby;
+	private JoinListener joinListener;
+
+	/**
+	 * Sets the listener told about players entering the tab list. With a listener the tab list is
+	 * diffed every tick, not only when a lookup needs it.
+	 */
+	public void setJoinListener(JoinListener joinListener) {
+		this.joinListener = joinListener;
+	}
+
+	public void onClientTick(Minecraft client) {
+		stale = true;
+		Object level = client == null ? null : client.level;
+		if (level != currentLevel) {
+			currentLevel = level;
+			lobby++;
+			index.clear();
+		}
+		if (joinListener != null) {
+			refresh();
+		}
+	}
+
+	public void reset() {
+		index.clear();
+		stale = true;
+		currentLevel = null;
+	}
+
+	/**
+	 * Counter of the world (lobby) the tab list belongs to; changes on every world switch.
+	 */
+	public long lobby() {
+		return lobby;
+	}
+
 	public Collection<PlayerInfo> onlinePlayers() {
 		Minecraft client = Minecraft.getInstance();
 		ClientPacketListener connection = client.getConnection();
@@ -21,25 +69,36 @@ public final class PlayerLookup {
 		if (playerName == null || playerName.isBlank()) {
 			return null;
 		}
-
-		for (PlayerInfo entry : onlinePlayers()) {
-			if (entry.getProfile().name().equalsIgnoreCase(playerName.trim())) {
-				return entry.getProfile().id();
-			}
-		}
-		return null;
+		refresh();
+		return index.uuidByName(playerName);
 	}
 
 	public String findNameByUuid(UUID uuid) {
 		if (uuid == null) {
 			return "unknown";
 		}
+		refresh();
+		String name = index.nameByUuid(uuid);
+		return name == null ? "unknown" : name;
+	}
 
-		for (PlayerInfo entry : onlinePlayers()) {
-			if (uuid.equals(entry.getProfile().id())) {
-				return entry.getProfile().name();
-			}
+	private void refresh() {
+		Collection<PlayerInfo> players = onlinePlayers();
+		// A player who joined after this tick's sync changes the size; refresh then instead of missing them.
+		if (!stale && players.size() == index.size()) {
+			return;
 		}
-		return "unknown";
+		index.sync(
+			players,
+			entry -> entry.getProfile().id(),
+			entry -> entry.getProfile().name(),
+			joinListener == null ? null : (uuid, name) -> joinListener.onJoin(uuid, name, lobby)
+		);
+		stale = false;
+	}
+
+	@FunctionalInterface
+	public interface JoinListener {
+		void onJoin(UUID uuid, String name, long lobby);
 	}
 }
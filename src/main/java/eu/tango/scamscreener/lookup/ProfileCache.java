@@ -0,0 +1,337 @@
+package eu.tango.scamscreener.lookup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import eu.tango.scamscreener.config.ScamScreenerPaths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Name to profile cache for {@link MojangProfileService}, persisted in the mod config directory.
+ * Found profiles and misses (unknown names, failed requests) are kept with their own TTL. The file
+ * is read on first use; changes are written in batches on a background thread, which also sweeps
+ * expired entries. The cache is bounded and evicts the least recently used entry.
+ */
+final class ProfileCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProfileCache.class);
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final String FILE_NAME = "scam-screener-profile-cache.json";
+	private static final int FILE_VERSION = 1;
+	private static final Duration POSITIVE_TTL = Duration.ofDays(1);
+	private static final Duration NEGATIVE_TTL = Duration.ofMinutes(10);
+	private static final int MAX_ENTRIES = 2_048;
+	private static final long WRITE_DELAY_MILLIS = 5_000L;
+	private static final long SWEEP_INTERVAL_MILLIS = 5L * 60L * 1_000L;
+
+	private final Object lock = new Object();
+	// Held while a file is written (never while waiting for lock), so writes do not overlap.
+	private final Object fileLock = new Object();
+	private final Path path;
+	private final long positiveTtlMillis;
+	private final long negativeTtlMillis;
+	private final int maxEntries;
+	private final LongSupplier clock;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private ScheduledExecutorService writer;
+	private ScheduledFuture<?> pendingWrite;
+	private boolean loaded;
+	// Bumped on every change; the file is up to date while it equals persistedChanges.
+	private long changes;
+	private long persistedChanges;
+	private long hits;
+	private long negativeHits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private long writes;
+
+	ProfileCache(Path path, Duration positiveTtl, Duration negativeTtl, int maxEntries, LongSupplier clock) {
+		this.path = path;
+		this.positiveTtlMillis = positiveTtl.toMillis();
+		this.negativeTtlMillis = negativeTtl.toMillis();
+		this.maxEntries = Math.max(1, maxEntries);
+		this.clock = clock;
+	}
+
+	static ProfileCache createDefault() {
+		return new ProfileCache(
+			ScamScreenerPaths.inModConfigDir(FILE_NAME),
+			POSITIVE_TTL,
+			NEGATIVE_TTL,
+			MAX_ENTRIES,
+			System::currentTimeMillis
+		);
+	}
+
+	/**
+	 * Returns the live entry for {@code key} (already normalized), or {@code null} on a miss.
+	 * A returned entry without target is a cached miss.
+	 */
+	Entry get(String key) {
+		synchronized (lock) {
+			ensureLoadedLocked();
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				misses++;
+				return null;
+			}
+			if (entry.expiresAt() <= clock.getAsLong()) {
+				entries.remove(key);
+				expirations++;
+				misses++;
+				markDirtyLocked();
+				return null;
+			}
+			if (entry.target() == null) {
+				negativeHits++;
+			} else {
+				hits++;
+			}
+			return entry;
+		}
+	}
+
+	void putResolved(String key, ResolvedTarget target) {
+		put(key, target, positiveTtlMillis);
+	}
+
+	void putMissing(String key) {
+		put(key, null, negativeTtlMillis);
+	}
+
+	/**
+	 * Caches a miss for {@code ttl} instead of the negative TTL (e.g. short-lived for transient failures).
+	 */
+	void putMissing(String key, Duration ttl) {
+		put(key, null, Math.min(negativeTtlMillis, ttl.toMillis()));
+	}
+
+	/**
+	 * Drops expired entries. Returns how many were removed.
+	 */
+	int sweep() {
+		synchronized (lock) {
+			if (!loaded) {
+				return 0;
+			}
+			long now = clock.getAsLong();
+			int removed = 0;
+			Iterator<Entry> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().expiresAt() <= now) {
+					iterator.remove();
+					removed++;
+				}
+			}
+			if (removed > 0) {
+				expirations += removed;
+				markDirtyLocked();
+			}
+			return removed;
+		}
+	}
+
+	/**
+	 * Writes pending changes now, on the calling thread.
+	 */
+	void flush() {
+		synchronized (lock) {
+			if (pendingWrite != null) {
+				pendingWrite.cancel(false);
+				pendingWrite = null;
+			}
+		}
+		persist();
+	}
+
+	int size() {
+		synchronized (lock) {
+			return entries.size();
+		}
+	}
+
+	Stats stats() {
+		synchronized (lock) {
+			return new Stats(entries.size(), hits, negativeHits, misses, evictions, expirations, writes);
+		}
+	}
+
+	private void put(String key, ResolvedTarget target, long ttlMillis) {
+		synchronized (lock) {
+			ensureLoadedLocked();
+			entries.put(key, new Entry(target, clock.getAsLong() + ttlMillis));
+			evictLocked();
+			markDirtyLocked();
+		}
+	}
+
+	private void evictLocked() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	private void markDirtyLocked() {
+		changes++;
+		if (pendingWrite != null) {
+			return;
+		}
+		pendingWrite = writer().schedule(() -> {
+			synchronized (lock) {
+				pendingWrite = null;
+			}
+			persist();
+		}, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private ScheduledExecutorService writer() {
+		if (writer == null) {
+			writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "scamscreener-profile-cache");
+				thread.setDaemon(true);
+				return thread;
+			});
+			writer.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		return writer;
+	}
+
+	private void ensureLoadedLocked() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (!Files.exists(path)) {
+			return;
+		}
+		long now = clock.getAsLong();
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			CacheFile file = GSON.fromJson(reader, CacheFile.class);
+			if (file == null || file.entries == null || file.version != FILE_VERSION) {
+				return;
+			}
+			for (CacheFileEntry stored : file.entries) {
+				if (stored == null || stored.key == null || stored.expiresAt <= now) {
+					continue;
+				}
+				ResolvedTarget target = null;
+				if (stored.uuid != null) {
+					try {
+						target = new ResolvedTarget(UUID.fromString(stored.uuid), stored.name);
+					} catch (IllegalArgumentException ignored) {
+						continue;
+					}
+				}
+				// The file is written oldest-first, so re-inserting keeps the LRU order.
+				entries.put(stored.key.toLowerCase(Locale.ROOT), new Entry(target, stored.expiresAt));
+			}
+			evictLocked();
+		} catch (IOException | JsonParseException e) {
+			LOGGER.debug("Failed to load profile cache {}", path, e);
+		}
+	}
+
+	/**
+	 * Copies the entries under {@link #lock}, then encodes and moves the file without holding it,
+	 * so lookups on the client thread never wait for the disk.
+	 */
+	private void persist() {
+		synchronized (fileLock) {
+			CacheFile file;
+			long snapshotChanges;
+			synchronized (lock) {
+				if (changes == persistedChanges) {
+					return;
+				}
+				file = snapshotLocked();
+				snapshotChanges = changes;
+			}
+			try {
+				Files.createDirectories(path.getParent());
+				Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+				try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+					GSON.toJson(file, out);
+				}
+				try {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException ignored) {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} catch (IOException e) {
+				LOGGER.debug("Failed to save profile cache {}", path, e);
+				return;
+			}
+			synchronized (lock) {
+				// Changes made while the file was written stay pending.
+				persistedChanges = snapshotChanges;
+				writes++;
+			}
+		}
+	}
+
+	private CacheFile snapshotLocked() {
+		CacheFile file = new CacheFile();
+		file.version = FILE_VERSION;
+		file.entries = new ArrayList<>(entries.size());
+		for (Map.Entry<String, Entry> cached : entries.entrySet()) {
+			CacheFileEntry stored = new CacheFileEntry();
+			stored.key = cached.getKey();
+			ResolvedTarget target = cached.getValue().target();
+			if (target != null) {
+				stored.uuid = target.uuid().toString();
+				stored.name = target.name();
+			}
+			stored.expiresAt = cached.getValue().expiresAt();
+			file.entries.add(stored);
+		}
+		return file;
+	}
+
+	record Entry(ResolvedTarget target, long expiresAt) {
+	}
+
+	record Stats(int size, long hits, long negativeHits, long misses, long evictions, long expirations, long writes) {
+		double hitRate() {
+			long lookups = hits + negativeHits + misses;
+			return lookups == 0 ? 0.0 : (double) (hits + negativeHits) / lookups;
+		}
+	}
+
+	private static final class CacheFile {
+		int version;
+		List<CacheFileEntry> entries;
+	}
+
+	private static final class CacheFileEntry {
+		String key;
+		String uuid;
+		String name;
+		long expiresAt;
+	}
+}
@@ -0,0 +1,316 @@
+package eu.tango.scamscreener.lookup;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves names through Mojang's bulk profile endpoint. Names requested within a short window
+ * are sent together (up to {@value #MAX_BATCH_SIZE} per POST), requests are paced by a
+ * {@link TokenBucket}, and 429/5xx answers or network errors are retried with jittered
+ * exponential backoff.
+ */
+final class ProfileLookupCoordinator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProfileLookupCoordinator.class);
+	private static final Gson GSON = new Gson();
+	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
+	private static final URI DEFAULT_ENDPOINT = URI.create("https://api.minecraftservices.com/minecraft/profile/lookup/bulk/byname");
+	private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(4);
+	/** Mojang answers 400 for the whole batch if one name is invalid, so those never leave the client. */
+	private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_]{1,16}");
+	static final int MAX_BATCH_SIZE = 10;
+
+	private final Object lock = new Object();
+	private final URI endpoint;
+	private final TokenBucket rateLimiter;
+	private final Settings settings;
+	private final ScheduledExecutorService scheduler;
+	private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+	private boolean dispatchScheduled;
+	private long requests;
+	private long retries;
+	private long throttled;
+	private long failures;
+
+	ProfileLookupCoordinator(URI endpoint, TokenBucket rateLimiter, Settings settings) {
+		this.endpoint = endpoint;
+		this.rateLimiter = rateLimiter;
+		this.settings = settings;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scamscreener-profile-lookup");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	static ProfileLookupCoordinator createDefault() {
+		// Mojang allows roughly 600 profile requests per 10 minutes; stay well below with bursts of 5.
+		return new ProfileLookupCoordinator(DEFAULT_ENDPOINT, new TokenBucket(5, 0.5, System::nanoTime), Settings.DEFAULT);
+	}
+
+	/**
+	 * Queues {@code name} for the next batch. The future never completes exceptionally.
+	 */
+	CompletableFuture<Outcome> lookup(String name) {
+		if (name == null || !VALID_NAME.matcher(name).matches()) {
+			return CompletableFuture.completedFuture(Outcome.NOT_FOUND);
+		}
+		Pending pending = new Pending(name);
+		synchronized (lock) {
+			queue.addLast(pending);
+			if (queue.size() >= MAX_BATCH_SIZE) {
+				scheduler.execute(this::dispatch);
+			} else {
+				scheduleDispatchLocked(settings.coalesceMillis());
+			}
+		}
+		return pending.future;
+	}
+
+	Stats stats() {
+		synchronized (lock) {
+			return new Stats(queue.size(), requests, retries, throttled, failures);
+		}
+	}
+
+	void close() {
+		scheduler.shutdownNow();
+	}
+
+	private void scheduleDispatchLocked(long delayMillis) {
+		if (dispatchScheduled) {
+			return;
+		}
+		dispatchScheduled = true;
+		scheduler.schedule(this::dispatch, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void dispatch() {
+		while (true) {
+			List<Pending> batch;
+			synchronized (lock) {
+				dispatchScheduled = false;
+				if (queue.isEmpty()) {
+					return;
+				}
+				long waitNanos = rateLimiter.tryAcquire();
+				if (waitNanos > 0L) {
+					throttled++;
+					scheduleDispatchLocked(TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1L);
+					return;
+				}
+				batch = new ArrayList<>(Math.min(MAX_BATCH_SIZE, queue.size()));
+				while (batch.size() < MAX_BATCH_SIZE && !queue.isEmpty()) {
+					batch.add(queue.pollFirst());
+				}
+				requests++;
+			}
+			send(batch);
+		}
+	}
+
+	private void send(List<Pending> batch) {
+		List<String> names = new ArrayList<>(batch.size());
+		for (Pending pending : batch) {
+			names.add(pending.name);
+		}
+		try {
+			HttpRequest request = HttpRequest.newBuilder()
+				.uri(endpoint)
+				.timeout(LOOKUP_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(names), StandardCharsets.UTF_8))
+				.build();
+			HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+				.whenComplete((response, error) -> {
+					if (error != null) {
+						LOGGER.debug("Mojang profile lookup failed for {}", names, error);
+						retry(batch, 0L);
+					} else {
+						handleResponse(batch, response);
+					}
+				});
+		} catch (RuntimeException e) {
+			LOGGER.debug("Failed to create Mojang profile request for {}", names, e);
+			completeAll(batch, Outcome.FAILED);
+		}
+	}
+
+	private void handleResponse(List<Pending> batch, HttpResponse<String> response) {
+		int status = response.statusCode();
+		if (status == 429 || status >= 500) {
+			retry(batch, retryAfterMillis(response));
+			return;
+		}
+		if (status != 200) {
+			LOGGER.debug("Mojang profile lookup answered {}", status);
+			completeAll(batch, Outcome.FAILED);
+			return;
+		}
+
+		Map<String, ResolvedTarget> found = new HashMap<>();
+		try {
+			MojangProfile[] profiles = GSON.fromJson(response.body(), MojangProfile[].class);
+			if (profiles != null) {
+				for (MojangProfile profile : profiles) {
+					ResolvedTarget target = toTarget(profile);
+					if (target != null) {
+						found.put(target.name().toLowerCase(Locale.ROOT), target);
+					}
+				}
+			}
+		} catch (JsonParseException e) {
+			LOGGER.debug("Unreadable Mojang profile response", e);
+			completeAll(batch, Outcome.FAILED);
+			return;
+		}
+		for (Pending pending : batch) {
+			ResolvedTarget target = found.get(pending.name.toLowerCase(Locale.ROOT));
+			pending.future.complete(target == null ? Outcome.NOT_FOUND : Outcome.found(target));
+		}
+	}
+
+	private void retry(List<Pending> batch, long minDelayMillis) {
+		List<Pending> again = new ArrayList<>(batch.size());
+		int attempt = 0;
+		for (Pending pending : batch) {
+			pending.attempts++;
+			if (pending.attempts > settings.maxRetries()) {
+				failed(pending);
+			} else {
+				again.add(pending);
+				attempt = Math.max(attempt, pending.attempts);
+			}
+		}
+		if (again.isEmpty()) {
+			return;
+		}
+		long delay = Math.max(minDelayMillis, backoffMillis(attempt));
+		synchronized (lock) {
+			retries++;
+		}
+		scheduler.schedule(() -> {
+			synchronized (lock) {
+				for (int i = again.size() - 1; i >= 0; i--) {
+					queue.addFirst(again.get(i));
+				}
+			}
+			dispatch();
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Exponential backoff capped at the maximum, with the upper half randomized so retries of
+	 * several clients do not line up.
+	 */
+	private long backoffMillis(int attempt) {
+		long base = settings.baseBackoffMillis() << Math.min(attempt - 1, 16);
+		long capped = Math.min(settings.maxBackoffMillis(), base);
+		long half = capped / 2L;
+		return half + ThreadLocalRandom.current().nextLong(half + 1L);
+	}
+
+	private void completeAll(List<Pending> batch, Outcome outcome) {
+		for (Pending pending : batch) {
+			if (outcome == Outcome.FAILED) {
+				failed(pending);
+			} else {
+				pending.future.complete(outcome);
+			}
+		}
+	}
+
+	private void failed(Pending pending) {
+		synchronized (lock) {
+			failures++;
+		}
+		pending.future.complete(Outcome.FAILED);
+	}
+
+	private static long retryAfterMillis(HttpResponse<String> response) {
+		String header = response.headers().firstValue("Retry-After").orElse(null);
+		if (header == null) {
+			return 0L;
+		}
+		try {
+			return Math.max(0L, Long.parseLong(header.trim())) * 1_000L;
+		} catch (NumberFormatException ignored) {
+			return 0L;
+		}
+	}
+
+	private static ResolvedTarget toTarget(MojangProfile profile) {
+		if (profile == null || profile.id == null || profile.id.length() != 32 || profile.name == null || profile.name.isBlank()) {
+			return null;
+		}
+		UUID uuid = uuidFromUndashed(profile.id);
+		return uuid == null ? null : new ResolvedTarget(uuid, profile.name);
+	}
+
+	private static UUID uuidFromUndashed(String undashed) {
+		String dashed = undashed.replaceFirst(
+			"([0-9a-fA-F]{8})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{12})",
+			"$1-$2-$3-$4-$5"
+		);
+		try {
+			return UUID.fromString(dashed);
+		} catch (IllegalArgumentException ignored) {
+			return null;
+		}
+	}
+
+	/**
+	 * Result of one name lookup: a profile, a definite "no such player", or a failure after all retries.
+	 */
+	record Outcome(ResolvedTarget target, boolean failed) {
+		static final Outcome NOT_FOUND = new Outcome(null, false);
+		static final Outcome FAILED = new Outcome(null, true);
+
+		static Outcome found(ResolvedTarget target) {
+			return new Outcome(target, false);
+		}
+	}
+
+	record Settings(long coalesceMillis, long baseBackoffMillis, long maxBackoffMillis, int maxRetries) {
+		static final Settings DEFAULT = new Settings(50L, 1_000L, 30_000L, 3);
+	}
+
+	record Stats(int queued, long requests, long retries, long throttled, long failures) {
+	}
+
+	private static final class Pending {
+		private final String name;
+		private final CompletableFuture<Outcome> future = new CompletableFuture<>();
+		private int attempts;
+
+		private Pending(String name) {
+			this.name = name;
+		}
+	}
+
+	private static final class MojangProfile {
+		String id;
+		String name;
+	}
+}
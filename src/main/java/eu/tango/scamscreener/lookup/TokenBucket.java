@@ -0,0 +1,50 @@
+package eu.tango.scamscreener.lookup;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter: holds up to {@code capacity} tokens and refills at a fixed rate.
+ * Not thread-safe; callers synchronize.
+ */
+final class TokenBucket {
+	private final double capacity;
+	private final double tokensPerNano;
+	private final LongSupplier nanoClock;
+	private double tokens;
+	private long lastRefill;
+
+	TokenBucket(int capacity, double tokensPerSecond, LongSupplier nanoClock) {
+		this.capacity = Math.max(1, capacity);
+		this.tokensPerNano = tokensPerSecond / 1_000_000_000.0;
+		this.nanoClock = nanoClock;
+		this.tokens = this.capacity;
+		this.lastRefill = nanoClock.getAsLong();
+	}
+
+	/**
+	 * Takes one token if available and returns 0, otherwise returns the nanoseconds until one is.
+	 */
+	long tryAcquire() {
+		refill();
+		if (tokens >= 1.0) {
+			tokens -= 1.0;
+			return 0L;
+		}
+		return Math.max(1L, (long) Math.ceil((1.0 - tokens) / tokensPerNano));
+	}
+
+	double available() {
+		refill();
+		return tokens;
+	}
+
+	private void refill() {
+		long now = nanoClock.getAsLong();
+		long elapsed = now - lastRefill;
+		if (elapsed <= 0L) {
+			return;
+		}
+		tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+		lastRefill = now;
+	}
+}
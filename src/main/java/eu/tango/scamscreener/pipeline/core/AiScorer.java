@@ -13,6 +13,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
+import eu.tango.scamscreener.pipeline.model.Evidence;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.pipeline.model.SignalSource;
@@ -30,9 +31,13 @@ public final class AiScorer {
 	 * Uses the local model to turn a {@link BehaviorAnalysis} into AI {@link Signal}s.
 	 */
 	public AiScorer(LocalAiScorer localAiScorer, RuleConfig ruleConfig) {
+		this(localAiScorer, ruleConfig, new IntentTagger(ruleConfig));
+	}
+
+	public AiScorer(LocalAiScorer localAiScorer, RuleConfig ruleConfig, IntentTagger intentTagger) {
 		this.localAiScorer = localAiScorer;
 		this.ruleConfig = ruleConfig;
-		this.intentTagger = new IntentTagger(ruleConfig);
+		this.intentTagger = intentTagger;
 	}
 
 	/**
@@ -41,33 +46,76 @@ public final class AiScorer {
 	 * {@link eu.tango.scamscreener.rules.ScamRules#localAiTriggerProbability()}.
 	 */
 	public List<Signal> score(MessageEvent event, BehaviorAnalysis analysis, List<Signal> existingSignals) {
-		if (analysis == null || event == null || !ScamRules.localAiEnabled()) {
+		return score(event, analysis, existingSignals, null);
+	}
+
+	/**
+	 * Same as {@link #score(MessageEvent, BehaviorAnalysis, List)} but reuses the memoized token score when one is given.
+	 * The funnel tracker and timing state are still updated for every event.
+	 */
+	public List<Signal> score(MessageEvent event, BehaviorAnalysis analysis, List<Signal> existingSignals, StatelessResultCache.Entry memo) {
+		if (!aiEnabled(analysis, event)) {
 			return List.of();
 		}
-		boolean localAiEnabled = ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_RISK_SIGNAL);
-		boolean funnelAiEnabled = ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_FUNNEL_SIGNAL);
-		if (!localAiEnabled && !funnelAiEnabled) {
+		List<Signal> safeSignals = existingSignals == null ? List.of() : existingSignals;
+		IntentTagger.TaggingResult tagging = intentTagger.tag(event, safeSignals);
+		return score(event, analysis, safeSignals, memo, tagging, track(event, tagging));
+	}
+
+	/**
+	 * Pipeline entry point: reuses the per-event intent tags, tracking and memo from the context.
+	 */
+	public List<Signal> score(PipelineContext context) {
+		if (!aiEnabled(context.analysis(), context.event())) {
 			return List.of();
 		}
+		track(context);
+		return score(context.event(), context.analysis(), context.signals(), context.memo(), context.tagging(intentTagger), context.aiTracking());
+	}
 
-		List<Signal> safeSignals = existingSignals == null ? List.of() : existingSignals;
-		IntentTagger.TaggingResult tagging = intentTagger.tag(event, safeSignals);
-		String speakerKey = TextUtil.anonymizedSpeakerKey(event.playerName());
+	/**
+	 * Updates the per-speaker funnel and message-gap state once per event and publishes it on the
+	 * context. Runs for every event, also when the scoring stage itself is skipped.
+	 */
+	public void track(PipelineContext context) {
+		if (context.aiTracking() != null || !aiEnabled(context.analysis(), context.event())) {
+			return;
+		}
+		context.setAiTracking(track(context.event(), context.tagging(intentTagger)));
+	}
+
+	public void reset() {
+		funnelTracker.reset();
+		lastMessageTimestampByPlayer.clear();
+	}
+
+	private boolean aiEnabled(BehaviorAnalysis analysis, MessageEvent event) {
+		if (analysis == null || event == null || !ScamRules.localAiEnabled()) {
+			return false;
+		}
+		return ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_RISK_SIGNAL) || ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_FUNNEL_SIGNAL);
+	}
+
+	private List<Signal> score(
+		MessageEvent event,
+		BehaviorAnalysis analysis,
+		List<Signal> safeSignals,
+		StatelessResultCache.Entry memo,
+		IntentTagger.TaggingResult tagging,
+		Tracking tracking
+	) {
+		boolean localAiEnabled = ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_RISK_SIGNAL);
+		boolean funnelAiEnabled = ruleConfig.isEnabled(ScamRules.ScamRule.LOCAL_AI_FUNNEL_SIGNAL);
 		String modelMessage = analysis.message() == null ? "" : analysis.message();
 		String safeNormalized = MessageEvent.normalizeMessage(modelMessage);
-		AiFunnelContextTracker.Snapshot funnel = funnelTracker.update(
-			speakerKey,
-			event.timestampMs(),
-			tagging.tags(),
-			tagging.negativeContext()
-		);
+		AiFunnelContextTracker.Snapshot funnel = tracking.funnel();
 
 		SignalHistogram hits = SignalHistogram.from(safeSignals);
 		Set<IntentTag> tags = tagging.tags();
 		ScamRules.BehaviorContext context = new ScamRules.BehaviorContext(
 			modelMessage,
 			event.channel() == null ? "unknown" : event.channel(),
-			computeDeltaMillis(speakerKey, event.timestampMs()),
+			tracking.deltaMillis(),
 			analysis.pushesExternalPlatform(),
 			analysis.demandsUpfrontPayment(),
 			analysis.requestsSensitiveData(),
@@ -99,12 +147,14 @@ public final class AiScorer {
 			LocalAiScorer.AiResult result = localAiScorer.score(
 				context,
 				ScamRules.localAiMaxScore(),
-				ScamRules.localAiTriggerProbability()
+				ScamRules.localAiTriggerProbability(),
+				tokenScore(modelMessage, memo)
 			);
 			if (result.triggered() && result.score() > 0) {
-				String probability = String.format(Locale.ROOT, "%.3f", result.probability());
-				String threshold = String.format(Locale.ROOT, "%.3f", ScamRules.localAiTriggerProbability());
-				String evidence = "Local AI probability=" + probability + ", threshold=" + threshold + " (+" + result.score() + ")\n" + result.explanation();
+				double threshold = ScamRules.localAiTriggerProbability();
+				Evidence evidence = () -> "Local AI probability=" + String.format(Locale.ROOT, "%.3f", result.probability())
+					+ ", threshold=" + String.format(Locale.ROOT, "%.3f", threshold)
+					+ " (+" + result.score() + ")\n" + result.explanation();
 				out.add(new Signal(
 					ScamRules.ScamRule.LOCAL_AI_RISK_SIGNAL.name(),
 					SignalSource.AI,
@@ -124,14 +174,11 @@ public final class AiScorer {
 				trigger
 			);
 			if (funnelResult.triggered() && funnelResult.score() > 0) {
-				String probability = String.format(Locale.ROOT, "%.3f", funnelResult.probability());
-				String threshold = String.format(Locale.ROOT, "%.3f", trigger);
-				String sequence = String.format(Locale.ROOT, "%.1f", context.funnelSequenceScore());
-				String evidence = "Funnel AI probability=" + probability
-					+ ", threshold=" + threshold
+				Evidence evidence = () -> "Funnel AI probability=" + String.format(Locale.ROOT, "%.3f", funnelResult.probability())
+					+ ", threshold=" + String.format(Locale.ROOT, "%.3f", trigger)
 					+ " (+" + funnelResult.score() + ")"
 					+ ", step=" + context.funnelStepIndex()
-					+ ", sequence=" + sequence
+					+ ", sequence=" + String.format(Locale.ROOT, "%.1f", context.funnelSequenceScore())
 					+ ", full=" + context.funnelFullChain()
 					+ ", partial=" + context.funnelPartialChain()
 					+ "\n" + funnelResult.explanation();
@@ -149,9 +196,29 @@ public final class AiScorer {
 		return out;
 	}
 
-	public void reset() {
-		funnelTracker.reset();
-		lastMessageTimestampByPlayer.clear();
+	private double tokenScore(String modelMessage, StatelessResultCache.Entry memo) {
+		if (memo == null) {
+			return Double.NaN;
+		}
+		long generation = localAiScorer.modelGeneration();
+		double cached = memo.aiTokenScore(generation);
+		if (!Double.isNaN(cached)) {
+			return cached;
+		}
+		double computed = localAiScorer.tokenScore(modelMessage);
+		memo.aiTokenScore(computed, generation);
+		return computed;
+	}
+
+	private Tracking track(MessageEvent event, IntentTagger.TaggingResult tagging) {
+		String speakerKey = TextUtil.anonymizedSpeakerKey(event.playerName());
+		AiFunnelContextTracker.Snapshot funnel = funnelTracker.update(
+			speakerKey,
+			event.timestampMs(),
+			tagging.tags(),
+			tagging.negativeContext()
+		);
+		return new Tracking(funnel, computeDeltaMillis(speakerKey, event.timestampMs()));
 	}
 
 	private long computeDeltaMillis(String speakerKey, long timestampMs) {
@@ -195,6 +262,12 @@ public final class AiScorer {
 		return context.funnelHits() > 0;
 	}
 
+	/**
+	 * Per-speaker AI state after this event: the funnel snapshot and the gap to the previous message.
+	 */
+	public record Tracking(AiFunnelContextTracker.Snapshot funnel, long deltaMillis) {
+	}
+
 	private record SignalHistogram(int ruleHits, int similarityHits, int behaviorHits, int trendHits, int funnelHits) {
 		private static SignalHistogram from(List<Signal> signals) {
 			int rule = 0;
@@ -6,7 +6,9 @@ import eu.tango.scamscreener.util.TextUtil;
 import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 
-public final class BehaviorAnalyzer {
+public final class BehaviorAnalyzer implements Stage {
+	public static final String ID = "behavior-analysis";
+
 	private final RuleConfig ruleConfig;
 	private String lastPlayerKey;
 	private int consecutiveCount;
@@ -22,6 +24,26 @@ public final class BehaviorAnalyzer {
 		this.ruleConfig = ruleConfig;
 	}
 
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.CHEAP;
+	}
+
+	@Override
+	public boolean stateful() {
+		return true;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		context.setAnalysis(analyze(context.event()));
+	}
+
 	/**
 	 * Builds a {@link BehaviorAnalysis} snapshot for the given event.
 	 * This does not score; it only classifies behaviors and counts repeat contact attempts.
@@ -77,6 +99,7 @@ public final class BehaviorAnalyzer {
 	/**
 	 * Clears per-player repeat contact counters.
 	 */
+	@Override
 	public void reset() {
 		resetStreak();
 	}
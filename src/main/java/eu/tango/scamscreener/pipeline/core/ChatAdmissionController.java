@@ -0,0 +1,216 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.rules.ScamRules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Protects the client thread during chat storms. Below the configured line rate every event is handed
+ * to the pipeline immediately. Above it, events are queued per channel priority (pm > party > team > public)
+ * and drained a few per tick, public lines run with the {@link StageProfile#CHEAP} profile, and public
+ * lines are dropped or sampled once the queue is full.
+ */
+public final class ChatAdmissionController {
+	private static final long RATE_WINDOW_MS = 1_000L;
+	private static final int PRIORITY_PM = 0;
+	private static final int PRIORITY_PARTY = 1;
+	private static final int PRIORITY_TEAM = 2;
+	private static final int PRIORITY_PUBLIC = 3;
+	private static final String[] PRIORITY_NAMES = {"pm", "party", "team", "public"};
+
+	private final BiConsumer<MessageEvent, StageProfile> handler;
+	private final Supplier<ScamRules.ChatStormConfig> configSupplier;
+	private final LongSupplier clock;
+	private final List<ArrayDeque<MessageEvent>> queues = new ArrayList<>(PRIORITY_NAMES.length);
+	private final long[] shedByPriority = new long[PRIORITY_NAMES.length];
+	private int queued;
+	private long windowStartMs;
+	private int windowCount;
+	private int previousWindowCount;
+	private long publicOverflowCount;
+	private long directCount;
+	private long queuedCount;
+	private long cheapCount;
+	private long sampledCount;
+
+	/**
+	 * @param handler runs the pipeline for an admitted event with the chosen profile
+	 */
+	public ChatAdmissionController(BiConsumer<MessageEvent, StageProfile> handler, Supplier<ScamRules.ChatStormConfig> configSupplier) {
+		this(handler, configSupplier, System::currentTimeMillis);
+	}
+
+	ChatAdmissionController(BiConsumer<MessageEvent, StageProfile> handler, Supplier<ScamRules.ChatStormConfig> configSupplier, LongSupplier clock) {
+		this.handler = handler;
+		this.configSupplier = configSupplier;
+		this.clock = clock;
+		for (int i = 0; i < PRIORITY_NAMES.length; i++) {
+			queues.add(new ArrayDeque<>());
+		}
+	}
+
+	public void submit(MessageEvent event) {
+		if (event == null) {
+			return;
+		}
+		double rate = recordArrival(clock.getAsLong());
+		ScamRules.ChatStormConfig config = configSupplier.get();
+		if (queued == 0 && rate <= config.linesPerSecond()) {
+			directCount++;
+			handler.accept(event, StageProfile.FULL);
+			return;
+		}
+
+		int priority = priority(event.channel());
+		if (queued < config.queueCapacity()) {
+			enqueue(priority, event);
+			return;
+		}
+
+		if (priority == PRIORITY_PUBLIC) {
+			ArrayDeque<MessageEvent> publicQueue = queues.get(PRIORITY_PUBLIC);
+			publicOverflowCount++;
+			shedByPriority[PRIORITY_PUBLIC]++;
+			if (!publicQueue.isEmpty() && publicOverflowCount % config.publicSampleEvery() == 0) {
+				// Keep a fresh sample of public chat by replacing the oldest queued public line.
+				publicQueue.pollFirst();
+				publicQueue.addLast(event);
+				sampledCount++;
+			}
+			return;
+		}
+
+		for (int victim = PRIORITY_PUBLIC; victim > priority; victim--) {
+			ArrayDeque<MessageEvent> victimQueue = queues.get(victim);
+			if (!victimQueue.isEmpty()) {
+				victimQueue.pollFirst();
+				shedByPriority[victim]++;
+				queued--;
+				enqueue(priority, event);
+				return;
+			}
+		}
+
+		// The queue only holds lines of equal or higher priority; private lines are never dropped.
+		directCount++;
+		handler.accept(event, StageProfile.FULL);
+	}
+
+	/**
+	 * Hands up to {@code drainPerTick} queued events to the pipeline, highest priority first.
+	 */
+	public void drain() {
+		if (queued == 0) {
+			return;
+		}
+		int budget = configSupplier.get().drainPerTick();
+		for (int priority = 0; priority < queues.size() && budget > 0; priority++) {
+			ArrayDeque<MessageEvent> queue = queues.get(priority);
+			while (budget > 0 && !queue.isEmpty()) {
+				MessageEvent event = queue.pollFirst();
+				queued--;
+				budget--;
+				StageProfile profile = priority == PRIORITY_PUBLIC ? StageProfile.CHEAP : StageProfile.FULL;
+				if (profile == StageProfile.CHEAP) {
+					cheapCount++;
+				}
+				handler.accept(event, profile);
+			}
+		}
+	}
+
+	public int queuedCount() {
+		return queued;
+	}
+
+	public long shedCount(String channel) {
+		return shedByPriority[priority(channel)];
+	}
+
+	/**
+	 * Estimated lines per second over the last rate window.
+	 */
+	public double currentRate() {
+		return estimateRate(clock.getAsLong());
+	}
+
+	public List<String> debugSummary() {
+		return List.of(
+			"admission rate=" + String.format(Locale.ROOT, "%.1f", currentRate()) + "/s"
+				+ " queued=" + queued
+				+ " direct=" + directCount
+				+ " deferred=" + queuedCount
+				+ " cheap=" + cheapCount
+				+ " sampled=" + sampledCount,
+			"admission shed pm=" + shedByPriority[PRIORITY_PM]
+				+ " party=" + shedByPriority[PRIORITY_PARTY]
+				+ " team=" + shedByPriority[PRIORITY_TEAM]
+				+ " public=" + shedByPriority[PRIORITY_PUBLIC]
+		);
+	}
+
+	/**
+	 * Drops queued events and the rate window (e.g. on disconnect). Shed counters are kept for the debug summary.
+	 */
+	public void reset() {
+		for (ArrayDeque<MessageEvent> queue : queues) {
+			queue.clear();
+		}
+		queued = 0;
+		windowStartMs = 0L;
+		windowCount = 0;
+		previousWindowCount = 0;
+	}
+
+	private void enqueue(int priority, MessageEvent event) {
+		queues.get(priority).addLast(event);
+		queued++;
+		queuedCount++;
+	}
+
+	private double recordArrival(long nowMs) {
+		rollWindow(nowMs);
+		windowCount++;
+		return estimateRate(nowMs);
+	}
+
+	private double estimateRate(long nowMs) {
+		rollWindow(nowMs);
+		double elapsed = Math.min(1.0, Math.max(0.0, (nowMs - windowStartMs) / (double) RATE_WINDOW_MS));
+		// Sliding-window estimate: the previous window is weighted by how much of it still overlaps.
+		return previousWindowCount * (1.0 - elapsed) + windowCount;
+	}
+
+	private void rollWindow(long nowMs) {
+		if (windowStartMs == 0L) {
+			windowStartMs = nowMs;
+			return;
+		}
+		long elapsed = nowMs - windowStartMs;
+		if (elapsed < RATE_WINDOW_MS) {
+			return;
+		}
+		previousWindowCount = elapsed < 2 * RATE_WINDOW_MS ? windowCount : 0;
+		windowCount = 0;
+		windowStartMs = nowMs - (elapsed % RATE_WINDOW_MS);
+	}
+
+	private static int priority(String channel) {
+		if (channel == null) {
+			return PRIORITY_TEAM;
+		}
+		return switch (channel.trim().toLowerCase(Locale.ROOT)) {
+			case "pm" -> PRIORITY_PM;
+			case "party" -> PRIORITY_PARTY;
+			case "public" -> PRIORITY_PUBLIC;
+			default -> PRIORITY_TEAM;
+		};
+	}
+}
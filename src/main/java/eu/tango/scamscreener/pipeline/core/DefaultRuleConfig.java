@@ -2,6 +2,9 @@ package eu.tango.scamscreener.pipeline.core;
 
 import eu.tango.scamscreener.rules.ScamRules;
 
+import java.util.List;
+import java.util.Set;
+
 public final class DefaultRuleConfig implements RuleConfig {
 	/**
 	 * Delegates rule settings to {@link ScamRules}.
@@ -25,4 +28,29 @@ public final class DefaultRuleConfig implements RuleConfig {
 	public ScamRules.FunnelConfig funnelConfig() {
 		return ScamRules.funnelConfig();
 	}
+
+	@Override
+	public List<String> stageOrder() {
+		return ScamRules.pipelineStageOrder();
+	}
+
+	@Override
+	public boolean earlyExitEnabled() {
+		return ScamRules.pipelineEarlyExitEnabled();
+	}
+
+	@Override
+	public long stageBudgetNanos() {
+		return ScamRules.pipelineBudgetMicros() * 1_000L;
+	}
+
+	@Override
+	public Set<String> disabledStages(String channel) {
+		return ScamRules.disabledStagesForChannel(channel);
+	}
+
+	@Override
+	public long generation() {
+		return ScamRules.configGeneration();
+	}
 }
@@ -6,102 +6,270 @@ import net.minecraft.network.chat.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
-import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
 import eu.tango.scamscreener.pipeline.model.DetectionDecision;
+import eu.tango.scamscreener.pipeline.model.DetectionLevel;
 import eu.tango.scamscreener.pipeline.model.DetectionOutcome;
 import eu.tango.scamscreener.pipeline.model.DetectionResult;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
-import eu.tango.scamscreener.pipeline.model.Signal;
-import eu.tango.scamscreener.pipeline.stage.AiSignalStage;
-import eu.tango.scamscreener.pipeline.stage.BehaviorSignalStage;
 import eu.tango.scamscreener.pipeline.stage.DecisionStage;
 import eu.tango.scamscreener.pipeline.stage.MuteStage;
 import eu.tango.scamscreener.pipeline.stage.OutputStage;
-import eu.tango.scamscreener.pipeline.stage.RuleSignalStage;
 import eu.tango.scamscreener.pipeline.stage.ScoringStage;
-import eu.tango.scamscreener.pipeline.stage.LevenshteinSignalStage;
-import eu.tango.scamscreener.pipeline.stage.FunnelSignalStage;
-import eu.tango.scamscreener.pipeline.stage.TrendSignalStage;
+import eu.tango.scamscreener.util.PatternCache;
+import eu.tango.scamscreener.util.TextUtil;
 
 public final class DetectionPipeline {
+	private static final int MEMO_CAPACITY = 512;
+
 	private final MuteStage muteStage;
-	private final RuleSignalStage ruleSignalStage;
-	private final LevenshteinSignalStage levenshteinSignalStage;
-	private final BehaviorAnalyzer behaviorAnalyzer;
-	private final BehaviorSignalStage behaviorSignalStage;
-	private final AiSignalStage aiSignalStage;
-	private final TrendStore trendStore;
-	private final TrendSignalStage trendSignalStage;
-	private final FunnelStore funnelStore;
-	private final FunnelSignalStage funnelSignalStage;
+	private final RuleConfig ruleConfig;
+	private final List<Stage> registeredStages;
 	private final ScoringStage scoringStage;
+	private final WarningDeduplicator deduplicator;
 	private final DecisionStage decisionStage;
 	private final OutputStage outputStage;
+	private final IntentTagger intentTagger;
+	private final StageMetrics stageMetrics = new StageMetrics();
+	private final StatelessResultCache memo = new StatelessResultCache(MEMO_CAPACITY);
+	private List<String> appliedStageOrder;
+	private List<Stage> stages;
+	private int lastStatefulIndex;
+	private PipelineTrace trace = PipelineTrace.NONE;
 
 	/**
-	 * Creates the full detection pipeline with all stages wired up.
+	 * Creates the full detection pipeline with the default stages wired up.
 	 * The pipeline is executed from {@link #process(MessageEvent, java.util.function.Consumer, Runnable)}.
 	 */
 	public DetectionPipeline(MutePatternManager mutePatternManager, LocalAiScorer localAiScorer) {
-		RuleConfig ruleConfig = new DefaultRuleConfig();
-		this.muteStage = new MuteStage(mutePatternManager);
-		this.ruleSignalStage = new RuleSignalStage(ruleConfig);
-		this.levenshteinSignalStage = new LevenshteinSignalStage(ruleConfig);
-		this.behaviorAnalyzer = new BehaviorAnalyzer(ruleConfig);
-		this.behaviorSignalStage = new BehaviorSignalStage(ruleConfig);
-		this.aiSignalStage = new AiSignalStage(new AiScorer(localAiScorer, ruleConfig));
-		this.trendStore = new TrendStore();
-		this.trendSignalStage = new TrendSignalStage(ruleConfig, trendStore);
-		this.funnelStore = new FunnelStore(ruleConfig);
-		this.funnelSignalStage = new FunnelSignalStage(ruleConfig, funnelStore);
+		this(new DetectionPipelineBuilder(mutePatternManager, localAiScorer));
+	}
+
+	DetectionPipeline(DetectionPipelineBuilder builder) {
+		this.muteStage = new MuteStage(builder.mutePatternManager());
+		this.ruleConfig = builder.ruleConfig();
+		this.intentTagger = builder.intentTagger();
+		this.registeredStages = builder.stages();
 		this.scoringStage = new ScoringStage();
-		this.decisionStage = new DecisionStage(new WarningDeduplicator());
+		this.deduplicator = new WarningDeduplicator();
+		this.decisionStage = new DecisionStage(deduplicator);
 		this.outputStage = new OutputStage();
+		this.appliedStageOrder = ruleConfig.stageOrder();
+		this.stages = DetectionPipelineBuilder.ordered(registeredStages, appliedStageOrder);
+		this.lastStatefulIndex = lastStatefulIndex(stages);
+	}
+
+	/**
+	 * Routes scheduling decisions (stage timings and skips) to a debug sink.
+	 */
+	public void setTrace(PipelineTrace trace) {
+		this.trace = trace == null ? PipelineTrace.NONE : trace;
 	}
 
 	/**
-	 * Runs the pipeline for a single chat event. Stages are executed in this order:
-	 * {@link MuteStage} -> {@link BehaviorAnalyzer} -> {@link RuleSignalStage}
-	 * -> {@link LevenshteinSignalStage} -> {@link BehaviorSignalStage} -> {@link TrendSignalStage}
-	 * -> {@link FunnelSignalStage} -> {@link AiSignalStage} -> {@link ScoringStage}
-	 * -> {@link DecisionStage} -> {@link OutputStage}.
+	 * Runs the pipeline for a single chat event. {@link MuteStage} filters first, then every
+	 * registered {@link Stage} runs in configured order (by default behavior analysis -> rule
+	 * -> levenshtein -> behavior -> trend -> funnel -> ai-context -> ai), followed by {@link ScoringStage}
+	 * -> {@link DecisionStage} -> {@link OutputStage}. Expensive stages disabled for the
+	 * event's channel are skipped.
+	 * With early exit enabled, expensive stateless stages are skipped at their position once the
+	 * collected score is already CRITICAL or this speaker was already warned at CRITICAL.
+	 * Only stages after the last stateful stage can be skipped that way (or by load shedding and
+	 * the latency budget): earlier ones feed the signals and tags that stateful history records.
 	 */
 	public Optional<DetectionOutcome> process(MessageEvent event, Consumer<Component> reply, Runnable warningSound) {
+		return process(event, reply, warningSound, StageProfile.FULL);
+	}
+
+	/**
+	 * Same as {@link #process(MessageEvent, Consumer, Runnable)}; with {@link StageProfile#CHEAP}
+	 * every optional stage is skipped (used for public lines during chat storms).
+	 */
+	public Optional<DetectionOutcome> process(MessageEvent event, Consumer<Component> reply, Runnable warningSound, StageProfile profile) {
 		Optional<MessageEvent> maybeEvent = muteStage.filter(event);
 		if (maybeEvent.isEmpty()) {
 			return Optional.empty();
 		}
 
 		MessageEvent safeEvent = maybeEvent.get();
-		BehaviorAnalysis analysis = behaviorAnalyzer.analyze(safeEvent);
-		List<Signal> signals = new ArrayList<>();
-		signals.addAll(ruleSignalStage.collectSignals(safeEvent));
-		signals.addAll(levenshteinSignalStage.collectSignals(safeEvent));
-		signals.addAll(behaviorSignalStage.collectSignals(analysis));
-		signals.addAll(trendSignalStage.collectSignals(safeEvent, signals));
-		signals.addAll(funnelSignalStage.collectSignals(safeEvent, signals));
-		signals.addAll(aiSignalStage.collectSignals(safeEvent, analysis, signals));
-
-		DetectionResult result = scoringStage.score(safeEvent, signals);
-		DetectionDecision decision = decisionStage.decide(safeEvent, result);
+		PipelineContext context = new PipelineContext(safeEvent, ruleConfig.stageBudgetNanos());
+		if (!safeEvent.normalizedMessage().isBlank()) {
+			context.setMemo(memo.lookup(safeEvent.normalizedMessage(), ruleConfig.generation()));
+		}
+		Set<String> disabledStages = ruleConfig.disabledStages(context.channel());
+		boolean earlyExit = ruleConfig.earlyExitEnabled();
+		StringBuilder traceLine = trace.enabled() ? new StringBuilder() : null;
+		boolean skippedAny = false;
+		List<Stage> ordered = currentStages();
+		for (int i = 0; i < ordered.size(); i++) {
+			Stage stage = ordered.get(i);
+			boolean optional = isOptional(stage) && i > lastStatefulIndex;
+			String skipReason = skipReason(stage, context, disabledStages, profile, earlyExit, optional);
+			if (skipReason != null) {
+				skippedAny = true;
+				stageMetrics.recordSkipped(stage.id());
+				if (traceLine != null) {
+					traceLine.append(' ').append(stage.id()).append("=skip(").append(skipReason).append(')');
+				}
+				continue;
+			}
+			context.setBudgetEnforced(optional);
+			if (optional && context.budgetExhausted()) {
+				context.markTruncated(stage.id());
+				stageMetrics.recordBudgetExhausted(stage.id());
+				if (traceLine != null) {
+					traceLine.append(' ').append(stage.id()).append("=skip(budget)");
+				}
+				continue;
+			}
+			long elapsed = stageMetrics.measure(stage, context);
+			boolean truncated = context.isTruncated(stage.id());
+			if (truncated) {
+				stageMetrics.recordBudgetExhausted(stage.id());
+			} else {
+				context.markCompleted(stage.id());
+			}
+			if (traceLine != null) {
+				traceLine.append(' ').append(stage.id()).append('=').append(elapsed / 1_000L).append("us");
+				if (truncated) {
+					traceLine.append("(truncated)");
+				}
+			}
+		}
+
+		ScoreAccumulator accumulator = context.accumulator();
+		double total = scoringStage.total(accumulator);
+		DetectionLevel level = DetectionScoring.mapLevel(total);
+		if (traceLine != null && (skippedAny || !context.truncatedStages().isEmpty() || total > 0)) {
+			trace.trace("speaker=" + TextUtil.anonymizedSpeakerKey(safeEvent.playerName())
+				+ " channel=" + context.channel()
+				+ " score=" + String.format(Locale.ROOT, "%.1f", total)
+				+ " level=" + level
+				+ traceLine);
+		}
+		DetectionDecision decision = decisionStage.decide(safeEvent, level, total, accumulator::hasRuleEvidence);
 		if (!decision.shouldWarn()) {
 			return Optional.empty();
 		}
 
+		// Only warnings (and the captures that follow them) need an immutable result.
+		DetectionResult result = scoringStage.materialize(safeEvent, accumulator, context.completedStages(), context.truncatedStages());
+
 		outputStage.output(safeEvent, result, decision, reply, warningSound);
-		return Optional.of(new DetectionOutcome(safeEvent, result));
+		return Optional.of(new DetectionOutcome(safeEvent, result, context.tagging(intentTagger)));
+	}
+
+	/**
+	 * Stage ids in the order they currently run.
+	 */
+	public List<String> stageIds() {
+		return currentStages().stream().map(Stage::id).toList();
+	}
+
+	/**
+	 * Per-stage timing and allocation counters since the last {@link #reset()}.
+	 */
+	public List<StageMetrics.StageStats> stageStats() {
+		return stageMetrics.snapshot();
+	}
+
+	/**
+	 * Hit rate of the repeated-message memo, in [0, 1].
+	 */
+	public double memoHitRate() {
+		return memo.hitRate();
+	}
+
+	/**
+	 * One line per stage with run counts, average/max time, average allocation, skips and budget exhaustion.
+	 */
+	public List<String> debugSummary() {
+		List<String> lines = new ArrayList<>();
+		for (StageMetrics.StageStats stats : stageMetrics.snapshot()) {
+			lines.add(stats.stageId()
+				+ " runs=" + stats.runs()
+				+ " avg=" + stats.averageNanos() / 1_000L + "us"
+				+ " max=" + stats.maxNanos() / 1_000L + "us"
+				+ " alloc=" + stats.averageAllocatedBytes() + "B"
+				+ " skipped=" + stats.skipped()
+				+ " budget=" + stats.budgetExhausted());
+		}
+		if (memo.hits() + memo.misses() > 0) {
+			lines.add("memo size=" + memo.size()
+				+ " hits=" + memo.hits()
+				+ " misses=" + memo.misses()
+				+ " hitRate=" + Math.round(memo.hitRate() * 100.0) + "%");
+		}
+		PatternCache.Stats patternStats = PatternCache.stats();
+		if (patternStats.hits() + patternStats.misses() > 0) {
+			lines.add("patterns cached=" + patternStats.size()
+				+ " hits=" + patternStats.hits()
+				+ " misses=" + patternStats.misses()
+				+ " compiled=" + patternStats.compileNanos() / 1_000L + "us"
+				+ " saved=" + patternStats.savedNanos() / 1_000L + "us");
+		}
+		return lines;
 	}
 
 	/**
 	 * Clears any stateful stage data (trend/funnel history, dedupe, repeated-contact counts).
 	 */
 	public void reset() {
-		behaviorAnalyzer.reset();
-		aiSignalStage.reset();
+		for (Stage stage : registeredStages) {
+			stage.reset();
+		}
 		decisionStage.reset();
-		trendStore.reset();
-		funnelStore.reset();
+		stageMetrics.reset();
+	}
+
+	private List<Stage> currentStages() {
+		List<String> order = ruleConfig.stageOrder();
+		if (order != appliedStageOrder) {
+			stages = DetectionPipelineBuilder.ordered(registeredStages, order);
+			lastStatefulIndex = lastStatefulIndex(stages);
+			appliedStageOrder = order;
+		}
+		return stages;
+	}
+
+	private String skipReason(Stage stage, PipelineContext context, Set<String> disabledStages, StageProfile profile, boolean earlyExit, boolean optional) {
+		if (stage.cost() != StageCost.EXPENSIVE) {
+			return null;
+		}
+		if (disabledStages.contains(stage.id())) {
+			return "channel";
+		}
+		if (!optional) {
+			return null;
+		}
+		if (profile == StageProfile.CHEAP) {
+			return "load-shed";
+		}
+		if (!earlyExit) {
+			return null;
+		}
+		if (DetectionScoring.mapLevel(context.score()) == DetectionLevel.CRITICAL) {
+			return "critical-score";
+		}
+		if (deduplicator.hasWarned(context.event(), DetectionLevel.CRITICAL)) {
+			return "already-warned";
+		}
+		return null;
+	}
+
+	private static int lastStatefulIndex(List<Stage> ordered) {
+		for (int i = ordered.size() - 1; i >= 0; i--) {
+			if (ordered.get(i).stateful()) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isOptional(Stage stage) {
+		return stage.cost() == StageCost.EXPENSIVE && !stage.stateful();
 	}
 }
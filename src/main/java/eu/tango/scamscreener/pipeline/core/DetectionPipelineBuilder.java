@@ -0,0 +1,157 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.ai.LocalAiScorer;
+import eu.tango.scamscreener.chat.mute.MutePatternManager;
+import eu.tango.scamscreener.pipeline.stage.AiContextStage;
+import eu.tango.scamscreener.pipeline.stage.AiSignalStage;
+import eu.tango.scamscreener.pipeline.stage.BehaviorSignalStage;
+import eu.tango.scamscreener.pipeline.stage.FunnelSignalStage;
+import eu.tango.scamscreener.pipeline.stage.IntentTagStage;
+import eu.tango.scamscreener.pipeline.stage.LevenshteinSignalStage;
+import eu.tango.scamscreener.pipeline.stage.RuleSignalStage;
+import eu.tango.scamscreener.pipeline.stage.TrendSignalStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assembles the signal stages of a {@link DetectionPipeline}. The default stage set is registered
+ * up front; callers can insert, replace or remove stages by id before calling {@link #build()}.
+ * The final order follows {@link RuleConfig#stageOrder()} and is re-applied when the config changes.
+ */
+public final class DetectionPipelineBuilder {
+	private final MutePatternManager mutePatternManager;
+	private final RuleConfig ruleConfig;
+	private final IntentTagger intentTagger;
+	private final List<Stage> stages = new ArrayList<>();
+
+	/**
+	 * Creates a builder with the default signal stages registered against {@link DefaultRuleConfig}.
+	 */
+	public DetectionPipelineBuilder(MutePatternManager mutePatternManager, LocalAiScorer localAiScorer) {
+		this(mutePatternManager, localAiScorer, new DefaultRuleConfig());
+	}
+
+	public DetectionPipelineBuilder(MutePatternManager mutePatternManager, LocalAiScorer localAiScorer, RuleConfig ruleConfig) {
+		this.mutePatternManager = mutePatternManager;
+		this.ruleConfig = Objects.requireNonNull(ruleConfig, "ruleConfig");
+		this.intentTagger = new IntentTagger(ruleConfig);
+		stages.add(new BehaviorAnalyzer(ruleConfig));
+		stages.add(new RuleSignalStage(ruleConfig));
+		stages.add(new LevenshteinSignalStage(ruleConfig));
+		stages.add(new BehaviorSignalStage(ruleConfig));
+		stages.add(new IntentTagStage(intentTagger));
+		stages.add(new TrendSignalStage(ruleConfig, new TrendStore()));
+		stages.add(new FunnelSignalStage(ruleConfig, new FunnelStore(ruleConfig), intentTagger));
+		AiScorer aiScorer = new AiScorer(localAiScorer, ruleConfig, intentTagger);
+		stages.add(new AiContextStage(aiScorer));
+		stages.add(new AiSignalStage(aiScorer));
+	}
+
+	/**
+	 * Appends a stage, replacing any registered stage with the same id in place.
+	 */
+	public DetectionPipelineBuilder add(Stage stage) {
+		Objects.requireNonNull(stage, "stage");
+		int existing = indexOf(stage.id());
+		if (existing >= 0) {
+			stages.set(existing, stage);
+		} else {
+			stages.add(stage);
+		}
+		return this;
+	}
+
+	/**
+	 * Inserts a stage directly before the stage with the given id, or appends it if the id is unknown.
+	 */
+	public DetectionPipelineBuilder insertBefore(String stageId, Stage stage) {
+		Objects.requireNonNull(stage, "stage");
+		remove(stage.id());
+		return insertAt(indexOf(stageId), stage);
+	}
+
+	/**
+	 * Inserts a stage directly after the stage with the given id, or appends it if the id is unknown.
+	 */
+	public DetectionPipelineBuilder insertAfter(String stageId, Stage stage) {
+		Objects.requireNonNull(stage, "stage");
+		remove(stage.id());
+		int index = indexOf(stageId);
+		return insertAt(index < 0 ? -1 : index + 1, stage);
+	}
+
+	public DetectionPipelineBuilder remove(String stageId) {
+		int index = indexOf(stageId);
+		if (index >= 0) {
+			stages.remove(index);
+		}
+		return this;
+	}
+
+	public DetectionPipeline build() {
+		return new DetectionPipeline(this);
+	}
+
+	MutePatternManager mutePatternManager() {
+		return mutePatternManager;
+	}
+
+	RuleConfig ruleConfig() {
+		return ruleConfig;
+	}
+
+	IntentTagger intentTagger() {
+		return intentTagger;
+	}
+
+	List<Stage> stages() {
+		return List.copyOf(stages);
+	}
+
+	/**
+	 * Returns the stages sorted by their position in {@code order}. Stages missing from the order
+	 * keep their relative registration order and run after the listed ones.
+	 */
+	static List<Stage> ordered(List<Stage> registered, List<String> order) {
+		if (order == null || order.isEmpty()) {
+			return List.copyOf(registered);
+		}
+		List<Stage> out = new ArrayList<>(registered.size());
+		for (String id : order) {
+			for (Stage stage : registered) {
+				if (stage.id().equals(id) && !out.contains(stage)) {
+					out.add(stage);
+				}
+			}
+		}
+		for (Stage stage : registered) {
+			if (!out.contains(stage)) {
+				out.add(stage);
+			}
+		}
+		return List.copyOf(out);
+	}
+
+	private DetectionPipelineBuilder insertAt(int index, Stage stage) {
+		if (index < 0 || index > stages.size()) {
+			stages.add(stage);
+		} else {
+			stages.add(index, stage);
+		}
+		return this;
+	}
+
+	private int indexOf(String stageId) {
+		if (stageId == null) {
+			return -1;
+		}
+		for (int i = 0; i < stages.size(); i++) {
+			if (stageId.equals(stages.get(i).id())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
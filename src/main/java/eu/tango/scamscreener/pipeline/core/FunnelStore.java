@@ -1,5 +1,6 @@
 package eu.tango.scamscreener.pipeline.core;
 
+import eu.tango.scamscreener.pipeline.model.Evidence;
 import eu.tango.scamscreener.pipeline.model.IntentTag;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.rules.ScamRules;
@@ -129,9 +130,12 @@ public final class FunnelStore {
 			snippets = snippets.subList(0, 4);
 		}
 
-		String detail = "Funnel sequence " + String.join(" -> ", steps)
-			+ " in " + Math.max(1, config.windowMillis() / 1000) + "s window"
-			+ " (+" + bonus + ")"
+		List<String> stepTrail = steps;
+		long windowSeconds = Math.max(1, config.windowMillis() / 1000);
+		int appliedBonus = bonus;
+		Evidence detail = () -> "Funnel sequence " + String.join(" -> ", stepTrail)
+			+ " in " + windowSeconds + "s window"
+			+ " (+" + appliedBonus + ")"
 			+ (channelTrail.isEmpty() ? "" : ", channels=" + String.join(">", channelTrail));
 
 		return new FunnelEvaluation(bonus, detail, snippets);
@@ -197,7 +201,7 @@ public final class FunnelStore {
 		return message.replace('\n', ' ').replace('\r', ' ').trim();
 	}
 
-	public record FunnelEvaluation(int bonusScore, String detail, List<String> relatedMessages) {
+	public record FunnelEvaluation(int bonusScore, Evidence detail, List<String> relatedMessages) {
 		public FunnelEvaluation {
 			relatedMessages = relatedMessages == null ? List.of() : List.copyOf(relatedMessages);
 		}
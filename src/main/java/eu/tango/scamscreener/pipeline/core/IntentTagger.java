@@ -6,6 +6,7 @@ import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.rules.ScamRules;
 import eu.tango.scamscreener.util.TextUtil;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -24,8 +25,16 @@ public final class IntentTagger {
 	}
 
 	public TaggingResult tag(MessageEvent event, List<Signal> existingSignals) {
+		return combine(analyzeText(event), existingSignals);
+	}
+
+	/**
+	 * Runs the text-only checks (regexes, folded redirect scan). This is the expensive part
+	 * and depends only on the message, so the pipeline runs it once per event.
+	 */
+	public TextIntent analyzeText(MessageEvent event) {
 		if (event == null) {
-			return TaggingResult.empty();
+			return TextIntent.EMPTY;
 		}
 
 		String normalized = TextUtil.normalizeForMatch(event.rawMessage());
@@ -33,41 +42,11 @@ public final class IntentTagger {
 			normalized = TextUtil.normalizeForMatch(event.normalizedMessage());
 		}
 		if (normalized.isBlank()) {
-			return TaggingResult.empty();
+			return TextIntent.EMPTY;
 		}
 
 		ScamRules.FunnelConfig config = ruleConfig.funnelConfig();
 		Set<IntentTag> tags = EnumSet.noneOf(IntentTag.class);
-		List<Signal> safeSignals = existingSignals == null ? List.of() : existingSignals;
-
-		boolean hasUpfrontSignal = false;
-		boolean hasPlatformSignal = false;
-		boolean hasFreeSignal = false;
-		boolean hasLinkSignal = false;
-
-		for (Signal signal : safeSignals) {
-			if (signal == null || signal.ruleId() == null) {
-				continue;
-			}
-			switch (signal.ruleId()) {
-				case UPFRONT_PAYMENT -> hasUpfrontSignal = true;
-				case EXTERNAL_PLATFORM_PUSH, DISCORD_HANDLE -> hasPlatformSignal = true;
-				case TOO_GOOD_TO_BE_TRUE -> hasFreeSignal = true;
-				case SUSPICIOUS_LINK -> hasLinkSignal = true;
-				default -> {
-				}
-			}
-		}
-
-		if (hasUpfrontSignal) {
-			tags.add(IntentTag.PAYMENT_UPFRONT);
-		}
-		if (hasPlatformSignal) {
-			tags.add(IntentTag.PLATFORM_REDIRECT);
-		}
-		if (hasFreeSignal) {
-			tags.add(IntentTag.FREE_OFFER);
-		}
 
 		if (matches(config.serviceOfferPattern(), normalized)) {
 			tags.add(IntentTag.SERVICE_OFFER);
@@ -98,17 +77,49 @@ public final class IntentTagger {
 		if (containsFoldedRedirect(foldedCompact)) {
 			tags.add(IntentTag.PLATFORM_REDIRECT);
 		}
-		if (hasLinkSignal && containsLinkRedirectHint(normalized, foldedCompact)) {
-			tags.add(IntentTag.PLATFORM_REDIRECT);
-		}
 
+		boolean linkRedirectHint = containsLinkRedirectHint(normalized, foldedCompact);
 		boolean negativeContext = matches(config.negativeIntentPattern(), normalized);
-		if (negativeContext) {
+		return new TextIntent(tags, linkRedirectHint, negativeContext);
+	}
+
+	/**
+	 * Merges the text tags with tags implied by signals already collected for this message.
+	 */
+	public TaggingResult combine(TextIntent text, List<Signal> existingSignals) {
+		ScoreAccumulator accumulator = new ScoreAccumulator();
+		accumulator.addAll(existingSignals);
+		return combine(text, accumulator);
+	}
+
+	public TaggingResult combine(TextIntent text, ScoreAccumulator signals) {
+		if (text == null || text == TextIntent.EMPTY) {
+			return TaggingResult.empty();
+		}
+
+		Set<IntentTag> tags = EnumSet.noneOf(IntentTag.class);
+		tags.addAll(text.tags());
+		if (signals != null) {
+			if (signals.hasRule(ScamRules.ScamRule.UPFRONT_PAYMENT)) {
+				tags.add(IntentTag.PAYMENT_UPFRONT);
+			}
+			if (signals.hasRule(ScamRules.ScamRule.EXTERNAL_PLATFORM_PUSH) || signals.hasRule(ScamRules.ScamRule.DISCORD_HANDLE)) {
+				tags.add(IntentTag.PLATFORM_REDIRECT);
+			}
+			if (signals.hasRule(ScamRules.ScamRule.TOO_GOOD_TO_BE_TRUE)) {
+				tags.add(IntentTag.FREE_OFFER);
+			}
+			if (signals.hasRule(ScamRules.ScamRule.SUSPICIOUS_LINK) && text.linkRedirectHint()) {
+				tags.add(IntentTag.PLATFORM_REDIRECT);
+			}
+		}
+
+		if (text.negativeContext()) {
 			tags.remove(IntentTag.SERVICE_OFFER);
 			tags.remove(IntentTag.FREE_OFFER);
 		}
 
-		return new TaggingResult(tags, negativeContext);
+		return new TaggingResult(tags, text.negativeContext());
 	}
 
 	private static boolean matches(Pattern pattern, String text) {
@@ -180,13 +191,48 @@ public final class IntentTagger {
 			|| normalized.contains("before i send");
 	}
 
+	/**
+	 * Text-only intent facts of one message, before signal-derived tags are merged in.
+	 */
+	public record TextIntent(Set<IntentTag> tags, boolean linkRedirectHint, boolean negativeContext) {
+		public static final TextIntent EMPTY = new TextIntent(Set.of(), false, false);
+
+		public TextIntent {
+			tags = immutableEnumSet(tags);
+		}
+	}
+
 	public record TaggingResult(Set<IntentTag> tags, boolean negativeContext) {
+		private static final TaggingResult EMPTY = new TaggingResult(Set.of(), false);
+
 		public TaggingResult {
-			tags = tags == null ? Set.of() : Set.copyOf(tags);
+			tags = immutableEnumSet(tags);
 		}
 
 		public static TaggingResult empty() {
-			return new TaggingResult(Set.of(), false);
+			return EMPTY;
+		}
+
+		/**
+		 * Tags as a bitmask by {@link IntentTag#ordinal()}.
+		 */
+		public int mask() {
+			int mask = 0;
+			for (IntentTag tag : tags) {
+				mask |= 1 << tag.ordinal();
+			}
+			return mask;
+		}
+
+		public boolean has(IntentTag tag) {
+			return tag != null && tags.contains(tag);
+		}
+	}
+
+	private static Set<IntentTag> immutableEnumSet(Set<IntentTag> tags) {
+		if (tags == null || tags.isEmpty()) {
+			return Set.of();
 		}
+		return Collections.unmodifiableSet(EnumSet.copyOf(tags));
 	}
 }
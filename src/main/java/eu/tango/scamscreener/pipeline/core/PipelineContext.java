@@ -0,0 +1,164 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.pipeline.model.Signal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable per-message state shared by all {@link Stage}s of one pipeline run.
+ */
+public final class PipelineContext {
+	private final MessageEvent event;
+	private final long startNanos;
+	private final long budgetNanos;
+	private boolean budgetEnforced = true;
+	private final List<String> completedStages = new ArrayList<>();
+	private final List<String> truncatedStages = new ArrayList<>();
+	private final ScoreAccumulator accumulator = new ScoreAccumulator();
+	private BehaviorAnalysis analysis;
+	private StatelessResultCache.Entry memo;
+	private IntentTagger.TextIntent textIntent;
+	private AiScorer.Tracking aiTracking;
+
+	public PipelineContext(MessageEvent event) {
+		this(event, 0L);
+	}
+
+	/**
+	 * Creates a context whose deadline is {@code budgetNanos} from now. A budget of 0 or less means unlimited.
+	 */
+	public PipelineContext(MessageEvent event, long budgetNanos) {
+		this.event = event;
+		this.startNanos = System.nanoTime();
+		this.budgetNanos = budgetNanos;
+	}
+
+	public MessageEvent event() {
+		return event;
+	}
+
+	public String channel() {
+		return event == null || event.channel() == null ? "unknown" : event.channel();
+	}
+
+	public BehaviorAnalysis analysis() {
+		return analysis;
+	}
+
+	public void setAnalysis(BehaviorAnalysis analysis) {
+		this.analysis = analysis;
+	}
+
+	/**
+	 * Memoized stateless results for this message, or {@code null} when the run is not cached.
+	 */
+	public StatelessResultCache.Entry memo() {
+		return memo;
+	}
+
+	public void setMemo(StatelessResultCache.Entry memo) {
+		this.memo = memo;
+	}
+
+	public IntentTagger.TextIntent textIntent() {
+		return textIntent;
+	}
+
+	public void setTextIntent(IntentTagger.TextIntent textIntent) {
+		this.textIntent = textIntent;
+	}
+
+	/**
+	 * Per-speaker AI state of this event, or {@code null} until the AI context stage ran.
+	 */
+	public AiScorer.Tracking aiTracking() {
+		return aiTracking;
+	}
+
+	public void setAiTracking(AiScorer.Tracking aiTracking) {
+		this.aiTracking = aiTracking;
+	}
+
+	/**
+	 * Intent tags for this message merged with the signals collected so far.
+	 * The text checks run at most once per event, even if the intent stage was removed or reordered.
+	 */
+	public IntentTagger.TaggingResult tagging(IntentTagger tagger) {
+		if (textIntent == null) {
+			textIntent = tagger.analyzeText(event);
+		}
+		return tagger.combine(textIntent, accumulator);
+	}
+
+	/**
+	 * Read-only view of the signals collected so far.
+	 */
+	public List<Signal> signals() {
+		return accumulator.signals();
+	}
+
+	public void addSignals(List<Signal> collected) {
+		accumulator.addAll(collected);
+	}
+
+	public ScoreAccumulator accumulator() {
+		return accumulator;
+	}
+
+	/**
+	 * Whether the latency budget of this run is used up. Optional stages check this and bail out.
+	 * Always false while the running stage is not allowed to stop early.
+	 */
+	public boolean budgetExhausted() {
+		return budgetEnforced && budgetNanos > 0L && System.nanoTime() - startNanos >= budgetNanos;
+	}
+
+	/**
+	 * Set by the pipeline before each stage: stages that feed stateful history must run in full.
+	 */
+	void setBudgetEnforced(boolean budgetEnforced) {
+		this.budgetEnforced = budgetEnforced;
+	}
+
+	public long remainingNanos() {
+		if (budgetNanos <= 0L) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0L, budgetNanos - (System.nanoTime() - startNanos));
+	}
+
+	public void markCompleted(String stageId) {
+		completedStages.add(stageId);
+	}
+
+	/**
+	 * Records that a stage was skipped or stopped early because the budget ran out.
+	 */
+	public void markTruncated(String stageId) {
+		if (!truncatedStages.contains(stageId)) {
+			truncatedStages.add(stageId);
+		}
+	}
+
+	public boolean isTruncated(String stageId) {
+		return truncatedStages.contains(stageId);
+	}
+
+	public List<String> completedStages() {
+		return completedStages;
+	}
+
+	public List<String> truncatedStages() {
+		return truncatedStages;
+	}
+
+	/**
+	 * Sum of all signal weights collected so far, before any scoring caps.
+	 */
+	public double score() {
+		return accumulator.total();
+	}
+}
@@ -0,0 +1,30 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Debug sink for scheduling decisions. Callers check {@link #enabled()} before building trace text.
+ */
+public interface PipelineTrace {
+	PipelineTrace NONE = of(() -> false, ignored -> {
+	});
+
+	boolean enabled();
+
+	void trace(String message);
+
+	static PipelineTrace of(BooleanSupplier enabled, Consumer<String> sink) {
+		return new PipelineTrace() {
+			@Override
+			public boolean enabled() {
+				return enabled.getAsBoolean();
+			}
+
+			@Override
+			public void trace(String message) {
+				sink.accept(message);
+			}
+		};
+	}
+}
@@ -2,6 +2,9 @@ package eu.tango.scamscreener.pipeline.core;
 
 import eu.tango.scamscreener.rules.ScamRules;
 
+import java.util.List;
+import java.util.Set;
+
 public interface RuleConfig {
 	/**
 	 * Returns regex patterns for single-message rule checks.
@@ -22,4 +25,39 @@ public interface RuleConfig {
 	 * Returns funnel detection config (patterns + windowing).
 	 */
 	ScamRules.FunnelConfig funnelConfig();
+
+	/**
+	 * Preferred stage order by {@link Stage#id()}. Stages not listed keep their registration order.
+	 */
+	default List<String> stageOrder() {
+		return List.of();
+	}
+
+	/**
+	 * Whether expensive stateless stages may be skipped once the outcome is already decided.
+	 */
+	default boolean earlyExitEnabled() {
+		return false;
+	}
+
+	/**
+	 * Per-message latency budget in nanos for optional stages; 0 means unlimited.
+	 */
+	default long stageBudgetNanos() {
+		return 0L;
+	}
+
+	/**
+	 * Stage ids of expensive stages that are switched off for the given chat channel.
+	 */
+	default Set<String> disabledStages(String channel) {
+		return Set.of();
+	}
+
+	/**
+	 * Changes whenever the rule configuration is reloaded; used to invalidate memoized stage results.
+	 */
+	default long generation() {
+		return 0L;
+	}
 }
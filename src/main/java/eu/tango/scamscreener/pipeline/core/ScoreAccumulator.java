@@ -0,0 +1,123 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.Evidence;
+import eu.tango.scamscreener.pipeline.model.Signal;
+import eu.tango.scamscreener.pipeline.model.SignalSource;
+import eu.tango.scamscreener.rules.ScamRules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mutable per-message score state. Stages append into it directly so the pipeline
+ * never re-sums or copies signal lists; an immutable result is only built when it is needed.
+ */
+public final class ScoreAccumulator {
+	private static final ScamRules.ScamRule[] RULES = ScamRules.ScamRule.values();
+	private static final int CONVERSATION_RULES = bit(ScamRules.ScamRule.MULTI_MESSAGE_PATTERN)
+		| bit(ScamRules.ScamRule.FUNNEL_SEQUENCE_PATTERN)
+		| bit(ScamRules.ScamRule.LOCAL_AI_FUNNEL_SIGNAL);
+
+	private final double[] ruleScores = new double[RULES.length];
+	private final List<Signal> arena = new ArrayList<>(8);
+	private final List<Signal> arenaView = Collections.unmodifiableList(arena);
+	private int ruleMask;
+	private int evidenceRuleMask;
+	private int sourceMask;
+	private double total;
+
+	public void add(Signal signal) {
+		if (signal == null) {
+			return;
+		}
+		arena.add(signal);
+		total += signal.weight();
+		if (signal.source() != null) {
+			sourceMask |= 1 << signal.source().ordinal();
+		}
+		ScamRules.ScamRule rule = signal.ruleId();
+		if (rule != null) {
+			ruleScores[rule.ordinal()] += signal.weight();
+			ruleMask |= bit(rule);
+			if (signal.details() != Evidence.NONE) {
+				evidenceRuleMask |= bit(rule);
+			}
+		}
+	}
+
+	public void addAll(List<Signal> signals) {
+		if (signals == null) {
+			return;
+		}
+		for (int i = 0; i < signals.size(); i++) {
+			add(signals.get(i));
+		}
+	}
+
+	/**
+	 * Raw sum of all signal weights.
+	 */
+	public double total() {
+		return total;
+	}
+
+	/**
+	 * Total used for the level: conversation-level signals cap the score at 100.
+	 */
+	public double cappedTotal() {
+		return (ruleMask & CONVERSATION_RULES) != 0 ? Math.min(100, total) : total;
+	}
+
+	public double ruleScore(ScamRules.ScamRule rule) {
+		return rule == null ? 0.0 : ruleScores[rule.ordinal()];
+	}
+
+	public boolean hasRule(ScamRules.ScamRule rule) {
+		return rule != null && (ruleMask & bit(rule)) != 0;
+	}
+
+	public boolean hasAnyRule() {
+		return ruleMask != 0;
+	}
+
+	/**
+	 * Whether at least one triggered rule carries non-blank evidence; warnings need something to show.
+	 * Lazy evidence is rendered until the first non-blank one, so only call this once a warning is likely.
+	 */
+	public boolean hasRuleEvidence() {
+		if (evidenceRuleMask == 0) {
+			return false;
+		}
+		for (int i = 0; i < arena.size(); i++) {
+			Signal signal = arena.get(i);
+			if (signal.ruleId() == null || signal.details() == Evidence.NONE) {
+				continue;
+			}
+			String text = signal.details().render();
+			if (text != null && !text.isBlank()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean hasSource(SignalSource source) {
+		return source != null && (sourceMask & (1 << source.ordinal())) != 0;
+	}
+
+	public boolean isEmpty() {
+		return arena.isEmpty();
+	}
+
+	/**
+	 * Read-only view of the signals in the order they were added.
+	 */
+	public List<Signal> signals() {
+		return arenaView;
+	}
+
+	private static int bit(ScamRules.ScamRule rule) {
+		return 1 << rule.ordinal();
+	}
+}
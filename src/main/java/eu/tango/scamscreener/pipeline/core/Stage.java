@@ -1,6 +1,33 @@
 package eu.tango.scamscreener.pipeline.core;
 
-@FunctionalInterface
-public interface Stage<I, O> {
-	O apply(I input);
+/**
+ * A single step of the detection pipeline. Stages read from and write into the shared
+ * {@link PipelineContext} of the current message and are assembled by {@link DetectionPipelineBuilder}.
+ */
+public interface Stage {
+	/**
+	 * Stable identifier used for ordering and per-channel toggles in the rules config.
+	 */
+	String id();
+
+	/**
+	 * Rough runtime cost; only {@link StageCost#EXPENSIVE} stages can be disabled per channel.
+	 */
+	StageCost cost();
+
+	void apply(PipelineContext context);
+
+	/**
+	 * Stateful stages keep per-player history and must see every message, so the scheduler never
+	 * skips them, nor the stages ordered before them that produce what they record.
+	 */
+	default boolean stateful() {
+		return false;
+	}
+
+	/**
+	 * Clears any per-session state kept by the stage.
+	 */
+	default void reset() {
+	}
 }
@@ -0,0 +1,7 @@
+package eu.tango.scamscreener.pipeline.core;
+
+public enum StageCost {
+	CHEAP,
+	MEDIUM,
+	EXPENSIVE
+}
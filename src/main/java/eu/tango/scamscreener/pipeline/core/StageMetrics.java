@@ -0,0 +1,124 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-stage timing and allocation counters. Allocation is measured with the JVM's
+ * per-thread allocation counter when the runtime supports it, otherwise it stays at 0.
+ */
+public final class StageMetrics {
+	private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+	private final Map<String, Counter> counters = new LinkedHashMap<>();
+
+	/**
+	 * Runs the stage against the context and records its elapsed nanos and allocated bytes.
+	 * Returns the elapsed nanos.
+	 */
+	public long measure(Stage stage, PipelineContext context) {
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		stage.apply(context);
+		long elapsed = System.nanoTime() - start;
+		long allocated = allocatedBefore < 0 ? 0L : Math.max(0L, allocatedBytes() - allocatedBefore);
+		Counter counter = counter(stage.id());
+		counter.runs++;
+		counter.totalNanos += elapsed;
+		counter.maxNanos = Math.max(counter.maxNanos, elapsed);
+		counter.allocatedBytes += allocated;
+		return elapsed;
+	}
+
+	public void recordSkipped(String stageId) {
+		counter(stageId).skipped++;
+	}
+
+	/**
+	 * Counts a stage that was skipped or cut short because the message ran out of budget.
+	 */
+	public void recordBudgetExhausted(String stageId) {
+		counter(stageId).budgetExhausted++;
+	}
+
+	public List<StageStats> snapshot() {
+		List<StageStats> out = new ArrayList<>(counters.size());
+		for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+			Counter counter = entry.getValue();
+			out.add(new StageStats(
+				entry.getKey(),
+				counter.runs,
+				counter.skipped,
+				counter.budgetExhausted,
+				counter.totalNanos,
+				counter.maxNanos,
+				counter.allocatedBytes
+			));
+		}
+		return out;
+	}
+
+	public void reset() {
+		counters.clear();
+	}
+
+	private Counter counter(String stageId) {
+		return counters.computeIfAbsent(stageId == null ? "unknown" : stageId, ignored -> new Counter());
+	}
+
+	private static long allocatedBytes() {
+		if (ALLOCATION_BEAN == null) {
+			return -1L;
+		}
+		try {
+			return ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+		} catch (UnsupportedOperationException ignored) {
+			return -1L;
+		}
+	}
+
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+				if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+					sunBean.setThreadAllocatedMemoryEnabled(true);
+				}
+				return sunBean;
+			}
+		} catch (RuntimeException | LinkageError ignored) {
+		}
+		return null;
+	}
+
+	public record StageStats(
+		String stageId,
+		long runs,
+		long skipped,
+		long budgetExhausted,
+		long totalNanos,
+		long maxNanos,
+		long allocatedBytes
+	) {
+		public long averageNanos() {
+			return runs <= 0 ? 0L : totalNanos / runs;
+		}
+
+		public long averageAllocatedBytes() {
+			return runs <= 0 ? 0L : allocatedBytes / runs;
+		}
+	}
+
+	private static final class Counter {
+		private long runs;
+		private long skipped;
+		private long budgetExhausted;
+		private long totalNanos;
+		private long maxNanos;
+		private long allocatedBytes;
+	}
+}
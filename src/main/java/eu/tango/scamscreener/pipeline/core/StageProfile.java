@@ -0,0 +1,9 @@
+package eu.tango.scamscreener.pipeline.core;
+
+/**
+ * How much of the pipeline a message gets. {@link #CHEAP} skips all optional (expensive, stateless) stages.
+ */
+public enum StageProfile {
+	FULL,
+	CHEAP
+}
@@ -0,0 +1,138 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.Signal;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU memo of stateless stage results keyed by a 64-bit hash of the normalized message.
+ * Entries are only valid for one rule-config generation; a generation change clears the cache.
+ * Stateful stages never read from it.
+ */
+public final class StatelessResultCache {
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Map<Long, Entry> entries;
+	private long generation = Long.MIN_VALUE;
+	private long hits;
+	private long misses;
+
+	public StatelessResultCache(int capacity) {
+		int bounded = Math.max(1, capacity);
+		this.entries = new LinkedHashMap<>(Math.min(bounded, 64), 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return size() > bounded;
+			}
+		};
+	}
+
+	/**
+	 * Returns the memo entry for this message, creating an empty one on a miss.
+	 */
+	public Entry lookup(String normalizedMessage, long configGeneration) {
+		if (configGeneration != generation) {
+			entries.clear();
+			generation = configGeneration;
+		}
+		String message = normalizedMessage == null ? "" : normalizedMessage;
+		long key = hash64(message);
+		Entry entry = entries.get(key);
+		// The message text is kept to rule out hash collisions.
+		if (entry != null && entry.message.equals(message)) {
+			hits++;
+			return entry;
+		}
+		misses++;
+		Entry created = new Entry(message);
+		entries.put(key, created);
+		return created;
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long hits() {
+		return hits;
+	}
+
+	public long misses() {
+		return misses;
+	}
+
+	public double hitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : hits / (double) total;
+	}
+
+	/**
+	 * 64-bit FNV-1a over the UTF-16 chars of the message.
+	 */
+	static long hash64(String value) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			hash ^= c & 0xff;
+			hash *= FNV_PRIME;
+			hash ^= c >>> 8;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Cached stateless results for one message. {@code null} / NaN means "not computed yet".
+	 */
+	public static final class Entry {
+		private final String message;
+		private List<Signal> ruleSignals;
+		private List<Signal> similaritySignals;
+		private long similarityStamp;
+		private double aiTokenScore = Double.NaN;
+		private long aiModelGeneration;
+
+		private Entry(String message) {
+			this.message = message;
+		}
+
+		public List<Signal> ruleSignals() {
+			return ruleSignals;
+		}
+
+		public void ruleSignals(List<Signal> signals) {
+			this.ruleSignals = List.copyOf(signals);
+		}
+
+		/**
+		 * Cached similarity signals, or {@code null} if they were computed against other training data.
+		 */
+		public List<Signal> similaritySignals(long trainingStamp) {
+			return similaritySignals != null && similarityStamp == trainingStamp ? similaritySignals : null;
+		}
+
+		public void similaritySignals(List<Signal> signals, long trainingStamp) {
+			this.similaritySignals = List.copyOf(signals);
+			this.similarityStamp = trainingStamp;
+		}
+
+		/**
+		 * Cached token part of the AI linear score, or NaN if it was computed for another model.
+		 */
+		public double aiTokenScore(long modelGeneration) {
+			return aiModelGeneration == modelGeneration ? aiTokenScore : Double.NaN;
+		}
+
+		public void aiTokenScore(double score, long modelGeneration) {
+			this.aiTokenScore = score;
+			this.aiModelGeneration = modelGeneration;
+		}
+	}
+}
@@ -6,6 +6,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import eu.tango.scamscreener.pipeline.model.Evidence;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.util.TextUtil;
@@ -24,6 +25,15 @@ public final class TrendStore {
 	 * The returned {@link TrendEvaluation} is consumed by {@link eu.tango.scamscreener.pipeline.stage.TrendSignalStage}.
 	 */
 	public TrendEvaluation evaluate(MessageEvent event, List<Signal> existingSignals) {
+		ScoreAccumulator accumulator = new ScoreAccumulator();
+		accumulator.addAll(existingSignals);
+		return evaluate(event, accumulator.total(), accumulator.hasAnyRule());
+	}
+
+	/**
+	 * Same as {@link #evaluate(MessageEvent, List)} with the current message's score already summed.
+	 */
+	public TrendEvaluation evaluate(MessageEvent event, double currentScore, boolean hadRule) {
 		if (event == null || event.playerName() == null || event.playerName().isBlank()) {
 			return TrendEvaluation.empty();
 		}
@@ -36,8 +46,7 @@ public final class TrendStore {
 			history.removeFirst();
 		}
 
-		int messageScore = (int) Math.round(existingSignals.stream().mapToDouble(Signal::weight).sum());
-		boolean hadRule = existingSignals.stream().anyMatch(signal -> signal.ruleId() != null);
+		int messageScore = (int) Math.round(currentScore);
 		history.addLast(new TrendRecord(now, messageScore, hadRule, event.rawMessage()));
 		while (history.size() > 8) {
 			history.removeFirst();
@@ -64,8 +73,11 @@ public final class TrendStore {
 			return TrendEvaluation.empty();
 		}
 
-		String detail = "Conversation trend: " + history.size() + " messages in " + (TREND_WINDOW_MILLIS / 1000)
-			+ "s, triggered messages=" + triggeredMessages + ", cumulative score=" + totalScore + " (+" + TREND_SCORE_BONUS + ")";
+		int historySize = history.size();
+		int triggered = triggeredMessages;
+		int cumulative = totalScore;
+		Evidence detail = () -> "Conversation trend: " + historySize + " messages in " + (TREND_WINDOW_MILLIS / 1000)
+			+ "s, triggered messages=" + triggered + ", cumulative score=" + cumulative + " (+" + TREND_SCORE_BONUS + ")";
 
 		return new TrendEvaluation(TREND_SCORE_BONUS, detail, evaluatedMessages);
 	}
@@ -77,7 +89,7 @@ public final class TrendStore {
 	/**
 	 * Result of a trend evaluation. If {@link #detail()} is {@code null}, no trend triggered.
 	 */
-	public record TrendEvaluation(int bonusScore, String detail, List<String> evaluatedMessages) {
+	public record TrendEvaluation(int bonusScore, Evidence detail, List<String> evaluatedMessages) {
 		public static TrendEvaluation empty() {
 			return new TrendEvaluation(0, null, List.of());
 		}
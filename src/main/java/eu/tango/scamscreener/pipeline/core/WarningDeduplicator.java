@@ -16,11 +16,24 @@ public final class WarningDeduplicator {
 		if (event == null || event.playerName() == null || event.playerName().isBlank() || level == null) {
 			return false;
 		}
-		String key = "behavior-risk:" + TextUtil.anonymizedSpeakerKey(event.playerName()) + ":" + level.name();
-		return seen.add(key);
+		return seen.add(key(event, level));
+	}
+
+	/**
+	 * Whether {@link #shouldWarn(MessageEvent, DetectionLevel)} already fired for this player and level.
+	 */
+	public boolean hasWarned(MessageEvent event, DetectionLevel level) {
+		if (event == null || event.playerName() == null || event.playerName().isBlank() || level == null) {
+			return false;
+		}
+		return seen.contains(key(event, level));
 	}
 
 	public void reset() {
 		seen.clear();
 	}
+
+	private static String key(MessageEvent event, DetectionLevel level) {
+		return "behavior-risk:" + TextUtil.anonymizedSpeakerKey(event.playerName()) + ":" + level.name();
+	}
 }
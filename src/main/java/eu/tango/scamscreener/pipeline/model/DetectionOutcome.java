@@ -1,4 +1,13 @@
 package eu.tango.scamscreener.pipeline.model;
 
-public record DetectionOutcome(MessageEvent event, DetectionResult result) {
+import eu.tango.scamscreener.pipeline.core.IntentTagger;
+
+/**
+ * A warned message with its result and the intent tags computed during the run,
+ * so training capture does not have to tag the message again.
+ */
+public record DetectionOutcome(MessageEvent event, DetectionResult result, IntentTagger.TaggingResult tagging) {
+	public DetectionOutcome(MessageEvent event, DetectionResult result) {
+		this(event, result, null);
+	}
 }
@@ -2,6 +2,8 @@ package eu.tango.scamscreener.pipeline.model;
 
 import eu.tango.scamscreener.rules.ScamRules;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -9,13 +11,62 @@ public record DetectionResult(
 	double totalScore,
 	DetectionLevel level,
 	List<Signal> signals,
-	Map<ScamRules.ScamRule, String> triggeredRules,
+	Map<ScamRules.ScamRule, Evidence> ruleEvidence,
 	boolean shouldCapture,
-	List<String> evaluatedMessages
+	List<String> evaluatedMessages,
+	List<String> completedStages,
+	List<String> truncatedStages
 ) {
 	public DetectionResult {
 		signals = signals == null ? List.of() : List.copyOf(signals);
-		triggeredRules = triggeredRules == null ? Map.of() : Map.copyOf(triggeredRules);
+		ruleEvidence = ruleEvidence == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(ruleEvidence));
 		evaluatedMessages = evaluatedMessages == null ? List.of() : List.copyOf(evaluatedMessages);
+		completedStages = completedStages == null ? List.of() : List.copyOf(completedStages);
+		truncatedStages = truncatedStages == null ? List.of() : List.copyOf(truncatedStages);
+	}
+
+	public DetectionResult(
+		double totalScore,
+		DetectionLevel level,
+		List<Signal> signals,
+		Map<ScamRules.ScamRule, String> triggeredRules,
+		boolean shouldCapture,
+		List<String> evaluatedMessages
+	) {
+		this(totalScore, level, signals, wrap(triggeredRules), shouldCapture, evaluatedMessages, List.of(), List.of());
+	}
+
+	/**
+	 * Renders the evidence of every triggered rule; rules whose evidence renders blank are left out.
+	 * Only call this when building a warning or a training row.
+	 */
+	public Map<ScamRules.ScamRule, String> triggeredRules() {
+		if (ruleEvidence.isEmpty()) {
+			return Map.of();
+		}
+		Map<ScamRules.ScamRule, String> rendered = new LinkedHashMap<>();
+		ruleEvidence.forEach((rule, evidence) -> {
+			String text = evidence.render();
+			if (text != null && !text.isBlank()) {
+				rendered.put(rule, text);
+			}
+		});
+		return Collections.unmodifiableMap(rendered);
+	}
+
+	/**
+	 * Whether any stage was skipped or cut short by the latency budget.
+	 */
+	public boolean partial() {
+		return !truncatedStages.isEmpty();
+	}
+
+	private static Map<ScamRules.ScamRule, Evidence> wrap(Map<ScamRules.ScamRule, String> details) {
+		if (details == null || details.isEmpty()) {
+			return Map.of();
+		}
+		Map<ScamRules.ScamRule, Evidence> wrapped = new LinkedHashMap<>();
+		details.forEach((rule, text) -> wrapped.put(rule, Evidence.of(text)));
+		return wrapped;
 	}
 }
@@ -0,0 +1,46 @@
+package eu.tango.scamscreener.pipeline.model;
+
+/**
+ * Deferred human-readable evidence for a {@link Signal}.
+ * Stages capture the raw facts (matched span, score, threshold) in a lambda; the text is only
+ * built when a warning hover, training row or debug trace actually needs it.
+ */
+@FunctionalInterface
+public interface Evidence {
+	Evidence NONE = () -> "";
+
+	String render();
+
+	/**
+	 * Wraps already formatted text. Blank text becomes {@link #NONE}.
+	 */
+	static Evidence of(String text) {
+		if (text == null || text.isBlank()) {
+			return NONE;
+		}
+		return () -> text;
+	}
+
+	/**
+	 * Renders {@code first} and {@code second} separated by a newline, skipping blank parts.
+	 */
+	static Evidence join(Evidence first, Evidence second) {
+		if (first == null || first == NONE) {
+			return second == null ? NONE : second;
+		}
+		if (second == null || second == NONE) {
+			return first;
+		}
+		return () -> {
+			String head = first.render();
+			String tail = second.render();
+			if (head == null || head.isBlank()) {
+				return tail == null ? "" : tail;
+			}
+			if (tail == null || tail.isBlank()) {
+				return head;
+			}
+			return head + "\n" + tail;
+		};
+	}
+}
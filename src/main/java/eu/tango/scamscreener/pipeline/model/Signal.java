@@ -8,11 +8,23 @@ public record Signal(
 	String id,
 	SignalSource source,
 	double weight,
-	String evidence,
+	Evidence details,
 	ScamRules.ScamRule ruleId,
 	List<String> relatedMessages
 ) {
 	public Signal {
+		details = details == null ? Evidence.NONE : details;
 		relatedMessages = relatedMessages == null ? List.of() : List.copyOf(relatedMessages);
 	}
+
+	public Signal(String id, SignalSource source, double weight, String evidence, ScamRules.ScamRule ruleId, List<String> relatedMessages) {
+		this(id, source, weight, Evidence.of(evidence), ruleId, relatedMessages);
+	}
+
+	/**
+	 * Renders the evidence text. Only call this when the text is shown or persisted.
+	 */
+	public String evidence() {
+		return details.render();
+	}
 }
@@ -0,0 +1,45 @@
+package eu.tango.scamscreener.pipeline.stage;
+
+import eu.tango.scamscreener.pipeline.core.AiScorer;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
+
+public final class AiContextStage implements Stage {
+	public static final String ID = "ai-context";
+
+	private final AiScorer aiScorer;
+
+	/**
+	 * Keeps the per-speaker AI funnel and message-gap history of {@link AiScorer} up to date, so
+	 * {@link AiSignalStage} can be skipped without leaving holes in it.
+	 */
+	public AiContextStage(AiScorer aiScorer) {
+		this.aiScorer = aiScorer;
+	}
+
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.CHEAP;
+	}
+
+	@Override
+	public boolean stateful() {
+		return true;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		aiScorer.track(context);
+	}
+
+	@Override
+	public void reset() {
+		aiScorer.reset();
+	}
+}
@@ -2,11 +2,16 @@ package eu.tango.scamscreener.pipeline.stage;
 
 import java.util.List;
 import eu.tango.scamscreener.pipeline.core.AiScorer;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
 import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 
-public final class AiSignalStage {
+public final class AiSignalStage implements Stage {
+	public static final String ID = "ai";
+
 	private final AiScorer aiScorer;
 
 	/**
@@ -23,6 +28,22 @@ public final class AiSignalStage {
 		return aiScorer.score(event, analysis, existingSignals);
 	}
 
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.EXPENSIVE;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		context.addSignals(aiScorer.score(context));
+	}
+
+	@Override
 	public void reset() {
 		aiScorer.reset();
 	}
@@ -4,12 +4,17 @@ import eu.tango.scamscreener.rules.ScamRules;
 
 import java.util.ArrayList;
 import java.util.List;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
 import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
 import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.pipeline.model.SignalSource;
 
-public final class BehaviorSignalStage {
+public final class BehaviorSignalStage implements Stage {
+	public static final String ID = "behavior";
+
 	private final RuleConfig ruleConfig;
 
 	/**
@@ -19,6 +24,21 @@ public final class BehaviorSignalStage {
 		this.ruleConfig = ruleConfig;
 	}
 
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.CHEAP;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		context.addSignals(collectSignals(context.analysis()));
+	}
+
 	/**
 	 * Returns one {@link Signal} per behavior flag that is enabled by rules.
 	 */
@@ -77,7 +97,7 @@ public final class BehaviorSignalStage {
 				ScamRules.ScamRule.SPAMMY_CONTACT_PATTERN.name(),
 				SignalSource.BEHAVIOR,
 				10,
-				"Repeated contact attempts=" + analysis.repeatedContactAttempts() + " (threshold: 3, +10)",
+				() -> "Repeated contact attempts=" + analysis.repeatedContactAttempts() + " (threshold: 3, +10)",
 				ScamRules.ScamRule.SPAMMY_CONTACT_PATTERN,
 				analysis.repeatedContactMessages() == null ? List.of() : analysis.repeatedContactMessages()
 			));
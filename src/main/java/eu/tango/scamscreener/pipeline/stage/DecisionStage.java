@@ -4,9 +4,12 @@ import eu.tango.scamscreener.rules.ScamRules;
 import eu.tango.scamscreener.pipeline.core.DetectionScoring;
 import eu.tango.scamscreener.pipeline.core.WarningDeduplicator;
 import eu.tango.scamscreener.pipeline.model.DetectionDecision;
+import eu.tango.scamscreener.pipeline.model.DetectionLevel;
 import eu.tango.scamscreener.pipeline.model.DetectionResult;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 
+import java.util.function.BooleanSupplier;
+
 public final class DecisionStage {
 	private final WarningDeduplicator deduplicator;
 
@@ -24,16 +27,30 @@ public final class DecisionStage {
 		if (result == null) {
 			return new DetectionDecision(false);
 		}
-		if (result.totalScore() <= 0 || result.triggeredRules().isEmpty()) {
+		return decide(event, result.level(), result.totalScore(), () -> !result.triggeredRules().isEmpty());
+	}
+
+	/**
+	 * Same decision from the raw score, so no {@link DetectionResult} has to exist yet.
+	 */
+	public DetectionDecision decide(MessageEvent event, DetectionLevel level, double totalScore, boolean hasRuleEvidence) {
+		return decide(event, level, totalScore, () -> hasRuleEvidence);
+	}
+
+	/**
+	 * Same decision; {@code hasRuleEvidence} renders evidence, so it is only asked once the score passes the thresholds.
+	 */
+	public DetectionDecision decide(MessageEvent event, DetectionLevel level, double totalScore, BooleanSupplier hasRuleEvidence) {
+		if (level == null || totalScore <= 0) {
 			return new DetectionDecision(false);
 		}
 		ScamRules.ScamRiskLevel minimum = ScamRules.minimumAlertRiskLevel();
-		ScamRules.ScamRiskLevel actual = DetectionScoring.toScamRiskLevel(result.level());
-		if (actual.ordinal() < minimum.ordinal()) {
+		ScamRules.ScamRiskLevel actual = DetectionScoring.toScamRiskLevel(level);
+		if (actual.ordinal() < minimum.ordinal() || !hasRuleEvidence.getAsBoolean()) {
 			return new DetectionDecision(false);
 		}
 
-		boolean shouldWarn = deduplicator == null || deduplicator.shouldWarn(event, result.level());
+		boolean shouldWarn = deduplicator == null || deduplicator.shouldWarn(event, level);
 		return new DetectionDecision(shouldWarn);
 	}
 
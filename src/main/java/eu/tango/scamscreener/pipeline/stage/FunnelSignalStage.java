@@ -2,7 +2,11 @@ package eu.tango.scamscreener.pipeline.stage;
 
 import eu.tango.scamscreener.pipeline.core.FunnelStore;
 import eu.tango.scamscreener.pipeline.core.IntentTagger;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
 import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
+import eu.tango.scamscreener.pipeline.model.Evidence;
 import eu.tango.scamscreener.pipeline.model.IntentTag;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
@@ -11,7 +15,9 @@ import eu.tango.scamscreener.rules.ScamRules;
 
 import java.util.List;
 
-public final class FunnelSignalStage {
+public final class FunnelSignalStage implements Stage {
+	public static final String ID = "funnel";
+
 	private final RuleConfig ruleConfig;
 	private final FunnelStore funnelStore;
 	private final IntentTagger intentTagger;
@@ -20,13 +26,48 @@ public final class FunnelSignalStage {
 	 * Evaluates per-player message funnels (offer/rep/redirect/instruction).
 	 */
 	public FunnelSignalStage(RuleConfig ruleConfig, FunnelStore funnelStore) {
+		this(ruleConfig, funnelStore, new IntentTagger(ruleConfig));
+	}
+
+	/**
+	 * Shares the {@link IntentTagger} with the rest of the pipeline so tagging runs once per event.
+	 */
+	public FunnelSignalStage(RuleConfig ruleConfig, FunnelStore funnelStore, IntentTagger intentTagger) {
 		this.ruleConfig = ruleConfig;
 		this.funnelStore = funnelStore;
-		this.intentTagger = new IntentTagger(ruleConfig);
+		this.intentTagger = intentTagger;
+	}
+
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.MEDIUM;
+	}
+
+	@Override
+	public boolean stateful() {
+		return true;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		context.addSignals(collect(context.event(), context.tagging(intentTagger)));
+	}
+
+	@Override
+	public void reset() {
+		funnelStore.reset();
 	}
 
 	public List<Signal> collectSignals(MessageEvent event, List<Signal> existingSignals) {
-		IntentTagger.TaggingResult tagging = intentTagger.tag(event, existingSignals);
+		return collect(event, intentTagger.tag(event, existingSignals));
+	}
+
+	private List<Signal> collect(MessageEvent event, IntentTagger.TaggingResult tagging) {
 		FunnelStore.FunnelEvaluation evaluation = funnelStore.evaluate(event, tagging);
 		if (!ruleConfig.isEnabled(ScamRules.ScamRule.FUNNEL_SEQUENCE_PATTERN)) {
 			return List.of();
@@ -35,7 +76,7 @@ public final class FunnelSignalStage {
 			return List.of();
 		}
 
-		String evidence = appendCurrentTags(evaluation.detail(), tagging.tags());
+		Evidence evidence = appendCurrentTags(evaluation.detail(), tagging.tags());
 		return List.of(new Signal(
 			ScamRules.ScamRule.FUNNEL_SEQUENCE_PATTERN.name(),
 			SignalSource.FUNNEL,
@@ -46,11 +87,10 @@ public final class FunnelSignalStage {
 		));
 	}
 
-	private static String appendCurrentTags(String detail, java.util.Set<IntentTag> tags) {
+	private static Evidence appendCurrentTags(Evidence detail, java.util.Set<IntentTag> tags) {
 		if (tags == null || tags.isEmpty()) {
 			return detail;
 		}
-		List<String> current = tags.stream().map(Enum::name).sorted().toList();
-		return detail + "\nCurrent intent tags=" + String.join(", ", current);
+		return Evidence.join(detail, () -> "Current intent tags=" + String.join(", ", tags.stream().map(Enum::name).sorted().toList()));
 	}
 }
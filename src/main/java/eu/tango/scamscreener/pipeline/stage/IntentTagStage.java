@@ -0,0 +1,37 @@
+package eu.tango.scamscreener.pipeline.stage;
+
+import eu.tango.scamscreener.pipeline.core.IntentTagger;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
+
+public final class IntentTagStage implements Stage {
+	public static final String ID = "intent";
+
+	private final IntentTagger intentTagger;
+
+	/**
+	 * Runs the text part of {@link IntentTagger} once per event and publishes it on the
+	 * {@link PipelineContext}; funnel, AI and training capture reuse it.
+	 */
+	public IntentTagStage(IntentTagger intentTagger) {
+		this.intentTagger = intentTagger;
+	}
+
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.CHEAP;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		if (context.textIntent() == null) {
+			context.setTextIntent(intentTagger.analyzeText(context.event()));
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package eu.tango.scamscreener.pipeline.stage;
 
 import eu.tango.scamscreener.config.ScamScreenerPaths;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
 import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
+import eu.tango.scamscreener.pipeline.core.StatelessResultCache;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.pipeline.model.SignalSource;
@@ -19,18 +23,62 @@ import java.util.Map;
 /**
  * Adds rule signals based on Levenshtein similarity to known phrases and training samples.
  */
-public final class LevenshteinSignalStage {
+public final class LevenshteinSignalStage implements Stage {
+	public static final String ID = "levenshtein";
+	private static final int BUDGET_CHECK_MASK = 15;
+	// The newest samples are always compared, even when the latency budget is already used up.
+	private static final int MIN_SCANNED_SAMPLES = 32;
 	private static final Path TRAINING_DATA_PATH = ScamScreenerPaths.inModConfigDir("scam-screener-training-data.csv");
 	private static final List<PhraseEntry> RULE_PHRASES = buildRulePhrases();
 
 	private final RuleConfig ruleConfig;
-	private final TrainingCache trainingCache = new TrainingCache();
+	private final TrainingCache trainingCache;
 
 	public LevenshteinSignalStage(RuleConfig ruleConfig) {
+		this(ruleConfig, TRAINING_DATA_PATH);
+	}
+
+	LevenshteinSignalStage(RuleConfig ruleConfig, Path trainingDataPath) {
 		this.ruleConfig = ruleConfig;
+		this.trainingCache = new TrainingCache(trainingDataPath);
+	}
+
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.EXPENSIVE;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		StatelessResultCache.Entry memo = context.memo();
+		if (memo == null) {
+			context.addSignals(collect(context.event(), context));
+			return;
+		}
+		long stamp = trainingCache.stamp();
+		List<Signal> cached = memo.similaritySignals(stamp);
+		if (cached != null) {
+			context.addSignals(cached);
+			return;
+		}
+		List<Signal> signals = collect(context.event(), context);
+		// A truncated scan is budget-dependent, so only full results are worth remembering.
+		if (!context.isTruncated(ID)) {
+			memo.similaritySignals(signals, stamp);
+		}
+		context.addSignals(signals);
 	}
 
 	public List<Signal> collectSignals(MessageEvent event) {
+		return collect(event, null);
+	}
+
+	private List<Signal> collect(MessageEvent event, PipelineContext context) {
 		if (event == null || event.normalizedMessage().isBlank()) {
 			return List.of();
 		}
@@ -43,7 +91,7 @@ public final class LevenshteinSignalStage {
 
 		List<Signal> signals = new ArrayList<>();
 		addRulePhraseSignals(normalized, signals);
-		addTrainingSimilaritySignal(normalized, signals);
+		addTrainingSimilaritySignal(normalized, signals, context);
 		return signals;
 	}
 
@@ -71,7 +119,7 @@ public final class LevenshteinSignalStage {
 				entry.getKey().name(),
 				SignalSource.RULE,
 				weight,
-				"Levenshtein similarity=" + formatPercent(match.similarity())
+				() -> "Levenshtein similarity=" + formatPercent(match.similarity())
 					+ " to phrase: \"" + match.phrase() + "\" (+" + weight + ")",
 				entry.getKey(),
 				List.of()
@@ -79,7 +127,7 @@ public final class LevenshteinSignalStage {
 		}
 	}
 
-	private void addTrainingSimilaritySignal(String message, List<Signal> signals) {
+	private void addTrainingSimilaritySignal(String message, List<Signal> signals, PipelineContext context) {
 		TrainingSnapshot snapshot = trainingCache.loadIfNeeded();
 		if (snapshot == null || snapshot.samples().isEmpty() || !ruleConfig.isEnabled(ScamRules.ScamRule.SIMILARITY_MATCH)) {
 			return;
@@ -91,7 +139,15 @@ public final class LevenshteinSignalStage {
 		TrainingMatch bestScam = null;
 		TrainingMatch bestLegit = null;
 
-		for (TrainingSample sample : snapshot.samples()) {
+		// Samples alternate between labels, so a scan cut short by the budget still weighs scam
+		// matches against legit ones; its best match is kept and the stage is marked truncated.
+		List<TrainingSample> samples = snapshot.samples();
+		for (int i = 0; i < samples.size(); i++) {
+			if (context != null && i >= MIN_SCANNED_SAMPLES && (i & BUDGET_CHECK_MASK) == 0 && context.budgetExhausted()) {
+				context.markTruncated(ID);
+				break;
+			}
+			TrainingSample sample = samples.get(i);
 			double score = similarity(message, sample.normalized());
 			if (sample.label() == 1) {
 				if (bestScam == null || score > bestScam.similarity()) {
@@ -112,12 +168,13 @@ public final class LevenshteinSignalStage {
 			return;
 		}
 
+		TrainingMatch match = bestScam;
 		signals.add(new Signal(
 			ScamRules.ScamRule.SIMILARITY_MATCH.name(),
 			SignalSource.RULE,
 			weight,
-			"Levenshtein similarity=" + formatPercent(bestScam.similarity())
-				+ " to scam training sample: \"" + bestScam.sample() + "\" (+" + weight + ")",
+			() -> "Levenshtein similarity=" + formatPercent(match.similarity())
+				+ " to scam training sample: \"" + match.sample() + "\" (+" + weight + ")",
 			ScamRules.ScamRule.SIMILARITY_MATCH,
 			List.of()
 		));
@@ -264,17 +321,30 @@ public final class LevenshteinSignalStage {
 	}
 
 	private static final class TrainingCache {
+		private final Path path;
 		private long lastModified;
 		private TrainingSnapshot cached;
 
+		private TrainingCache(Path path) {
+			this.path = path;
+		}
+
+		/**
+		 * Modification time of the loaded training file; changes whenever the samples are reloaded.
+		 */
+		private long stamp() {
+			loadIfNeeded();
+			return lastModified;
+		}
+
 		private TrainingSnapshot loadIfNeeded() {
 			try {
-				if (!Files.exists(TRAINING_DATA_PATH)) {
+				if (!Files.exists(path)) {
 					cached = null;
 					lastModified = 0L;
 					return null;
 				}
-				long modified = Files.getLastModifiedTime(TRAINING_DATA_PATH).toMillis();
+				long modified = Files.getLastModifiedTime(path).toMillis();
 				if (cached != null && modified == lastModified) {
 					return cached;
 				}
@@ -287,11 +357,12 @@ public final class LevenshteinSignalStage {
 		}
 
 		private TrainingSnapshot loadTrainingSamples() throws Exception {
-			List<String> lines = Files.readAllLines(TRAINING_DATA_PATH, StandardCharsets.UTF_8);
+			List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
 			if (lines.size() < 2) {
 				return new TrainingSnapshot(List.of());
 			}
-			List<TrainingSample> samples = new ArrayList<>();
+			List<TrainingSample> scamSamples = new ArrayList<>();
+			List<TrainingSample> legitSamples = new ArrayList<>();
 			int scamCount = 0;
 			int legitCount = 0;
 			for (int i = lines.size() - 1; i >= 1; i--) {
@@ -322,17 +393,34 @@ public final class LevenshteinSignalStage {
 				if (normalized.length() < ScamRules.similarityMinMessageLength()) {
 					continue;
 				}
-				samples.add(new TrainingSample(rawMessage, normalized, label));
 				if (label == 1) {
+					scamSamples.add(new TrainingSample(rawMessage, normalized, label));
 					scamCount++;
 				} else {
+					legitSamples.add(new TrainingSample(rawMessage, normalized, label));
 					legitCount++;
 				}
 				if (scamCount >= maxSamples && legitCount >= maxSamples) {
 					break;
 				}
 			}
-			return new TrainingSnapshot(samples);
+			return new TrainingSnapshot(interleave(scamSamples, legitSamples));
+		}
+
+		/**
+		 * Newest first, alternating scam and legit samples while both labels have some left.
+		 */
+		private static List<TrainingSample> interleave(List<TrainingSample> scam, List<TrainingSample> legit) {
+			List<TrainingSample> out = new ArrayList<>(scam.size() + legit.size());
+			for (int i = 0; i < Math.max(scam.size(), legit.size()); i++) {
+				if (i < scam.size()) {
+					out.add(scam.get(i));
+				}
+				if (i < legit.size()) {
+					out.add(legit.get(i));
+				}
+			}
+			return out;
 		}
 
 		private static List<String> parseCsvLine(String line) {
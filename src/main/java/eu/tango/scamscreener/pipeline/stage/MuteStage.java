@@ -22,7 +22,7 @@ public final class MuteStage {
 		if (event == null) {
 			return Optional.empty();
 		}
-		if (mutePatternManager != null && mutePatternManager.shouldBlock(event.rawMessage())) {
+		if (mutePatternManager != null && mutePatternManager.isMuted(event.rawMessage())) {
 			return Optional.empty();
 		}
 		return Optional.of(event);
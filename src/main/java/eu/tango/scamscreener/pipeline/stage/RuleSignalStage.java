@@ -6,12 +6,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
 import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
+import eu.tango.scamscreener.pipeline.core.StatelessResultCache;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.pipeline.model.SignalSource;
 
-public final class RuleSignalStage {
+public final class RuleSignalStage implements Stage {
+	public static final String ID = "rule";
 	private static final Pattern URGENCY_ALLOWLIST = Pattern.compile("\\b(auction|ah|flip|bin|bid|bidding)\\b");
 	private static final Pattern TRADE_CONTEXT_ALLOWLIST = Pattern.compile("\\b(sell|selling|buy|buying|trade|trading|price|coins?|payment|pay|lf|lb)\\b");
 	private static final Pattern COERCION_THREAT_PATTERN = Pattern.compile(
@@ -77,6 +82,29 @@ public final class RuleSignalStage {
 		this.ruleConfig = ruleConfig;
 	}
 
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.MEDIUM;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		StatelessResultCache.Entry memo = context.memo();
+		if (memo == null) {
+			context.addSignals(collectSignals(context.event()));
+			return;
+		}
+		if (memo.ruleSignals() == null) {
+			memo.ruleSignals(collectSignals(context.event()));
+		}
+		context.addSignals(memo.ruleSignals());
+	}
+
 	/**
 	 * Returns one {@link Signal} per triggered rule. Empty when nothing matches.
 	 */
@@ -96,7 +124,7 @@ public final class RuleSignalStage {
 				ScamRules.ScamRule.SUSPICIOUS_LINK.name(),
 				SignalSource.RULE,
 				20,
-				"Matched link pattern: \"" + linkMatch + "\" (+20)",
+				() -> "Matched link pattern: \"" + linkMatch + "\" (+20)",
 				ScamRules.ScamRule.SUSPICIOUS_LINK,
 				List.of()
 			));
@@ -111,7 +139,7 @@ public final class RuleSignalStage {
 					ScamRules.ScamRule.PRESSURE_AND_URGENCY.name(),
 					SignalSource.RULE,
 					20,
-					"Coercion/extortion wording: \"" + coercionMatch + "\" (+20)",
+					() -> "Coercion/extortion wording: \"" + coercionMatch + "\" (+20)",
 					ScamRules.ScamRule.PRESSURE_AND_URGENCY,
 					List.of()
 				));
@@ -121,7 +149,7 @@ public final class RuleSignalStage {
 					ScamRules.ScamRule.PRESSURE_AND_URGENCY.name(),
 					SignalSource.RULE,
 					15,
-					"Urgency phrase score=" + urgencyScore.score() + " (keywords=" + urgencyScore.keywordHits()
+					() -> "Urgency phrase score=" + urgencyScore.score() + " (keywords=" + urgencyScore.keywordHits()
 						+ ", phrases=" + urgencyScore.phraseHits() + ", threshold=" + URGENCY_SCORE_THRESHOLD + ")"
 						+ matchEvidence(urgencyScore.match()) + " (+15)",
 					ScamRules.ScamRule.PRESSURE_AND_URGENCY,
@@ -136,7 +164,7 @@ public final class RuleSignalStage {
 				ScamRules.ScamRule.UPFRONT_PAYMENT.name(),
 				SignalSource.RULE,
 				25,
-				"Matched payment-first wording: \"" + paymentMatch + "\" (+25)",
+				() -> "Matched payment-first wording: \"" + paymentMatch + "\" (+25)",
 				ScamRules.ScamRule.UPFRONT_PAYMENT,
 				List.of()
 			));
@@ -148,7 +176,7 @@ public final class RuleSignalStage {
 				ScamRules.ScamRule.ACCOUNT_DATA_REQUEST.name(),
 				SignalSource.RULE,
 				35,
-				"Matched sensitive-account wording: \"" + accountMatch + "\" (+35)",
+				() -> "Matched sensitive-account wording: \"" + accountMatch + "\" (+35)",
 				ScamRules.ScamRule.ACCOUNT_DATA_REQUEST,
 				List.of()
 			));
@@ -160,7 +188,7 @@ public final class RuleSignalStage {
 				ScamRules.ScamRule.TOO_GOOD_TO_BE_TRUE.name(),
 				SignalSource.RULE,
 				15,
-				"Matched unrealistic-promise wording: \"" + tooGoodMatch + "\" (+15)",
+				() -> "Matched unrealistic-promise wording: \"" + tooGoodMatch + "\" (+15)",
 				ScamRules.ScamRule.TOO_GOOD_TO_BE_TRUE,
 				List.of()
 			));
@@ -173,7 +201,7 @@ public final class RuleSignalStage {
 					ScamRules.ScamRule.TRUST_MANIPULATION.name(),
 					SignalSource.RULE,
 					10,
-					"Trust phrase score=" + trustScore.score() + " (keywords=" + trustScore.keywordHits()
+					() -> "Trust phrase score=" + trustScore.score() + " (keywords=" + trustScore.keywordHits()
 						+ ", phrases=" + trustScore.phraseHits() + ", threshold=" + TRUST_SCORE_THRESHOLD + ")"
 						+ matchEvidence(trustScore.match()) + " (+10)",
 					ScamRules.ScamRule.TRUST_MANIPULATION,
@@ -205,7 +233,7 @@ public final class RuleSignalStage {
 					ScamRules.ScamRule.DISCORD_HANDLE.name(),
 					SignalSource.RULE,
 					50,
-					"Discord handle with platform mention: \"" + handle + "\" (+50). External platform behavior skipped.",
+					() -> "Discord handle with platform mention: \"" + handle + "\" (+50). External platform behavior skipped.",
 					ScamRules.ScamRule.DISCORD_HANDLE,
 					List.of()
 				));
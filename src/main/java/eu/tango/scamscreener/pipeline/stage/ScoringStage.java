@@ -4,13 +4,13 @@ import eu.tango.scamscreener.rules.ScamRules;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import eu.tango.scamscreener.pipeline.core.DetectionScoring;
+import eu.tango.scamscreener.pipeline.core.ScoreAccumulator;
 import eu.tango.scamscreener.pipeline.model.DetectionLevel;
 import eu.tango.scamscreener.pipeline.model.DetectionResult;
+import eu.tango.scamscreener.pipeline.model.Evidence;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 
@@ -20,28 +20,41 @@ public final class ScoringStage {
 	 * and builds a {@link DetectionResult} with rule details.
 	 */
 	public DetectionResult score(MessageEvent event, List<Signal> signals) {
-		List<Signal> safeSignals = signals == null ? List.of() : List.copyOf(signals);
-		double total = safeSignals.stream().mapToDouble(Signal::weight).sum();
-		boolean hasConversationBonus = safeSignals.stream().anyMatch(signal ->
-			signal.ruleId() == ScamRules.ScamRule.MULTI_MESSAGE_PATTERN
-				|| signal.ruleId() == ScamRules.ScamRule.FUNNEL_SEQUENCE_PATTERN
-				|| signal.ruleId() == ScamRules.ScamRule.LOCAL_AI_FUNNEL_SIGNAL
-		);
-		if (hasConversationBonus) {
-			total = Math.min(100, total);
-		}
+		return score(event, signals, List.of(), List.of());
+	}
+
+	/**
+	 * Same as {@link #score(MessageEvent, List)} and records which stages ran in full or were truncated.
+	 */
+	public DetectionResult score(MessageEvent event, List<Signal> signals, List<String> completedStages, List<String> truncatedStages) {
+		ScoreAccumulator accumulator = new ScoreAccumulator();
+		accumulator.addAll(signals);
+		return materialize(event, accumulator, completedStages, truncatedStages);
+	}
 
+	/**
+	 * Total used for the level; conversation-level signals cap it at 100.
+	 */
+	public double total(ScoreAccumulator accumulator) {
+		return accumulator == null ? 0.0 : accumulator.cappedTotal();
+	}
+
+	/**
+	 * Builds the immutable {@link DetectionResult}. The pipeline only calls this once a warning is going out.
+	 */
+	public DetectionResult materialize(MessageEvent event, ScoreAccumulator accumulator, List<String> completedStages, List<String> truncatedStages) {
+		ScoreAccumulator safeAccumulator = accumulator == null ? new ScoreAccumulator() : accumulator;
+		double total = safeAccumulator.cappedTotal();
 		DetectionLevel level = DetectionScoring.mapLevel(total);
-		Map<ScamRules.ScamRule, String> ruleDetails = new LinkedHashMap<>();
-		Set<ScamRules.ScamRule> triggeredRules = new LinkedHashSet<>();
+		Map<ScamRules.ScamRule, Evidence> ruleDetails = new LinkedHashMap<>();
 		List<String> evaluatedMessages = new ArrayList<>();
 
-		for (Signal signal : safeSignals) {
-			if (signal.ruleId() != null) {
-				triggeredRules.add(signal.ruleId());
-				if (signal.evidence() != null && !signal.evidence().isBlank()) {
-					ruleDetails.merge(signal.ruleId(), signal.evidence(), (existing, added) -> existing + "\n" + added);
-				}
+		List<Signal> signals = safeAccumulator.signals();
+		for (int i = 0; i < signals.size(); i++) {
+			Signal signal = signals.get(i);
+			// Evidence stays unrendered here; it is only formatted for the warning hover.
+			if (signal.ruleId() != null && signal.details() != Evidence.NONE) {
+				ruleDetails.merge(signal.ruleId(), signal.details(), Evidence::join);
 			}
 			if (!signal.relatedMessages().isEmpty()) {
 				evaluatedMessages.addAll(signal.relatedMessages());
@@ -52,15 +65,15 @@ public final class ScoringStage {
 			evaluatedMessages.add(event.rawMessage());
 		}
 
-		boolean shouldCapture = shouldAutoCapture(level, total, triggeredRules);
-		return new DetectionResult(total, level, safeSignals, ruleDetails, shouldCapture, evaluatedMessages);
+		boolean shouldCapture = shouldAutoCapture(level, total, safeAccumulator.hasAnyRule());
+		return new DetectionResult(total, level, signals, ruleDetails, shouldCapture, evaluatedMessages, completedStages, truncatedStages);
 	}
 
 	/**
 	 * Converts the detection level into the configured auto-capture threshold.
 	 */
-	private static boolean shouldAutoCapture(DetectionLevel level, double totalScore, Set<ScamRules.ScamRule> rules) {
-		if (level == null || totalScore <= 0 || rules == null || rules.isEmpty()) {
+	private static boolean shouldAutoCapture(DetectionLevel level, double totalScore, boolean anyRule) {
+		if (level == null || totalScore <= 0 || !anyRule) {
 			return false;
 		}
 		String setting = ScamRules.autoCaptureAlertLevelSetting();
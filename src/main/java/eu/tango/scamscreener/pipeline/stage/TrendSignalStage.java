@@ -3,13 +3,19 @@ package eu.tango.scamscreener.pipeline.stage;
 import eu.tango.scamscreener.rules.ScamRules;
 
 import java.util.List;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
 import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.core.ScoreAccumulator;
+import eu.tango.scamscreener.pipeline.core.Stage;
+import eu.tango.scamscreener.pipeline.core.StageCost;
 import eu.tango.scamscreener.pipeline.core.TrendStore;
 import eu.tango.scamscreener.pipeline.model.MessageEvent;
 import eu.tango.scamscreener.pipeline.model.Signal;
 import eu.tango.scamscreener.pipeline.model.SignalSource;
 
-public final class TrendSignalStage {
+public final class TrendSignalStage implements Stage {
+	public static final String ID = "trend";
+
 	private final RuleConfig ruleConfig;
 	private final TrendStore trendStore;
 
@@ -21,16 +27,48 @@ public final class TrendSignalStage {
 		this.trendStore = trendStore;
 	}
 
+	@Override
+	public String id() {
+		return ID;
+	}
+
+	@Override
+	public StageCost cost() {
+		return StageCost.CHEAP;
+	}
+
+	@Override
+	public boolean stateful() {
+		return true;
+	}
+
+	@Override
+	public void apply(PipelineContext context) {
+		ScoreAccumulator accumulator = context.accumulator();
+		context.addSignals(collect(context.event(), accumulator.total(), accumulator.hasAnyRule()));
+	}
+
+	@Override
+	public void reset() {
+		trendStore.reset();
+	}
+
 	/**
 	 * If the trend rule is enabled, returns a single bonus {@link Signal}.
 	 */
 	public List<Signal> collectSignals(MessageEvent event, List<Signal> existingSignals) {
+		ScoreAccumulator accumulator = new ScoreAccumulator();
+		accumulator.addAll(existingSignals);
+		return collect(event, accumulator.total(), accumulator.hasAnyRule());
+	}
+
+	private List<Signal> collect(MessageEvent event, double messageScore, boolean hadRule) {
 		if (!ruleConfig.isEnabled(ScamRules.ScamRule.MULTI_MESSAGE_PATTERN)) {
-			trendStore.evaluate(event, existingSignals);
+			trendStore.evaluate(event, messageScore, hadRule);
 			return List.of();
 		}
 
-		TrendStore.TrendEvaluation evaluation = trendStore.evaluate(event, existingSignals);
+		TrendStore.TrendEvaluation evaluation = trendStore.evaluate(event, messageScore, hadRule);
 		if (evaluation.detail() == null) {
 			return List.of();
 		}
@@ -1,7 +1,9 @@
 package eu.tango.scamscreener.rules;
 
-import eu.tango.scamscreener.ai.LocalAiScorer;
+import eu.tango.scamscreener.ai.LocalAiModelRegistry;
 import eu.tango.scamscreener.config.ScamRulesConfig;
+import eu.tango.scamscreener.config.ScamRulesConfigStore;
+import eu.tango.scamscreener.util.PatternCache;
 import lombok.experimental.UtilityClass;
 
 import java.util.EnumSet;
@@ -12,17 +14,56 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 @UtilityClass
 public class ScamRules {
-	private static final LocalAiScorer LOCAL_AI_SCORER = new LocalAiScorer();
-	private static RuntimeConfig config = RuntimeConfig.from(ScamRulesConfig.loadOrCreate());
-
+	private static final ScamRulesConfigStore STORE = ScamRulesConfigStore.createDefault();
+	private static final Object APPLY_LOCK = new Object();
+	private static volatile RuntimeConfig config = STORE.read(cfg -> RuntimeConfig.from(cfg));
+	private static volatile long configGeneration;
+
+	/**
+	 * Re-reads the rules file (after flushing pending in-memory changes) and asks the model registry
+	 * to reload the AI model in the background if its file changed.
+	 */
 	public static void reloadConfig() {
-		config = RuntimeConfig.from(ScamRulesConfig.loadOrCreate());
-		LOCAL_AI_SCORER.reloadModel();
+		STORE.reloadFromDisk();
+		applyStoredConfig();
+		LocalAiModelRegistry.shared().requestReload();
+	}
+
+	/**
+	 * Starts hot-reloading {@code scam-screener-rules.json} when it is edited outside the game.
+	 */
+	public static void watchConfigFile() {
+		STORE.watch(ScamRules::applyStoredConfig);
+	}
+
+	/**
+	 * Writes pending setting changes now instead of waiting for the debounced background write.
+	 */
+	public static void flushConfig() {
+		STORE.flush();
+	}
+
+	public static boolean autoLeaveOnBlacklist() {
+		return config.autoLeaveOnBlacklist();
+	}
+
+	public static boolean setAutoLeaveOnBlacklist(boolean enabled) {
+		set(cfg -> cfg.autoLeaveOnBlacklist = enabled);
+		return config.autoLeaveOnBlacklist();
+	}
+
+	/**
+	 * Incremented on every {@link #reloadConfig()} so caches of rule results can tell they are stale.
+	 */
+	public static long configGeneration() {
+		return configGeneration;
 	}
 
 	public static ScamRiskLevel minimumAlertRiskLevel() {
@@ -46,10 +87,7 @@ public class ScamRules {
 	}
 
 	public static boolean setLocalAiEnabled(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.localAiEnabled = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.localAiEnabled = enabled);
 		return config.localAiEnabled();
 	}
 
@@ -147,10 +185,7 @@ public class ScamRules {
 
 	public static ScamRiskLevel setMinimumAlertRiskLevel(ScamRiskLevel level) {
 		Objects.requireNonNull(level, "level");
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.minAlertRiskLevel = level.name();
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.minAlertRiskLevel = level.name());
 		return config.minimumAlertRiskLevel();
 	}
 
@@ -160,58 +195,37 @@ public class ScamRules {
 			return null;
 		}
 
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.autoCaptureAlertLevel = parsed.persistedValue();
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.autoCaptureAlertLevel = parsed.persistedValue());
 		return config.autoCaptureAlertLevelSetting();
 	}
 
 	public static boolean setShowScamWarningMessage(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.showScamWarningMessage = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.showScamWarningMessage = enabled);
 		return config.showScamWarningMessage();
 	}
 
 	public static boolean setPingOnScamWarning(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.pingOnScamWarning = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.pingOnScamWarning = enabled);
 		return config.pingOnScamWarning();
 	}
 
 	public static boolean setShowBlacklistWarningMessage(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.showBlacklistWarningMessage = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.showBlacklistWarningMessage = enabled);
 		return config.showBlacklistWarningMessage();
 	}
 
 	public static boolean setPingOnBlacklistWarning(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.pingOnBlacklistWarning = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.pingOnBlacklistWarning = enabled);
 		return config.pingOnBlacklistWarning();
 	}
 
 	public static boolean setShowAutoLeaveMessage(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.showAutoLeaveMessage = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.showAutoLeaveMessage = enabled);
 		return config.showAutoLeaveMessage();
 	}
 
 	public static boolean setNotifyAiUpToDateOnJoin(boolean enabled) {
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		cfg.notifyAiUpToDateOnJoin = enabled;
-		ScamRulesConfig.save(cfg);
-		reloadConfig();
+		set(cfg -> cfg.notifyAiUpToDateOnJoin = enabled);
 		return config.notifyAiUpToDateOnJoin();
 	}
 
@@ -231,30 +245,43 @@ public class ScamRules {
 
 	public static boolean disableRule(ScamRule rule) {
 		Objects.requireNonNull(rule, "rule");
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		if (cfg.disabledRules == null) {
-			cfg.disabledRules = new LinkedHashSet<>();
-		}
-		boolean changed = cfg.disabledRules.add(rule.name());
-		if (changed) {
-			ScamRulesConfig.save(cfg);
-			reloadConfig();
-		}
-		return changed;
+		return update(cfg -> {
+			if (cfg.disabledRules == null) {
+				cfg.disabledRules = new LinkedHashSet<>();
+			}
+			return cfg.disabledRules.add(rule.name());
+		});
 	}
 
 	public static boolean enableRule(ScamRule rule) {
 		Objects.requireNonNull(rule, "rule");
-		ScamRulesConfig cfg = ScamRulesConfig.loadOrCreate();
-		if (cfg.disabledRules == null || cfg.disabledRules.isEmpty()) {
-			return false;
-		}
-		boolean changed = cfg.disabledRules.remove(rule.name());
-		if (changed) {
-			ScamRulesConfig.save(cfg);
-			reloadConfig();
+		return update(cfg -> cfg.disabledRules != null && cfg.disabledRules.remove(rule.name()));
+	}
+
+	public static boolean pipelineEarlyExitEnabled() {
+		return config.pipelineEarlyExit();
+	}
+
+	/**
+	 * Per-message latency budget for optional stages in micros; 0 means unlimited.
+	 */
+	public static int pipelineBudgetMicros() {
+		return config.pipelineBudgetMicros();
+	}
+
+	public static ChatStormConfig chatStormConfig() {
+		return config.chatStormConfig();
+	}
+
+	public static List<String> pipelineStageOrder() {
+		return config.pipelineStageOrder();
+	}
+
+	public static Set<String> disabledStagesForChannel(String channel) {
+		if (channel == null || channel.isBlank()) {
+			return Set.of();
 		}
-		return changed;
+		return config.disabledStagesByChannel().getOrDefault(channel.trim().toLowerCase(Locale.ROOT), Set.of());
 	}
 
 	public static boolean shouldWarn(ScamAssessment assessment) {
@@ -433,10 +460,31 @@ public class ScamRules {
 		}
 	}
 
+	public static record ChatStormConfig(
+		int linesPerSecond,
+		int queueCapacity,
+		int drainPerTick,
+		int publicSampleEvery
+	) {
+		private static ChatStormConfig from(ScamRulesConfig config) {
+			return new ChatStormConfig(
+				valueOrDefault(config.chatStormLinesPerSecond, ScamRulesConfig.DEFAULT_CHAT_STORM_LINES_PER_SECOND),
+				valueOrDefault(config.chatStormQueueCapacity, ScamRulesConfig.DEFAULT_CHAT_STORM_QUEUE_CAPACITY),
+				valueOrDefault(config.chatStormDrainPerTick, ScamRulesConfig.DEFAULT_CHAT_STORM_DRAIN_PER_TICK),
+				valueOrDefault(config.chatStormPublicSampleEvery, ScamRulesConfig.DEFAULT_CHAT_STORM_PUBLIC_SAMPLE_EVERY)
+			);
+		}
+
+		private static int valueOrDefault(Integer value, int fallback) {
+			return value == null ? fallback : value;
+		}
+	}
+
 	private record RuntimeConfig(
 		PatternSet patterns,
 		BehaviorPatternSet behaviorPatterns,
 		FunnelConfig funnelConfig,
+		ChatStormConfig chatStormConfig,
 		boolean localAiEnabled,
 		int localAiMaxScore,
 		double localAiTriggerProbability,
@@ -449,6 +497,7 @@ public class ScamRules {
 		boolean showBlacklistWarningMessage,
 		boolean pingOnBlacklistWarning,
 		boolean showAutoLeaveMessage,
+		boolean autoLeaveOnBlacklist,
 		boolean notifyAiUpToDateOnJoin,
 		int levelMediumThreshold,
 		int levelHighThreshold,
@@ -462,7 +511,11 @@ public class ScamRules {
 		int similarityMaxTrainingSamples,
 		int similarityMaxCompareLength,
 		int similarityMinMessageLength,
-		Set<ScamRule> disabledRules
+		Set<ScamRule> disabledRules,
+		boolean pipelineEarlyExit,
+		int pipelineBudgetMicros,
+		List<String> pipelineStageOrder,
+		Map<String, Set<String>> disabledStagesByChannel
 	) {
 		private boolean isEnabled(ScamRule rule) {
 			return !disabledRules.contains(rule);
@@ -477,6 +530,7 @@ public class ScamRules {
 				PatternSet.from(config),
 				BehaviorPatternSet.from(config),
 				FunnelConfig.from(config),
+				ChatStormConfig.from(config),
 				config.localAiEnabled,
 				config.localAiMaxScore,
 				config.localAiTriggerProbability,
@@ -489,6 +543,7 @@ public class ScamRules {
 				config.showBlacklistWarningMessage,
 				config.pingOnBlacklistWarning,
 				config.showAutoLeaveMessage,
+				config.autoLeaveOnBlacklist,
 				Boolean.TRUE.equals(config.notifyAiUpToDateOnJoin),
 				config.levelMedium,
 				config.levelHigh,
@@ -502,11 +557,41 @@ public class ScamRules {
 				config.similarityMaxTrainingSamples,
 				config.similarityMaxCompareLength,
 				config.similarityMinMessageLength,
-				parseDisabledRules(config.disabledRules)
+				parseDisabledRules(config.disabledRules),
+				!Boolean.FALSE.equals(config.pipelineEarlyExit),
+				config.pipelineBudgetMicros == null ? ScamRulesConfig.DEFAULT_PIPELINE_BUDGET_MICROS : config.pipelineBudgetMicros,
+				config.pipelineStageOrder == null ? List.of() : List.copyOf(config.pipelineStageOrder),
+				copyStageToggles(config.disabledStagesByChannel)
 			);
 		}
 	}
 
+	private static void set(Consumer<ScamRulesConfig> mutator) {
+		update(cfg -> {
+			mutator.accept(cfg);
+			return true;
+		});
+	}
+
+	/**
+	 * Mutates the in-memory config; on change the runtime config is rebuilt right away
+	 * and the file is written later in the background.
+	 */
+	private static boolean update(Predicate<ScamRulesConfig> mutator) {
+		boolean changed = STORE.update(mutator);
+		if (changed) {
+			applyStoredConfig();
+		}
+		return changed;
+	}
+
+	private static void applyStoredConfig() {
+		synchronized (APPLY_LOCK) {
+			config = STORE.read(cfg -> RuntimeConfig.from(cfg));
+			configGeneration++;
+		}
+	}
+
 	private static Set<ScamRule> parseDisabledRules(Set<String> raw) {
 		EnumSet<ScamRule> disabled = EnumSet.noneOf(ScamRule.class);
 		if (raw == null || raw.isEmpty()) {
@@ -524,6 +609,20 @@ public class ScamRules {
 		return disabled;
 	}
 
+	private static Map<String, Set<String>> copyStageToggles(Map<String, Set<String>> raw) {
+		if (raw == null || raw.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, Set<String>> out = new LinkedHashMap<>();
+		for (Map.Entry<String, Set<String>> entry : raw.entrySet()) {
+			if (entry.getKey() == null || entry.getValue() == null) {
+				continue;
+			}
+			out.put(entry.getKey(), Set.copyOf(entry.getValue()));
+		}
+		return Map.copyOf(out);
+	}
+
 	private enum AutoCaptureAlertLevel {
 		OFF(null),
 		LOW(ScamRiskLevel.LOW),
@@ -575,9 +674,9 @@ public class ScamRules {
 
 	private static Pattern compileOrDefault(String candidate, String fallback) {
 		try {
-			return Pattern.compile(candidate);
+			return PatternCache.compile(candidate, 0);
 		} catch (PatternSyntaxException ignored) {
-			return Pattern.compile(fallback);
+			return PatternCache.compile(fallback, 0);
 		}
 	}
 
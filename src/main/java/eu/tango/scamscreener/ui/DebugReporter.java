@@ -29,4 +29,15 @@ public final class DebugReporter {
 		}
 		MessageDispatcher.reply(DebugMessages.debug("ChatColor", message));
 	}
+
+	public boolean isPipelineEnabled() {
+		return debugConfig.isEnabled("pipeline");
+	}
+
+	public void debugPipeline(String message) {
+		if (!isPipelineEnabled()) {
+			return;
+		}
+		MessageDispatcher.reply(DebugMessages.debug("Pipeline", message));
+	}
 }
@@ -16,6 +16,7 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -83,9 +84,16 @@ public final class Messages extends MessageBuilder {
 			.append(Component.literal("The blacklist is empty.").withStyle(ChatFormatting.GRAY));
 	}
 
-	public static MutableComponent blacklistHeader() {
-		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
-			.append(Component.literal("Blacklist entries:").withStyle(ChatFormatting.GRAY));
+	public static MutableComponent blacklistHeader(int page, int totalPages, int totalEntries) {
+		MutableComponent header = prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Blacklist entries (" + totalEntries + "):").withStyle(ChatFormatting.GRAY));
+		if (totalPages > 1) {
+			header.append(Component.literal(" page " + page + "/" + totalPages).withStyle(ChatFormatting.DARK_GRAY));
+			if (page < totalPages) {
+				header.append(Component.literal(" - /scamscreener list " + (page + 1)).withStyle(ChatFormatting.DARK_GRAY));
+			}
+		}
+		return header;
 	}
 
 	public static Component blacklistEntry(BlacklistManager.ScamEntry entry) {
@@ -287,6 +295,29 @@ public final class Messages extends MessageBuilder {
 			.append(Component.literal(" unigram training messages.").withStyle(ChatFormatting.GRAY));
 	}
 
+	public static MutableComponent trainingQuantizationReport(
+		String requestedEncoding,
+		String appliedEncoding,
+		double fullPrecisionAccuracy,
+		double quantizedAccuracy
+	) {
+		String requested = requestedEncoding == null ? "unknown" : requestedEncoding;
+		String applied = appliedEncoding == null ? "unknown" : appliedEncoding;
+		MutableComponent message = prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Token weights " + requested + ": accuracy ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.format(Locale.ROOT, "%.1f%%", quantizedAccuracy * 100.0)).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" vs ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.format(Locale.ROOT, "%.1f%%", fullPrecisionAccuracy * 100.0)).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" full precision (").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.format(Locale.ROOT, "%+.2f pp", (quantizedAccuracy - fullPrecisionAccuracy) * 100.0))
+				.withStyle(ChatFormatting.YELLOW))
+			.append(Component.literal(").").withStyle(ChatFormatting.GRAY));
+		if (!requested.equals(applied)) {
+			message.append(Component.literal(" Loss too high, saved as " + applied + ".").withStyle(ChatFormatting.RED));
+		}
+		return message;
+	}
+
 	public static MutableComponent trainingAlreadyRunning() {
 		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
 			.append(Component.literal("Training is already running.").withStyle(ChatFormatting.GRAY));
@@ -324,6 +355,8 @@ public final class Messages extends MessageBuilder {
 			.append(Component.literal("\n- /scamscreener add <player> [score] [reason]").withStyle(ChatFormatting.GRAY))
 			.append(Component.literal("\n- /scamscreener remove <player>").withStyle(ChatFormatting.GRAY))
 			.append(Component.literal("\n- /scamscreener list").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal("\n- /scamscreener import <file>").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal("\n- /scamscreener export <file>").withStyle(ChatFormatting.GRAY))
 			.append(Component.literal("\n- /scamscreener mute [pattern]").withStyle(ChatFormatting.GRAY))
 			.append(Component.literal("\n- /scamscreener unmute <pattern>").withStyle(ChatFormatting.GRAY))
 			.append(Component.literal("\n- /scamscreener autoleave [on|off]").withStyle(ChatFormatting.GRAY))
@@ -347,6 +380,18 @@ public final class Messages extends MessageBuilder {
 			.append(Component.literal(joined).withStyle(ChatFormatting.YELLOW));
 	}
 
+	public static MutableComponent mutePatternStats(List<String> lines) {
+		MutableComponent message = prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Mute pattern hits:").withStyle(ChatFormatting.GRAY));
+		if (lines == null || lines.isEmpty()) {
+			return message.append(Component.literal(" none").withStyle(ChatFormatting.YELLOW));
+		}
+		for (String line : lines) {
+			message.append(Component.literal("\n- " + line).withStyle(ChatFormatting.YELLOW));
+		}
+		return message;
+	}
+
 	public static MutableComponent muteEnabled() {
 		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
 			.append(Component.literal("Mute filter enabled.").withStyle(ChatFormatting.GRAY));
@@ -511,6 +556,57 @@ public final class Messages extends MessageBuilder {
 			.append(Component.literal("/scamscreener add <player> [score] [reason]").withStyle(ChatFormatting.GRAY));
 	}
 
+	public static MutableComponent blacklistImported(String file, int added, int updated, int skipped, double recordsPerSecond) {
+		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Imported ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(file == null ? "file" : file).withStyle(ChatFormatting.YELLOW))
+			.append(Component.literal(": ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.valueOf(Math.max(0, added))).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" new, ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.valueOf(Math.max(0, updated))).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" updated, ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.valueOf(Math.max(0, skipped))).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" skipped (").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.format(Locale.ROOT, "%.0f", Math.max(0.0, recordsPerSecond))).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" records/s).").withStyle(ChatFormatting.GRAY));
+	}
+
+	public static MutableComponent blacklistImportFailed(String errorMessage) {
+		return buildError(
+			PREFIX,
+			PREFIX_LIGHT_RED,
+			"Blacklist import failed.",
+			"BL-IMPORT-001",
+			errorMessage
+		);
+	}
+
+	public static MutableComponent blacklistExported(String file, int count) {
+		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Exported ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(String.valueOf(Math.max(0, count))).withStyle(ChatFormatting.GOLD))
+			.append(Component.literal(" blacklist entries to ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal(file == null ? "file" : file).withStyle(ChatFormatting.YELLOW))
+			.append(Component.literal(".").withStyle(ChatFormatting.GRAY));
+	}
+
+	public static MutableComponent blacklistExportFailed(String errorMessage) {
+		return buildError(
+			PREFIX,
+			PREFIX_LIGHT_RED,
+			"Blacklist export failed.",
+			"BL-EXPORT-001",
+			errorMessage
+		);
+	}
+
+	public static MutableComponent blacklistTransferCommandHelp() {
+		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
+			.append(Component.literal("Usage: ").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal("/scamscreener import|export <file.json|file.csv|file.txt>").withStyle(ChatFormatting.GRAY))
+			.append(Component.literal("\nRelative paths are resolved in config/scamscreener.").withStyle(ChatFormatting.DARK_GRAY));
+	}
+
 	public static MutableComponent removeCommandHelp() {
 		return prefixedMessage(PREFIX, PREFIX_LIGHT_RED)
 			.append(Component.literal("Usage: ").withStyle(ChatFormatting.GRAY))
@@ -621,8 +717,8 @@ public final class Messages extends MessageBuilder {
 		}
 		int score = (int) Math.round(result.totalScore());
 		ScamRules.ScamRiskLevel level = DetectionScoring.toScamRiskLevel(result.level());
-		Set<ScamRules.ScamRule> rules = result.triggeredRules().isEmpty() ? Set.of() : EnumSet.copyOf(result.triggeredRules().keySet());
-		Map<ScamRules.ScamRule, String> details = result.triggeredRules().isEmpty() ? Map.of() : new LinkedHashMap<>(result.triggeredRules());
+		Map<ScamRules.ScamRule, String> details = new LinkedHashMap<>(result.triggeredRules());
+		Set<ScamRules.ScamRule> rules = details.isEmpty() ? Set.of() : EnumSet.copyOf(details.keySet());
 		List<String> evaluatedMessages = result.evaluatedMessages();
 		ScamRules.ScamAssessment assessment = new ScamRules.ScamAssessment(score, level, rules, details, evaluatedMessages.isEmpty() ? null : evaluatedMessages.get(0), evaluatedMessages);
 		Map<ScamRules.ScamRule, Double> ruleWeights = new LinkedHashMap<>();
@@ -711,5 +807,16 @@ public final class Messages extends MessageBuilder {
 
 		return message.append(Component.literal("\n" + WARNING_BORDER).withStyle(ChatFormatting.DARK_RED));
 	}
+
+	public static MutableComponent blacklistedPlayersInLobby(List<String> players) {
+		List<String> safePlayers = players == null ? List.of() : players;
+		MutableComponent message = Component.empty()
+			.append(Component.literal(WARNING_BORDER).withStyle(ChatFormatting.DARK_RED))
+			.append(Component.literal("\n" + centered("BLACKLISTED PLAYERS IN LOBBY")).withStyle(style -> style.withColor(ChatFormatting.DARK_RED).withBold(true)));
+		for (String player : safePlayers) {
+			message.append(Component.literal("\n" + centered(player == null ? "n/a" : player)).withStyle(ChatFormatting.AQUA));
+		}
+		return message.append(Component.literal("\n" + WARNING_BORDER).withStyle(ChatFormatting.DARK_RED));
+	}
 }
 
@@ -0,0 +1,88 @@
+package eu.tango.scamscreener.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Process-wide LRU cache of compiled {@link Pattern}s keyed by (source, flags).
+ * Config reloads and mute list edits only pay for sources that were not compiled before.
+ */
+public final class PatternCache {
+	private static final int CAPACITY = 512;
+	private static final Map<Key, Entry> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+	private static long hits;
+	private static long misses;
+	private static long compileNanos;
+	private static long savedNanos;
+
+	private PatternCache() {
+	}
+
+	/**
+	 * Returns the cached pattern for {@code source}/{@code flags} or compiles and caches it.
+	 * Invalid sources are not cached and throw like {@link Pattern#compile(String, int)}.
+	 */
+	public static Pattern compile(String source, int flags) throws PatternSyntaxException {
+		if (source == null) {
+			throw new PatternSyntaxException("null pattern", "", -1);
+		}
+		Key key = new Key(source, flags);
+		synchronized (CACHE) {
+			Entry cached = CACHE.get(key);
+			if (cached != null) {
+				hits++;
+				savedNanos += cached.compileNanos();
+				return cached.pattern();
+			}
+		}
+
+		long start = System.nanoTime();
+		Pattern compiled = Pattern.compile(source, flags);
+		long elapsed = System.nanoTime() - start;
+		synchronized (CACHE) {
+			Entry raced = CACHE.get(key);
+			if (raced != null) {
+				return raced.pattern();
+			}
+			CACHE.put(key, new Entry(compiled, elapsed));
+			misses++;
+			compileNanos += elapsed;
+		}
+		return compiled;
+	}
+
+	public static Stats stats() {
+		synchronized (CACHE) {
+			return new Stats(CACHE.size(), hits, misses, compileNanos, savedNanos);
+		}
+	}
+
+	public static void clear() {
+		synchronized (CACHE) {
+			CACHE.clear();
+			hits = 0L;
+			misses = 0L;
+			compileNanos = 0L;
+			savedNanos = 0L;
+		}
+	}
+
+	/**
+	 * {@code savedNanos} sums the original compile time of every cache hit.
+	 */
+	public record Stats(int size, long hits, long misses, long compileNanos, long savedNanos) {
+	}
+
+	private record Key(String source, int flags) {
+	}
+
+	private record Entry(Pattern pattern, long compileNanos) {
+	}
+}
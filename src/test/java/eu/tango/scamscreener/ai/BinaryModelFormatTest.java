@@ -0,0 +1,152 @@
+package eu.tango.scamscreener.ai;
+
+import eu.tango.scamscreener.config.LocalAiModelConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryModelFormatTest {
+	// Not @TempDir: a mapped file cannot be deleted on Windows until the buffer is collected.
+	private Path dir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		dir = Files.createTempDirectory("scamscreener-model");
+	}
+
+	@AfterEach
+	void tearDown() {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.deleteIfExists(path);
+				} catch (IOException ignored) {
+				}
+			});
+		} catch (IOException ignored) {
+		}
+	}
+
+	@Test
+	void largeModelRoundTripsThroughMappedFile() throws IOException {
+		LocalAiModelConfig cfg = modelWithTokens(50_000);
+		LocalAiScorer.ModelWeights weights = LocalAiScorer.ModelWeights.from(cfg);
+		Path file = dir.resolve("model.bin");
+
+		BinaryModelFormat.write(file, weights, cfg.version, 123L, 456L);
+		LocalAiScorer.ModelWeights mapped = BinaryModelFormat.read(file, 123L, 456L);
+
+		assertNotNull(mapped);
+		assertEquals(weights.intercept(), mapped.intercept());
+		assertEquals(weights.denseFeatureWeights(), mapped.denseFeatureWeights());
+		assertEquals(weights.funnelHead(), mapped.funnelHead());
+		assertEquals(50_000, mapped.tokenWeights().size());
+		assertEquals(0.25, mapped.tokenWeights().weight("ng2:token 42"));
+		assertEquals(-0.5, mapped.tokenWeights().weight("ng2:token 49999"));
+		assertTrue(Double.isNaN(mapped.tokenWeights().weight("ng2:not in model")));
+	}
+
+	@Test
+	void quantizedTokenTableKeepsItsEncoding() throws IOException {
+		LocalAiModelConfig cfg = modelWithTokens(1_000);
+		cfg.tokenWeightEncoding = "int8";
+		LocalAiScorer.ModelWeights weights = LocalAiScorer.ModelWeights.from(cfg);
+		Path file = dir.resolve("model.bin");
+
+		BinaryModelFormat.write(file, weights, cfg.version, 1L, 2L);
+		LocalAiScorer.ModelWeights mapped = BinaryModelFormat.read(file, 1L, 2L);
+
+		assertEquals(WeightEncoding.INT8, mapped.tokenWeights().encoding());
+		assertEquals(weights.tokenWeights().weight("ng2:token 3"), mapped.tokenWeights().weight("ng2:token 3"));
+		assertEquals(-0.5, mapped.tokenWeights().weight("ng2:token 3"), 0.5 / 127.0);
+	}
+
+	@Test
+	void staleSourceStampIsIgnoredAndCorruptionIsRejected() throws IOException {
+		LocalAiModelConfig cfg = modelWithTokens(10);
+		Path file = dir.resolve("model.bin");
+		BinaryModelFormat.write(file, LocalAiScorer.ModelWeights.from(cfg), cfg.version, 1L, 2L);
+
+		assertNull(BinaryModelFormat.read(file, 1L, 3L));
+
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] ^= 0x7F;
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> BinaryModelFormat.read(file, 1L, 2L));
+	}
+
+	@Test
+	void registryMapsBinaryCopyInsteadOfParsingJson() throws IOException {
+		Path json = dir.resolve("model.json");
+		Path binary = dir.resolve("model.bin");
+		Files.writeString(json, "{}");
+		LocalAiModelConfig cfg = modelWithTokens(100);
+		AtomicInteger parses = new AtomicInteger();
+
+		LocalAiModelRegistry first = new LocalAiModelRegistry(json, binary, () -> {
+			parses.incrementAndGet();
+			return cfg;
+		}, Runnable::run);
+		first.requestReload();
+		LocalAiModelRegistry second = new LocalAiModelRegistry(json, binary, () -> {
+			parses.incrementAndGet();
+			return cfg;
+		}, Runnable::run);
+		second.requestReload();
+
+		assertEquals(1, parses.get());
+		assertEquals(0L, first.binaryLoads());
+		assertEquals(1L, second.binaryLoads());
+		assertEquals(
+			first.current().weights().tokenWeights().weight("ng2:token 7"),
+			second.current().weights().tokenWeights().weight("ng2:token 7")
+		);
+	}
+
+	@Test
+	void staleCacheIsRewrittenAfterItWasRead() throws IOException {
+		Path json = dir.resolve("model.json");
+		Path binary = dir.resolve("model.bin");
+		Files.writeString(json, "{}");
+		LocalAiModelConfig original = modelWithTokens(100);
+		new LocalAiModelRegistry(json, binary, () -> original, Runnable::run).requestReload();
+
+		Files.writeString(json, "{ }");
+		LocalAiModelConfig changed = modelWithTokens(100);
+		changed.tokenWeights.put("ng2:token 7", 1.0);
+		LocalAiModelRegistry rebuilt = new LocalAiModelRegistry(json, binary, () -> changed, Runnable::run);
+		rebuilt.requestReload();
+		AtomicInteger parses = new AtomicInteger();
+		LocalAiModelRegistry cached = new LocalAiModelRegistry(json, binary, () -> {
+			parses.incrementAndGet();
+			return changed;
+		}, Runnable::run);
+		cached.requestReload();
+
+		assertEquals(0L, rebuilt.binaryLoads());
+		assertEquals(0, parses.get());
+		assertEquals(1L, cached.binaryLoads());
+		assertEquals(1.0, cached.current().weights().tokenWeights().weight("ng2:token 7"));
+	}
+
+	private static LocalAiModelConfig modelWithTokens(int count) {
+		LocalAiModelConfig cfg = new LocalAiModelConfig();
+		for (int i = 0; i < count; i++) {
+			cfg.tokenWeights.put("ng2:token " + i, i % 2 == 0 ? 0.25 : -0.5);
+		}
+		return cfg;
+	}
+}
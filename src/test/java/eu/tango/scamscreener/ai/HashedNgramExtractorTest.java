@@ -0,0 +1,77 @@
+package eu.tango.scamscreener.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedNgramExtractorTest {
+	@Test
+	void idsMatchStringFeaturesOfTheSameMessage() {
+		List<String> messages = List.of(
+			"Selling FREE carry, join vc and pay first!!",
+			"trust me bro, send 10m coins first then i give you the rank",
+			"abcdefghijklmnopqrstuvwxyz_0123456789 is one long word",
+			"hi",
+			"repeat repeat repeat repeat repeat repeat"
+		);
+		HashedNgramExtractor extractor = new HashedNgramExtractor();
+		for (String message : messages) {
+			Set<Long> expected = new HashSet<>();
+			for (String token : TokenFeatureExtractor.extractFeatureTokens(message)) {
+				expected.add(HashedNgramExtractor.ngramId(token));
+			}
+
+			int count = extractor.extract(message);
+			Set<Long> actual = new HashSet<>();
+			for (int i = 0; i < count; i++) {
+				actual.add(extractor.id(i));
+			}
+
+			assertEquals(expected, actual, message);
+			assertEquals(expected.size(), count, "ids are distinct for " + message);
+		}
+	}
+
+	@Test
+	void nonNgramStringsHaveNoId() {
+		assertEquals(0L, HashedNgramExtractor.ngramId("plainword"));
+		assertEquals(0L, HashedNgramExtractor.ngramId("ng3:only two"));
+		assertEquals(0L, HashedNgramExtractor.ngramId("ng9:a b c d e f g h i"));
+		assertTrue(HashedNgramExtractor.ngramId("ng2:free coins") != 0L);
+	}
+
+	@Test
+	void tableLooksUpStringAndIdForms() {
+		HashedTokenTable table = HashedTokenTable.from(java.util.Map.of("ng2:pay first", 2.0));
+		HashedNgramExtractor extractor = new HashedNgramExtractor();
+		int count = extractor.extract("please PAY FIRST now");
+
+		double found = Double.NaN;
+		for (int i = 0; i < count; i++) {
+			double weight = table.weightById(extractor.id(i));
+			if (!Double.isNaN(weight)) {
+				found = weight;
+			}
+		}
+		assertEquals(2.0, found);
+		assertEquals(2.0, table.weight("ng2:pay first"));
+	}
+
+	@Test
+	void featureIdMapAssignsDenseIndexes() {
+		FeatureIdMap map = new FeatureIdMap();
+		for (long id = 1; id <= 1_000; id++) {
+			assertEquals((int) id - 1, map.intern(id * 0x9E3779B97F4A7C15L));
+		}
+
+		assertEquals(1_000, map.size());
+		assertEquals(41, map.indexOf(42L * 0x9E3779B97F4A7C15L));
+		assertEquals(-1, map.indexOf(12345L));
+		assertEquals(0, map.intern(0x9E3779B97F4A7C15L));
+	}
+}
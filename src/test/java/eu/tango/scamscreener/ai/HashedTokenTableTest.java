@@ -0,0 +1,63 @@
+package eu.tango.scamscreener.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTokenTableTest {
+	@Test
+	void lookupReturnsWeightOrNaN() {
+		HashedTokenTable table = HashedTokenTable.from(Map.of("ng2:free coins", 1.5, "ng2:trust me", -0.75));
+
+		assertEquals(2, table.size());
+		assertEquals(1.5, table.weight("ng2:free coins"));
+		assertEquals(-0.75, table.weight("ng2:trust me"));
+		assertTrue(Double.isNaN(table.weight("ng2:unknown token")));
+	}
+
+	@Test
+	void halfPrecisionConversionRoundTrips() {
+		float[] values = {0.0f, 1.0f, -2.5f, 0.0001f, 65504.0f, 0.33325195f};
+		for (float value : values) {
+			float restored = WeightEncoding.halfToFloat(WeightEncoding.floatToHalf(value));
+			assertTrue(Math.abs(restored - value) <= Math.abs(value) * 0.001f + 1.0e-7f, "fp16 " + value + " -> " + restored);
+		}
+	}
+
+	@Test
+	void quantizedTablesStayWithinEncodingError() {
+		Map<String, Double> weights = new LinkedHashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 2_000; i++) {
+			weights.put("ng2:token " + i, random.nextGaussian());
+		}
+		HashedTokenTable fp16 = HashedTokenTable.from(weights, WeightEncoding.FP16);
+		HashedTokenTable int8 = HashedTokenTable.from(weights, WeightEncoding.INT8);
+
+		double maxAbs = weights.values().stream().mapToDouble(Math::abs).max().orElse(0.0);
+		for (Map.Entry<String, Double> entry : weights.entrySet()) {
+			double expected = entry.getValue();
+			assertTrue(Math.abs(fp16.weight(entry.getKey()) - expected) <= Math.abs(expected) * 0.001 + 1.0e-4);
+			// Block scale is at most maxAbs / 127, so rounding error is at most half of that.
+			assertTrue(Math.abs(int8.weight(entry.getKey()) - expected) <= maxAbs / 127.0 / 2.0 + 1.0e-6);
+		}
+		assertTrue(HashedTokenTable.bytesFor(int8.capacity(), WeightEncoding.INT8)
+			< HashedTokenTable.bytesFor(fp16.capacity(), WeightEncoding.FP16));
+	}
+
+	@Test
+	void reencodeKeepsTokensAndSize() {
+		HashedTokenTable table = HashedTokenTable.from(Map.of("a", 0.5, "b", -0.25));
+		HashedTokenTable int8 = table.reencode(WeightEncoding.INT8);
+
+		assertEquals(WeightEncoding.INT8, int8.encoding());
+		assertEquals(2, int8.size());
+		assertEquals(0.5, int8.weight("a"), 0.5 / 127.0);
+		assertEquals(-0.25, int8.weight("b"), 0.5 / 127.0);
+	}
+}
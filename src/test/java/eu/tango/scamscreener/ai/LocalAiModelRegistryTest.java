@@ -0,0 +1,87 @@
+package eu.tango.scamscreener.ai;
+
+import eu.tango.scamscreener.config.LocalAiModelConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LocalAiModelRegistryTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void reloadPublishesNewSnapshotOnlyWhenFileChanged() throws IOException {
+		Path file = tempDir.resolve("model.json");
+		Files.writeString(file, "{}");
+		AtomicInteger parses = new AtomicInteger();
+		LocalAiModelRegistry registry = new LocalAiModelRegistry(file, () -> {
+			parses.incrementAndGet();
+			LocalAiModelConfig cfg = new LocalAiModelConfig();
+			cfg.intercept = -1.0;
+			return cfg;
+		}, Runnable::run);
+
+		registry.requestReload();
+		LocalAiModelRegistry.ModelSnapshot first = registry.current();
+		registry.requestReload();
+
+		assertEquals(1L, first.version());
+		assertEquals(-1.0, first.weights().intercept());
+		assertSame(first, registry.current());
+		assertEquals(1, parses.get());
+		assertEquals(1L, registry.skippedUnchanged());
+
+		Files.writeString(file, "{ }");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000L));
+		registry.requestReload();
+
+		assertEquals(2L, registry.current().version());
+		assertEquals(2, parses.get());
+	}
+
+	@Test
+	void invalidModelIsRejectedAndPreviousSnapshotStaysLive() throws IOException {
+		Path file = tempDir.resolve("model.json");
+		Files.writeString(file, "{}");
+		AtomicReference<LocalAiModelConfig> next = new AtomicReference<>(new LocalAiModelConfig());
+		LocalAiModelRegistry registry = new LocalAiModelRegistry(file, next::get, Runnable::run);
+		registry.requestReload();
+		LocalAiModelRegistry.ModelSnapshot good = registry.current();
+
+		LocalAiModelConfig broken = new LocalAiModelConfig();
+		broken.tokenWeights.put("free", Double.NaN);
+		next.set(broken);
+		Files.writeString(file, "{\"tokenWeights\":{}}");
+		registry.requestReload();
+
+		assertSame(good, registry.current());
+		assertEquals(1L, registry.rejected());
+		assertNotNull(LocalAiModelRegistry.validate(broken));
+	}
+
+	@Test
+	void scorerReadsTheRegistrySnapshot() throws IOException {
+		Path file = tempDir.resolve("model.json");
+		Files.writeString(file, "{}");
+		LocalAiModelConfig cfg = new LocalAiModelConfig();
+		cfg.tokenWeights.put("ng2:free coins", 1.5);
+		LocalAiModelRegistry registry = new LocalAiModelRegistry(file, () -> cfg, Runnable::run);
+		LocalAiScorer scorer = new LocalAiScorer(registry);
+
+		assertEquals(0.0, scorer.tokenScore("free coins"));
+		registry.requestReload();
+
+		assertEquals(1L, scorer.modelGeneration());
+		assertEquals(1.5, scorer.tokenScore("free coins"));
+	}
+}
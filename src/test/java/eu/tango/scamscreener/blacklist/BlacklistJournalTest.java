@@ -0,0 +1,101 @@
+package eu.tango.scamscreener.blacklist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlacklistJournalTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void mutationsAreJournaledAndReplayedWithoutSnapshot() throws IOException {
+		BlacklistManager before = newManager();
+		UUID kept = UUID.randomUUID();
+		UUID removed = UUID.randomUUID();
+		before.add(kept, "Kept", 40, "first");
+		before.add(removed, "Removed", 40, "first");
+		before.update(kept, "KeptRenamed", 90, "second");
+		before.remove(removed);
+		before.flush();
+
+		assertFalse(Files.exists(snapshot()));
+		assertEquals(4, Files.readAllLines(journal(), StandardCharsets.UTF_8).size());
+
+		BlacklistManager after = newManager();
+		after.load();
+		assertEquals(90, after.get(kept).score());
+		assertEquals("KeptRenamed", after.get(kept).name());
+		assertNull(after.get(removed));
+	}
+
+	@Test
+	void tornLastRecordIsIgnoredOnRecovery() throws IOException {
+		BlacklistManager before = newManager();
+		UUID uuid = UUID.randomUUID();
+		before.add(uuid, "Survivor", 70, "test");
+		before.flush();
+		Files.writeString(journal(), "{\"op\":\"put\",\"entry\":{\"uuid\":\"", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		BlacklistManager after = newManager();
+		after.load();
+
+		assertEquals("Survivor", after.get(uuid).name());
+		assertEquals(1, after.allEntries().size());
+	}
+
+	@Test
+	void compactionFoldsJournalIntoSnapshot() throws IOException {
+		BlacklistJournal journal = new BlacklistJournal(snapshot(), Long.MAX_VALUE);
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		journal.appendPut(new BlacklistManager.ScamEntry(first, "Alpha", 10, "a", "2026-01-01T00:00:00Z"));
+		journal.appendPut(new BlacklistManager.ScamEntry(second, "Beta", 20, "b", "2026-01-01T00:00:00Z"));
+		journal.appendRemove(first);
+		journal.compact();
+
+		assertEquals(1, journal.compactions());
+		assertEquals(0L, Files.size(journal()));
+		List<BlacklistManager.ScamEntry> snapshotEntries = BlacklistJournal.readSnapshot(snapshot());
+		assertEquals(1, snapshotEntries.size());
+		assertEquals(second, snapshotEntries.get(0).uuid());
+		journal.close();
+	}
+
+	@Test
+	void journalIsCompactedOnceItOutgrowsTheThreshold() {
+		BlacklistJournal journal = new BlacklistJournal(snapshot(), 2_000L);
+		for (int i = 0; i < 100; i++) {
+			journal.appendPut(new BlacklistManager.ScamEntry(UUID.randomUUID(), "player" + i, 50, "bulk", "2026-01-01T00:00:00Z"));
+			journal.flush();
+		}
+
+		assertTrue(journal.compactions() > 0);
+		assertEquals(100, journal.appendedRecords());
+		journal.close();
+	}
+
+	private BlacklistManager newManager() {
+		return new BlacklistManager(snapshot(), tempDir.resolve("legacy.json"), tempDir.resolve("legacy.txt"));
+	}
+
+	private Path snapshot() {
+		return tempDir.resolve("scamscreener").resolve("scam-screener-blacklist.json");
+	}
+
+	private Path journal() {
+		return tempDir.resolve("scamscreener").resolve("scam-screener-blacklist.journal");
+	}
+}
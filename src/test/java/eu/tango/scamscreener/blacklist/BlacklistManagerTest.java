@@ -0,0 +1,190 @@
+package eu.tango.scamscreener.blacklist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlacklistManagerTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void findByNameFollowsAddUpdateAndRemove() {
+		BlacklistManager manager = newManager();
+		UUID uuid = UUID.randomUUID();
+		manager.add(uuid, "ScammerOne", 80, "test");
+
+		assertEquals(uuid, manager.findByName("  scammerone ").uuid());
+		assertTrue(manager.isBlacklisted("SCAMMERONE", name -> null));
+
+		manager.update(uuid, "RenamedScammer", 80, "test");
+		assertNull(manager.findByName("ScammerOne"));
+		assertEquals(uuid, manager.findByName("renamedscammer").uuid());
+
+		manager.remove(uuid);
+		assertNull(manager.findByName("RenamedScammer"));
+		assertFalse(manager.isBlacklisted("RenamedScammer", name -> null));
+	}
+
+	@Test
+	void removingOneOfTwoEntriesWithTheSameNameKeepsTheOther() {
+		BlacklistManager manager = newManager();
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		manager.add(first, "Shared", 50, "test");
+		manager.add(second, "shared", 50, "test");
+
+		BlacklistManager.ScamEntry indexed = manager.findByName("SHARED");
+		manager.remove(indexed.uuid());
+
+		UUID remaining = indexed.uuid().equals(first) ? second : first;
+		assertEquals(remaining, manager.findByName("Shared").uuid());
+	}
+
+	@Test
+	void sharedNameStaysFindableThroughMergeRenamesUpdatesAndRemovals() {
+		BlacklistManager manager = newManager();
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UUID third = UUID.randomUUID();
+		manager.add(first);
+		manager.add(second);
+		manager.add(third);
+
+		BlacklistManager.Merge merge = manager.beginMerge();
+		merge.offer(first, "Alpha", -1, null, null);
+		merge.offer(second, "Beta", -1, null, null);
+		merge.finish();
+
+		assertEquals(third, manager.findByName("unknown").uuid());
+		assertEquals(first, manager.findByName("ALPHA").uuid());
+		assertEquals(second, manager.findByName("beta").uuid());
+
+		manager.update(third, "alpha", 50, "test");
+		assertNull(manager.findByName("unknown"));
+		manager.remove(first);
+		assertEquals(third, manager.findByName("Alpha").uuid());
+	}
+
+	@Test
+	void indexesAreRebuiltOnLoad() {
+		BlacklistManager writer = newManager();
+		UUID uuid = UUID.randomUUID();
+		writer.add(uuid, "PersistedName", 60, "test");
+		writer.flush();
+
+		BlacklistManager reader = newManager();
+		reader.load();
+
+		assertSame(reader.get(uuid), reader.findByName("persistedname"));
+	}
+
+	@Test
+	void manyEntriesStayFindableAndUnknownNamesAreRejected() {
+		BlacklistManager manager = newManager();
+		for (int i = 0; i < 5_000; i++) {
+			manager.add(UUID.randomUUID(), "player" + i, 50, "bulk");
+		}
+
+		for (int i = 0; i < 5_000; i += 97) {
+			assertEquals("player" + i, manager.findByName("Player" + i).name());
+		}
+		for (int i = 0; i < 1_000; i++) {
+			assertNull(manager.findByName("someone" + i));
+		}
+	}
+
+	@Test
+	void prefixQueriesAreCaseInsensitiveBoundedAndFollowRenames() {
+		BlacklistManager manager = newManager();
+		UUID renamed = UUID.randomUUID();
+		manager.add(UUID.randomUUID(), "Alpha", 50, "test");
+		manager.add(UUID.randomUUID(), "alphabet", 50, "test");
+		manager.add(UUID.randomUUID(), "ALPHA", 50, "test");
+		manager.add(UUID.randomUUID(), "Beta", 50, "test");
+		manager.add(renamed, "Gamma", 50, "test");
+
+		assertEquals(List.of("alphabet"), manager.namesStartingWith("ALPHAB", 10));
+		assertEquals(2, manager.namesStartingWith("al", 10).size());
+		assertEquals(1, manager.namesStartingWith("al", 1).size());
+		assertEquals(4, manager.namesStartingWith("", 10).size());
+		assertTrue(manager.namesStartingWith("z", 10).isEmpty());
+
+		manager.update(renamed, "Alpine", 50, "test");
+		assertEquals(List.of("Alpine"), manager.namesStartingWith("alpi", 10));
+		assertTrue(manager.namesStartingWith("gam", 10).isEmpty());
+
+		manager.remove(renamed);
+		assertTrue(manager.namesStartingWith("alpi", 10).isEmpty());
+	}
+
+	@Test
+	void pagesMatchTheSortedListAfterChangesAndReload() {
+		BlacklistManager manager = newManager();
+		List<UUID> uuids = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			UUID uuid = UUID.randomUUID();
+			uuids.add(uuid);
+			manager.add(uuid, "Player" + (i * 7919 % 500), 50, "bulk");
+		}
+		for (int i = 0; i < 100; i++) {
+			manager.remove(uuids.get(i * 3));
+			manager.update(uuids.get(i * 3 + 1), "renamed" + i, 50, "bulk");
+		}
+		assertPagesSorted(manager);
+
+		manager.flush();
+		BlacklistManager reloaded = newManager();
+		reloaded.load();
+		assertPagesSorted(reloaded);
+		assertEquals(400, reloaded.size());
+		assertTrue(reloaded.page(1_000, 10).isEmpty());
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+		NameBloomFilter filter = new NameBloomFilter(10_000);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("Member" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain(" member" + i + " "));
+			if (filter.mightContain("outsider" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+
+	private static void assertPagesSorted(BlacklistManager manager) {
+		List<BlacklistManager.ScamEntry> expected = new ArrayList<>(manager.allEntries());
+		expected.sort(BlacklistManager.ENTRY_ORDER);
+		assertEquals(manager.size(), expected.size());
+
+		List<BlacklistManager.ScamEntry> paged = new ArrayList<>();
+		for (int offset = 0; offset < manager.size(); offset += 7) {
+			paged.addAll(manager.page(offset, 7));
+		}
+		assertEquals(expected, paged);
+	}
+
+	private BlacklistManager newManager() {
+		return new BlacklistManager(
+			tempDir.resolve("scamscreener").resolve("scam-screener-blacklist.json"),
+			tempDir.resolve("legacy.json"),
+			tempDir.resolve("legacy.txt")
+		);
+	}
+}
@@ -0,0 +1,155 @@
+package eu.tango.scamscreener.blacklist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlacklistTransferTest {
+	private static final UUID FIRST = UUID.fromString("11111111-2222-3333-4444-555555555555");
+	private static final UUID SECOND = UUID.fromString("aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee");
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void csvWithHeaderQuotesAndBadRowsIsImported() throws IOException {
+		BlacklistManager blacklist = newManager();
+		Path csv = tempDir.resolve("shared.csv");
+		Files.writeString(csv, "\uFEFFname,uuid,score,reason\n"
+			+ "Alpha," + FIRST + ",75,\"coop scam, fake middleman\"\n"
+			+ "Broken,not-a-uuid,10,x\n"
+			+ "Beta," + SECOND.toString().replace("-", "") + ",,\n", StandardCharsets.UTF_8);
+
+		BlacklistTransfer.ImportResult result = BlacklistTransfer.importFile(blacklist, csv);
+
+		assertEquals(2, result.added());
+		assertEquals(1, result.skipped());
+		assertEquals("coop scam, fake middleman", blacklist.get(FIRST).reason());
+		assertEquals(75, blacklist.get(FIRST).score());
+		assertEquals("Beta", blacklist.get(SECOND).name());
+		assertEquals(50, blacklist.get(SECOND).score());
+	}
+
+	@Test
+	void headerlessCsvWithBadFirstUuidKeepsPositionalColumns() throws IOException {
+		BlacklistManager blacklist = newManager();
+		Path csv = tempDir.resolve("headerless.csv");
+		Files.writeString(csv, "not-a-uuid,Broken,10,x\n"
+			+ FIRST + ",Alpha,75,coop scam\n"
+			+ SECOND + ",Beta,,\n", StandardCharsets.UTF_8);
+
+		BlacklistTransfer.ImportResult result = BlacklistTransfer.importFile(blacklist, csv);
+
+		assertEquals(2, result.added());
+		assertEquals(1, result.skipped());
+		assertEquals("Alpha", blacklist.get(FIRST).name());
+		assertEquals(75, blacklist.get(FIRST).score());
+		assertEquals("coop scam", blacklist.get(FIRST).reason());
+		assertEquals("Beta", blacklist.get(SECOND).name());
+	}
+
+	@Test
+	void mergeKeepsHigherScoreAndNewerReason() throws IOException {
+		BlacklistManager blacklist = newManager();
+		Path seed = tempDir.resolve("seed.json");
+		Files.writeString(seed, "[{\"uuid\":\"" + FIRST + "\",\"name\":\"Alpha\",\"score\":40,\"reason\":\"old\",\"addedAt\":\"2025-01-01T00:00:00Z\"}]",
+			StandardCharsets.UTF_8);
+		BlacklistTransfer.importFile(blacklist, seed);
+
+		Path newer = tempDir.resolve("newer.json");
+		Files.writeString(newer, "{\"version\":1,\"entries\":["
+			+ "{\"uuid\":\"" + FIRST + "\",\"score\":30,\"reason\":\"new\",\"addedAt\":\"2026-01-01T00:00:00Z\",\"extra\":[1,2]},"
+			+ "\"" + SECOND + "\"]}", StandardCharsets.UTF_8);
+		BlacklistTransfer.ImportResult result = BlacklistTransfer.importFile(blacklist, newer);
+
+		assertEquals(1, result.added());
+		assertEquals(1, result.updated());
+		assertEquals(40, blacklist.get(FIRST).score());
+		assertEquals("new", blacklist.get(FIRST).reason());
+
+		Path older = tempDir.resolve("older.json");
+		Files.writeString(older, "[{\"uuid\":\"" + FIRST + "\",\"score\":90,\"reason\":\"ancient\",\"addedAt\":\"2020-01-01T00:00:00Z\"}]",
+			StandardCharsets.UTF_8);
+		result = BlacklistTransfer.importFile(blacklist, older);
+
+		assertEquals(1, result.updated());
+		assertEquals(90, blacklist.get(FIRST).score());
+		assertEquals("new", blacklist.get(FIRST).reason());
+	}
+
+	@Test
+	void uuidListSkipsCommentsAndIsWrittenAsOneSnapshot() throws IOException {
+		BlacklistManager blacklist = newManager();
+		Path list = tempDir.resolve("uuids.txt");
+		Files.writeString(list, "# shared list\n" + FIRST + "\n\n" + SECOND + "  # second\n" + FIRST + "\n", StandardCharsets.UTF_8);
+
+		BlacklistTransfer.ImportResult result = BlacklistTransfer.importFile(blacklist, list);
+
+		assertEquals(2, result.added());
+		assertEquals(1, result.skipped());
+		blacklist.flush();
+		assertEquals(2, BlacklistJournal.readSnapshot(snapshot()).size());
+		assertFalse(Files.exists(snapshot().resolveSibling("scam-screener-blacklist.journal")));
+	}
+
+	@Test
+	void readLeavesBlacklistAloneAndApplyKeepsRecordsBeforeAParseError() throws IOException {
+		BlacklistManager blacklist = newManager();
+		blacklist.add(FIRST, "Zulu", 60, "seed");
+		Path truncated = tempDir.resolve("truncated.json");
+		Files.writeString(truncated, "[{\"uuid\":\"" + SECOND + "\",\"name\":\"Alpha\"},\"" + FIRST + "\",{\"uuid\":", StandardCharsets.UTF_8);
+
+		BlacklistTransfer.ParsedImport parsed = BlacklistTransfer.read(truncated);
+
+		assertEquals(2, parsed.size());
+		assertEquals(1, blacklist.size());
+		assertThrows(IOException.class, () -> BlacklistTransfer.apply(blacklist, parsed));
+		assertEquals(2, blacklist.size());
+		assertEquals("Alpha", blacklist.page(0, 10).get(0).name());
+		assertEquals("Zulu", blacklist.page(0, 10).get(1).name());
+	}
+
+	@Test
+	void exportedFilesImportBackUnchanged() throws IOException {
+		BlacklistManager source = newManager();
+		source.add(FIRST, "Alpha", 70, "reason, with comma");
+		source.add(SECOND, "Beta", 20, "plain");
+
+		for (String name : new String[] {"out.json", "out.csv", "out.txt"}) {
+			Path file = tempDir.resolve("export").resolve(name);
+			assertEquals(2, BlacklistTransfer.exportFile(source, file));
+
+			BlacklistTransfer.ImportResult again = BlacklistTransfer.importFile(source, file);
+			assertEquals(0, again.added());
+			assertEquals(0, again.updated());
+			assertEquals(2, again.skipped());
+		}
+
+		BlacklistManager target = new BlacklistManager(
+			tempDir.resolve("other").resolve("scam-screener-blacklist.json"),
+			tempDir.resolve("legacy.json"),
+			tempDir.resolve("legacy.txt")
+		);
+		BlacklistTransfer.importFile(target, tempDir.resolve("export").resolve("out.csv"));
+		assertEquals("reason, with comma", target.get(FIRST).reason());
+		assertEquals(20, target.get(SECOND).score());
+		assertEquals(source.get(FIRST).addedAt(), target.get(FIRST).addedAt());
+	}
+
+	private BlacklistManager newManager() {
+		return new BlacklistManager(snapshot(), tempDir.resolve("legacy.json"), tempDir.resolve("legacy.txt"));
+	}
+
+	private Path snapshot() {
+		return tempDir.resolve("scamscreener").resolve("scam-screener-blacklist.json");
+	}
+}
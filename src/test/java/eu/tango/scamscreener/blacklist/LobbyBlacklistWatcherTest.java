@@ -0,0 +1,102 @@
+package eu.tango.scamscreener.blacklist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyBlacklistWatcherTest {
+	private static final UUID SCAMMER = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+	private static final UUID OTHER_SCAMMER = UUID.fromString("00000000-0000-0000-0000-0000000000a2");
+	private static final UUID CLEAN = UUID.fromString("00000000-0000-0000-0000-0000000000c1");
+
+	@TempDir
+	Path tempDir;
+
+	private long now;
+	private final List<List<BlacklistManager.ScamEntry>> alerts = new ArrayList<>();
+
+	@Test
+	void hitsOfOneLobbySwitchAreSentAsOneAlertAfterTheDebounce() {
+		LobbyBlacklistWatcher watcher = newWatcher();
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 1L);
+		watcher.onPlayerJoined(CLEAN, "Clean", 1L);
+		now += 200L;
+		watcher.onPlayerJoined(OTHER_SCAMMER, "ScammerTwo", 1L);
+
+		now += LobbyBlacklistWatcher.DEBOUNCE_MILLIS - 1L;
+		watcher.onClientTick();
+		assertTrue(alerts.isEmpty());
+
+		now += 1L;
+		watcher.onClientTick();
+		assertEquals(1, alerts.size());
+		assertEquals(List.of("ScammerOne", "ScammerTwo"), alerts.get(0).stream().map(BlacklistManager.ScamEntry::name).toList());
+		assertEquals(3L, watcher.checkedPlayers());
+	}
+
+	@Test
+	void trickleOfHitsIsFlushedAfterTheMaximumDelay() {
+		LobbyBlacklistWatcher watcher = newWatcher();
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 1L);
+		now += LobbyBlacklistWatcher.MAX_DELAY_MILLIS - 500L;
+		watcher.onPlayerJoined(OTHER_SCAMMER, "ScammerTwo", 1L);
+		now += 500L;
+		watcher.onClientTick();
+
+		assertEquals(1, alerts.size());
+		assertEquals(2, alerts.get(0).size());
+	}
+
+	@Test
+	void playersAreAlertedOncePerLobbyAndAgainInTheNextLobby() {
+		LobbyBlacklistWatcher watcher = newWatcher();
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 1L);
+		settle(watcher);
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 1L);
+		settle(watcher);
+		assertEquals(1, alerts.size());
+
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 2L);
+		settle(watcher);
+		assertEquals(2, alerts.size());
+	}
+
+	@Test
+	void entriesRemovedBeforeTheFlushAreNotReported() {
+		BlacklistManager blacklist = newBlacklist();
+		LobbyBlacklistWatcher watcher = new LobbyBlacklistWatcher(blacklist, alerts::add, () -> now);
+		watcher.onPlayerJoined(SCAMMER, "ScammerOne", 1L);
+		watcher.onPlayerJoined(CLEAN, "Clean", 1L);
+		blacklist.remove(SCAMMER);
+		settle(watcher);
+
+		assertTrue(alerts.isEmpty());
+	}
+
+	private void settle(LobbyBlacklistWatcher watcher) {
+		now += LobbyBlacklistWatcher.MAX_DELAY_MILLIS;
+		watcher.onClientTick();
+	}
+
+	private LobbyBlacklistWatcher newWatcher() {
+		return new LobbyBlacklistWatcher(newBlacklist(), alerts::add, () -> now);
+	}
+
+	private BlacklistManager newBlacklist() {
+		BlacklistManager blacklist = new BlacklistManager(
+			tempDir.resolve("scamscreener").resolve("scam-screener-blacklist.json"),
+			tempDir.resolve("legacy.json"),
+			tempDir.resolve("legacy.txt")
+		);
+		blacklist.add(SCAMMER, "ScammerOne", 80, "test");
+		blacklist.add(OTHER_SCAMMER, "ScammerTwo", 60, "test");
+		return blacklist;
+	}
+}
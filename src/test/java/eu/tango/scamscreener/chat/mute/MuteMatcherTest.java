@@ -0,0 +1,148 @@
+package eu.tango.scamscreener.chat.mute;
+
+import eu.tango.scamscreener.config.MutePatternsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MuteMatcherTest {
+	@Test
+	void phrasesMatchCaseInsensitivelyOnWordBoundariesOnly() {
+		MuteMatcher matcher = MuteMatcher.compile(List.of("free coins", "gg!", "\u00C4rger"));
+
+		assertTrue(matcher.matches("[MVP+] Someone: FREE Coins at my island"));
+		assertTrue(matcher.matches("free coins"));
+		assertFalse(matcher.matches("freecoins for all"));
+		assertFalse(matcher.matches("carefree coins"));
+		assertFalse(matcher.matches("free coinsplz"));
+		assertTrue(matcher.matches("gg!wp"));
+		assertFalse(matcher.matches("gg! wp"));
+		assertTrue(matcher.matches("so viel \u00E4RGER heute"));
+		assertEquals(0, matcher.regexCount());
+	}
+
+	@Test
+	void overlappingPhrasesAreAllConsidered() {
+		MuteMatcher matcher = MuteMatcher.compile(List.of("selling", "ling", "she sells", "he"));
+
+		assertTrue(matcher.matches("she sells shells"));
+		assertTrue(matcher.matches("ask him, he knows"));
+		assertFalse(matcher.matches("shelling"));
+		assertTrue(matcher.matches("xyz ling"));
+	}
+
+	@Test
+	void regexesAreMergedUnlessTheyCouldChangeMeaning() {
+		MuteMatcher merged = MuteMatcher.compile(List.of("^\\[NPC\\]", "lowball(ing)?", "(?<=buy )cheap", "[invalid"));
+		assertEquals(1, merged.regexCount());
+		assertTrue(merged.matches("[NPC] Kat: hi"));
+		assertTrue(merged.matches("LOWBALLING all day"));
+		assertTrue(merged.matches("buy cheap stuff"));
+		assertFalse(merged.matches("cheap stuff [NPC]"));
+
+		MuteMatcher separate = MuteMatcher.compile(List.of("(a)\\1", "(?i)x+y", "(?<word>zz)", "q.q"));
+		assertEquals(4, separate.regexCount());
+		assertTrue(separate.matches("baab"));
+		assertFalse(separate.matches("ab"));
+		assertTrue(separate.matches("XXY"));
+		assertTrue(separate.matches("qaq"));
+	}
+
+	@Test
+	void hitsAreAttributedToTheMatchingPattern() {
+		MuteMatcher matcher = MuteMatcher.compile(List.of("alpha", "beta", "foo\\d", "bar(baz)?", "qu+x", "(q)\\1"));
+
+		assertEquals("beta", matcher.match("so BETA here"));
+		assertEquals("bar(baz)?", matcher.match("a barbaz b"));
+		assertEquals("qu+x", matcher.match("quuux"));
+		assertEquals("(q)\\1", matcher.match("qq"));
+		assertNull(matcher.match("nothing"));
+
+		Map<String, MutePatternsConfig.PatternStats> stats = new HashMap<>();
+		matcher.drainInto(stats);
+		assertEquals(1L, stats.get("beta").hits);
+		assertEquals(0L, stats.get("alpha").hits);
+		assertEquals(5L, stats.get("alpha").evaluations);
+		assertEquals(1L, stats.get("bar(baz)?").hits);
+		assertEquals(1L, stats.get("(q)\\1").hits);
+		assertEquals(2L, stats.get("(q)\\1").evaluations);
+	}
+
+	@Test
+	void reorderRunsFrequentlyHittingUnitsFirst() {
+		MuteMatcher matcher = MuteMatcher.compile(List.of("never", "(x)\\1"));
+		for (int i = 0; i < 100; i++) {
+			assertEquals("(x)\\1", matcher.match("xx"));
+		}
+		Map<String, MutePatternsConfig.PatternStats> stats = new HashMap<>();
+		matcher.drainInto(stats);
+		assertEquals(100L, stats.get("never").evaluations);
+
+		matcher.reorder(stats);
+		for (int i = 0; i < 100; i++) {
+			matcher.match("xx");
+		}
+		matcher.drainInto(stats);
+		assertEquals(100L, stats.get("never").evaluations);
+		assertEquals(200L, stats.get("(x)\\1").hits);
+
+		MuteMatcher restored = MuteMatcher.compile(List.of("never", "(x)\\1"), stats);
+		restored.match("xx");
+		Map<String, MutePatternsConfig.PatternStats> fresh = new HashMap<>();
+		restored.drainInto(fresh);
+		assertNull(fresh.get("never"));
+	}
+
+	@Test
+	void agreesWithOneRegexPerPatternOnRandomLines() {
+		Random random = new Random(48L);
+		String[] words = {"free", "coins", "gg", "buy", "sell", "lowball", "carry", "dungeon", "f7", "visit", "me", "_", "!", "ah", "Bz"};
+		List<String> patterns = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			String phrase = words[random.nextInt(words.length)] + (random.nextInt(3) == 0 ? " " + words[random.nextInt(words.length)] : "");
+			patterns.add(phrase + (i % 7 == 0 ? i : ""));
+		}
+		patterns.add("visit\\s+me");
+		patterns.add("^carry");
+		patterns.add("(\\w)\\1{3}");
+		MuteMatcher matcher = MuteMatcher.compile(patterns);
+		List<Pattern> reference = patterns.stream().map(MuteMatcherTest::referencePattern).toList();
+
+		int matched = 0;
+		for (int i = 0; i < 5_000; i++) {
+			StringBuilder line = new StringBuilder();
+			int count = 1 + random.nextInt(6);
+			for (int w = 0; w < count; w++) {
+				if (w > 0) {
+					line.append(random.nextInt(4) == 0 ? "" : " ");
+				}
+				String word = words[random.nextInt(words.length)];
+				line.append(random.nextBoolean() ? word.toUpperCase() : word);
+			}
+			String text = line.toString();
+			boolean expected = reference.stream().anyMatch(pattern -> pattern.matcher(text).find());
+			assertEquals(expected, matcher.matches(text), text);
+			if (expected) {
+				matched++;
+			}
+		}
+		assertTrue(matched > 100 && matched < 4_900, "matched " + matched);
+	}
+
+	private static Pattern referencePattern(String pattern) {
+		if (MuteMatcher.isLikelyRegex(pattern)) {
+			return Pattern.compile(pattern, MuteMatcher.REGEX_FLAGS);
+		}
+		return Pattern.compile("\\b" + Pattern.quote(pattern) + "\\b", MuteMatcher.REGEX_FLAGS);
+	}
+}
@@ -0,0 +1,91 @@
+package eu.tango.scamscreener.chat.trigger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TriggerDispatcherTest {
+	private static final List<String> TRIGGER_LINES = List.of(
+		"Trader_01 has sent you a trade request.",
+		"You have sent a trade request to Trader_01.",
+		"You are trading with Trader_01",
+		"You'll be partying with: Trader_01",
+		"Party Finder > Trader_01 joined the dungeon group! (Mage Level 30)",
+		"Trader_01 has requested to join your SkyBlock Co-op!",
+		"trader_01 asks to join your coop",
+		"You invited Trader_01 to your co-op!",
+		"YOU INVITED Trader_01 TO YOUR SKYBLOCK CO-OP!",
+		"Trader_01 joined your SkyBlock Co-op!",
+		"You joined your co-op!"
+	);
+	private static final List<String> OTHER_LINES = List.of(
+		"",
+		"Trade completed with Trader_01!",
+		"You have sent a trade request to a very long name here.",
+		"Party Finder > Trader_01 left the dungeon group",
+		"Trader 01 joined your SkyBlock Co-op!",
+		"ab joined your co-op!",
+		"Trader_01 has sent you a friend request.",
+		"[MVP+] Trader_01: has sent you a trade request",
+		"Trader_01 asked to join your guild",
+		"You invited Trader_01 to the party!",
+		"Your new API key is abc"
+	);
+
+	@Test
+	void findsContextAndNameOfEveryTriggerLine() {
+		assertEquals(new TriggerDispatcher.Match(TriggerContext.TRADE_INCOMING, "Trader_01"), TriggerDispatcher.match(TRIGGER_LINES.get(0)));
+		assertEquals(new TriggerDispatcher.Match(TriggerContext.PARTY_FINDER_DUNGEON_JOIN, "Trader_01"), TriggerDispatcher.match(TRIGGER_LINES.get(4)));
+		assertEquals(new TriggerDispatcher.Match(TriggerContext.COOP_INVITE_SENT, "Trader_01"), TriggerDispatcher.match(TRIGGER_LINES.get(8)));
+		assertEquals(new TriggerDispatcher.Match(TriggerContext.COOP_MEMBER_JOINED, "You"), TriggerDispatcher.match(TRIGGER_LINES.get(10)));
+		for (String line : TRIGGER_LINES) {
+			assertEquals(matchAll(line), TriggerDispatcher.match(line), line);
+		}
+	}
+
+	@Test
+	void ignoresLinesThatOnlyLookLikeTriggers() {
+		assertNull(TriggerDispatcher.match(null));
+		for (String line : OTHER_LINES) {
+			assertNull(TriggerDispatcher.match(line), line);
+			assertNull(matchAll(line), line);
+		}
+	}
+
+	@Test
+	void agreesWithTryingEveryContextOnMutatedLines() {
+		Random random = new Random(45L);
+		List<String> corpus = new ArrayList<>(TRIGGER_LINES);
+		corpus.addAll(OTHER_LINES);
+		String alphabet = "aY P_-:!.> ";
+		for (int i = 0; i < 20_000; i++) {
+			StringBuilder line = new StringBuilder(corpus.get(random.nextInt(corpus.size())));
+			int edits = random.nextInt(3);
+			for (int edit = 0; edit < edits && line.length() > 0; edit++) {
+				int at = random.nextInt(line.length());
+				switch (random.nextInt(3)) {
+					case 0 -> line.deleteCharAt(at);
+					case 1 -> line.insert(at, alphabet.charAt(random.nextInt(alphabet.length())));
+					default -> line.setCharAt(at, Character.toLowerCase(line.charAt(at)));
+				}
+			}
+			String text = line.toString();
+			assertEquals(matchAll(text), TriggerDispatcher.match(text), text);
+		}
+	}
+
+	private static TriggerDispatcher.Match matchAll(String line) {
+		for (TriggerContext context : TriggerContext.values()) {
+			String name = context.matchPlayerName(line);
+			if (name != null) {
+				return new TriggerDispatcher.Match(context, name);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,96 @@
+package eu.tango.scamscreener.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScamRulesConfigStoreTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void updatesAreCoalescedIntoOneWriteOnFlush() throws IOException {
+		Path file = tempDir.resolve("scam-screener-rules.json");
+		ScamRulesConfigStore store = newStore(file);
+
+		store.update(cfg -> setAutoLeave(cfg, true));
+		store.update(cfg -> setLevelHigh(cfg, 45));
+		store.update(cfg -> setLevelHigh(cfg, 50));
+		store.flush();
+
+		assertEquals(1, store.writes());
+		assertEquals(2, store.coalescedWrites());
+		ScamRulesConfig persisted = ScamRulesConfig.fromJson(Files.readString(file, StandardCharsets.UTF_8));
+		assertTrue(persisted.autoLeaveOnBlacklist);
+		assertEquals(50, persisted.levelHigh);
+		store.close();
+	}
+
+	@Test
+	void unchangedUpdateDoesNotWrite() {
+		ScamRulesConfigStore store = newStore(tempDir.resolve("scam-screener-rules.json"));
+
+		assertFalse(store.update(cfg -> false));
+		store.flush();
+
+		assertEquals(0, store.writes());
+		store.close();
+	}
+
+	@Test
+	void externalEditIsReloadedButOwnWritesAndBrokenJsonAreIgnored() throws IOException {
+		Path file = tempDir.resolve("scam-screener-rules.json");
+		ScamRulesConfigStore store = newStore(file);
+		store.update(cfg -> setAutoLeave(cfg, true));
+		store.flush();
+
+		assertFalse(store.reloadIfChangedExternally());
+
+		ScamRulesConfig edited = store.read(cfg -> ScamRulesConfig.fromJson(ScamRulesConfig.toJson(cfg)));
+		edited.levelHigh = 55;
+		Files.writeString(file, ScamRulesConfig.toJson(edited), StandardCharsets.UTF_8);
+		assertTrue(store.reloadIfChangedExternally());
+		assertEquals(55, (int) store.read(cfg -> cfg.levelHigh));
+
+		Files.writeString(file, "{ \"levelHigh\": ", StandardCharsets.UTF_8);
+		assertFalse(store.reloadIfChangedExternally());
+		assertEquals(55, (int) store.read(cfg -> cfg.levelHigh));
+		assertEquals(1, store.externalReloads());
+		store.close();
+	}
+
+	private static ScamRulesConfigStore newStore(Path file) {
+		return new ScamRulesConfigStore(() -> load(file), file, 10_000L);
+	}
+
+	private static ScamRulesConfig load(Path file) {
+		try {
+			if (Files.exists(file)) {
+				ScamRulesConfig parsed = ScamRulesConfig.fromJson(Files.readString(file, StandardCharsets.UTF_8));
+				if (parsed != null) {
+					return parsed;
+				}
+			}
+		} catch (IOException ignored) {
+		}
+		return ScamRulesConfig.fromJson("{}");
+	}
+
+	private static boolean setAutoLeave(ScamRulesConfig cfg, boolean value) {
+		cfg.autoLeaveOnBlacklist = value;
+		return true;
+	}
+
+	private static boolean setLevelHigh(ScamRulesConfig cfg, int value) {
+		cfg.levelHigh = value;
+		return true;
+	}
+}
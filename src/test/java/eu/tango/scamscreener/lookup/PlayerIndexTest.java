@@ -0,0 +1,94 @@
+package eu.tango.scamscreener.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlayerIndexTest {
+	private static final UUID ALPHA = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+	private static final UUID BETA = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+	private static final UUID FAKE = UUID.fromString("00000000-0000-0000-0000-00000000000f");
+
+	@Test
+	void resolvesBothDirectionsCaseInsensitively() {
+		PlayerIndex index = new PlayerIndex();
+		sync(index, List.of(new Player(ALPHA, "AlphaPlayer"), new Player(BETA, "beta_player")));
+
+		assertEquals(ALPHA, index.uuidByName(" alphaplayer "));
+		assertEquals(BETA, index.uuidByName("BETA_PLAYER"));
+		assertEquals("AlphaPlayer", index.nameByUuid(ALPHA));
+		assertNull(index.uuidByName("gamma"));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void syncDropsLeftPlayersAndFollowsRenames() {
+		PlayerIndex index = new PlayerIndex();
+		sync(index, List.of(new Player(ALPHA, "AlphaPlayer"), new Player(BETA, "BetaPlayer")));
+		sync(index, List.of(new Player(ALPHA, "AlphaRenamed")));
+
+		assertNull(index.nameByUuid(BETA));
+		assertNull(index.uuidByName("BetaPlayer"));
+		assertNull(index.uuidByName("AlphaPlayer"));
+		assertEquals(ALPHA, index.uuidByName("alpharenamed"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void duplicateNamesStayResolvableWhenOneLeaves() {
+		PlayerIndex index = new PlayerIndex();
+		sync(index, List.of(new Player(ALPHA, "Twin"), new Player(FAKE, "twin")));
+		assertEquals(ALPHA, index.uuidByName("twin"));
+
+		sync(index, List.of(new Player(FAKE, "twin")));
+		assertEquals(FAKE, index.uuidByName("Twin"));
+	}
+
+	@Test
+	void sharedNameFollowsLeavesAndRenamesOfAnyHolder() {
+		PlayerIndex index = new PlayerIndex();
+		sync(index, List.of(new Player(ALPHA, "Twin"), new Player(BETA, "twin"), new Player(FAKE, "TWIN")));
+
+		sync(index, List.of(new Player(ALPHA, "Twin"), new Player(FAKE, "TWIN")));
+		assertEquals(ALPHA, index.uuidByName("twin"));
+
+		sync(index, List.of(new Player(ALPHA, "Solo"), new Player(FAKE, "TWIN")));
+		assertEquals(FAKE, index.uuidByName("twin"));
+		assertEquals(ALPHA, index.uuidByName("solo"));
+
+		sync(index, List.of(new Player(ALPHA, "Solo")));
+		assertNull(index.uuidByName("twin"));
+	}
+
+	@Test
+	void entriesWithoutNameOrUuidAreIgnored() {
+		PlayerIndex index = new PlayerIndex();
+		sync(index, List.of(new Player(null, "NoUuid"), new Player(BETA, " "), new Player(ALPHA, "AlphaPlayer")));
+
+		assertEquals(1, index.size());
+		assertNull(index.uuidByName("NoUuid"));
+	}
+
+	@Test
+	void reportsOnlyNewlyListedPlayersToJoinCallback() {
+		PlayerIndex index = new PlayerIndex();
+		List<UUID> joined = new ArrayList<>();
+		index.sync(List.of(new Player(ALPHA, "AlphaPlayer")), Player::uuid, Player::name, (uuid, name) -> joined.add(uuid));
+		index.sync(List.of(new Player(ALPHA, "AlphaRenamed"), new Player(BETA, "BetaPlayer")), Player::uuid, Player::name, (uuid, name) -> joined.add(uuid));
+		index.sync(List.of(new Player(BETA, "BetaPlayer")), Player::uuid, Player::name, (uuid, name) -> joined.add(uuid));
+
+		assertEquals(List.of(ALPHA, BETA), joined);
+	}
+
+	private static void sync(PlayerIndex index, List<Player> players) {
+		index.sync(players, Player::uuid, Player::name);
+	}
+
+	private record Player(UUID uuid, String name) {
+	}
+}
@@ -0,0 +1,107 @@
+package eu.tango.scamscreener.lookup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileCacheTest {
+	private static final UUID ALPHA = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+	private static final Duration POSITIVE_TTL = Duration.ofHours(1);
+	private static final Duration NEGATIVE_TTL = Duration.ofMinutes(1);
+
+	@TempDir
+	Path tempDir;
+
+	private long now = 1_000_000L;
+
+	@Test
+	void positiveAndNegativeEntriesExpireWithTheirOwnTtl() {
+		ProfileCache cache = newCache(16);
+		cache.putResolved("alpha", new ResolvedTarget(ALPHA, "Alpha"));
+		cache.putMissing("nobody");
+
+		assertEquals(ALPHA, cache.get("alpha").target().uuid());
+		ProfileCache.Entry missing = cache.get("nobody");
+		assertNotNull(missing);
+		assertNull(missing.target());
+
+		now += NEGATIVE_TTL.toMillis();
+		assertNull(cache.get("nobody"));
+		assertNotNull(cache.get("alpha"));
+
+		now += POSITIVE_TTL.toMillis();
+		assertNull(cache.get("alpha"));
+
+		ProfileCache.Stats stats = cache.stats();
+		assertEquals(2L, stats.hits());
+		assertEquals(1L, stats.negativeHits());
+		assertEquals(2L, stats.misses());
+		assertEquals(2L, stats.expirations());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntry() {
+		ProfileCache cache = newCache(2);
+		cache.putMissing("first");
+		cache.putMissing("second");
+		cache.get("first");
+		cache.putMissing("third");
+
+		assertNotNull(cache.get("first"));
+		assertNull(cache.get("second"));
+		assertNotNull(cache.get("third"));
+		assertEquals(1L, cache.stats().evictions());
+	}
+
+	@Test
+	void entriesSurviveARestartAndExpiredOnesAreDropped() {
+		ProfileCache writer = newCache(16);
+		writer.putResolved("alpha", new ResolvedTarget(ALPHA, "Alpha"));
+		writer.putMissing("nobody");
+		writer.flush();
+		assertTrue(Files.exists(cacheFile()));
+		assertEquals(1L, writer.stats().writes());
+
+		now += NEGATIVE_TTL.toMillis();
+		ProfileCache reader = newCache(16);
+		assertEquals("Alpha", reader.get("alpha").target().name());
+		assertNull(reader.get("nobody"));
+		assertEquals(1, reader.size());
+	}
+
+	@Test
+	void sweepRemovesExpiredEntriesAndFlushWritesOnlyChanges() {
+		ProfileCache cache = newCache(16);
+		cache.putMissing("one");
+		cache.putMissing("two");
+		cache.putResolved("alpha", new ResolvedTarget(ALPHA, "Alpha"));
+		cache.flush();
+		cache.flush();
+		assertEquals(1L, cache.stats().writes());
+
+		now += NEGATIVE_TTL.toMillis();
+		assertEquals(2, cache.sweep());
+		assertEquals(1, cache.size());
+		cache.flush();
+		assertEquals(2L, cache.stats().writes());
+		assertFalse(Files.exists(cacheFile().resolveSibling(cacheFile().getFileName() + ".tmp")));
+	}
+
+	private ProfileCache newCache(int maxEntries) {
+		return new ProfileCache(cacheFile(), POSITIVE_TTL, NEGATIVE_TTL, maxEntries, () -> now);
+	}
+
+	private Path cacheFile() {
+		return tempDir.resolve("scamscreener").resolve("scam-screener-profile-cache.json");
+	}
+}
@@ -0,0 +1,169 @@
+package eu.tango.scamscreener.lookup;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileLookupCoordinatorTest {
+	private static final Gson GSON = new Gson();
+	private static final ProfileLookupCoordinator.Settings FAST = new ProfileLookupCoordinator.Settings(50L, 10L, 40L, 2);
+
+	@TempDir
+	Path tempDir;
+
+	private HttpServer server;
+	private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+	private volatile int failureStatus = 429;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/profiles", this::handle);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void coalescesNamesIntoBatchesOfAtMostTen() throws Exception {
+		ProfileLookupCoordinator coordinator = newCoordinator(new TokenBucket(10, 10.0, System::nanoTime));
+		List<CompletableFuture<ProfileLookupCoordinator.Outcome>> futures = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			futures.add(coordinator.lookup("player" + i));
+		}
+		futures.add(coordinator.lookup("missing_one"));
+
+		for (int i = 0; i < 12; i++) {
+			ProfileLookupCoordinator.Outcome outcome = futures.get(i).get(5, TimeUnit.SECONDS);
+			assertEquals("Player" + i, outcome.target().name());
+		}
+		ProfileLookupCoordinator.Outcome missing = futures.get(12).get(5, TimeUnit.SECONDS);
+		assertNull(missing.target());
+		assertEquals(false, missing.failed());
+
+		assertEquals(2, batches.size());
+		assertEquals(13, batches.stream().mapToInt(List::size).sum());
+		assertTrue(batches.stream().allMatch(batch -> batch.size() <= ProfileLookupCoordinator.MAX_BATCH_SIZE));
+		assertEquals(2L, coordinator.stats().requests());
+	}
+
+	@Test
+	void retriesRateLimitedRequestsAndThenSucceeds() throws Exception {
+		failuresBeforeSuccess.set(1);
+		ProfileLookupCoordinator coordinator = newCoordinator(new TokenBucket(10, 10.0, System::nanoTime));
+
+		ProfileLookupCoordinator.Outcome outcome = coordinator.lookup("player1").get(5, TimeUnit.SECONDS);
+
+		assertEquals("Player1", outcome.target().name());
+		assertEquals(2, batches.size());
+		assertEquals(1L, coordinator.stats().retries());
+	}
+
+	@Test
+	void givesUpAfterTheRetryBudgetOnServerErrors() throws Exception {
+		failureStatus = 503;
+		failuresBeforeSuccess.set(100);
+		ProfileLookupCoordinator coordinator = newCoordinator(new TokenBucket(10, 10.0, System::nanoTime));
+
+		ProfileLookupCoordinator.Outcome outcome = coordinator.lookup("player1").get(5, TimeUnit.SECONDS);
+
+		assertSame(ProfileLookupCoordinator.Outcome.FAILED, outcome);
+		assertEquals(1 + FAST.maxRetries(), batches.size());
+		assertEquals(1L, coordinator.stats().failures());
+	}
+
+	@Test
+	void invalidNamesNeverReachTheServer() throws Exception {
+		ProfileLookupCoordinator coordinator = newCoordinator(new TokenBucket(10, 10.0, System::nanoTime));
+
+		assertSame(ProfileLookupCoordinator.Outcome.NOT_FOUND, coordinator.lookup("not a name").get(1, TimeUnit.SECONDS));
+		assertSame(ProfileLookupCoordinator.Outcome.NOT_FOUND, coordinator.lookup("x".repeat(17)).get(1, TimeUnit.SECONDS));
+		assertTrue(batches.isEmpty());
+	}
+
+	@Test
+	void tokenBucketLimitsBurstsAndRefills() {
+		long[] now = {0L};
+		TokenBucket bucket = new TokenBucket(2, 1.0, () -> now[0]);
+
+		assertEquals(0L, bucket.tryAcquire());
+		assertEquals(0L, bucket.tryAcquire());
+		assertEquals(1_000_000_000L, bucket.tryAcquire());
+
+		now[0] += 500_000_000L;
+		assertEquals(500_000_000L, bucket.tryAcquire());
+		now[0] += 500_000_000L;
+		assertEquals(0L, bucket.tryAcquire());
+	}
+
+	@Test
+	void profileServiceCachesUnknownNamesAndSkipsTheServer() throws Exception {
+		ProfileCache cache = new ProfileCache(tempDir.resolve("cache.json"), Duration.ofHours(1), Duration.ofMinutes(5), 16, System::currentTimeMillis);
+		MojangProfileService service = new MojangProfileService(cache, newCoordinator(new TokenBucket(10, 10.0, System::nanoTime)));
+
+		assertNull(service.lookupAsync("missing_one").get(5, TimeUnit.SECONDS));
+		assertEquals("Player3", service.lookupAsync("PLAYER3").get(5, TimeUnit.SECONDS).name());
+		assertNull(service.lookupAsync("Missing_One").get(1, TimeUnit.SECONDS));
+		assertEquals("Player3", service.lookupCached("player3").name());
+		assertEquals(2, batches.size());
+	}
+
+	private ProfileLookupCoordinator newCoordinator(TokenBucket bucket) {
+		URI endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/profiles");
+		return new ProfileLookupCoordinator(endpoint, bucket, FAST);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String[] names = GSON.fromJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), String[].class);
+		batches.add(List.of(names));
+		if (failuresBeforeSuccess.getAndDecrement() > 0) {
+			exchange.sendResponseHeaders(failureStatus, -1);
+			exchange.close();
+			return;
+		}
+		List<Profile> profiles = new ArrayList<>();
+		for (String name : names) {
+			if (name.startsWith("player")) {
+				int number = Integer.parseInt(name.substring("player".length()));
+				profiles.add(new Profile(String.format(Locale.ROOT, "%032x", number + 1), "Player" + number));
+			}
+		}
+		byte[] body = GSON.toJson(profiles).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private record Profile(String id, String name) {
+	}
+}
@@ -0,0 +1,94 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.MessageContext;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.rules.ScamRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatAdmissionControllerTest {
+	private static final ScamRules.ChatStormConfig CONFIG = new ScamRules.ChatStormConfig(3, 4, 2, 2);
+
+	@Test
+	void belowThresholdEventsRunImmediatelyWithFullProfile() {
+		Harness harness = new Harness();
+
+		harness.submit("public", "a");
+		harness.submit("pm", "b");
+
+		assertEquals(List.of("a:FULL", "b:FULL"), harness.handled);
+		assertEquals(0, harness.controller.queuedCount());
+	}
+
+	@Test
+	void stormQueuesAndDrainsByChannelPriority() {
+		Harness harness = new Harness();
+		harness.submit("public", "p1");
+		harness.submit("public", "p2");
+		harness.submit("public", "p3");
+		harness.handled.clear();
+
+		harness.submit("public", "p4");
+		harness.submit("team", "t1");
+		harness.submit("pm", "m1");
+		harness.submit("party", "y1");
+		assertEquals(List.of(), harness.handled);
+
+		harness.controller.drain();
+		harness.controller.drain();
+
+		assertEquals(List.of("m1:FULL", "y1:FULL", "t1:FULL", "p4:CHEAP"), harness.handled);
+	}
+
+	@Test
+	void fullQueueShedsPublicLinesBeforePrivateOnes() {
+		Harness harness = new Harness();
+		for (int i = 0; i < 7; i++) {
+			harness.submit("public", "p" + i);
+		}
+		harness.handled.clear();
+
+		harness.submit("public", "dropped");
+		harness.submit("pm", "m1");
+
+		assertEquals(2, harness.controller.shedCount("public"));
+		assertEquals(0, harness.controller.shedCount("pm"));
+		harness.controller.drain();
+		assertEquals("m1:FULL", harness.handled.get(0));
+	}
+
+	@Test
+	void publicOverflowIsSampled() {
+		Harness harness = new Harness();
+		for (int i = 0; i < 7; i++) {
+			harness.submit("public", "p" + i);
+		}
+		harness.handled.clear();
+
+		harness.submit("public", "x1");
+		harness.submit("public", "x2");
+		for (int i = 0; i < 3; i++) {
+			harness.controller.drain();
+		}
+
+		assertEquals(List.of("p4:CHEAP", "p5:CHEAP", "p6:CHEAP", "x2:CHEAP"), harness.handled);
+		assertEquals(2, harness.controller.shedCount("public"));
+	}
+
+	private static final class Harness {
+		private final List<String> handled = new ArrayList<>();
+		private final ChatAdmissionController controller = new ChatAdmissionController(
+			(event, profile) -> handled.add(event.rawMessage() + ":" + profile),
+			() -> CONFIG,
+			() -> 1_000L
+		);
+
+		private void submit(String channel, String message) {
+			controller.submit(MessageEvent.from("Player123", message, 1_000L, MessageContext.GENERAL, channel));
+		}
+	}
+}
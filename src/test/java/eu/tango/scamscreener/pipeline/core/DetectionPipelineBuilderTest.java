@@ -0,0 +1,244 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.MessageContext;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.pipeline.model.Signal;
+import eu.tango.scamscreener.pipeline.model.SignalSource;
+import eu.tango.scamscreener.rules.ScamRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DetectionPipelineBuilderTest {
+	@Test
+	void orderedFollowsConfiguredIdsAndKeepsUnlistedStagesLast() {
+		List<Stage> registered = List.of(stage("a"), stage("b"), stage("c"), stage("d"));
+
+		List<Stage> ordered = DetectionPipelineBuilder.ordered(registered, List.of("c", "a", "missing"));
+
+		assertEquals(List.of("c", "a", "b", "d"), ordered.stream().map(Stage::id).toList());
+	}
+
+	@Test
+	void orderedKeepsRegistrationOrderWithoutConfig() {
+		List<Stage> registered = List.of(stage("a"), stage("b"));
+
+		assertEquals(List.of("a", "b"), DetectionPipelineBuilder.ordered(registered, List.of()).stream().map(Stage::id).toList());
+	}
+
+	@Test
+	void orderedKeepsExpensiveStagesAtTheirConfiguredPosition() {
+		List<Stage> registered = List.of(
+			stage("analysis"),
+			stage("lev", StageCost.EXPENSIVE, false),
+			stage("trend", StageCost.CHEAP, true),
+			stage("store", StageCost.EXPENSIVE, true),
+			stage("ai", StageCost.EXPENSIVE, false)
+		);
+
+		List<Stage> ordered = DetectionPipelineBuilder.ordered(registered, List.of("analysis", "lev", "trend", "store", "ai"));
+
+		assertEquals(List.of("analysis", "lev", "trend", "store", "ai"), ordered.stream().map(Stage::id).toList());
+	}
+
+	@Test
+	void earlyExitDoesNotChangeWhatStatefulStagesRecord() {
+		List<List<String>> plainHistory = new ArrayList<>();
+		List<List<String>> earlyHistory = new ArrayList<>();
+		DetectionPipeline plain = pipeline(false, plainHistory);
+		DetectionPipeline early = pipeline(true, earlyHistory);
+
+		for (String message : List.of("hello", "join my discord", "trust me")) {
+			plain.process(MessageEvent.from("Player123", message, 100L, MessageContext.GENERAL, "public"), text -> {
+			}, () -> {
+			});
+			early.process(MessageEvent.from("Player123", message, 100L, MessageContext.GENERAL, "public"), text -> {
+			}, () -> {
+			});
+		}
+
+		assertEquals(3, earlyHistory.size());
+		assertEquals(plainHistory, earlyHistory);
+		assertEquals(List.of("BOOST", "LEV"), earlyHistory.get(0));
+		assertEquals(0L, skipped(plain, "ai"));
+		assertEquals(0L, skipped(early, "lev"));
+		assertEquals(3L, skipped(early, "ai"));
+	}
+
+	@Test
+	void contextScoreSumsCollectedSignalWeights() {
+		PipelineContext context = new PipelineContext(MessageEvent.from("Player123", "hello", 100L, MessageContext.GENERAL, "public"));
+
+		context.addSignals(List.of(signal(20.0), signal(15.5)));
+		context.addSignals(List.of());
+
+		assertEquals(35.5, context.score(), 0.001);
+		assertEquals(2, context.signals().size());
+	}
+
+	@Test
+	void contextBudgetRunsOutAndTracksTruncatedStages() throws InterruptedException {
+		MessageEvent event = MessageEvent.from("Player123", "hello", 100L, MessageContext.GENERAL, "public");
+		PipelineContext unlimited = new PipelineContext(event, 0L);
+		PipelineContext tight = new PipelineContext(event, 1_000L);
+		Thread.sleep(1L);
+
+		assertFalse(unlimited.budgetExhausted());
+		assertEquals(Long.MAX_VALUE, unlimited.remainingNanos());
+		assertTrue(tight.budgetExhausted());
+		assertEquals(0L, tight.remainingNanos());
+
+		tight.markCompleted("rule");
+		tight.markTruncated("levenshtein");
+		tight.markTruncated("levenshtein");
+		assertEquals(List.of("rule"), tight.completedStages());
+		assertEquals(List.of("levenshtein"), tight.truncatedStages());
+		assertTrue(tight.isTruncated("levenshtein"));
+	}
+
+	@Test
+	void stageMetricsCountRunsAndSkips() {
+		StageMetrics metrics = new StageMetrics();
+		Stage stage = stage("a");
+		PipelineContext context = new PipelineContext(MessageEvent.from("Player123", "hello", 100L, MessageContext.GENERAL, "public"));
+
+		metrics.measure(stage, context);
+		metrics.measure(stage, context);
+		metrics.recordSkipped("a");
+		metrics.recordBudgetExhausted("a");
+
+		StageMetrics.StageStats stats = metrics.snapshot().get(0);
+		assertEquals("a", stats.stageId());
+		assertEquals(2, stats.runs());
+		assertEquals(1, stats.skipped());
+		assertEquals(1, stats.budgetExhausted());
+		assertTrue(stats.totalNanos() >= 0);
+		assertTrue(stats.allocatedBytes() >= 0);
+	}
+
+	/**
+	 * boost pushes the score to CRITICAL, lev is expensive and stateless, funnel records the signal
+	 * ids it sees (standing in for funnel history) and ai is expensive and runs last.
+	 */
+	private static DetectionPipeline pipeline(boolean earlyExit, List<List<String>> funnelHistory) {
+		RuleConfig defaults = new DefaultRuleConfig();
+		RuleConfig config = new RuleConfig() {
+			@Override
+			public ScamRules.PatternSet patterns() {
+				return defaults.patterns();
+			}
+
+			@Override
+			public ScamRules.BehaviorPatternSet behaviorPatterns() {
+				return defaults.behaviorPatterns();
+			}
+
+			@Override
+			public boolean isEnabled(ScamRules.ScamRule rule) {
+				return defaults.isEnabled(rule);
+			}
+
+			@Override
+			public ScamRules.FunnelConfig funnelConfig() {
+				return defaults.funnelConfig();
+			}
+
+			@Override
+			public boolean earlyExitEnabled() {
+				return earlyExit;
+			}
+		};
+		DetectionPipelineBuilder builder = new DetectionPipelineBuilder(null, null, config);
+		for (Stage registered : builder.stages()) {
+			builder.remove(registered.id());
+		}
+		return builder
+			.add(signalStage("boost", StageCost.CHEAP, new Signal("BOOST", SignalSource.BEHAVIOR, 100.0, "", null, List.of())))
+			.add(signalStage("lev", StageCost.EXPENSIVE, new Signal("LEV", SignalSource.BEHAVIOR, 5.0, "", null, List.of())))
+			.add(new Stage() {
+				@Override
+				public String id() {
+					return "funnel";
+				}
+
+				@Override
+				public StageCost cost() {
+					return StageCost.CHEAP;
+				}
+
+				@Override
+				public boolean stateful() {
+					return true;
+				}
+
+				@Override
+				public void apply(PipelineContext context) {
+					funnelHistory.add(context.signals().stream().map(Signal::id).toList());
+				}
+			})
+			.add(signalStage("ai", StageCost.EXPENSIVE, new Signal("AI", SignalSource.BEHAVIOR, 5.0, "", null, List.of())))
+			.build();
+	}
+
+	private static long skipped(DetectionPipeline pipeline, String stageId) {
+		return pipeline.stageStats().stream()
+			.filter(stats -> stats.stageId().equals(stageId))
+			.mapToLong(StageMetrics.StageStats::skipped)
+			.sum();
+	}
+
+	private static Stage signalStage(String id, StageCost cost, Signal signal) {
+		return new Stage() {
+			@Override
+			public String id() {
+				return id;
+			}
+
+			@Override
+			public StageCost cost() {
+				return cost;
+			}
+
+			@Override
+			public void apply(PipelineContext context) {
+				context.addSignals(List.of(signal));
+			}
+		};
+	}
+
+	private static Signal signal(double weight) {
+		return new Signal("TEST", SignalSource.RULE, weight, "", ScamRules.ScamRule.SUSPICIOUS_LINK, List.of());
+	}
+
+	private static Stage stage(String id) {
+		return stage(id, StageCost.CHEAP, false);
+	}
+
+	private static Stage stage(String id, StageCost cost, boolean stateful) {
+		return new Stage() {
+			@Override
+			public String id() {
+				return id;
+			}
+
+			@Override
+			public StageCost cost() {
+				return cost;
+			}
+
+			@Override
+			public boolean stateful() {
+				return stateful;
+			}
+
+			@Override
+			public void apply(PipelineContext context) {
+			}
+		};
+	}
+}
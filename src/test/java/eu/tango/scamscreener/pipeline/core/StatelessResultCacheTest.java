@@ -0,0 +1,77 @@
+package eu.tango.scamscreener.pipeline.core;
+
+import eu.tango.scamscreener.pipeline.model.Signal;
+import eu.tango.scamscreener.pipeline.model.SignalSource;
+import eu.tango.scamscreener.rules.ScamRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatelessResultCacheTest {
+	private static final Signal LINK = new Signal(
+		ScamRules.ScamRule.SUSPICIOUS_LINK.name(),
+		SignalSource.RULE,
+		20,
+		"link",
+		ScamRules.ScamRule.SUSPICIOUS_LINK,
+		List.of()
+	);
+
+	@Test
+	void repeatedMessageHitsTheSameEntry() {
+		StatelessResultCache cache = new StatelessResultCache(8);
+		StatelessResultCache.Entry first = cache.lookup("join my island", 0L);
+		first.ruleSignals(List.of(LINK));
+
+		StatelessResultCache.Entry second = cache.lookup("join my island", 0L);
+
+		assertSame(first, second);
+		assertEquals(List.of(LINK), second.ruleSignals());
+		assertEquals(1L, cache.hits());
+		assertEquals(1L, cache.misses());
+		assertEquals(0.5, cache.hitRate(), 1e-9);
+	}
+
+	@Test
+	void generationChangeInvalidatesEntries() {
+		StatelessResultCache cache = new StatelessResultCache(8);
+		cache.lookup("join my island", 0L).ruleSignals(List.of(LINK));
+
+		StatelessResultCache.Entry reloaded = cache.lookup("join my island", 1L);
+
+		assertNull(reloaded.ruleSignals());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		StatelessResultCache cache = new StatelessResultCache(2);
+		StatelessResultCache.Entry a = cache.lookup("a", 0L);
+		cache.lookup("b", 0L);
+		cache.lookup("a", 0L);
+		cache.lookup("c", 0L);
+
+		assertSame(a, cache.lookup("a", 0L));
+		assertEquals(2, cache.size());
+		cache.lookup("b", 0L);
+		assertEquals(2L, cache.hits());
+		assertEquals(4L, cache.misses());
+	}
+
+	@Test
+	void partsAreScopedToTheirOwnStamps() {
+		StatelessResultCache.Entry entry = new StatelessResultCache(4).lookup("msg", 0L);
+		entry.similaritySignals(List.of(LINK), 10L);
+		entry.aiTokenScore(0.75, 3L);
+
+		assertEquals(List.of(LINK), entry.similaritySignals(10L));
+		assertNull(entry.similaritySignals(11L));
+		assertEquals(0.75, entry.aiTokenScore(3L), 1e-9);
+		assertTrue(Double.isNaN(entry.aiTokenScore(4L)));
+	}
+}
@@ -32,6 +32,18 @@ class WarningDeduplicatorTest {
 		));
 	}
 
+	@Test
+	void hasWarnedDoesNotConsumeTheWarning() {
+		WarningDeduplicator deduplicator = new WarningDeduplicator();
+		MessageEvent event = MessageEvent.from("Player123", "hello", 100L, MessageContext.GENERAL, "public");
+
+		assertFalse(deduplicator.hasWarned(event, DetectionLevel.CRITICAL));
+		assertFalse(deduplicator.hasWarned(event, DetectionLevel.CRITICAL));
+		assertTrue(deduplicator.shouldWarn(event, DetectionLevel.CRITICAL));
+		assertTrue(deduplicator.hasWarned(event, DetectionLevel.CRITICAL));
+		assertFalse(deduplicator.hasWarned(event, DetectionLevel.HIGH));
+	}
+
 	@Test
 	void resetClearsSeenEntries() {
 		WarningDeduplicator deduplicator = new WarningDeduplicator();
@@ -0,0 +1,72 @@
+package eu.tango.scamscreener.pipeline.stage;
+
+import eu.tango.scamscreener.ai.LocalAiScorer;
+import eu.tango.scamscreener.pipeline.core.AiScorer;
+import eu.tango.scamscreener.pipeline.core.DefaultRuleConfig;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
+import eu.tango.scamscreener.pipeline.model.BehaviorAnalysis;
+import eu.tango.scamscreener.pipeline.model.MessageContext;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiContextStageTest {
+	@Test
+	void trackingAdvancesWhenTheScoringStageIsSkipped() {
+		AiScorer scorer = new AiScorer(new LocalAiScorer(), new DefaultRuleConfig());
+		AiContextStage stage = new AiContextStage(scorer);
+
+		PipelineContext first = context("hello there", 1_000L);
+		stage.apply(first);
+		PipelineContext second = context("still there?", 4_000L);
+		stage.apply(second);
+
+		assertNotNull(second.aiTracking());
+		assertEquals(3_000L, second.aiTracking().deltaMillis());
+	}
+
+	@Test
+	void scoringReusesTheTrackingOfItsEvent() {
+		AiScorer scorer = new AiScorer(new LocalAiScorer(), new DefaultRuleConfig());
+		AiContextStage stage = new AiContextStage(scorer);
+		AiSignalStage scoring = new AiSignalStage(scorer);
+
+		PipelineContext first = context("hello there", 1_000L);
+		stage.apply(first);
+		scoring.apply(first);
+		stage.apply(first);
+		PipelineContext second = context("still there?", 1_500L);
+		scoring.apply(second);
+
+		assertEquals(0L, first.aiTracking().deltaMillis());
+		assertEquals(500L, second.aiTracking().deltaMillis());
+	}
+
+	@Test
+	void resetClearsTheMessageGapHistory() {
+		AiScorer scorer = new AiScorer(new LocalAiScorer(), new DefaultRuleConfig());
+		AiContextStage stage = new AiContextStage(scorer);
+		stage.apply(context("hello there", 1_000L));
+
+		stage.reset();
+		PipelineContext afterReset = context("hello again", 2_000L);
+		stage.apply(afterReset);
+
+		assertEquals(0L, afterReset.aiTracking().deltaMillis());
+		assertTrue(stage.stateful());
+		assertFalse(new AiSignalStage(scorer).stateful());
+	}
+
+	private static PipelineContext context(String message, long timestampMs) {
+		MessageEvent event = MessageEvent.from("Trader123", message, timestampMs, MessageContext.GENERAL, "public");
+		PipelineContext context = new PipelineContext(event);
+		context.setAnalysis(new BehaviorAnalysis(message, event.normalizedMessage(), false, false, false, false, 0, List.of()));
+		return context;
+	}
+}
@@ -121,6 +121,27 @@ class FunnelSignalStageTest {
 		assertTrue(tagging.tags().contains(IntentTag.PAYMENT_UPFRONT));
 	}
 
+	@Test
+	void textIntentIsReusedWhenSignalsArriveLater() {
+		IntentTagger tagger = new IntentTagger(new EnabledRuleConfig());
+		MessageEvent event = MessageEvent.from("Trader", "check this discord.gg link", 3_000L, MessageContext.GENERAL, "public");
+		Signal link = new Signal(
+			ScamRules.ScamRule.SUSPICIOUS_LINK.name(),
+			SignalSource.RULE,
+			20,
+			"link",
+			ScamRules.ScamRule.SUSPICIOUS_LINK,
+			List.of()
+		);
+
+		IntentTagger.TextIntent text = tagger.analyzeText(event);
+		IntentTagger.TaggingResult combined = tagger.combine(text, List.of(link));
+
+		assertEquals(tagger.tag(event, List.of(link)), combined);
+		assertTrue(combined.has(IntentTag.PLATFORM_REDIRECT));
+		assertEquals(1 << IntentTag.PLATFORM_REDIRECT.ordinal(), combined.mask() & (1 << IntentTag.PLATFORM_REDIRECT.ordinal()));
+	}
+
 	@Test
 	void legitCarryAdsWithoutRedirectOrInstructionDoNotTriggerFunnel() {
 		FunnelHarness harness = new FunnelHarness("Trader123");
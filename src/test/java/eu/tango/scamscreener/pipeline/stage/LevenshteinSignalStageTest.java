@@ -0,0 +1,117 @@
+package eu.tango.scamscreener.pipeline.stage;
+
+import eu.tango.scamscreener.config.ScamRulesConfig;
+import eu.tango.scamscreener.pipeline.core.DefaultRuleConfig;
+import eu.tango.scamscreener.pipeline.core.PipelineContext;
+import eu.tango.scamscreener.pipeline.core.RuleConfig;
+import eu.tango.scamscreener.pipeline.model.MessageContext;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.pipeline.model.Signal;
+import eu.tango.scamscreener.rules.ScamRules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevenshteinSignalStageTest {
+	private static final String[] WORDS = {
+		"hey", "selling", "buying", "carry", "dungeon", "floor", "seven", "coins", "mil", "per", "run",
+		"anyone", "want", "trade", "hyperion", "necron", "armor", "cheap", "price", "lowballing", "island",
+		"visit", "my", "auction", "house", "bazaar", "flip", "slayer", "boss", "party", "join", "guild",
+		"looking", "for", "members", "skill", "average", "catacombs", "level", "need", "help", "with"
+	};
+	private static final String TARGET = "hey i am giving away free coins just send me your login details on discord and i will transfer";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void defaultConfigFindsSimilarityMatchInRealisticTrainingFile() throws IOException {
+		// The matching scam sample is the oldest line, so the whole file has to be scanned.
+		Path trainingFile = writeTrainingFile(false);
+		RuleConfig ruleConfig = new DefaultRuleConfig();
+		LevenshteinSignalStage stage = new LevenshteinSignalStage(ruleConfig, trainingFile);
+		PipelineContext context = new PipelineContext(event(), ruleConfig.stageBudgetNanos());
+
+		stage.apply(context);
+
+		assertEquals(0, ScamRulesConfig.DEFAULT_PIPELINE_BUDGET_MICROS);
+		assertTrue(hasSimilarityMatch(context.signals()));
+		assertFalse(context.isTruncated(LevenshteinSignalStage.ID));
+	}
+
+	@Test
+	void exhaustedBudgetKeepsTheBestMatchOfThePartialScan() throws IOException, InterruptedException {
+		// The matching scam sample is the newest line, which is always compared.
+		Path trainingFile = writeTrainingFile(true);
+		LevenshteinSignalStage stage = new LevenshteinSignalStage(new DefaultRuleConfig(), trainingFile);
+		PipelineContext context = new PipelineContext(event(), 1_000L);
+		Thread.sleep(1L);
+
+		stage.apply(context);
+
+		assertTrue(context.isTruncated(LevenshteinSignalStage.ID));
+		assertTrue(hasSimilarityMatch(context.signals()));
+	}
+
+	/**
+	 * Writes 250 scam and 250 legit rows of 40-160 chars, oldest first, with the target as the
+	 * oldest or the newest scam row.
+	 */
+	private Path writeTrainingFile(boolean targetNewest) throws IOException {
+		Random random = new Random(42L);
+		List<String> lines = new ArrayList<>();
+		lines.add("message,label,window_id,window_label,channel,delta_ms");
+		int rows = 2 * ScamRulesConfig.DEFAULT_SIMILARITY_MAX_TRAINING_SAMPLES;
+		int targetRow = targetNewest ? rows - 1 : 1;
+		for (int i = 0; i < rows; i++) {
+			int label = i % 2;
+			String message = i == targetRow ? TARGET : randomMessage(random);
+			lines.add("\"" + message + "\"," + label + ",w" + i + "," + label + ",public," + random.nextInt(5_000));
+		}
+		Path file = tempDir.resolve("scam-screener-training-data.csv");
+		Files.write(file, lines, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private static String randomMessage(Random random) {
+		StringBuilder message = new StringBuilder();
+		int length = 40 + random.nextInt(121);
+		while (message.length() < length) {
+			if (message.length() > 0) {
+				message.append(' ');
+			}
+			message.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return message.toString();
+	}
+
+	private static MessageEvent event() {
+		return MessageEvent.from(
+			"Trader123",
+			"hey im giving away free coins just send me your login details on discord and i will transfer",
+			1_000L,
+			MessageContext.GENERAL,
+			"public"
+		);
+	}
+
+	private static boolean hasSimilarityMatch(List<Signal> signals) {
+		for (Signal signal : signals) {
+			if (signal.ruleId() == ScamRules.ScamRule.SIMILARITY_MATCH) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
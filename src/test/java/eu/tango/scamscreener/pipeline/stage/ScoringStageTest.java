@@ -0,0 +1,88 @@
+package eu.tango.scamscreener.pipeline.stage;
+
+import eu.tango.scamscreener.pipeline.core.ScoreAccumulator;
+import eu.tango.scamscreener.pipeline.model.DetectionResult;
+import eu.tango.scamscreener.pipeline.model.MessageContext;
+import eu.tango.scamscreener.pipeline.model.MessageEvent;
+import eu.tango.scamscreener.pipeline.model.Signal;
+import eu.tango.scamscreener.pipeline.model.SignalSource;
+import eu.tango.scamscreener.rules.ScamRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringStageTest {
+	private static final MessageEvent EVENT = MessageEvent.from("Trader123", "pay first then trust me", 100L, MessageContext.GENERAL, "public");
+
+	@Test
+	void evidenceIsRenderedOnlyWhenRequested() {
+		AtomicInteger renders = new AtomicInteger();
+		Signal signal = new Signal(
+			ScamRules.ScamRule.UPFRONT_PAYMENT.name(),
+			SignalSource.RULE,
+			25,
+			() -> "rendered #" + renders.incrementAndGet(),
+			ScamRules.ScamRule.UPFRONT_PAYMENT,
+			List.of()
+		);
+
+		DetectionResult result = new ScoringStage().score(EVENT, List.of(signal));
+
+		assertEquals(0, renders.get());
+		assertTrue(result.ruleEvidence().containsKey(ScamRules.ScamRule.UPFRONT_PAYMENT));
+		assertEquals("rendered #1", result.triggeredRules().get(ScamRules.ScamRule.UPFRONT_PAYMENT));
+	}
+
+	@Test
+	void evidenceOfTheSameRuleIsJoinedAndBlankEvidenceIsDropped() {
+		Signal first = new Signal("a", SignalSource.RULE, 10, "first", ScamRules.ScamRule.TRUST_MANIPULATION, List.of());
+		Signal second = new Signal("b", SignalSource.RULE, 10, () -> "second", ScamRules.ScamRule.TRUST_MANIPULATION, List.of());
+		Signal blank = new Signal("c", SignalSource.RULE, 5, "", ScamRules.ScamRule.SUSPICIOUS_LINK, List.of());
+
+		DetectionResult result = new ScoringStage().score(EVENT, List.of(first, second, blank));
+
+		assertEquals(25.0, result.totalScore(), 1e-9);
+		assertEquals("first\nsecond", result.triggeredRules().get(ScamRules.ScamRule.TRUST_MANIPULATION));
+		assertEquals(1, result.ruleEvidence().size());
+	}
+
+	@Test
+	void lazyEvidenceThatRendersBlankCountsAsNoEvidence() {
+		Signal blankLazy = new Signal("a", SignalSource.RULE, 40, () -> "  ", ScamRules.ScamRule.UPFRONT_PAYMENT, List.of());
+		Signal joined = new Signal("b", SignalSource.RULE, 10, () -> "", ScamRules.ScamRule.TRUST_MANIPULATION, List.of());
+		Signal shown = new Signal("c", SignalSource.RULE, 10, () -> "trust me", ScamRules.ScamRule.TRUST_MANIPULATION, List.of());
+		ScoreAccumulator onlyBlank = new ScoreAccumulator();
+		onlyBlank.add(blankLazy);
+
+		assertFalse(onlyBlank.hasRuleEvidence());
+		assertTrue(new ScoringStage().score(EVENT, List.of(blankLazy)).triggeredRules().isEmpty());
+
+		DetectionResult result = new ScoringStage().score(EVENT, List.of(blankLazy, joined, shown));
+		assertEquals(1, result.triggeredRules().size());
+		assertEquals("trust me", result.triggeredRules().get(ScamRules.ScamRule.TRUST_MANIPULATION));
+	}
+
+	@Test
+	void accumulatorTracksRulesSourcesAndConversationCap() {
+		ScoreAccumulator accumulator = new ScoreAccumulator();
+		accumulator.add(new Signal("rule", SignalSource.RULE, 70, "link", ScamRules.ScamRule.SUSPICIOUS_LINK, List.of()));
+		accumulator.add(new Signal("bonus", SignalSource.RULE, 5, "", null, List.of()));
+
+		assertEquals(75.0, accumulator.cappedTotal(), 1e-9);
+		assertTrue(accumulator.hasSource(SignalSource.RULE));
+		assertFalse(accumulator.hasSource(SignalSource.TREND));
+
+		accumulator.add(new Signal("trend", SignalSource.TREND, 40, "trend", ScamRules.ScamRule.MULTI_MESSAGE_PATTERN, List.of()));
+
+		assertEquals(115.0, accumulator.total(), 1e-9);
+		assertEquals(100.0, accumulator.cappedTotal(), 1e-9);
+		assertEquals(70.0, accumulator.ruleScore(ScamRules.ScamRule.SUSPICIOUS_LINK), 1e-9);
+		assertTrue(accumulator.hasRule(ScamRules.ScamRule.MULTI_MESSAGE_PATTERN));
+		assertEquals(100.0, new ScoringStage().materialize(EVENT, accumulator, List.of(), List.of()).totalScore(), 1e-9);
+	}
+}
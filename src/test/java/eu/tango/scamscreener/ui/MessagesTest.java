@@ -86,6 +86,9 @@ class MessagesTest {
 		if (type == int.class || type == Integer.class) {
 			return 1;
 		}
+		if (type == double.class || type == Double.class) {
+			return 0.5;
+		}
 		if (type == boolean.class || type == Boolean.class) {
 			return true;
 		}
@@ -0,0 +1,49 @@
+package eu.tango.scamscreener.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatternCacheTest {
+	@BeforeEach
+	void setUp() {
+		PatternCache.clear();
+	}
+
+	@Test
+	void sameSourceAndFlagsReturnCachedPattern() {
+		Pattern first = PatternCache.compile("\\b(free|giveaway)\\b", 0);
+		Pattern second = PatternCache.compile("\\b(free|giveaway)\\b", 0);
+
+		assertSame(first, second);
+		PatternCache.Stats stats = PatternCache.stats();
+		assertEquals(1, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(stats.compileNanos(), stats.savedNanos());
+	}
+
+	@Test
+	void flagsArePartOfTheKey() {
+		Pattern plain = PatternCache.compile("discord", 0);
+		Pattern insensitive = PatternCache.compile("discord", Pattern.CASE_INSENSITIVE);
+
+		assertNotSame(plain, insensitive);
+		assertEquals(Pattern.CASE_INSENSITIVE, insensitive.flags());
+		assertEquals(2, PatternCache.stats().size());
+	}
+
+	@Test
+	void invalidSourceThrowsAndIsNotCached() {
+		assertThrows(PatternSyntaxException.class, () -> PatternCache.compile("(unclosed", 0));
+		assertThrows(PatternSyntaxException.class, () -> PatternCache.compile(null, 0));
+
+		assertEquals(0, PatternCache.stats().size());
+	}
+}